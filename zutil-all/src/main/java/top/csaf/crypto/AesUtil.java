@@ -6,6 +6,9 @@ import top.csaf.crypto.enums.EncodingType;
 import top.csaf.crypto.enums.Mode;
 import top.csaf.crypto.enums.Padding;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * AES 加解密工具类
  * <p>
@@ -14,8 +17,6 @@ import top.csaf.crypto.enums.Padding;
  */
 public class AesUtil {
 
-  private static final BlockCipher.Builder BUILDER = BlockCipher.builder(BlockCipherType.AES);
-
   /**
    * 加密
    *
@@ -30,14 +31,7 @@ public class AesUtil {
    * @return 密文
    */
   public static String encrypt(String data, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
-    BlockCipher.Builder builder = BUILDER;
-    if (keyEncoding != null) {
-      builder.keyEncoding(keyEncoding);
-    }
-    if (ivEncoding != null) {
-      builder.ivEncoding(ivEncoding);
-    }
-    return builder.build().encrypt(data, key, iv, mode, padding, encoding);
+    return BlockCipher.shared(BlockCipherType.AES, keyEncoding, ivEncoding).encrypt(data, key, iv, mode, padding, encoding);
   }
 
   /**
@@ -159,14 +153,7 @@ public class AesUtil {
    * @return 明文
    */
   public static String decrypt(String encryptedData, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
-    BlockCipher.Builder builder = BUILDER;
-    if (keyEncoding != null) {
-      builder.keyEncoding(keyEncoding);
-    }
-    if (ivEncoding != null) {
-      builder.ivEncoding(ivEncoding);
-    }
-    return builder.build().decrypt(encryptedData, key, iv, mode, padding, encoding);
+    return BlockCipher.shared(BlockCipherType.AES, keyEncoding, ivEncoding).decrypt(encryptedData, key, iv, mode, padding, encoding);
   }
 
   /**
@@ -273,4 +260,74 @@ public class AesUtil {
   public static String decryptHex(String encryptedData, @NonNull String key, String iv, @NonNull Mode mode, @NonNull Padding padding) {
     return decrypt(encryptedData, key, iv, mode, padding, EncodingType.HEX);
   }
+
+  /**
+   * 批量加密，密钥和初始化向量只解码一次，复用同一个 Cipher，比逐个调用 {@link #encrypt(String, String, EncodingType, String, EncodingType, Mode, Padding, EncodingType)} 更快
+   *
+   * @param data        明文列表，元素为 null 时结果也为 null
+   * @param key         密钥
+   * @param keyEncoding 密钥编码
+   * @param iv          初始化向量
+   * @param ivEncoding  初始化向量编码
+   * @param mode        加密模式
+   * @param padding     填充方式
+   * @param encoding    编码类型
+   * @return 密文列表，顺序与明文一致
+   */
+  public static List<String> encryptAll(@NonNull List<String> data, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
+    return BlockCipher.shared(BlockCipherType.AES, keyEncoding, ivEncoding).encryptAll(data, key, iv, mode, padding, encoding, null);
+  }
+
+  /**
+   * 批量加密，按每 1024 个元素一个任务提交到线程池并行处理
+   *
+   * @param data        明文列表，元素为 null 时结果也为 null
+   * @param key         密钥
+   * @param keyEncoding 密钥编码
+   * @param iv          初始化向量
+   * @param ivEncoding  初始化向量编码
+   * @param mode        加密模式
+   * @param padding     填充方式
+   * @param encoding    编码类型
+   * @param executor    线程池
+   * @return 密文列表，顺序与明文一致
+   */
+  public static List<String> encryptAll(@NonNull List<String> data, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding, @NonNull Executor executor) {
+    return BlockCipher.shared(BlockCipherType.AES, keyEncoding, ivEncoding).encryptAll(data, key, iv, mode, padding, encoding, executor);
+  }
+
+  /**
+   * 批量解密，密钥和初始化向量只解码一次，复用同一个 Cipher
+   *
+   * @param encryptedData 密文列表，元素为 null 时结果也为 null
+   * @param key           密钥
+   * @param keyEncoding   密钥编码
+   * @param iv            初始化向量
+   * @param ivEncoding    初始化向量编码
+   * @param mode          加密模式
+   * @param padding       填充方式
+   * @param encoding      编码类型
+   * @return 明文列表，顺序与密文一致
+   */
+  public static List<String> decryptAll(@NonNull List<String> encryptedData, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
+    return BlockCipher.shared(BlockCipherType.AES, keyEncoding, ivEncoding).decryptAll(encryptedData, key, iv, mode, padding, encoding, null);
+  }
+
+  /**
+   * 批量解密，按每 1024 个元素一个任务提交到线程池并行处理
+   *
+   * @param encryptedData 密文列表，元素为 null 时结果也为 null
+   * @param key           密钥
+   * @param keyEncoding   密钥编码
+   * @param iv            初始化向量
+   * @param ivEncoding    初始化向量编码
+   * @param mode          加密模式
+   * @param padding       填充方式
+   * @param encoding      编码类型
+   * @param executor      线程池
+   * @return 明文列表，顺序与密文一致
+   */
+  public static List<String> decryptAll(@NonNull List<String> encryptedData, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding, @NonNull Executor executor) {
+    return BlockCipher.shared(BlockCipherType.AES, keyEncoding, ivEncoding).decryptAll(encryptedData, key, iv, mode, padding, encoding, executor);
+  }
 }
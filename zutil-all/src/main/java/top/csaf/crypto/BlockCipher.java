@@ -11,18 +11,17 @@ import top.csaf.crypto.enums.BlockCipherType;
 import top.csaf.crypto.enums.EncodingType;
 import top.csaf.crypto.enums.Mode;
 import top.csaf.crypto.enums.Padding;
+import top.csaf.crypto.enums.ProviderPolicy;
 import top.csaf.lang.NumberUtil;
 import top.csaf.lang.StrUtil;
 
-import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
-import javax.crypto.IllegalBlockSizeException;
-import javax.crypto.NoSuchPaddingException;
-import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.security.*;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * 对称加密-分组密码
@@ -56,8 +55,21 @@ public class BlockCipher {
    * 初始化向量编码，为 null 时不做编码转换
    */
   private EncodingType ivEncoding;
+  /**
+   * JCE 提供者选择策略，为 null 时使用 {@link #getDefaultProviderPolicy()}
+   */
+  private ProviderPolicy providerPolicy;
+
+  /**
+   * 未指定 {@link #providerPolicy} 时的提供者选择策略，默认 {@link ProviderPolicy#PREFER_JDK}
+   */
+  private static volatile ProviderPolicy defaultProviderPolicy = ProviderPolicy.PREFER_JDK;
 
   public BlockCipher(BlockCipherType type, Integer keyLength, Integer ivLength, EncodingType keyEncoding, EncodingType ivEncoding) {
+    this(type, keyLength, ivLength, keyEncoding, ivEncoding, null);
+  }
+
+  public BlockCipher(BlockCipherType type, Integer keyLength, Integer ivLength, EncodingType keyEncoding, EncodingType ivEncoding, ProviderPolicy providerPolicy) {
     if (StrUtil.isBlank(type)) {
       throw new IllegalArgumentException("type must not be blank");
     }
@@ -103,6 +115,25 @@ public class BlockCipher {
     this.type = type;
     this.keyEncoding = keyEncoding;
     this.ivEncoding = ivEncoding;
+    this.providerPolicy = providerPolicy;
+  }
+
+  /**
+   * 获取未指定提供者选择策略时使用的策略
+   *
+   * @return 提供者选择策略
+   */
+  public static ProviderPolicy getDefaultProviderPolicy() {
+    return defaultProviderPolicy;
+  }
+
+  /**
+   * 设置未指定提供者选择策略时使用的策略，对之后创建的 Cipher 生效（包括 AesUtil 等工具类）
+   *
+   * @param providerPolicy 提供者选择策略
+   */
+  public static void setDefaultProviderPolicy(@NonNull final ProviderPolicy providerPolicy) {
+    defaultProviderPolicy = providerPolicy;
   }
 
   /**
@@ -114,6 +145,7 @@ public class BlockCipher {
     private Integer ivLength;
     private EncodingType keyEncoding;
     private EncodingType ivEncoding;
+    private ProviderPolicy providerPolicy;
 
     private Builder() {
     }
@@ -147,8 +179,13 @@ public class BlockCipher {
       return this;
     }
 
+    public Builder providerPolicy(ProviderPolicy providerPolicy) {
+      this.providerPolicy = providerPolicy;
+      return this;
+    }
+
     public BlockCipher build() {
-      return new BlockCipher(type, keyLength, ivLength, keyEncoding, ivEncoding);
+      return new BlockCipher(type, keyLength, ivLength, keyEncoding, ivEncoding, providerPolicy);
     }
   }
 
@@ -160,6 +197,39 @@ public class BlockCipher {
     return new Builder();
   }
 
+  /**
+   * 各算法默认密钥和初始化向量长度的共享实例，下标依次为算法、密钥编码、初始化向量编码（编码为 null 时下标为 0），类加载时一次创建，查找无锁
+   */
+  private static final BlockCipher[][][] SHARED = new BlockCipher[BlockCipherType.values().length][EncodingType.values().length + 1][EncodingType.values().length + 1];
+
+  static {
+    for (BlockCipherType type : BlockCipherType.values()) {
+      for (int keyIndex = 0; keyIndex <= EncodingType.values().length; keyIndex++) {
+        for (int ivIndex = 0; ivIndex <= EncodingType.values().length; ivIndex++) {
+          SHARED[type.ordinal()][keyIndex][ivIndex] = new BlockCipher(type, null, null, encodingOf(keyIndex), encodingOf(ivIndex));
+        }
+      }
+    }
+  }
+
+  /**
+   * 获取共享实例，供工具类静态方法使用
+   * <p>
+   * 共享实例不对外暴露，创建后不再修改，多线程并发使用安全
+   *
+   * @param type        加解密算法
+   * @param keyEncoding 密钥编码，为 null 时不做编码转换
+   * @param ivEncoding  初始化向量编码，为 null 时不做编码转换
+   * @return 使用默认长度的实例
+   */
+  static BlockCipher shared(@NonNull final BlockCipherType type, final EncodingType keyEncoding, final EncodingType ivEncoding) {
+    return SHARED[type.ordinal()][keyEncoding == null ? 0 : keyEncoding.ordinal() + 1][ivEncoding == null ? 0 : ivEncoding.ordinal() + 1];
+  }
+
+  private static EncodingType encodingOf(final int index) {
+    return index == 0 ? null : EncodingType.values()[index - 1];
+  }
+
   /**
    * 检查明文或密文
    * <p>
@@ -216,6 +286,71 @@ public class BlockCipher {
     return new String(encryptOrDecrypt(ciphertext instanceof String ? decode((String) ciphertext, encoding) : (byte[]) ciphertext, key, iv, mode, padding, Cipher.DECRYPT_MODE));
   }
 
+  /**
+   * 批量加密，密钥和初始化向量只解码一次，每个任务复用一个 Cipher，结束后不在线程池的线程中缓存
+   * <p>
+   * 结果与逐个调用 encrypt 一致，GCM 等认证加密模式下每个元素使用新初始化的 Cipher
+   *
+   * @param plaintexts 明文列表，元素为 null 时结果也为 null
+   * @param key        密钥
+   * @param iv         初始化向量
+   * @param mode       加密模式
+   * @param padding    填充方式
+   * @param encoding   密文编码
+   * @param executor   执行加密任务的线程池，为 null 时在当前线程处理
+   * @return 密文列表，顺序与明文一致
+   */
+  protected List<String> encryptAll(@NonNull List<String> plaintexts, @NonNull Object key, Object iv, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding, Executor executor) {
+    CipherSession session = oneShotSession(key, iv, mode, padding);
+    return executor == null ? session.encryptAll(plaintexts, encoding) : session.encryptAll(plaintexts, encoding, executor);
+  }
+
+  /**
+   * 批量解密，密钥和初始化向量只解码一次，每个任务复用一个 Cipher，结束后不在线程池的线程中缓存
+   *
+   * @param ciphertexts 密文列表，元素为 null 时结果也为 null
+   * @param key         密钥
+   * @param iv          初始化向量
+   * @param mode        加密模式
+   * @param padding     填充方式
+   * @param encoding    密文编码
+   * @param executor    执行解密任务的线程池，为 null 时在当前线程处理
+   * @return 明文列表，顺序与密文一致
+   */
+  protected List<String> decryptAll(@NonNull List<String> ciphertexts, @NonNull Object key, Object iv, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding, Executor executor) {
+    CipherSession session = oneShotSession(key, iv, mode, padding);
+    return executor == null ? session.decryptAll(ciphertexts, encoding) : session.decryptAll(ciphertexts, encoding, executor);
+  }
+
+  /**
+   * 创建绑定了密钥、初始化向量、加密模式和填充方式的加解密会话，同一密钥反复加解密时使用
+   * <p>
+   * 与 {@link #encrypt(Object, Object, Object, Mode, Padding, EncodingType)} 结果一致，但密钥和初始化向量只解码一次，
+   * 且每个线程复用已初始化的 {@link Cipher}
+   *
+   * @param key     密钥
+   * @param iv      初始化向量，ECB 模式下忽略
+   * @param mode    加密模式
+   * @param padding 填充方式
+   * @return 加解密会话
+   */
+  public CipherSession session(@NonNull Object key, Object iv, @NonNull Mode mode, @NonNull Padding padding) {
+    return new CipherSession(spec(key, iv, mode, padding), mode, padding, this.keyLength);
+  }
+
+  /**
+   * 创建只用一次的会话，不在任何线程中缓存 Cipher，用完即可回收
+   *
+   * @param key     密钥
+   * @param iv      初始化向量，ECB 模式下忽略
+   * @param mode    加密模式
+   * @param padding 填充方式
+   * @return 加解密会话
+   */
+  private CipherSession oneShotSession(final Object key, final Object iv, final Mode mode, final Padding padding) {
+    return new CipherSession(spec(key, iv, mode, padding), mode, padding, this.keyLength, false);
+  }
+
   /**
    * 根据填充方式和加密模式加解密
    *
@@ -229,18 +364,27 @@ public class BlockCipher {
    */
   private byte[] encryptOrDecrypt(byte @NonNull [] data, @NonNull Object key, Object iv, @NonNull Mode mode, @NonNull Padding padding, int cipherMode) {
     try {
-      SecretKeySpec keySpec = new SecretKeySpec(decodeAndPad(key, this.keyEncoding, this.keyLength), this.type.getValue());
-      IvParameterSpec ivSpec = "ECB".equals(mode.getValue()) ? null : new IvParameterSpec(decodeAndPad(iv, this.ivEncoding, this.ivLength));
-      String transformation = this.type + "/" + mode + "/" + padding.getValue();
-      Cipher cipher = Cipher.getInstance(transformation, "BC");
-      cipher.init(cipherMode, keySpec, ivSpec);
-      return cipher.doFinal(data);
-    } catch (IllegalBlockSizeException | BadPaddingException | NoSuchAlgorithmException | NoSuchProviderException | NoSuchPaddingException | InvalidKeyException | InvalidAlgorithmParameterException e) {
+      return spec(key, iv, mode, padding).newCipher(cipherMode).doFinal(data);
+    } catch (GeneralSecurityException e) {
       log.error(e.getMessage(), e);
       return new byte[0];
     }
   }
 
+  /**
+   * 解码密钥和初始化向量，按提供者选择策略确定创建 Cipher 所需的信息
+   *
+   * @param key     密钥
+   * @param iv      初始化向量，ECB 模式下忽略
+   * @param mode    加密模式
+   * @param padding 填充方式
+   * @return 创建 Cipher 所需的信息
+   */
+  private CipherSpec spec(Object key, Object iv, Mode mode, Padding padding) {
+    byte[] ivBytes = "ECB".equals(mode.getValue()) ? null : decodeAndPad(iv, this.ivEncoding, this.ivLength);
+    return CipherSpec.of(this.providerPolicy != null ? this.providerPolicy : defaultProviderPolicy, this.type, mode, padding, decodeAndPad(key, this.keyEncoding, this.keyLength), ivBytes);
+  }
+
   /**
    * 将内容按照编码转换后，填充 0 到指定长度
    *
@@ -270,17 +414,31 @@ public class BlockCipher {
    * @param encoding 编码
    * @return 字符串
    */
-  private String encode(byte[] data, EncodingType encoding) {
+  static String encode(byte[] data, EncodingType encoding) {
+    return encode(data, 0, data.length, encoding);
+  }
+
+  /**
+   * 根据内容编码将字节数组的一部分转为字符串，用于复用的输出缓冲区
+   *
+   * @param data     字节数组，此处为密文字节数组
+   * @param offset   起始位置
+   * @param length   长度
+   * @param encoding 编码
+   * @return 字符串
+   */
+  static String encode(byte[] data, int offset, int length, EncodingType encoding) {
     if (encoding == null) {
-      return new String(data);
+      return new String(data, offset, length);
     }
     switch (encoding) {
       case UTF_8:
-        return new String(data, StandardCharsets.UTF_8);
+        return new String(data, offset, length, StandardCharsets.UTF_8);
       case BASE_64:
-        return Base64.getEncoder().encodeToString(data);
+        ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(data, offset, length));
+        return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
       case HEX:
-        return Hex.toHexString(data);
+        return HexEncoder.encode(data, offset, length);
       default:
         throw new IllegalArgumentException("Unsupported encoding: " + encoding);
     }
@@ -293,7 +451,7 @@ public class BlockCipher {
    * @param encoding            编码
    * @return 字节数组
    */
-  private byte[] decode(String keyOrIvOrCiphertext, EncodingType encoding) {
+  static byte[] decode(String keyOrIvOrCiphertext, EncodingType encoding) {
     if (StrUtil.isBlank(keyOrIvOrCiphertext)) {
       return new byte[0];
     }
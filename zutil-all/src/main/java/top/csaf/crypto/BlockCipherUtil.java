@@ -7,14 +7,14 @@ import top.csaf.crypto.enums.Mode;
 import top.csaf.crypto.enums.Padding;
 import top.csaf.lang.StrUtil;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+
 /**
  * 分组密码工具类
  */
 public class BlockCipherUtil {
 
-  private static final BlockCipher.Builder BUILDER = BlockCipher.builder();
-
-
   /**
    * 加密
    *
@@ -30,7 +30,7 @@ public class BlockCipherUtil {
    * @return 密文
    */
   public static String encrypt(BlockCipherType type, @NonNull String data, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
-    BlockCipher.Builder builder = BUILDER.type(type).keyLength(StrUtil.length(key)).ivLength(StrUtil.length(iv));
+    BlockCipher.Builder builder = BlockCipher.builder().type(type).keyLength(StrUtil.length(key)).ivLength(StrUtil.length(iv));
     if (keyEncoding != null) {
       builder.keyEncoding(keyEncoding);
     }
@@ -159,7 +159,7 @@ public class BlockCipherUtil {
    * @return 明文
    */
   public static String decrypt(BlockCipherType type, String encryptedData, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
-    BlockCipher.Builder builder = BUILDER.type(type).keyLength(StrUtil.length(key)).ivLength(StrUtil.length(iv));
+    BlockCipher.Builder builder = BlockCipher.builder().type(type).keyLength(StrUtil.length(key)).ivLength(StrUtil.length(iv));
     if (keyEncoding != null) {
       builder.keyEncoding(keyEncoding);
     }
@@ -274,4 +274,84 @@ public class BlockCipherUtil {
     return decrypt(type, encryptedData, key, iv, mode, padding, EncodingType.HEX);
   }
 
+  /**
+   * 批量加密，密钥和初始化向量只解码一次，复用同一个 Cipher
+   *
+   * @param type        算法类型
+   * @param data        明文列表，元素为 null 时结果也为 null
+   * @param key         密钥
+   * @param keyEncoding 密钥编码
+   * @param iv          初始化向量
+   * @param ivEncoding  初始化向量编码
+   * @param mode        加密模式
+   * @param padding     填充方式
+   * @param encoding    编码类型
+   * @return 密文列表，顺序与明文一致
+   */
+  public static List<String> encryptAll(BlockCipherType type, @NonNull List<String> data, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
+    return cipher(type, key, keyEncoding, iv, ivEncoding).encryptAll(data, key, iv, mode, padding, encoding, null);
+  }
+
+  /**
+   * 批量加密，按每 1024 个元素一个任务提交到线程池并行处理
+   *
+   * @param type        算法类型
+   * @param data        明文列表，元素为 null 时结果也为 null
+   * @param key         密钥
+   * @param keyEncoding 密钥编码
+   * @param iv          初始化向量
+   * @param ivEncoding  初始化向量编码
+   * @param mode        加密模式
+   * @param padding     填充方式
+   * @param encoding    编码类型
+   * @param executor    线程池
+   * @return 密文列表，顺序与明文一致
+   */
+  public static List<String> encryptAll(BlockCipherType type, @NonNull List<String> data, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding, @NonNull Executor executor) {
+    return cipher(type, key, keyEncoding, iv, ivEncoding).encryptAll(data, key, iv, mode, padding, encoding, executor);
+  }
+
+  /**
+   * 批量解密，密钥和初始化向量只解码一次，复用同一个 Cipher
+   *
+   * @param type          算法类型
+   * @param encryptedData 密文列表，元素为 null 时结果也为 null
+   * @param key           密钥
+   * @param keyEncoding   密钥编码
+   * @param iv            初始化向量
+   * @param ivEncoding    初始化向量编码
+   * @param mode          加密模式
+   * @param padding       填充方式
+   * @param encoding      编码类型
+   * @return 明文列表，顺序与密文一致
+   */
+  public static List<String> decryptAll(BlockCipherType type, @NonNull List<String> encryptedData, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding) {
+    return cipher(type, key, keyEncoding, iv, ivEncoding).decryptAll(encryptedData, key, iv, mode, padding, encoding, null);
+  }
+
+  /**
+   * 批量解密，按每 1024 个元素一个任务提交到线程池并行处理
+   *
+   * @param type          算法类型
+   * @param encryptedData 密文列表，元素为 null 时结果也为 null
+   * @param key           密钥
+   * @param keyEncoding   密钥编码
+   * @param iv            初始化向量
+   * @param ivEncoding    初始化向量编码
+   * @param mode          加密模式
+   * @param padding       填充方式
+   * @param encoding      编码类型
+   * @param executor      线程池
+   * @return 明文列表，顺序与密文一致
+   */
+  public static List<String> decryptAll(BlockCipherType type, @NonNull List<String> encryptedData, @NonNull String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding, @NonNull Mode mode, @NonNull Padding padding, EncodingType encoding, @NonNull Executor executor) {
+    return cipher(type, key, keyEncoding, iv, ivEncoding).decryptAll(encryptedData, key, iv, mode, padding, encoding, executor);
+  }
+
+  /**
+   * 按密钥和初始化向量的长度创建实例，与 {@link #encrypt(BlockCipherType, String, String, EncodingType, String, EncodingType, Mode, Padding, EncodingType)} 一致
+   */
+  private static BlockCipher cipher(BlockCipherType type, String key, EncodingType keyEncoding, String iv, EncodingType ivEncoding) {
+    return BlockCipher.builder().type(type).keyLength(StrUtil.length(key)).ivLength(StrUtil.length(iv)).keyEncoding(keyEncoding).ivEncoding(ivEncoding).build();
+  }
 }
@@ -0,0 +1,739 @@
+package top.csaf.crypto;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import top.csaf.crypto.enums.EncodingType;
+import top.csaf.crypto.enums.Mode;
+import top.csaf.crypto.enums.Padding;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 绑定了密钥、初始化向量、加密模式和填充方式的加解密会话，由 {@link BlockCipher#session(Object, Object, Mode, Padding)} 创建
+ * <p>
+ * 密钥和初始化向量只在创建时解码一次，每个线程各自缓存一个已初始化的加密 {@link Cipher} 和解密 {@link Cipher}，
+ * 之后的加解密不再调用 Cipher.getInstance 和 init（doFinal 后 Cipher 会恢复到初始化后的状态）。
+ * <p>
+ * 会话不可变，可多线程共享，应长期持有而不是每次加解密都创建。
+ * GCM、CCM 等认证加密模式下，同一密钥和 nonce 加密两条消息会泄露密钥流并允许伪造认证标签，
+ * 因此这些模式的会话只能解密，使用会话固定初始化向量的加密方法会抛出 {@link IllegalArgumentException}；
+ * 加密请使用每次生成随机 nonce 的 {@link #encryptParallel(byte[])}（仅 GCM）。
+ * <p>
+ * 流和文件加解密按固定大小的缓冲区分段调用 {@link Cipher#update}，内存占用与数据大小无关，每次操作使用独立的 Cipher。
+ * <p>
+ * CTR 和 GCM 模式支持将数据分段后在 {@link ForkJoinPool} 中并行加解密，格式见 {@link ParallelCipher}。
+ */
+@Slf4j
+public final class CipherSession {
+
+  /**
+   * 流和文件加解密的默认缓冲区大小：64 KiB
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+  /**
+   * 并行加解密的默认分段大小：1 MiB
+   */
+  public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+  /**
+   * 批量加解密时每个任务处理的元素数
+   */
+  private static final int BATCH_SIZE = 1024;
+
+  private final CipherSpec spec;
+  private final Mode mode;
+  private final Padding padding;
+  /**
+   * 分组长度，CTR 模式并行加解密时按它切分数据
+   */
+  private final int blockSize;
+  /**
+   * NoPadding 模式下数据长度必须是它的整数倍，与 {@link BlockCipher} 一致
+   */
+  private final int keyLength;
+  /**
+   * 是否为认证加密模式，此类模式禁止用会话固定的初始化向量加密
+   */
+  private final boolean aead;
+  /**
+   * 是否在线程中缓存 Cipher；为 false 时批量加解密的每个任务各自创建 Cipher，任务结束即丢弃，不在线程池的线程中留下 ThreadLocal 条目
+   */
+  private final boolean threadCached;
+  /**
+   * 当前线程已初始化的 Cipher，下标 0 为加密，1 为解密
+   */
+  private final ThreadLocal<Cipher[]> ciphers = ThreadLocal.withInitial(() -> new Cipher[2]);
+
+  CipherSession(final CipherSpec spec, final Mode mode, final Padding padding, final int keyLength) {
+    this(spec, mode, padding, keyLength, true);
+  }
+
+  /**
+   * 创建
+   *
+   * @param spec         创建 Cipher 所需的信息
+   * @param mode         加密模式
+   * @param padding      填充方式
+   * @param keyLength    密钥长度
+   * @param threadCached 是否在线程中缓存 Cipher，只用一次的会话（如工具类的批量加解密）为 false
+   */
+  CipherSession(final CipherSpec spec, final Mode mode, final Padding padding, final int keyLength, final boolean threadCached) {
+    this.spec = spec;
+    this.mode = mode;
+    this.padding = padding;
+    this.keyLength = keyLength;
+    this.aead = isAead(mode);
+    this.threadCached = threadCached;
+    // 创建时即初始化一次，密钥或初始化向量不合法时尽早失败
+    try {
+      Cipher cipher = newCipher(Cipher.DECRYPT_MODE);
+      if (threadCached) {
+        ciphers.get()[1] = cipher;
+      }
+      this.blockSize = cipher.getBlockSize();
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Session: should be created with valid key and iv for " + spec, e);
+    }
+  }
+
+  /**
+   * 加密
+   *
+   * @param plaintext 明文
+   * @return 密文，加密失败时为空数组
+   */
+  public byte[] encrypt(final byte @NonNull [] plaintext) {
+    checkEncrypt(Cipher.ENCRYPT_MODE);
+    check(plaintext);
+    return doFinal(plaintext, Cipher.ENCRYPT_MODE);
+  }
+
+  /**
+   * 解密
+   *
+   * @param ciphertext 密文
+   * @return 明文，解密失败时为空数组
+   */
+  public byte[] decrypt(final byte @NonNull [] ciphertext) {
+    check(ciphertext);
+    return doFinal(ciphertext, Cipher.DECRYPT_MODE);
+  }
+
+  /**
+   * 加密
+   *
+   * @param plaintext 明文
+   * @param encoding  密文编码，为 null 时不做编码转换
+   * @return 密文
+   */
+  public String encrypt(@NonNull final String plaintext, final EncodingType encoding) {
+    return BlockCipher.encode(encrypt(plaintext.getBytes()), encoding);
+  }
+
+  /**
+   * 加密
+   *
+   * @param plaintext 明文
+   * @return Hex 编码的密文
+   */
+  public String encryptHex(@NonNull final String plaintext) {
+    return encrypt(plaintext, EncodingType.HEX);
+  }
+
+  /**
+   * 加密
+   *
+   * @param plaintext 明文
+   * @return Base64 编码的密文
+   */
+  public String encryptBase64(@NonNull final String plaintext) {
+    return encrypt(plaintext, EncodingType.BASE_64);
+  }
+
+  /**
+   * 解密
+   *
+   * @param ciphertext 密文
+   * @param encoding   密文编码，为 null 时不做编码转换
+   * @return 明文
+   */
+  public String decrypt(@NonNull final String ciphertext, final EncodingType encoding) {
+    return new String(decrypt(BlockCipher.decode(ciphertext, encoding)));
+  }
+
+  /**
+   * 解密
+   *
+   * @param ciphertext Hex 编码的密文
+   * @return 明文
+   */
+  public String decryptHex(@NonNull final String ciphertext) {
+    return decrypt(ciphertext, EncodingType.HEX);
+  }
+
+  /**
+   * 解密
+   *
+   * @param ciphertext Base64 编码的密文
+   * @return 明文
+   */
+  public String decryptBase64(@NonNull final String ciphertext) {
+    return decrypt(ciphertext, EncodingType.BASE_64);
+  }
+
+  /**
+   * 批量加密，在当前线程中依次处理，复用同一个 Cipher 和输出缓冲区
+   *
+   * @param plaintexts 明文列表，元素为 null 时结果也为 null
+   * @param encoding   密文编码，为 null 时不做编码转换
+   * @return 密文列表，顺序与明文一致，单个元素加密失败时为空字符串
+   */
+  public List<String> encryptAll(@NonNull final List<String> plaintexts, final EncodingType encoding) {
+    return transformAll(plaintexts, encoding, null, Cipher.ENCRYPT_MODE);
+  }
+
+  /**
+   * 批量加密，按每 1024 个元素一个任务提交到线程池并行处理，每个线程复用自己的 Cipher
+   *
+   * @param plaintexts 明文列表，元素为 null 时结果也为 null
+   * @param encoding   密文编码，为 null 时不做编码转换
+   * @param executor   执行加密任务的线程池
+   * @return 密文列表，顺序与明文一致，单个元素加密失败时为空字符串
+   */
+  public List<String> encryptAll(@NonNull final List<String> plaintexts, final EncodingType encoding, @NonNull final Executor executor) {
+    return transformAll(plaintexts, encoding, executor, Cipher.ENCRYPT_MODE);
+  }
+
+  /**
+   * 批量解密，在当前线程中依次处理，复用同一个 Cipher 和输出缓冲区
+   *
+   * @param ciphertexts 密文列表，元素为 null 时结果也为 null
+   * @param encoding    密文编码，为 null 时不做编码转换
+   * @return 明文列表，顺序与密文一致，单个元素解密失败时为空字符串
+   */
+  public List<String> decryptAll(@NonNull final List<String> ciphertexts, final EncodingType encoding) {
+    return transformAll(ciphertexts, encoding, null, Cipher.DECRYPT_MODE);
+  }
+
+  /**
+   * 批量解密，按每 1024 个元素一个任务提交到线程池并行处理，每个线程复用自己的 Cipher
+   *
+   * @param ciphertexts 密文列表，元素为 null 时结果也为 null
+   * @param encoding    密文编码，为 null 时不做编码转换
+   * @param executor    执行解密任务的线程池
+   * @return 明文列表，顺序与密文一致，单个元素解密失败时为空字符串
+   */
+  public List<String> decryptAll(@NonNull final List<String> ciphertexts, final EncodingType encoding, @NonNull final Executor executor) {
+    return transformAll(ciphertexts, encoding, executor, Cipher.DECRYPT_MODE);
+  }
+
+  /**
+   * 流加密，读取到输入流末尾，不关闭输入流和输出流
+   *
+   * @param in  明文输入流
+   * @param out 密文输出流
+   * @return 写入的密文字节数
+   */
+  public long encrypt(@NonNull final InputStream in, @NonNull final OutputStream out) {
+    return encrypt(in, out, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * 流加密，读取到输入流末尾，不关闭输入流和输出流
+   *
+   * @param in         明文输入流
+   * @param out        密文输出流
+   * @param bufferSize 缓冲区大小
+   * @return 写入的密文字节数
+   */
+  public long encrypt(@NonNull final InputStream in, @NonNull final OutputStream out, final int bufferSize) {
+    return transfer(in, out, bufferSize, Cipher.ENCRYPT_MODE);
+  }
+
+  /**
+   * 流解密，读取到输入流末尾，不关闭输入流和输出流
+   *
+   * @param in  密文输入流
+   * @param out 明文输出流
+   * @return 写入的明文字节数
+   */
+  public long decrypt(@NonNull final InputStream in, @NonNull final OutputStream out) {
+    return decrypt(in, out, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * 流解密，读取到输入流末尾，不关闭输入流和输出流
+   *
+   * @param in         密文输入流
+   * @param out        明文输出流
+   * @param bufferSize 缓冲区大小
+   * @return 写入的明文字节数
+   */
+  public long decrypt(@NonNull final InputStream in, @NonNull final OutputStream out, final int bufferSize) {
+    return transfer(in, out, bufferSize, Cipher.DECRYPT_MODE);
+  }
+
+  /**
+   * 文件加密，目标文件已存在时覆盖
+   *
+   * @param source 明文文件
+   * @param target 密文文件
+   * @return 写入的密文字节数
+   */
+  public long encrypt(@NonNull final Path source, @NonNull final Path target) {
+    return encrypt(source, target, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * 文件加密，目标文件已存在时覆盖
+   *
+   * @param source     明文文件
+   * @param target     密文文件
+   * @param bufferSize 缓冲区大小
+   * @return 写入的密文字节数
+   */
+  public long encrypt(@NonNull final Path source, @NonNull final Path target, final int bufferSize) {
+    return transfer(source, target, bufferSize, Cipher.ENCRYPT_MODE);
+  }
+
+  /**
+   * 文件解密，目标文件已存在时覆盖
+   *
+   * @param source 密文文件
+   * @param target 明文文件
+   * @return 写入的明文字节数
+   */
+  public long decrypt(@NonNull final Path source, @NonNull final Path target) {
+    return decrypt(source, target, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * 文件解密，目标文件已存在时覆盖
+   *
+   * @param source     密文文件
+   * @param target     明文文件
+   * @param bufferSize 缓冲区大小
+   * @return 写入的明文字节数
+   */
+  public long decrypt(@NonNull final Path source, @NonNull final Path target, final int bufferSize) {
+    return transfer(source, target, bufferSize, Cipher.DECRYPT_MODE);
+  }
+
+  /**
+   * 包装为读取时加密的输入流
+   *
+   * @param in 明文输入流
+   * @return 读出密文的输入流，关闭时关闭 in
+   */
+  public CipherInputStream encryptInputStream(@NonNull final InputStream in) {
+    return new CipherInputStream(in, streamCipher(Cipher.ENCRYPT_MODE));
+  }
+
+  /**
+   * 包装为读取时解密的输入流
+   *
+   * @param in 密文输入流
+   * @return 读出明文的输入流，关闭时关闭 in
+   */
+  public CipherInputStream decryptInputStream(@NonNull final InputStream in) {
+    return new CipherInputStream(in, streamCipher(Cipher.DECRYPT_MODE));
+  }
+
+  /**
+   * 包装为写入时加密的输出流，必须关闭才会写出最后一个分组
+   *
+   * @param out 密文输出流
+   * @return 写入明文的输出流，关闭时关闭 out
+   */
+  public CipherOutputStream encryptOutputStream(@NonNull final OutputStream out) {
+    return new CipherOutputStream(out, streamCipher(Cipher.ENCRYPT_MODE));
+  }
+
+  /**
+   * 包装为写入时解密的输出流，必须关闭才会写出最后一个分组
+   *
+   * @param out 明文输出流
+   * @return 写入密文的输出流，关闭时关闭 out
+   */
+  public CipherOutputStream decryptOutputStream(@NonNull final OutputStream out) {
+    return new CipherOutputStream(out, streamCipher(Cipher.DECRYPT_MODE));
+  }
+
+  /**
+   * 分段并行加密，使用 {@link ForkJoinPool#commonPool()}，分段大小为 {@link #DEFAULT_SEGMENT_SIZE}
+   *
+   * @param plaintext 明文
+   * @return 密文，加密失败时为空数组
+   * @see #encryptParallel(byte[], int, ForkJoinPool)
+   */
+  public byte[] encryptParallel(final byte @NonNull [] plaintext) {
+    return encryptParallel(plaintext, DEFAULT_SEGMENT_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * 分段并行加密，仅支持 NoPadding 的 CTR 和 GCM 模式
+   * <p>
+   * CTR 模式下结果与 {@link #encrypt(byte[])} 相同；
+   * GCM 模式下输出分段格式（每段独立的 nonce 和认证标签，见 {@link ParallelCipher}），只能由 decryptParallel 和 decryptSegment 解密
+   *
+   * @param plaintext   明文
+   * @param segmentSize 分段大小，GCM 模式下会写入密文头部
+   * @param pool        执行分段任务的线程池
+   * @return 密文，加密失败时为空数组
+   */
+  public byte[] encryptParallel(final byte @NonNull [] plaintext, final int segmentSize, @NonNull final ForkJoinPool pool) {
+    checkParallel();
+    if (segmentSize <= 0) {
+      throw new IllegalArgumentException("SegmentSize: should be greater than 0");
+    }
+    try {
+      return mode == Mode.CTR ? ParallelCipher.ctr(spec, blockSize, Cipher.ENCRYPT_MODE, plaintext, segmentSize, pool) : ParallelCipher.encryptGcm(spec, plaintext, segmentSize, pool);
+    } catch (GeneralSecurityException | IllegalStateException e) {
+      log.error(e.getMessage(), e);
+      return new byte[0];
+    }
+  }
+
+  /**
+   * 分段并行解密，使用 {@link ForkJoinPool#commonPool()}
+   *
+   * @param ciphertext 密文
+   * @return 明文，解密失败时为空数组
+   * @see #decryptParallel(byte[], ForkJoinPool)
+   */
+  public byte[] decryptParallel(final byte @NonNull [] ciphertext) {
+    return decryptParallel(ciphertext, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * 分段并行解密，仅支持 NoPadding 的 CTR 和 GCM 模式
+   * <p>
+   * CTR 模式下可解密 {@link #encrypt(byte[])} 的结果，按 {@link #DEFAULT_SEGMENT_SIZE} 分段；
+   * GCM 模式下解密 encryptParallel 输出的分段格式，分段大小读取自密文头部，任一分段认证失败即整体失败
+   *
+   * @param ciphertext 密文
+   * @param pool       执行分段任务的线程池
+   * @return 明文，解密失败时为空数组
+   */
+  public byte[] decryptParallel(final byte @NonNull [] ciphertext, @NonNull final ForkJoinPool pool) {
+    checkParallel();
+    try {
+      return mode == Mode.CTR ? ParallelCipher.ctr(spec, blockSize, Cipher.DECRYPT_MODE, ciphertext, DEFAULT_SEGMENT_SIZE, pool) : ParallelCipher.decryptGcm(spec, ciphertext, pool);
+    } catch (GeneralSecurityException | IllegalStateException e) {
+      log.error(e.getMessage(), e);
+      return new byte[0];
+    }
+  }
+
+  /**
+   * 随机访问解密 GCM 分段格式中的单个分段，只解密和认证该分段
+   *
+   * @param ciphertext encryptParallel 输出的分段格式密文
+   * @param index      分段序号，从 0 开始
+   * @return 该分段的明文，解密失败时为空数组
+   */
+  public byte[] decryptSegment(final byte @NonNull [] ciphertext, final int index) {
+    if (mode != Mode.GCM || !Padding.NO.equals(padding)) {
+      throw new IllegalArgumentException("Mode: should be GCM with NoPadding for segment decryption");
+    }
+    try {
+      return ParallelCipher.decryptGcm(spec, ciphertext, index);
+    } catch (GeneralSecurityException | IllegalStateException e) {
+      log.error(e.getMessage(), e);
+      return new byte[0];
+    }
+  }
+
+  /**
+   * 获取按 {@link top.csaf.crypto.enums.ProviderPolicy} 选定的 JCE 提供者
+   *
+   * @return JCE 提供者
+   */
+  public Provider getProvider() {
+    return spec.getProvider();
+  }
+
+  /**
+   * NoPadding 模式下，数据长度必须是密钥长度的整数倍
+   *
+   * @param data 明文或密文
+   */
+  private void check(final byte[] data) {
+    if (Padding.NO.equals(padding) && data.length % keyLength != 0) {
+      throw new IllegalArgumentException("Data not of proper length for NoPadding mode, length must be multiple of " + keyLength);
+    }
+  }
+
+  /**
+   * 认证加密模式下禁止用会话固定的初始化向量加密
+   *
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   */
+  private void checkEncrypt(final int cipherMode) {
+    if (aead && cipherMode == Cipher.ENCRYPT_MODE) {
+      throw new IllegalArgumentException("Mode: should not be " + mode + " for encryption with the fixed iv of a session, use encryptParallel or a new iv for each message");
+    }
+  }
+
+  private void checkParallel() {
+    if (mode != Mode.CTR && mode != Mode.GCM || !Padding.NO.equals(padding)) {
+      throw new IllegalArgumentException("Mode: should be CTR or GCM with NoPadding for parallel encryption");
+    }
+  }
+
+  private byte[] doFinal(final byte[] data, final int cipherMode) {
+    try {
+      return cipher(cipherMode).doFinal(data);
+    } catch (GeneralSecurityException | IllegalStateException e) {
+      discard(cipherMode);
+      log.error(e.getMessage(), e);
+      return new byte[0];
+    }
+  }
+
+  /**
+   * 获取当前线程缓存的 Cipher，没有时创建
+   *
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @return 已初始化的 Cipher
+   */
+  private Cipher cipher(final int cipherMode) throws GeneralSecurityException {
+    Cipher[] pool = ciphers.get();
+    int index = cipherMode == Cipher.ENCRYPT_MODE ? 0 : 1;
+    Cipher cipher = pool[index];
+    if (cipher == null) {
+      cipher = newCipher(cipherMode);
+      pool[index] = cipher;
+    }
+    return cipher;
+  }
+
+  /**
+   * 出错后 Cipher 的状态不确定，丢弃后下次重新创建
+   *
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   */
+  private void discard(final int cipherMode) {
+    ciphers.get()[cipherMode == Cipher.ENCRYPT_MODE ? 0 : 1] = null;
+  }
+
+  /**
+   * 批量加解密
+   *
+   * @param inputs     明文或密文列表
+   * @param encoding   密文编码
+   * @param executor   线程池，为 null 时在当前线程处理
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @return 密文或明文列表
+   */
+  private List<String> transformAll(final List<String> inputs, final EncodingType encoding, final Executor executor, final int cipherMode) {
+    // 工具类的批量加密与逐个调用 encrypt 一致，认证加密模式下每个元素使用新初始化的 Cipher
+    if (threadCached) {
+      checkEncrypt(cipherMode);
+    }
+    // 转为数组，避免 LinkedList 等按下标访问时逐个遍历
+    String[] input = inputs.toArray(new String[0]);
+    String[] output = new String[input.length];
+    if (executor == null || input.length <= BATCH_SIZE) {
+      transformAll(input, output, 0, input.length, encoding, cipherMode);
+    } else {
+      CompletableFuture<?>[] futures = new CompletableFuture[(input.length + BATCH_SIZE - 1) / BATCH_SIZE];
+      for (int i = 0; i < futures.length; i++) {
+        int from = i * BATCH_SIZE;
+        futures[i] = CompletableFuture.runAsync(() -> transformAll(input, output, from, Math.min(from + BATCH_SIZE, input.length), encoding, cipherMode), executor);
+      }
+      try {
+        CompletableFuture.allOf(futures).join();
+      } catch (CompletionException e) {
+        // 与单线程时一样抛出原始异常，如 NoPadding 下长度不合法
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+      }
+    }
+    return new ArrayList<>(Arrays.asList(output));
+  }
+
+  /**
+   * 批量加解密 [from, to) 范围内的元素，结果写入 output 的相同位置
+   * <p>
+   * 不在线程中缓存 Cipher 时，本任务内创建的 Cipher 只保存在局部变量中，任务结束后即可回收；
+   * 认证加密模式下 doFinal 后 Cipher 不能用同一 nonce 再次加密，每个元素重新创建
+   */
+  private void transformAll(final String[] input, final String[] output, final int from, final int to, final EncodingType encoding, final int cipherMode) {
+    byte[] buffer = new byte[0];
+    Cipher local = null;
+    for (int i = from; i < to; i++) {
+      if (input[i] == null) {
+        continue;
+      }
+      byte[] data = cipherMode == Cipher.ENCRYPT_MODE ? input[i].getBytes() : BlockCipher.decode(input[i], encoding);
+      check(data);
+      int length;
+      try {
+        Cipher cipher;
+        if (threadCached) {
+          cipher = cipher(cipherMode);
+        } else {
+          if (local == null) {
+            local = newCipher(cipherMode);
+          }
+          cipher = local;
+        }
+        buffer = ensureCapacity(buffer, cipher.getOutputSize(data.length));
+        length = cipher.doFinal(data, 0, data.length, buffer, 0);
+        if (aead && cipherMode == Cipher.ENCRYPT_MODE) {
+          local = null;
+        }
+      } catch (GeneralSecurityException | IllegalStateException e) {
+        if (threadCached) {
+          discard(cipherMode);
+        } else {
+          local = null;
+        }
+        log.error(e.getMessage(), e);
+        output[i] = "";
+        continue;
+      }
+      output[i] = cipherMode == Cipher.ENCRYPT_MODE ? BlockCipher.encode(buffer, 0, length, encoding) : new String(buffer, 0, length);
+    }
+  }
+
+  private long transfer(final InputStream in, final OutputStream out, final int bufferSize, final int cipherMode) {
+    checkEncrypt(cipherMode);
+    checkBufferSize(bufferSize);
+    try {
+      Cipher cipher = newCipher(cipherMode);
+      byte[] input = new byte[bufferSize];
+      byte[] output = new byte[cipher.getOutputSize(bufferSize)];
+      long written = 0;
+      int read;
+      while ((read = in.read(input)) != -1) {
+        output = ensureCapacity(output, cipher.getOutputSize(read));
+        int length = cipher.update(input, 0, read, output);
+        out.write(output, 0, length);
+        written += length;
+      }
+      output = ensureCapacity(output, cipher.getOutputSize(0));
+      int length = cipher.doFinal(output, 0);
+      out.write(output, 0, length);
+      return written + length;
+    } catch (IOException | GeneralSecurityException e) {
+      throw new RuntimeException((cipherMode == Cipher.ENCRYPT_MODE ? "Encrypt" : "Decrypt") + " stream failed: " + spec, e);
+    }
+  }
+
+  /**
+   * 文件加解密
+   * <p>
+   * 使用可复用的堆内缓冲区而不是直接缓冲区：BC 的 Cipher 只处理数组，传入直接缓冲区时每次 update 都会复制到新建的临时数组；
+   * 堆内缓冲区读写文件时由 FileChannel 复用线程内缓存的直接缓冲区，整个过程内存占用固定
+   *
+   * @param source     源文件
+   * @param target     目标文件
+   * @param bufferSize 缓冲区大小
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @return 写入的字节数
+   */
+  private long transfer(final Path source, final Path target, final int bufferSize, final int cipherMode) {
+    checkEncrypt(cipherMode);
+    checkBufferSize(bufferSize);
+    try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+         FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      Cipher cipher = newCipher(cipherMode);
+      ByteBuffer input = ByteBuffer.allocate(bufferSize);
+      byte[] output = new byte[cipher.getOutputSize(bufferSize)];
+      long written = 0;
+      while (in.read(input) != -1) {
+        output = ensureCapacity(output, cipher.getOutputSize(input.position()));
+        written += write(out, output, cipher.update(input.array(), 0, input.position(), output));
+        ((Buffer) input).clear();
+      }
+      output = ensureCapacity(output, cipher.getOutputSize(0));
+      return written + write(out, output, cipher.doFinal(output, 0));
+    } catch (IOException | GeneralSecurityException e) {
+      throw new RuntimeException((cipherMode == Cipher.ENCRYPT_MODE ? "Encrypt" : "Decrypt") + " file failed: " + source, e);
+    }
+  }
+
+  /**
+   * 输出缓冲区容量不足时重新分配
+   *
+   * @param buffer   输出缓冲区
+   * @param capacity 需要的容量
+   * @return 容量足够的输出缓冲区
+   */
+  private static byte[] ensureCapacity(final byte[] buffer, final int capacity) {
+    return buffer.length < capacity ? new byte[capacity] : buffer;
+  }
+
+  /**
+   * 写出 update/doFinal 的结果
+   *
+   * @param channel 文件通道
+   * @param output  输出缓冲区
+   * @param length  结果长度
+   * @return 写出的字节数
+   */
+  private static int write(final FileChannel channel, final byte[] output, final int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(output, 0, length);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    return length;
+  }
+
+  private static void checkBufferSize(final int bufferSize) {
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("BufferSize: should be greater than 0");
+    }
+  }
+
+  private Cipher streamCipher(final int cipherMode) {
+    checkEncrypt(cipherMode);
+    try {
+      return newCipher(cipherMode);
+    } catch (GeneralSecurityException e) {
+      throw new RuntimeException("Create cipher failed: " + spec, e);
+    }
+  }
+
+  private Cipher newCipher(final int cipherMode) throws GeneralSecurityException {
+    return spec.newCipher(cipherMode);
+  }
+
+  /**
+   * 是否为认证加密模式，此类模式禁止用同一个 nonce 重复加密
+   *
+   * @param mode 加密模式
+   * @return 是否为认证加密模式
+   */
+  private static boolean isAead(final Mode mode) {
+    switch (mode) {
+      case GCM:
+      case GCM_SIV:
+      case CCM:
+      case OCB:
+      case EAX:
+        return true;
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package top.csaf.crypto;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import top.csaf.crypto.enums.BlockCipherType;
+import top.csaf.crypto.enums.Mode;
+import top.csaf.crypto.enums.Padding;
+import top.csaf.crypto.enums.ProviderPolicy;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.Provider;
+import java.security.Security;
+import java.security.spec.AlgorithmParameterSpec;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 创建 {@link Cipher} 所需的提供者、转换名、密钥和参数，按 {@link ProviderPolicy} 选择提供者
+ * <p>
+ * SunJCE 与 BouncyCastle 的差异在这里处理：SunJCE 不识别 PKCS7Padding（AES 分组为 16 字节时与 PKCS5Padding 相同），
+ * GCM 模式只接受 {@link GCMParameterSpec}（使用与 BouncyCastle 默认一致的 128 位认证标签）
+ */
+final class CipherSpec {
+
+  private static final Provider BOUNCY_CASTLE = bouncyCastle();
+  /**
+   * JDK 自带的提供者，不可用时为 null
+   */
+  private static final Provider SUN_JCE = Security.getProvider("SunJCE");
+  private static final int GCM_TAG_LENGTH = 128;
+  /**
+   * 算法/模式/填充方式 -&gt; SunJCE 是否支持，只检查一次
+   */
+  private static final Map<String, Boolean> JDK_SUPPORTED = new ConcurrentHashMap<>();
+
+  private final Provider provider;
+  private final String transformation;
+  private final SecretKeySpec keySpec;
+  /**
+   * ECB 模式下为 null
+   */
+  private final AlgorithmParameterSpec parameterSpec;
+
+  private CipherSpec(final Provider provider, final String transformation, final SecretKeySpec keySpec, final AlgorithmParameterSpec parameterSpec) {
+    this.provider = provider;
+    this.transformation = transformation;
+    this.keySpec = keySpec;
+    this.parameterSpec = parameterSpec;
+  }
+
+  /**
+   * 创建
+   *
+   * @param policy  提供者选择策略
+   * @param type    加解密算法
+   * @param mode    加密模式
+   * @param padding 填充方式
+   * @param key     补齐长度后的密钥
+   * @param iv      补齐长度后的初始化向量，ECB 模式下为 null
+   * @return 创建 Cipher 所需的信息
+   */
+  static CipherSpec of(final ProviderPolicy policy, final BlockCipherType type, final Mode mode, final Padding padding, final byte[] key, final byte[] iv) {
+    SecretKeySpec keySpec = new SecretKeySpec(key, type.getValue());
+    if (isJdk(policy, type, mode, padding)) {
+      AlgorithmParameterSpec parameterSpec = iv == null ? null : mode == Mode.GCM ? new GCMParameterSpec(GCM_TAG_LENGTH, iv) : new IvParameterSpec(iv);
+      return new CipherSpec(SUN_JCE, jdkTransformation(type, mode, padding), keySpec, parameterSpec);
+    }
+    return new CipherSpec(BOUNCY_CASTLE, type + "/" + mode + "/" + padding.getValue(), keySpec, iv == null ? null : new IvParameterSpec(iv));
+  }
+
+  /**
+   * 按策略是否使用 SunJCE
+   *
+   * @param policy  提供者选择策略
+   * @param type    加解密算法
+   * @param mode    加密模式
+   * @param padding 填充方式
+   * @return 是否使用 SunJCE
+   */
+  static boolean isJdk(final ProviderPolicy policy, final BlockCipherType type, final Mode mode, final Padding padding) {
+    if (policy != ProviderPolicy.PREFER_JDK || SUN_JCE == null || type != BlockCipherType.AES || jdkPadding(padding) == null) {
+      return false;
+    }
+    switch (mode) {
+      case ECB:
+      case CBC:
+      case CFB:
+      case OFB:
+        break;
+      case CTR:
+      case GCM:
+        if (padding != Padding.NO) {
+          return false;
+        }
+        break;
+      default:
+        return false;
+    }
+    return JDK_SUPPORTED.computeIfAbsent(jdkTransformation(type, mode, padding), transformation -> {
+      try {
+        Cipher.getInstance(transformation, SUN_JCE);
+        return true;
+      } catch (GeneralSecurityException e) {
+        return false;
+      }
+    });
+  }
+
+  /**
+   * 创建并初始化 Cipher
+   *
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @return 已初始化的 Cipher
+   */
+  Cipher newCipher(final int cipherMode) throws GeneralSecurityException {
+    Cipher cipher = Cipher.getInstance(transformation, provider);
+    cipher.init(cipherMode, keySpec, parameterSpec);
+    return cipher;
+  }
+
+  /**
+   * 创建未初始化的 Cipher，之后由 {@link #init(Cipher, int, byte[])} 按不同的初始化向量多次初始化
+   *
+   * @return 未初始化的 Cipher
+   */
+  Cipher getInstance() throws GeneralSecurityException {
+    return Cipher.getInstance(transformation, provider);
+  }
+
+  /**
+   * 使用同一密钥、指定的初始化向量初始化 Cipher，GCM 模式下认证标签长度不变
+   *
+   * @param cipher     {@link #getInstance()} 创建的 Cipher
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @param iv         初始化向量
+   */
+  void init(final Cipher cipher, final int cipherMode, final byte[] iv) throws GeneralSecurityException {
+    init(cipher, cipherMode, keySpec, iv);
+  }
+
+  /**
+   * 使用指定的密钥和初始化向量初始化 Cipher，GCM 模式下认证标签长度不变
+   *
+   * @param cipher     {@link #getInstance()} 创建的 Cipher
+   * @param cipherMode Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @param key        密钥，如由会话密钥派生的消息密钥
+   * @param iv         初始化向量
+   */
+  void init(final Cipher cipher, final int cipherMode, final SecretKeySpec key, final byte[] iv) throws GeneralSecurityException {
+    cipher.init(cipherMode, key, parameterSpec instanceof GCMParameterSpec ? new GCMParameterSpec(GCM_TAG_LENGTH, iv) : new IvParameterSpec(iv));
+  }
+
+  /**
+   * 获取密钥
+   *
+   * @return 密钥
+   */
+  SecretKeySpec getKeySpec() {
+    return keySpec;
+  }
+
+  /**
+   * 获取初始化向量
+   *
+   * @return 初始化向量，ECB 模式下为 null
+   */
+  byte[] getIv() {
+    if (parameterSpec instanceof GCMParameterSpec) {
+      return ((GCMParameterSpec) parameterSpec).getIV();
+    }
+    return parameterSpec == null ? null : ((IvParameterSpec) parameterSpec).getIV();
+  }
+
+  Provider getProvider() {
+    return provider;
+  }
+
+  @Override
+  public String toString() {
+    return transformation + " (" + provider.getName() + ")";
+  }
+
+  private static String jdkTransformation(final BlockCipherType type, final Mode mode, final Padding padding) {
+    return type.getValue() + "/" + mode.getValue() + "/" + jdkPadding(padding);
+  }
+
+  /**
+   * SunJCE 中的填充方式名称
+   *
+   * @param padding 填充方式
+   * @return 填充方式名称，不支持时为 null
+   */
+  private static String jdkPadding(final Padding padding) {
+    switch (padding) {
+      case NO:
+        return "NoPadding";
+      case PKCS5:
+      case PKCS7:
+        return "PKCS5Padding";
+      case ISO_10126:
+        return "ISO10126Padding";
+      default:
+        return null;
+    }
+  }
+
+  private static Provider bouncyCastle() {
+    Provider provider = Security.getProvider(BouncyCastleProvider.PROVIDER_NAME);
+    return provider != null ? provider : new BouncyCastleProvider();
+  }
+}
@@ -1,9 +1,447 @@
 package top.csaf.crypto;
 
+import lombok.NonNull;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import top.csaf.charset.StandardCharsets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Security;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * 摘要工具类
+ * <p>
+ * 在 {@link DigestUtils} 的基础上，按算法为每个线程缓存一个 {@link MessageDigest}（digest 后自动重置），
+ * 省去每次调用的 MessageDigest.getInstance；十六进制编码使用查表实现。
+ * <p>
+ * 支持字节数组、字符串（UTF-8）、{@link ByteBuffer}、{@link InputStream} 和文件，文件通过 {@link FileChannel} 分段内存映射读取。
+ * 算法名称见 {@link MessageDigestAlgorithms}，也可使用 BouncyCastle 提供的算法，如 SM3。
+ * <p>
+ * 大文件可使用 treeDigest 分块并行计算树摘要，并用 verifyTree 找出损坏的分块，格式见 {@link TreeDigest}。
  */
 public class DigestUtil extends DigestUtils {
+
+  static {
+    Security.addProvider(new BouncyCastleProvider());
+  }
+
+  /**
+   * 树摘要的默认分块大小：4 MiB
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+  /**
+   * 流摘要的缓冲区大小：64 KiB
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+  /**
+   * 文件摘要时每次内存映射的区域大小：64 MiB，超过时分段映射
+   */
+  private static final long MAP_SIZE = 64L * 1024 * 1024;
+  /**
+   * 算法名称 -&gt; 每个线程缓存的 MessageDigest
+   */
+  private static final Map<String, ThreadLocal<MessageDigest>> DIGESTS = new ConcurrentHashMap<>();
+
+  /**
+   * 计算摘要
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param data      数据
+   * @return 摘要
+   */
+  public static byte[] digest(@NonNull final String algorithm, final byte @NonNull [] data) {
+    return messageDigest(algorithm).digest(data);
+  }
+
+  /**
+   * 计算摘要，读取 position 到 limit 之间的数据，不改变 buffer 的 position
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param data      数据
+   * @return 摘要
+   */
+  public static byte[] digest(@NonNull final String algorithm, @NonNull final ByteBuffer data) {
+    MessageDigest digest = messageDigest(algorithm);
+    digest.update(data.duplicate());
+    return digest.digest();
+  }
+
+  /**
+   * 计算摘要，读取到输入流末尾，不关闭输入流
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param in        输入流
+   * @return 摘要
+   */
+  public static byte[] digest(@NonNull final String algorithm, @NonNull final InputStream in) {
+    MessageDigest digest = messageDigest(algorithm);
+    try {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+      return digest.digest();
+    } catch (IOException e) {
+      // 未完成的数据不能留给同一线程的下一次调用
+      digest.reset();
+      throw new RuntimeException("Digest stream failed: " + algorithm, e);
+    }
+  }
+
+  /**
+   * 计算文件摘要，通过 FileChannel 内存映射读取，数据不经过堆内缓冲区
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param path      文件
+   * @return 摘要
+   */
+  public static byte[] digest(@NonNull final String algorithm, @NonNull final Path path) {
+    MessageDigest digest = messageDigest(algorithm);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      for (long position = 0; position < size; position += MAP_SIZE) {
+        digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_SIZE, size - position)));
+      }
+      return digest.digest();
+    } catch (IOException e) {
+      digest.reset();
+      throw new RuntimeException("Digest file failed: " + path, e);
+    }
+  }
+
+  /**
+   * 计算摘要并转为小写十六进制字符串
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param data      数据，按 UTF-8 编码
+   * @return 十六进制摘要
+   */
+  public static String digestHex(@NonNull final String algorithm, @NonNull final String data) {
+    return hex(digest(algorithm, data.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * 计算摘要并转为小写十六进制字符串
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param data      数据
+   * @return 十六进制摘要
+   */
+  public static String digestHex(@NonNull final String algorithm, final byte @NonNull [] data) {
+    return hex(digest(algorithm, data));
+  }
+
+  /**
+   * 计算摘要并转为小写十六进制字符串，不改变 buffer 的 position
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param data      数据
+   * @return 十六进制摘要
+   */
+  public static String digestHex(@NonNull final String algorithm, @NonNull final ByteBuffer data) {
+    return hex(digest(algorithm, data));
+  }
+
+  /**
+   * 计算摘要并转为小写十六进制字符串，读取到输入流末尾，不关闭输入流
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param in        输入流
+   * @return 十六进制摘要
+   */
+  public static String digestHex(@NonNull final String algorithm, @NonNull final InputStream in) {
+    return hex(digest(algorithm, in));
+  }
+
+  /**
+   * 计算文件摘要并转为小写十六进制字符串
+   *
+   * @param algorithm 算法名称，如 MD5、SHA-256、SM3
+   * @param path      文件
+   * @return 十六进制摘要
+   */
+  public static String digestHex(@NonNull final String algorithm, @NonNull final Path path) {
+    return hex(digest(algorithm, path));
+  }
+
+  /**
+   * MD5 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据，按 UTF-8 编码
+   * @return 小写十六进制摘要
+   */
+  public static String md5Hex(final String data) {
+    return digestHex(MessageDigestAlgorithms.MD5, data);
+  }
+
+  /**
+   * MD5 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String md5Hex(final byte[] data) {
+    return digestHex(MessageDigestAlgorithms.MD5, data);
+  }
+
+  /**
+   * MD5 摘要，不改变 buffer 的 position
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String md5Hex(final ByteBuffer data) {
+    return digestHex(MessageDigestAlgorithms.MD5, data);
+  }
+
+  /**
+   * 文件 MD5 摘要
+   *
+   * @param path 文件
+   * @return 小写十六进制摘要
+   */
+  public static String md5Hex(final Path path) {
+    return digestHex(MessageDigestAlgorithms.MD5, path);
+  }
+
+  /**
+   * SHA-1 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据，按 UTF-8 编码
+   * @return 小写十六进制摘要
+   */
+  public static String sha1Hex(final String data) {
+    return digestHex(MessageDigestAlgorithms.SHA_1, data);
+  }
+
+  /**
+   * SHA-1 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String sha1Hex(final byte[] data) {
+    return digestHex(MessageDigestAlgorithms.SHA_1, data);
+  }
+
+  /**
+   * SHA-1 摘要，不改变 buffer 的 position
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String sha1Hex(final ByteBuffer data) {
+    return digestHex(MessageDigestAlgorithms.SHA_1, data);
+  }
+
+  /**
+   * 文件 SHA-1 摘要
+   *
+   * @param path 文件
+   * @return 小写十六进制摘要
+   */
+  public static String sha1Hex(final Path path) {
+    return digestHex(MessageDigestAlgorithms.SHA_1, path);
+  }
+
+  /**
+   * SHA-256 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据，按 UTF-8 编码
+   * @return 小写十六进制摘要
+   */
+  public static String sha256Hex(final String data) {
+    return digestHex(MessageDigestAlgorithms.SHA_256, data);
+  }
+
+  /**
+   * SHA-256 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String sha256Hex(final byte[] data) {
+    return digestHex(MessageDigestAlgorithms.SHA_256, data);
+  }
+
+  /**
+   * SHA-256 摘要，不改变 buffer 的 position
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String sha256Hex(final ByteBuffer data) {
+    return digestHex(MessageDigestAlgorithms.SHA_256, data);
+  }
+
+  /**
+   * 文件 SHA-256 摘要
+   *
+   * @param path 文件
+   * @return 小写十六进制摘要
+   */
+  public static String sha256Hex(final Path path) {
+    return digestHex(MessageDigestAlgorithms.SHA_256, path);
+  }
+
+  /**
+   * SHA-512 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据，按 UTF-8 编码
+   * @return 小写十六进制摘要
+   */
+  public static String sha512Hex(final String data) {
+    return digestHex(MessageDigestAlgorithms.SHA_512, data);
+  }
+
+  /**
+   * SHA-512 摘要，复用线程缓存的 MessageDigest
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String sha512Hex(final byte[] data) {
+    return digestHex(MessageDigestAlgorithms.SHA_512, data);
+  }
+
+  /**
+   * SHA-512 摘要，不改变 buffer 的 position
+   *
+   * @param data 数据
+   * @return 小写十六进制摘要
+   */
+  public static String sha512Hex(final ByteBuffer data) {
+    return digestHex(MessageDigestAlgorithms.SHA_512, data);
+  }
+
+  /**
+   * 文件 SHA-512 摘要
+   *
+   * @param path 文件
+   * @return 小写十六进制摘要
+   */
+  public static String sha512Hex(final Path path) {
+    return digestHex(MessageDigestAlgorithms.SHA_512, path);
+  }
+
+  /**
+   * 计算文件的树摘要，使用 {@link ForkJoinPool#commonPool()}，分块大小为 {@link #DEFAULT_CHUNK_SIZE}
+   *
+   * @param algorithm 算法名称，如 SHA-256、SM3
+   * @param path      文件
+   * @return 树摘要
+   * @see #treeDigest(String, Path, int, ForkJoinPool)
+   */
+  public static TreeDigest treeDigest(@NonNull final String algorithm, @NonNull final Path path) {
+    return treeDigest(algorithm, path, DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * 计算文件的树摘要（Merkle 树）：按分块大小将文件分块内存映射，在线程池中并行计算各分块的摘要，再合并为根摘要
+   * <p>
+   * 计算方式见 {@link TreeDigest}，结果与线程数无关，但与分块大小有关，校验时必须使用相同的算法和分块大小
+   *
+   * @param algorithm 算法名称，如 SHA-256、SM3
+   * @param path      文件
+   * @param chunkSize 分块大小
+   * @param pool      执行分块任务的线程池
+   * @return 树摘要
+   */
+  public static TreeDigest treeDigest(@NonNull final String algorithm, @NonNull final Path path, final int chunkSize, @NonNull final ForkJoinPool pool) {
+    if (chunkSize <= 0) {
+      throw new IllegalArgumentException("ChunkSize: should be greater than 0");
+    }
+    // 检查算法是否可用
+    messageDigest(algorithm);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long length = channel.size();
+      return new TreeDigest(algorithm, chunkSize, length, ParallelDigest.leaves(algorithm, channel, length, chunkSize, pool));
+    } catch (IOException e) {
+      throw new RuntimeException("Tree digest file failed: " + path, e);
+    }
+  }
+
+  /**
+   * 校验文件，找出损坏的分块，使用 {@link ForkJoinPool#commonPool()}
+   *
+   * @param path     文件
+   * @param expected 文件完好时的树摘要
+   * @return 损坏的分块序号，升序；文件完好时为空列表
+   * @see #verifyTree(Path, TreeDigest, ForkJoinPool)
+   */
+  public static List<Integer> verifyTree(@NonNull final Path path, @NonNull final TreeDigest expected) {
+    return verifyTree(path, expected, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * 校验文件，找出损坏的分块
+   * <p>
+   * 以 expected 的算法和分块大小重新计算树摘要后逐块比较，文件长度变化时，末尾不完整的分块以及多出或缺少的分块均视为损坏
+   *
+   * @param path     文件
+   * @param expected 文件完好时的树摘要
+   * @param pool     执行分块任务的线程池
+   * @return 损坏的分块序号，升序；文件完好时为空列表
+   */
+  public static List<Integer> verifyTree(@NonNull final Path path, @NonNull final TreeDigest expected, @NonNull final ForkJoinPool pool) {
+    return expected.compare(treeDigest(expected.getAlgorithm(), path, expected.getChunkSize(), pool));
+  }
+
+  /**
+   * 只校验文件的一个分块，不读取其他分块
+   *
+   * @param path     文件
+   * @param expected 文件完好时的树摘要
+   * @param index    分块序号，从 0 开始
+   * @return 分块是否完好
+   */
+  public static boolean verifyTreeChunk(@NonNull final Path path, @NonNull final TreeDigest expected, final int index) {
+    byte[] leaf = expected.getLeaf(index);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return MessageDigest.isEqual(leaf, ParallelDigest.leaf(messageDigest(expected.getAlgorithm()), channel, channel.size(), expected.getChunkSize(), index));
+    } catch (IOException e) {
+      throw new RuntimeException("Tree digest file failed: " + path, e);
+    }
+  }
+
+  /**
+   * 获取当前线程缓存的 MessageDigest，调用方必须以 digest 或 reset 结束，使其恢复初始状态
+   *
+   * @param algorithm 算法名称
+   * @return MessageDigest
+   */
+  static MessageDigest messageDigest(final String algorithm) {
+    ThreadLocal<MessageDigest> digests = DIGESTS.get(algorithm);
+    if (digests == null) {
+      // 先检查算法是否可用，不缓存不支持的算法名称
+      newMessageDigest(algorithm);
+      digests = DIGESTS.computeIfAbsent(algorithm, key -> ThreadLocal.withInitial(() -> newMessageDigest(key)));
+    }
+    return digests.get();
+  }
+
+  private static MessageDigest newMessageDigest(final String algorithm) {
+    try {
+      return MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalArgumentException("Algorithm: should be a supported MessageDigest algorithm: " + algorithm, e);
+    }
+  }
+
+  private static String hex(final byte[] digest) {
+    return HexEncoder.encode(digest, 0, digest.length);
+  }
 }
@@ -0,0 +1,62 @@
+package top.csaf.crypto;
+
+import top.csaf.charset.StandardCharsets;
+
+/**
+ * 查表实现的十六进制编码
+ * <p>
+ * 每个字节查一次 256 项的表得到两个字符，直接写入 ASCII 字节数组后构造字符串，
+ * 不经过 {@link String#format} 或 BouncyCastle Hex 内部的 ByteArrayOutputStream，每次编码只分配结果本身
+ */
+final class HexEncoder {
+
+  /**
+   * 字节值 b 的小写十六进制字符为 LOWER[b * 2] 和 LOWER[b * 2 + 1]，UPPER 同理为大写
+   */
+  private static final byte[] LOWER = table("0123456789abcdef");
+  private static final byte[] UPPER = table("0123456789ABCDEF");
+
+  private HexEncoder() {
+  }
+
+  /**
+   * 编码为小写十六进制字符串
+   *
+   * @param data   字节数组
+   * @param offset 起始位置
+   * @param length 长度
+   * @return 十六进制字符串
+   */
+  static String encode(final byte[] data, final int offset, final int length) {
+    return encode(data, offset, length, false);
+  }
+
+  /**
+   * 编码为十六进制字符串
+   *
+   * @param data      字节数组
+   * @param offset    起始位置
+   * @param length    长度
+   * @param upperCase 是否大写
+   * @return 十六进制字符串
+   */
+  static String encode(final byte[] data, final int offset, final int length, final boolean upperCase) {
+    byte[] table = upperCase ? UPPER : LOWER;
+    byte[] hex = new byte[length << 1];
+    for (int i = 0; i < length; i++) {
+      int index = (data[offset + i] & 0xFF) << 1;
+      hex[i << 1] = table[index];
+      hex[(i << 1) + 1] = table[index + 1];
+    }
+    return new String(hex, StandardCharsets.ISO_8859_1);
+  }
+
+  private static byte[] table(final String digits) {
+    byte[] table = new byte[512];
+    for (int i = 0; i < 256; i++) {
+      table[i << 1] = (byte) digits.charAt(i >>> 4);
+      table[(i << 1) + 1] = (byte) digits.charAt(i & 0xF);
+    }
+    return table;
+  }
+}
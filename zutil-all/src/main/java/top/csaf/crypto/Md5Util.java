@@ -1,62 +1,68 @@
 package top.csaf.crypto;
 
-import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import lombok.NonNull;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
 import top.csaf.charset.StandardCharsets;
 import top.csaf.lang.StrUtil;
 
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
-import java.security.NoSuchProviderException;
-import java.security.Security;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 
 /**
  * MD5 工具类
+ * <p>
+ * 复用 {@link DigestUtil} 为每个线程缓存的 MessageDigest，查表转换十六进制，支持字符串、字节数组、{@link ByteBuffer}、{@link InputStream} 和文件
  */
 public class Md5Util {
 
-  static {
-    Security.addProvider(new BouncyCastleProvider());
-  }
+  /**
+   * MD5 摘要的字节数
+   */
+  private static final int LENGTH = 16;
 
   /**
    * MD5 加密
    *
-   * @param in          输入，可以是 String 或 byte[]
+   * @param in          输入，可以是 String、byte[]、ByteBuffer、InputStream 或 Path
    * @param isUpperCase 是否转大写，默认小写
    * @return 加密后的字符串（32 位十六进制格式）
    */
   private static String to(Object in, boolean isUpperCase) {
-    if (StrUtil.isBlank(in)) {
-      return "";
-    }
-    if (!(in instanceof String) && !(in instanceof byte[])) {
-      throw new IllegalArgumentException("in must be String or byte[]");
-    }
+    return to(in, isUpperCase, false);
+  }
 
-    MessageDigest md;
-    try {
-      md = MessageDigest.getInstance("MD5", "BC");
-    } catch (NoSuchAlgorithmException | NoSuchProviderException e) {
-      throw new RuntimeException(e);
-    }
-    // 输入数据（如果 in 是 String，则先转成 UTF-8 编码的字节数组），进行 MD5 运算，返回固定长度的 16 字节数组
-    byte[] messageDigest = md.digest(in instanceof String ? ((String) in).getBytes(StandardCharsets.UTF_8) : (byte[]) in);
-    // StringBuilder 预分配长度 32，因为 MD5 的结果固定是 16 字节，每个字节转成 2 位十六进制字符，总长度 32
-    StringBuilder hexString = new StringBuilder(32);
-    // 遍历每个字节（范围 -128 ~ 127）
-    for (byte b : messageDigest) {
-      // 把每个字节转成无符号的十六进制字符串（范围 00 ~ ff），%02x 表示：如果结果只有 1 位（例如 "a"），就在前面补 0（变成 "0a"）
-      hexString.append(String.format("%02x", b));
-    }
-    // 是否转大写
-    if (isUpperCase) {
-      return hexString.toString().toUpperCase();
+  /**
+   * MD5 加密
+   *
+   * @param in          输入，可以是 String、byte[]、ByteBuffer、InputStream 或 Path
+   * @param isUpperCase 是否转大写，默认小写
+   * @param isShort     是否只取中间 16 位
+   * @return 加密后的字符串（32 位或 16 位十六进制格式）
+   */
+  private static String to(Object in, boolean isUpperCase, boolean isShort) {
+    byte[] digest;
+    if (in instanceof String || in instanceof byte[]) {
+      if (StrUtil.isBlank(in)) {
+        return "";
+      }
+      // 如果 in 是 String，则先转成 UTF-8 编码的字节数组
+      digest = DigestUtil.digest(MessageDigestAlgorithms.MD5, in instanceof String ? ((String) in).getBytes(StandardCharsets.UTF_8) : (byte[]) in);
+    } else if (in instanceof ByteBuffer) {
+      digest = DigestUtil.digest(MessageDigestAlgorithms.MD5, (ByteBuffer) in);
+    } else if (in instanceof InputStream) {
+      digest = DigestUtil.digest(MessageDigestAlgorithms.MD5, (InputStream) in);
+    } else if (in instanceof Path) {
+      digest = DigestUtil.digest(MessageDigestAlgorithms.MD5, (Path) in);
+    } else if (in == null) {
+      return "";
     } else {
-      return hexString.toString();
+      throw new IllegalArgumentException("in must be String, byte[], ByteBuffer, InputStream or Path");
     }
+    // 每个字节对应 2 位十六进制字符，16 位短格式即第 4 ~ 12 字节
+    return isShort ? HexEncoder.encode(digest, LENGTH / 4, LENGTH / 2, isUpperCase) : HexEncoder.encode(digest, 0, LENGTH, isUpperCase);
   }
 
-
   /**
    * MD5 加密后转大写
    *
@@ -84,7 +90,7 @@ public class Md5Util {
    * @return 加密后的字符串
    */
   public static String toUpperCaseShort(String in) {
-    return to(in, true).substring(8, 24);
+    return to(in, true, true);
   }
 
   /**
@@ -94,7 +100,7 @@ public class Md5Util {
    * @return 加密后的字符串
    */
   public static String toLowerCaseShort(String in) {
-    return to(in, false).substring(8, 24);
+    return to(in, false, true);
   }
 
   /**
@@ -124,7 +130,7 @@ public class Md5Util {
    * @return 加密后的字符串
    */
   public static String toUpperCaseShort(byte[] in) {
-    return to(in, true).substring(8, 24);
+    return to(in, true, true);
   }
 
   /**
@@ -134,6 +140,126 @@ public class Md5Util {
    * @return 加密后的字符串
    */
   public static String toLowerCaseShort(byte[] in) {
-    return to(in, false).substring(8, 24);
+    return to(in, false, true);
+  }
+
+  /**
+   * MD5 加密后转大写
+   *
+   * @param in 数据，读取 position 到 limit 之间的数据，不改变 position
+   * @return 加密后的字符串
+   */
+  public static String toUpperCase(@NonNull ByteBuffer in) {
+    return to(in, true);
+  }
+
+  /**
+   * MD5 加密（小写）
+   *
+   * @param in 数据，读取 position 到 limit 之间的数据，不改变 position
+   * @return 加密后的字符串
+   */
+  public static String toLowerCase(@NonNull ByteBuffer in) {
+    return to(in, false);
+  }
+
+  /**
+   * MD5 加密后截取中间 16 位并转大写
+   *
+   * @param in 数据，读取 position 到 limit 之间的数据，不改变 position
+   * @return 加密后的字符串
+   */
+  public static String toUpperCaseShort(@NonNull ByteBuffer in) {
+    return to(in, true, true);
+  }
+
+  /**
+   * MD5 加密后截取中间 16 位（小写）
+   *
+   * @param in 数据，读取 position 到 limit 之间的数据，不改变 position
+   * @return 加密后的字符串
+   */
+  public static String toLowerCaseShort(@NonNull ByteBuffer in) {
+    return to(in, false, true);
+  }
+
+  /**
+   * MD5 加密后转大写
+   *
+   * @param in 输入流，读取到末尾，不关闭
+   * @return 加密后的字符串
+   */
+  public static String toUpperCase(@NonNull InputStream in) {
+    return to(in, true);
+  }
+
+  /**
+   * MD5 加密（小写）
+   *
+   * @param in 输入流，读取到末尾，不关闭
+   * @return 加密后的字符串
+   */
+  public static String toLowerCase(@NonNull InputStream in) {
+    return to(in, false);
+  }
+
+  /**
+   * MD5 加密后截取中间 16 位并转大写
+   *
+   * @param in 输入流，读取到末尾，不关闭
+   * @return 加密后的字符串
+   */
+  public static String toUpperCaseShort(@NonNull InputStream in) {
+    return to(in, true, true);
+  }
+
+  /**
+   * MD5 加密后截取中间 16 位（小写）
+   *
+   * @param in 输入流，读取到末尾，不关闭
+   * @return 加密后的字符串
+   */
+  public static String toLowerCaseShort(@NonNull InputStream in) {
+    return to(in, false, true);
+  }
+
+  /**
+   * MD5 加密后转大写
+   *
+   * @param in 文件，通过内存映射读取
+   * @return 加密后的字符串
+   */
+  public static String toUpperCase(@NonNull Path in) {
+    return to(in, true);
+  }
+
+  /**
+   * MD5 加密（小写）
+   *
+   * @param in 文件，通过内存映射读取
+   * @return 加密后的字符串
+   */
+  public static String toLowerCase(@NonNull Path in) {
+    return to(in, false);
+  }
+
+  /**
+   * MD5 加密后截取中间 16 位并转大写
+   *
+   * @param in 文件，通过内存映射读取
+   * @return 加密后的字符串
+   */
+  public static String toUpperCaseShort(@NonNull Path in) {
+    return to(in, true, true);
+  }
+
+  /**
+   * MD5 加密后截取中间 16 位（小写）
+   *
+   * @param in 文件，通过内存映射读取
+   * @return 加密后的字符串
+   */
+  public static String toLowerCaseShort(@NonNull Path in) {
+    return to(in, false, true);
   }
 }
@@ -0,0 +1,335 @@
+package top.csaf.crypto;
+
+import top.csaf.charset.StandardCharsets;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分段并行加解密，由 {@link CipherSession} 的 encryptParallel、decryptParallel 和 decryptSegment 调用
+ * <p>
+ * CTR：按分组边界切分数据，每段的计数器为初始化向量加上该段之前的分组数，结果与串行加解密完全相同，不附加任何信息。
+ * <p>
+ * GCM：每段使用独立的 nonce 和认证标签，可乱序、并行、随机访问解密，格式如下（多字节整数均为大端序）：
+ * <pre>
+ * 头部（28 字节）：版本号 0x02（1 字节） | 分段明文大小 segmentSize（4 字节） | 随机盐（16 字节） | 随机 nonce 前缀（7 字节）
+ * 消息密钥：      HKDF-SHA256(会话密钥, 盐, "zutil-segmented-gcm")，长度与会话密钥相同
+ * 分段 i：        GCM 密文（明文长度同分段，最后一段可以更短或为空） | 认证标签（16 字节）
+ * 分段 i 的 nonce：nonce 前缀（7 字节） | 分段序号 i（4 字节） | 是否最后一段（1 字节，0x01 或 0x00）
+ * 分段 i 的附加认证数据：头部
+ * </pre>
+ * 除最后一段外每段密文长度为 segmentSize + 16，空明文也有一个只含认证标签的分段。
+ * 分段序号防止分段被调换顺序，最后一段标记防止末尾被截断，头部作为附加认证数据防止分段大小、盐被篡改。
+ * <p>
+ * 与 Tink 的 AES-GCM-HKDF 流式加密相同，每条消息用随机盐从会话密钥派生独立的消息密钥，nonce 只需在同一消息内不重复，
+ * 同一会话密钥可加密的消息数取决于 128 位盐的碰撞概率，而不是 56 位 nonce 前缀。会话的初始化向量在此格式中不使用。
+ */
+final class ParallelCipher {
+
+  /**
+   * GCM 分段格式的头部长度
+   */
+  static final int HEADER_LENGTH = 28;
+  /**
+   * GCM 分段格式的版本号
+   */
+  static final byte VERSION = 2;
+  private static final int SALT_OFFSET = 5;
+  private static final int SALT_LENGTH = 16;
+  private static final int NONCE_PREFIX_LENGTH = 7;
+  private static final int NONCE_LENGTH = 12;
+  private static final int TAG_LENGTH = 16;
+  private static final SecureRandom RANDOM = new SecureRandom();
+  private static final String HKDF_ALGORITHM = "HmacSHA256";
+  private static final byte[] HKDF_INFO = "zutil-segmented-gcm".getBytes(StandardCharsets.US_ASCII);
+
+  private ParallelCipher() {
+  }
+
+  /**
+   * CTR 模式并行加解密，结果与串行加解密相同
+   *
+   * @param spec        创建 Cipher 所需的信息
+   * @param blockSize   分组长度
+   * @param cipherMode  Cipher 模式，ENCRYPT_MODE 或 DECRYPT_MODE
+   * @param data        明文或密文
+   * @param segmentSize 分段大小，不是分组长度的整数倍时向上取整
+   * @param pool        执行分段任务的线程池
+   * @return 密文或明文
+   */
+  static byte[] ctr(final CipherSpec spec, final int blockSize, final int cipherMode, final byte[] data, final int segmentSize, final ForkJoinPool pool) throws GeneralSecurityException {
+    int size = (int) Math.min(((long) segmentSize + blockSize - 1) / blockSize * blockSize, Integer.MAX_VALUE / blockSize * blockSize);
+    byte[] iv = spec.getIv();
+    byte[] output = new byte[data.length];
+    run(spec, pool, segments(data.length, size), (cipher, index) -> {
+      int offset = index * size;
+      spec.init(cipher, cipherMode, counter(iv, offset / blockSize));
+      cipher.doFinal(data, offset, Math.min(size, data.length - offset), output, offset);
+    });
+    return output;
+  }
+
+  /**
+   * GCM 模式分段加密
+   *
+   * @param spec        创建 Cipher 所需的信息
+   * @param plaintext   明文
+   * @param segmentSize 分段明文大小
+   * @param pool        执行分段任务的线程池
+   * @return 分段格式的密文
+   */
+  static byte[] encryptGcm(final CipherSpec spec, final byte[] plaintext, final int segmentSize, final ForkJoinPool pool) throws GeneralSecurityException {
+    int segments = Math.max(1, segments(plaintext.length, segmentSize));
+    long length = HEADER_LENGTH + (long) segments * TAG_LENGTH + plaintext.length;
+    if (length > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Plaintext: should be shorter than " + (Integer.MAX_VALUE - 8 - HEADER_LENGTH - (long) segments * TAG_LENGTH));
+    }
+    byte[] output = new byte[(int) length];
+    output[0] = VERSION;
+    writeInt(output, 1, segmentSize);
+    // 盐和 nonce 前缀相邻，一次生成
+    byte[] random = new byte[SALT_LENGTH + NONCE_PREFIX_LENGTH];
+    RANDOM.nextBytes(random);
+    System.arraycopy(random, 0, output, SALT_OFFSET, random.length);
+    SecretKeySpec key = messageKey(spec, output);
+    run(spec, pool, segments, (cipher, index) -> {
+      int offset = index * segmentSize;
+      spec.init(cipher, Cipher.ENCRYPT_MODE, key, nonce(output, index, index == segments - 1));
+      cipher.updateAAD(output, 0, HEADER_LENGTH);
+      cipher.doFinal(plaintext, offset, Math.min(segmentSize, plaintext.length - offset), output, HEADER_LENGTH + index * (segmentSize + TAG_LENGTH));
+    });
+    return output;
+  }
+
+  /**
+   * GCM 模式分段解密
+   *
+   * @param spec       创建 Cipher 所需的信息
+   * @param ciphertext 分段格式的密文
+   * @param pool       执行分段任务的线程池
+   * @return 明文
+   */
+  static byte[] decryptGcm(final CipherSpec spec, final byte[] ciphertext, final ForkJoinPool pool) throws GeneralSecurityException {
+    int segmentSize = segmentSize(ciphertext);
+    int segments = gcmSegments(ciphertext, segmentSize);
+    byte[] output = new byte[ciphertext.length - HEADER_LENGTH - segments * TAG_LENGTH];
+    SecretKeySpec key = messageKey(spec, ciphertext);
+    run(spec, pool, segments, (cipher, index) -> decryptSegment(spec, key, cipher, ciphertext, segmentSize, segments, index, output, index * segmentSize));
+    return output;
+  }
+
+  /**
+   * GCM 模式解密单个分段，不需要解密之前的分段
+   *
+   * @param spec       创建 Cipher 所需的信息
+   * @param ciphertext 分段格式的密文
+   * @param index      分段序号，从 0 开始
+   * @return 该分段的明文
+   */
+  static byte[] decryptGcm(final CipherSpec spec, final byte[] ciphertext, final int index) throws GeneralSecurityException {
+    int segmentSize = segmentSize(ciphertext);
+    int segments = gcmSegments(ciphertext, segmentSize);
+    if (index < 0 || index >= segments) {
+      throw new IllegalArgumentException("Index: should be between 0 and " + (segments - 1));
+    }
+    byte[] output = new byte[segmentLength(ciphertext, segmentSize, segments, index) - TAG_LENGTH];
+    decryptSegment(spec, messageKey(spec, ciphertext), spec.getInstance(), ciphertext, segmentSize, segments, index, output, 0);
+    return output;
+  }
+
+  private static void decryptSegment(final CipherSpec spec, final SecretKeySpec key, final Cipher cipher, final byte[] ciphertext, final int segmentSize, final int segments,
+                                     final int index, final byte[] output, final int outputOffset) throws GeneralSecurityException {
+    spec.init(cipher, Cipher.DECRYPT_MODE, key, nonce(ciphertext, index, index == segments - 1));
+    cipher.updateAAD(ciphertext, 0, HEADER_LENGTH);
+    cipher.doFinal(ciphertext, HEADER_LENGTH + index * (segmentSize + TAG_LENGTH), segmentLength(ciphertext, segmentSize, segments, index), output, outputOffset);
+  }
+
+  /**
+   * 读取并校验头部中的分段大小
+   *
+   * @param ciphertext 分段格式的密文
+   * @return 分段明文大小
+   */
+  private static int segmentSize(final byte[] ciphertext) throws GeneralSecurityException {
+    if (ciphertext.length < HEADER_LENGTH + TAG_LENGTH || ciphertext[0] != VERSION) {
+      throw new GeneralSecurityException("Not a segmented ciphertext of version " + VERSION);
+    }
+    int segmentSize = (ciphertext[1] & 0xFF) << 24 | (ciphertext[2] & 0xFF) << 16 | (ciphertext[3] & 0xFF) << 8 | ciphertext[4] & 0xFF;
+    if (segmentSize <= 0) {
+      throw new GeneralSecurityException("Invalid segment size: " + segmentSize);
+    }
+    return segmentSize;
+  }
+
+  /**
+   * 根据密文长度计算分段数
+   *
+   * @param ciphertext  分段格式的密文
+   * @param segmentSize 分段明文大小
+   * @return 分段数
+   */
+  private static int gcmSegments(final byte[] ciphertext, final int segmentSize) throws GeneralSecurityException {
+    long full = (long) segmentSize + TAG_LENGTH;
+    long body = ciphertext.length - HEADER_LENGTH;
+    int segments = (int) ((body + full - 1) / full);
+    if (body - (segments - 1) * full < TAG_LENGTH) {
+      throw new GeneralSecurityException("Truncated segmented ciphertext");
+    }
+    return segments;
+  }
+
+  /**
+   * 分段密文（含认证标签）的长度
+   */
+  private static int segmentLength(final byte[] ciphertext, final int segmentSize, final int segments, final int index) {
+    int full = segmentSize + TAG_LENGTH;
+    return index < segments - 1 ? full : ciphertext.length - HEADER_LENGTH - index * full;
+  }
+
+  /**
+   * 用头部中的盐从会话密钥派生消息密钥：HKDF-SHA256（RFC 5869），长度与会话密钥相同
+   *
+   * @param spec   创建 Cipher 所需的信息
+   * @param header 以头部开始的数组
+   * @return 消息密钥
+   */
+  private static SecretKeySpec messageKey(final CipherSpec spec, final byte[] header) throws GeneralSecurityException {
+    SecretKeySpec key = spec.getKeySpec();
+    byte[] ikm = key.getEncoded();
+    Mac mac = Mac.getInstance(HKDF_ALGORITHM);
+    // 提取：PRK = HMAC(盐, 会话密钥)
+    mac.init(new SecretKeySpec(header, SALT_OFFSET, SALT_LENGTH, HKDF_ALGORITHM));
+    byte[] prk = mac.doFinal(ikm);
+    // 扩展：T(i) = HMAC(PRK, T(i - 1) | info | i)
+    mac.init(new SecretKeySpec(prk, HKDF_ALGORITHM));
+    byte[] okm = new byte[ikm.length];
+    byte[] block = new byte[0];
+    for (int offset = 0, i = 1; offset < okm.length; offset += block.length, i++) {
+      mac.update(block);
+      mac.update(HKDF_INFO);
+      mac.update((byte) i);
+      block = mac.doFinal();
+      System.arraycopy(block, 0, okm, offset, Math.min(block.length, okm.length - offset));
+    }
+    return new SecretKeySpec(okm, key.getAlgorithm());
+  }
+
+  /**
+   * 分段 nonce：头部中的 nonce 前缀 | 分段序号 | 是否最后一段
+   *
+   * @param header 以头部开始的数组
+   * @param index  分段序号
+   * @param last   是否最后一段
+   * @return nonce
+   */
+  private static byte[] nonce(final byte[] header, final int index, final boolean last) {
+    byte[] nonce = new byte[NONCE_LENGTH];
+    System.arraycopy(header, HEADER_LENGTH - NONCE_PREFIX_LENGTH, nonce, 0, NONCE_PREFIX_LENGTH);
+    writeInt(nonce, NONCE_PREFIX_LENGTH, index);
+    nonce[NONCE_LENGTH - 1] = (byte) (last ? 1 : 0);
+    return nonce;
+  }
+
+  /**
+   * CTR 计数器：初始化向量作为大端序整数加上分组数，溢出时回绕，与 SunJCE 和 BouncyCastle 的计数方式一致
+   *
+   * @param iv     初始化向量
+   * @param blocks 分组数
+   * @return 计数器
+   */
+  static byte[] counter(final byte[] iv, final long blocks) {
+    byte[] counter = iv.clone();
+    long carry = blocks;
+    for (int i = counter.length - 1; i >= 0 && carry != 0; i--) {
+      long sum = (counter[i] & 0xFF) + (carry & 0xFF);
+      counter[i] = (byte) sum;
+      carry = (carry >>> 8) + (sum >>> 8);
+    }
+    return counter;
+  }
+
+  private static int segments(final int length, final int segmentSize) {
+    return (int) (((long) length + segmentSize - 1) / segmentSize);
+  }
+
+  private static void writeInt(final byte[] bytes, final int offset, final int value) {
+    bytes[offset] = (byte) (value >>> 24);
+    bytes[offset + 1] = (byte) (value >>> 16);
+    bytes[offset + 2] = (byte) (value >>> 8);
+    bytes[offset + 3] = (byte) value;
+  }
+
+  /**
+   * 在线程池中处理所有分段，任一分段失败时其余未开始的分段不再处理
+   *
+   * @param spec     创建 Cipher 所需的信息
+   * @param pool     线程池
+   * @param segments 分段数
+   * @param action   处理单个分段
+   */
+  private static void run(final CipherSpec spec, final ForkJoinPool pool, final int segments, final SegmentAction action) throws GeneralSecurityException {
+    if (segments == 0) {
+      return;
+    }
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    // 每个线程约处理 4 个任务，便于负载均衡，同一任务内的分段复用一个 Cipher
+    int threshold = Math.max(1, segments / (pool.getParallelism() * 4));
+    pool.invoke(new SegmentTask(spec, action, failure, threshold, 0, segments));
+    Exception e = failure.get();
+    if (e instanceof GeneralSecurityException) {
+      throw (GeneralSecurityException) e;
+    }
+    if (e != null) {
+      throw (RuntimeException) e;
+    }
+  }
+
+  @FunctionalInterface
+  private interface SegmentAction {
+    void apply(Cipher cipher, int index) throws GeneralSecurityException;
+  }
+
+  private static final class SegmentTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient CipherSpec spec;
+    private final transient SegmentAction action;
+    private final AtomicReference<Exception> failure;
+    private final int threshold;
+    private final int from;
+    private final int to;
+
+    private SegmentTask(final CipherSpec spec, final SegmentAction action, final AtomicReference<Exception> failure, final int threshold, final int from, final int to) {
+      this.spec = spec;
+      this.action = action;
+      this.failure = failure;
+      this.threshold = threshold;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > threshold) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new SegmentTask(spec, action, failure, threshold, from, middle), new SegmentTask(spec, action, failure, threshold, middle, to));
+        return;
+      }
+      try {
+        Cipher cipher = spec.getInstance();
+        for (int i = from; i < to && failure.get() == null; i++) {
+          action.apply(cipher, i);
+        }
+      } catch (GeneralSecurityException | RuntimeException e) {
+        failure.compareAndSet(null, e);
+      }
+    }
+  }
+}
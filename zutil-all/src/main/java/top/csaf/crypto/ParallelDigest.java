@@ -0,0 +1,117 @@
+package top.csaf.crypto;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 分块并行计算文件的叶子摘要，由 {@link DigestUtil} 的 treeDigest 和 verifyTree 调用，树的格式见 {@link TreeDigest}
+ * <p>
+ * 每个分块单独内存映射，不经过堆内缓冲区；每个线程复用 {@link DigestUtil} 缓存的 MessageDigest
+ */
+final class ParallelDigest {
+
+  private ParallelDigest() {
+  }
+
+  /**
+   * 计算所有分块的叶子摘要
+   *
+   * @param algorithm 算法名称
+   * @param channel   文件通道
+   * @param length    文件长度
+   * @param chunkSize 分块大小
+   * @param pool      执行分块任务的线程池
+   * @return 叶子摘要，按分块序号排列
+   */
+  static byte[][] leaves(final String algorithm, final FileChannel channel, final long length, final int chunkSize, final ForkJoinPool pool) throws IOException {
+    int chunks = TreeDigest.chunks(length, chunkSize);
+    byte[][] leaves = new byte[chunks][];
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    // 每个线程约处理 4 个任务，便于负载均衡
+    int threshold = Math.max(1, chunks / (pool.getParallelism() * 4));
+    pool.invoke(new ChunkTask(algorithm, channel, length, chunkSize, leaves, failure, threshold, 0, chunks));
+    Exception e = failure.get();
+    if (e instanceof IOException) {
+      throw (IOException) e;
+    }
+    if (e != null) {
+      throw (RuntimeException) e;
+    }
+    return leaves;
+  }
+
+  /**
+   * 计算单个分块的叶子摘要：H(0x00 | 分块数据)
+   *
+   * @param digest    MessageDigest，结束后恢复初始状态
+   * @param channel   文件通道
+   * @param length    文件长度
+   * @param chunkSize 分块大小
+   * @param index     分块序号
+   * @return 叶子摘要
+   */
+  static byte[] leaf(final MessageDigest digest, final FileChannel channel, final long length, final int chunkSize, final int index) throws IOException {
+    long offset = (long) index * chunkSize;
+    try {
+      digest.update(TreeDigest.LEAF_PREFIX);
+      if (length > offset) {
+        digest.update(channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(chunkSize, length - offset)));
+      }
+      return digest.digest();
+    } catch (IOException | RuntimeException e) {
+      // 未完成的数据不能留给同一线程的下一次调用
+      digest.reset();
+      throw e;
+    }
+  }
+
+  private static final class ChunkTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String algorithm;
+    private final transient FileChannel channel;
+    private final long length;
+    private final int chunkSize;
+    private final byte[][] leaves;
+    private final AtomicReference<Exception> failure;
+    private final int threshold;
+    private final int from;
+    private final int to;
+
+    private ChunkTask(final String algorithm, final FileChannel channel, final long length, final int chunkSize, final byte[][] leaves,
+                      final AtomicReference<Exception> failure, final int threshold, final int from, final int to) {
+      this.algorithm = algorithm;
+      this.channel = channel;
+      this.length = length;
+      this.chunkSize = chunkSize;
+      this.leaves = leaves;
+      this.failure = failure;
+      this.threshold = threshold;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from > threshold) {
+        int middle = (from + to) >>> 1;
+        invokeAll(new ChunkTask(algorithm, channel, length, chunkSize, leaves, failure, threshold, from, middle),
+          new ChunkTask(algorithm, channel, length, chunkSize, leaves, failure, threshold, middle, to));
+        return;
+      }
+      try {
+        MessageDigest digest = DigestUtil.messageDigest(algorithm);
+        for (int i = from; i < to && failure.get() == null; i++) {
+          leaves[i] = leaf(digest, channel, length, chunkSize, i);
+        }
+      } catch (IOException | RuntimeException e) {
+        failure.compareAndSet(null, e);
+      }
+    }
+  }
+}
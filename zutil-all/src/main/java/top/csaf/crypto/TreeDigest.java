@@ -0,0 +1,226 @@
+package top.csaf.crypto;
+
+import lombok.Getter;
+import lombok.NonNull;
+import top.csaf.charset.StandardCharsets;
+
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文件的树摘要（Merkle 树），由 {@link DigestUtil#treeDigest(String, java.nio.file.Path, int, java.util.concurrent.ForkJoinPool)} 计算
+ * <p>
+ * 计算方式固定如下，相同的算法、分块大小和文件内容在任何机器、任何并行度下得到相同的根摘要：
+ * <pre>
+ * 分块 i：      文件第 i * chunkSize 字节起的 chunkSize 字节，最后一块可以更短；空文件视为 1 个空分块
+ * 叶子 i：      H(0x00 | 分块 i)
+ * 内部节点：    H(0x01 | 左子节点 | 右子节点)
+ * 树的形状：    同 RFC 6962 第 2.1 节，n 个叶子时左子树包含小于 n 的最大 2 的幂个叶子，即逐层两两合并，落单的最后一个节点直接进入上一层
+ * </pre>
+ * 叶子和内部节点使用不同前缀，内部节点不能伪装成叶子。根摘要不包含分块大小，比较根摘要时分块大小和算法也必须相同。
+ * <p>
+ * {@link #toBytes()} 的格式如下（多字节整数均为大端序），保存后可用 {@link #fromBytes(byte[])} 读取，再用 {@link DigestUtil#verifyTree} 找出损坏的分块：
+ * <pre>
+ * 版本号 0x01（1 字节） | 算法名称长度（1 字节） | 算法名称（ASCII） | 分块大小（4 字节） | 文件长度（8 字节） | 摘要长度（1 字节） | 叶子摘要 × 分块数
+ * </pre>
+ */
+public final class TreeDigest {
+
+  /**
+   * 序列化格式的版本号
+   */
+  public static final byte VERSION = 1;
+  static final byte LEAF_PREFIX = 0;
+  static final byte NODE_PREFIX = 1;
+
+  /**
+   * 算法名称
+   */
+  @Getter
+  private final String algorithm;
+  /**
+   * 分块大小
+   */
+  @Getter
+  private final int chunkSize;
+  /**
+   * 文件长度
+   */
+  @Getter
+  private final long length;
+  private final byte[][] leaves;
+  private final byte[] root;
+
+  TreeDigest(final String algorithm, final int chunkSize, final long length, final byte[][] leaves) {
+    this.algorithm = algorithm;
+    this.chunkSize = chunkSize;
+    this.length = length;
+    this.leaves = leaves;
+    this.root = root(DigestUtil.messageDigest(algorithm), leaves);
+  }
+
+  /**
+   * 获取根摘要
+   *
+   * @return 根摘要
+   */
+  public byte[] getRoot() {
+    return root.clone();
+  }
+
+  /**
+   * 获取小写十六进制的根摘要
+   *
+   * @return 十六进制根摘要
+   */
+  public String getRootHex() {
+    return HexEncoder.encode(root, 0, root.length);
+  }
+
+  /**
+   * 获取分块数
+   *
+   * @return 分块数
+   */
+  public int getChunkCount() {
+    return leaves.length;
+  }
+
+  /**
+   * 获取分块的叶子摘要
+   *
+   * @param index 分块序号，从 0 开始
+   * @return 叶子摘要
+   */
+  public byte[] getLeaf(final int index) {
+    if (index < 0 || index >= leaves.length) {
+      throw new IllegalArgumentException("Index: should be between 0 and " + (leaves.length - 1));
+    }
+    return leaves[index].clone();
+  }
+
+  /**
+   * 与另一个树摘要逐块比较
+   *
+   * @param other 另一个树摘要，算法和分块大小必须相同
+   * @return 不同的分块序号，升序；分块数不同时多出的分块也视为不同；相同时为空列表
+   */
+  public List<Integer> compare(@NonNull final TreeDigest other) {
+    if (!algorithm.equals(other.algorithm) || chunkSize != other.chunkSize) {
+      throw new IllegalArgumentException("Other: should use algorithm " + algorithm + " and chunk size " + chunkSize);
+    }
+    List<Integer> mismatches = new ArrayList<>();
+    if (length == other.length && MessageDigest.isEqual(root, other.root)) {
+      return mismatches;
+    }
+    int common = Math.min(leaves.length, other.leaves.length);
+    for (int i = 0; i < common; i++) {
+      if (!MessageDigest.isEqual(leaves[i], other.leaves[i])) {
+        mismatches.add(i);
+      }
+    }
+    for (int i = common; i < Math.max(leaves.length, other.leaves.length); i++) {
+      mismatches.add(i);
+    }
+    return mismatches;
+  }
+
+  /**
+   * 序列化，格式见类注释
+   *
+   * @return 序列化结果
+   */
+  public byte[] toBytes() {
+    byte[] name = algorithm.getBytes(StandardCharsets.US_ASCII);
+    int digestLength = root.length;
+    ByteBuffer buffer = ByteBuffer.allocate(1 + 1 + name.length + 4 + 8 + 1 + leaves.length * digestLength);
+    buffer.put(VERSION).put((byte) name.length).put(name).putInt(chunkSize).putLong(length).put((byte) digestLength);
+    for (byte[] leaf : leaves) {
+      buffer.put(leaf);
+    }
+    return buffer.array();
+  }
+
+  /**
+   * 反序列化 {@link #toBytes()} 的结果，并重新计算根摘要
+   *
+   * @param bytes 序列化结果
+   * @return 树摘要
+   */
+  public static TreeDigest fromBytes(final byte @NonNull [] bytes) {
+    try {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      if (buffer.get() != VERSION) {
+        throw new IllegalArgumentException("Bytes: should be a tree digest of version " + VERSION);
+      }
+      byte[] name = new byte[buffer.get() & 0xFF];
+      buffer.get(name);
+      String algorithm = new String(name, StandardCharsets.US_ASCII);
+      int chunkSize = buffer.getInt();
+      long length = buffer.getLong();
+      int digestLength = buffer.get() & 0xFF;
+      if (chunkSize <= 0 || length < 0 || digestLength == 0) {
+        throw new IllegalArgumentException("Bytes: should be a valid tree digest");
+      }
+      int chunks = chunks(length, chunkSize);
+      if (buffer.remaining() != (long) chunks * digestLength) {
+        throw new IllegalArgumentException("Bytes: should contain " + chunks + " leaves of " + digestLength + " bytes");
+      }
+      byte[][] leaves = new byte[chunks][digestLength];
+      for (byte[] leaf : leaves) {
+        buffer.get(leaf);
+      }
+      return new TreeDigest(algorithm, chunkSize, length, leaves);
+    } catch (BufferUnderflowException e) {
+      throw new IllegalArgumentException("Bytes: should be a valid tree digest", e);
+    }
+  }
+
+  /**
+   * 计算分块数，空文件为 1 块
+   *
+   * @param length    文件长度
+   * @param chunkSize 分块大小
+   * @return 分块数
+   */
+  static int chunks(final long length, final int chunkSize) {
+    long chunks = Math.max(1, (length + chunkSize - 1) / chunkSize);
+    if (chunks > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("ChunkSize: should be at least " + (length / (Integer.MAX_VALUE - 8) + 1));
+    }
+    return (int) chunks;
+  }
+
+  /**
+   * 逐层两两合并，落单的最后一个节点直接进入上一层，结果与 RFC 6962 的递归定义相同
+   *
+   * @param digest MessageDigest
+   * @param leaves 叶子摘要
+   * @return 根摘要
+   */
+  private static byte[] root(final MessageDigest digest, final byte[][] leaves) {
+    byte[][] level = leaves;
+    while (level.length > 1) {
+      byte[][] parent = new byte[(level.length + 1) >>> 1][];
+      for (int i = 0; i < level.length - 1; i += 2) {
+        digest.update(NODE_PREFIX);
+        digest.update(level[i]);
+        digest.update(level[i + 1]);
+        parent[i >>> 1] = digest.digest();
+      }
+      if ((level.length & 1) == 1) {
+        parent[parent.length - 1] = level[level.length - 1];
+      }
+      level = parent;
+    }
+    return level[0];
+  }
+
+  @Override
+  public String toString() {
+    return algorithm + "/" + chunkSize + "/" + getRootHex();
+  }
+}
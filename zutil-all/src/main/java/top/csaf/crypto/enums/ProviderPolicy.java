@@ -0,0 +1,18 @@
+package top.csaf.crypto.enums;
+
+/**
+ * 分组密码 JCE 提供者的选择策略
+ */
+public enum ProviderPolicy {
+  /**
+   * 优先使用 JDK 自带的 SunJCE：HotSpot 为其 AES 实现提供了 AES-NI、CLMUL 等硬件指令加速。
+   * <p>
+   * 仅 AES 的 ECB、CBC、CFB、OFB（NoPadding、PKCS5、PKCS7、ISO10126 填充）、CTR 和 GCM（NoPadding）使用 SunJCE，
+   * 其他算法、模式和填充方式（SM4、ZeroBytePadding 等）以及 SunJCE 不可用时使用 BouncyCastle，两者结果一致
+   */
+  PREFER_JDK,
+  /**
+   * 始终使用 BouncyCastle
+   */
+  BOUNCY_CASTLE,
+}
@@ -3,9 +3,11 @@ package top.csaf.idcard;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import top.csaf.date.DateUtil;
+import top.csaf.idcard.enums.CheckResult;
 
 import java.time.*;
 import java.util.Date;
+import java.util.stream.Stream;
 
 /**
  * 身份证工具类
@@ -21,6 +23,18 @@ public class IdCardUtil {
 
   private static final int NUMBER_LEN_CHINA1 = 15;
   private static final int NUMBER_LEN_CHINA2 = 18;
+  /**
+   * 18 位号码前 17 位的系数
+   */
+  private static final int[] COEFFICIENTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+  /**
+   * 余数对应的校验码
+   */
+  private static final char[] CHECK_CODES = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
+  /**
+   * 平年每月的天数，下标为月份
+   */
+  private static final int[] DAYS_OF_MONTH = {0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
 
   /**
    * 使用 ISO 7064:1983, MOD 11-2 校验身份证号码最后一位校验码
@@ -37,74 +51,142 @@ public class IdCardUtil {
     if (number.length() != NUMBER_LEN_CHINA2) {
       throw new IllegalArgumentException("Number: ID Card number must be 18 digits");
     }
-    final int[] coefficient = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
-    final char[] checkCode = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
     int sum = 0;
-    for (int i = 0; i < coefficient.length; i++) {
-      sum += (number.charAt(i) - '0') * coefficient[i];
+    for (int i = 0; i < COEFFICIENTS.length; i++) {
+      sum += (number.charAt(i) - '0') * COEFFICIENTS[i];
     }
-    return checkCode[sum % 11] == number.charAt(17);
+    return CHECK_CODES[sum % 11] == number.charAt(17);
   }
 
   /**
-   * 异常校验
+   * 校验，不抛出异常，也不创建任何对象
    * <p>
-   * 前六位地区码由于不断变化，不做正确性校验
+   * 前六位地区码由于不断变化，不做正确性校验；15 位号码的出生年份为 19xx 年
    *
    * @param number 身份证号码
+   * @return 校验结果，第一个不通过的项
    */
-  public static void exceptionValidate(@NonNull final String number) {
+  public static CheckResult check(@NonNull final String number) {
+    return result(number);
+  }
+
+  /**
+   * 批量校验
+   *
+   * @param numbers 身份证号码，元素可以为 null
+   * @return 与 numbers 一一对应的校验结果，null 元素的结果为 {@link CheckResult#NULL}
+   */
+  public static CheckResult[] validateAll(final String @NonNull [] numbers) {
+    CheckResult[] results = new CheckResult[numbers.length];
+    for (int i = 0; i < numbers.length; i++) {
+      results[i] = result(numbers[i]);
+    }
+    return results;
+  }
+
+  private static CheckResult result(final String number) {
+    if (number == null) {
+      return CheckResult.NULL;
+    }
     int len = number.length();
     if (len != NUMBER_LEN_CHINA1 && len != NUMBER_LEN_CHINA2) {
-      throw new IllegalArgumentException("Number: length should be 15 or 18");
+      return CheckResult.INVALID_LENGTH;
     }
     // 不能是 0 开头
     if (number.charAt(0) == '0') {
-      throw new IllegalArgumentException("Number: cannot start with 0");
-    }
-    // 18 位身份证号码
-    if (len == NUMBER_LEN_CHINA2) {
-      // 前 17 位必须是 0~9
-      for (int i = 0; i < NUMBER_LEN_CHINA2 - 1; i++) {
-        char c = number.charAt(i);
-        if (c < '0' || c > '9') {
-          throw new IllegalArgumentException("Number: the first 17 digits of 18 digits ID Card number should be 0~9");
-        }
-      }
-      // // 出生年 > 1850
-      // if (Integer.parseInt(number.substring(6, 10)) < 1850) {
-      //   log.error("Number: year should be greater than 1850");
-      //   return false;
-      // }
-      // 年月日校验
-      if (!DateUtil.validate(number.substring(6, 14), "uuuuMMdd")) {
-        throw new IllegalArgumentException("Number: the date of index 6~14 is invalid");
-      }
-      // 顺序码不能全为 0
-      if ("000".equals(number.substring(14, 17))) {
-        throw new IllegalArgumentException("Number: the order code of index 14~17 cannot be 000");
-      }
-      // 校验码校验
-      if (!validateCheckCode(number)) {
-        throw new IllegalArgumentException("Number: the check code of index 17 is invalid");
-      }
-    } else {
-      // 必须是 0~9
-      for (int i = 0; i < NUMBER_LEN_CHINA1; i++) {
-        char c = number.charAt(i);
-        if (c < '0' || c > '9') {
-          throw new IllegalArgumentException("Number: ID Card number should be 0~9");
-        }
-      }
-      // 年月日校验
-      if (!DateUtil.validate(number.substring(6, 12), "uuMMdd")) {
-        throw new IllegalArgumentException("Number: the date of index 6~12 is invalid");
-      }
-      // 顺序码不能全为 0
-      if ("000".equals(number.substring(12))) {
-        throw new IllegalArgumentException("Number: the order code of index 12~15 cannot be 000");
+      return CheckResult.LEADING_ZERO;
+    }
+    boolean isChina2 = len == NUMBER_LEN_CHINA2;
+    // 15 位号码必须是 0~9，18 位号码前 17 位必须是 0~9
+    int digits = isChina2 ? NUMBER_LEN_CHINA2 - 1 : NUMBER_LEN_CHINA1;
+    for (int i = 0; i < digits; i++) {
+      char c = number.charAt(i);
+      if (c < '0' || c > '9') {
+        return CheckResult.INVALID_DIGIT;
       }
     }
+    // 年月日校验
+    int monthIndex = isChina2 ? 10 : 8;
+    if (!isValidDate(year(number), parse(number, monthIndex, 2), parse(number, monthIndex + 2, 2))) {
+      return CheckResult.INVALID_DATE;
+    }
+    // 顺序码不能全为 0
+    int orderIndex = monthIndex + 4;
+    if (number.charAt(orderIndex) == '0' && number.charAt(orderIndex + 1) == '0' && number.charAt(orderIndex + 2) == '0') {
+      return CheckResult.INVALID_ORDER_CODE;
+    }
+    // 校验码校验
+    if (isChina2 && !validateCheckCode(number)) {
+      return CheckResult.INVALID_CHECK_CODE;
+    }
+    return CheckResult.VALID;
+  }
+
+  /**
+   * 出生年份，15 位号码为 19xx 年
+   *
+   * @param number 前 15 或 17 位均为数字的身份证号码
+   * @return 出生年份
+   */
+  private static int year(final String number) {
+    return number.length() == NUMBER_LEN_CHINA2 ? parse(number, 6, 4) : 1900 + parse(number, 6, 2);
+  }
+
+  private static boolean isValidDate(final int year, final int month, final int day) {
+    if (month < 1 || month > 12 || day < 1) {
+      return false;
+    }
+    if (month == 2 && day == 29) {
+      return year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+    return day <= DAYS_OF_MONTH[month];
+  }
+
+  /**
+   * 解析十进制数字
+   *
+   * @param number 身份证号码
+   * @param index  起始位置
+   * @param count  位数
+   * @return 数值
+   */
+  private static int parse(final String number, final int index, final int count) {
+    int value = 0;
+    for (int i = index; i < index + count; i++) {
+      value = value * 10 + number.charAt(i) - '0';
+    }
+    return value;
+  }
+
+  /**
+   * 异常校验
+   * <p>
+   * 前六位地区码由于不断变化，不做正确性校验
+   *
+   * @param number 身份证号码
+   */
+  public static void exceptionValidate(@NonNull final String number) {
+    CheckResult result = result(number);
+    if (result != CheckResult.VALID) {
+      throw new IllegalArgumentException(message(result, number.length() == NUMBER_LEN_CHINA2));
+    }
+  }
+
+  private static String message(final CheckResult result, final boolean isChina2) {
+    switch (result) {
+      case INVALID_LENGTH:
+        return "Number: length should be 15 or 18";
+      case LEADING_ZERO:
+        return "Number: cannot start with 0";
+      case INVALID_DIGIT:
+        return isChina2 ? "Number: the first 17 digits of 18 digits ID Card number should be 0~9" : "Number: ID Card number should be 0~9";
+      case INVALID_DATE:
+        return isChina2 ? "Number: the date of index 6~14 is invalid" : "Number: the date of index 6~12 is invalid";
+      case INVALID_ORDER_CODE:
+        return isChina2 ? "Number: the order code of index 14~17 cannot be 000" : "Number: the order code of index 12~15 cannot be 000";
+      default:
+        return "Number: the check code of index 17 is invalid";
+    }
   }
 
   /**
@@ -116,13 +198,14 @@ public class IdCardUtil {
    * @return 是否通过校验
    */
   public static boolean validate(@NonNull final String number) {
-    try {
-      exceptionValidate(number);
+    CheckResult result = result(number);
+    if (result == CheckResult.VALID) {
       return true;
-    } catch (Exception e) {
-      log.error(e.getMessage());
-      return false;
     }
+    if (log.isDebugEnabled()) {
+      log.debug(message(result, number.length() == NUMBER_LEN_CHINA2));
+    }
+    return false;
   }
 
   /**
@@ -259,7 +342,7 @@ public class IdCardUtil {
     if (isValidate && !validate(number)) {
       return -1;
     }
-    LocalDate birthday = getBirthday(number, LocalDate.class);
+    LocalDate birthday = getBirthday(number, LocalDate.class, false);
     return Period.between(birthday, LocalDate.now()).getYears();
   }
 
@@ -415,16 +498,7 @@ public class IdCardUtil {
     if (isValidate && !validate(number)) {
       return null;
     }
-    IdCard idCard = new IdCard();
-    idCard.setNumber(number);
-    idCard.setProvinceCode(getProvinceCode(number, false));
-    idCard.setCityCode(getCityCode(number, false));
-    idCard.setDistrictCode(getDistrictCode(number, false));
-    idCard.setBirthday(getBirthday(number, LocalDate.class, false));
-    idCard.setAge(getAge(number, false));
-    idCard.setGender(getGender(number, false));
-    idCard.setCheckCode(getCheckCode(number, false));
-    return idCard;
+    return toIdCard(number, LocalDate.now());
   }
 
   /**
@@ -436,4 +510,41 @@ public class IdCardUtil {
   public static IdCard get(@NonNull final String number) {
     return get(number, true);
   }
+
+  /**
+   * 批量获取身份证对象，用于大批量导入等场景
+   * <p>
+   * 惰性处理，跳过 null 和未通过校验的号码，每个号码只校验一次；年龄按调用本方法时的日期计算
+   *
+   * @param numbers 身份证号码
+   * @return 通过校验的身份证对象，顺序与 numbers 一致
+   */
+  public static Stream<IdCard> getAll(@NonNull final Stream<String> numbers) {
+    LocalDate today = LocalDate.now();
+    return numbers.filter(number -> result(number) == CheckResult.VALID).map(number -> toIdCard(number, today));
+  }
+
+  /**
+   * 直接从号码中读取各字段
+   *
+   * @param number 通过校验的身份证号码
+   * @param today  计算年龄的日期
+   * @return 身份证对象
+   */
+  private static IdCard toIdCard(final String number, final LocalDate today) {
+    boolean isChina2 = number.length() == NUMBER_LEN_CHINA2;
+    int monthIndex = isChina2 ? 10 : 8;
+    LocalDate birthday = LocalDate.of(year(number), parse(number, monthIndex, 2), parse(number, monthIndex + 2, 2));
+    IdCard idCard = new IdCard();
+    idCard.setNumber(number);
+    idCard.setProvinceCode(number.substring(0, 2));
+    idCard.setCityCode(number.substring(2, 4));
+    idCard.setDistrictCode(number.substring(4, 6));
+    idCard.setBirthday(birthday);
+    idCard.setAge(Period.between(birthday, today).getYears());
+    // 顺序码为奇数则为男性
+    idCard.setGender((number.charAt(number.length() - 2) - '0') % 2 != 0 ? 1 : 2);
+    idCard.setCheckCode(isChina2 ? number.substring(NUMBER_LEN_CHINA2 - 1) : null);
+    return idCard;
+  }
 }
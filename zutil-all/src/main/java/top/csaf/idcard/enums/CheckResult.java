@@ -0,0 +1,39 @@
+package top.csaf.idcard.enums;
+
+/**
+ * 身份证号码的校验结果，按校验顺序排列，返回第一个不通过的项
+ */
+public enum CheckResult {
+  /**
+   * 通过校验
+   */
+  VALID,
+  /**
+   * 号码为 null
+   */
+  NULL,
+  /**
+   * 长度不是 15 或 18 位
+   */
+  INVALID_LENGTH,
+  /**
+   * 以 0 开头
+   */
+  LEADING_ZERO,
+  /**
+   * 15 位号码含非数字字符，或 18 位号码前 17 位含非数字字符
+   */
+  INVALID_DIGIT,
+  /**
+   * 出生日期不存在，如 13 月、2 月 30 日、非闰年的 2 月 29 日
+   */
+  INVALID_DATE,
+  /**
+   * 顺序码为 000
+   */
+  INVALID_ORDER_CODE,
+  /**
+   * 18 位号码的校验码错误
+   */
+  INVALID_CHECK_CODE,
+}
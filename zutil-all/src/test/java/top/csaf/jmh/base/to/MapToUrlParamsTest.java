@@ -2,8 +2,14 @@ package top.csaf.jmh.base.to;
 
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.*;
+import top.csaf.charset.StandardCharsets;
+import top.csaf.http.UrlUtil;
 
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -24,6 +30,8 @@ public class MapToUrlParamsTest {
     // 结果是否相等
     MapToUrlParamsTest test = new MapToUrlParamsTest();
     System.out.println(test.toUrlParamsByKeySet().equals(test.toUrlParamsByKeySet1()) && test.toUrlParamsByKeySet1().equals(test.toUrlParamsByEntrySet()) && test.toUrlParamsByEntrySet().equals(test.toUrlParamsByEntrySet1()));
+    System.out.println(test.toUrlParamsEncoded().equals(test.toUrlParamsEncodedByUrlEncoder()));
+    System.out.println(test.toMapParamsDecoded().equals(test.toMapParamsDecodedBySplit()));
   }
 
   @Test
@@ -39,6 +47,66 @@ public class MapToUrlParamsTest {
     return map;
   }
 
+  /**
+   * 需要编码的参数：1000 个键值对，值含有空格和中文
+   */
+  private final Map<String, Object> encodeParams = getEncodeMap();
+  private final String encodedQuery = "?" + toUrlParamsEncodedByUrlEncoder();
+
+  private static Map<String, Object> getEncodeMap() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    for (int i = 0; i < 1000; i++) {
+      map.put("key" + i, i % 2 == 0 ? "plain-value-" + i : "需要 编码/" + i);
+    }
+    return map;
+  }
+
+  @Benchmark
+  public String toUrlParamsEncoded() {
+    return UrlUtil.toUrlParams("", encodeParams, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String toUrlParamsEncodedByUrlEncoder() {
+    StringBuilder result = new StringBuilder();
+    try {
+      for (Map.Entry<String, Object> entry : encodeParams.entrySet()) {
+        if (result.length() > 0) {
+          result.append("&");
+        }
+        result.append(URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8.name())).append("=")
+          .append(URLEncoder.encode(String.valueOf(entry.getValue()), StandardCharsets.UTF_8.name()));
+      }
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+    return result.toString();
+  }
+
+  @Benchmark
+  public Map<String, String> toMapParamsDecoded() {
+    return UrlUtil.toMapParams(encodedQuery, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Map<String, String> toMapParamsDecodedBySplit() {
+    Map<String, String> map = new HashMap<>();
+    try {
+      for (String param : encodedQuery.substring(1).split("&")) {
+        if (param.isEmpty()) {
+          continue;
+        }
+        int index = param.indexOf("=");
+        String key = index >= 0 ? param.substring(0, index) : param;
+        String value = index >= 0 ? param.substring(index + 1) : "";
+        map.put(URLDecoder.decode(key, StandardCharsets.UTF_8.name()), URLDecoder.decode(value, StandardCharsets.UTF_8.name()));
+      }
+    } catch (UnsupportedEncodingException e) {
+      throw new RuntimeException(e);
+    }
+    return map;
+  }
+
   @Benchmark
   public String toUrlParamsByKeySet() {
     Map<String, Object> params = getMap();
@@ -153,3 +221,10 @@ public class MapToUrlParamsTest {
 // ToUrlParamsTest.toUrlParamsByEntrySet1                                      ss       5    43.500 ± 41.572   us/op
 // ToUrlParamsTest.toUrlParamsByKeySet                                         ss       5    33.200 ± 16.636   us/op
 // ToUrlParamsTest.toUrlParamsByKeySet1                                        ss       5    37.140 ± 51.068   us/op
+//
+// 需要编码的 1000 个键值对
+// Benchmark                                          Mode  Cnt    Score     Error  Units
+// MapToUrlParamsTest.toMapParamsDecoded              avgt    5  288.632 ± 121.885  us/op
+// MapToUrlParamsTest.toMapParamsDecodedBySplit       avgt    5  499.896 ± 407.274  us/op
+// MapToUrlParamsTest.toUrlParamsEncoded              avgt    5  274.704 ±  43.648  us/op
+// MapToUrlParamsTest.toUrlParamsEncodedByUrlEncoder  avgt    5  403.053 ± 108.305  us/op
@@ -0,0 +1,127 @@
+package top.csaf.jmh.comparison.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.crypto.BlockCipher;
+import top.csaf.crypto.CipherSession;
+import top.csaf.crypto.enums.BlockCipherType;
+import top.csaf.crypto.enums.Padding;
+import top.csaf.crypto.enums.ProviderPolicy;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * AES 各提供者加密吞吐量测试，每次操作加密 1 MiB，MB/s = 1 / (ms/op) * 1000
+ * <p>
+ * SunJCE 的 AES/GHASH 内建函数需要 C2 编译后才生效，预热不足时 GCM 会明显慢于 BouncyCastle
+ * <p>
+ * GCM 会话禁止用固定 IV 加密，GCM 加密改为每次用新的 nonce 初始化同一提供者的 Cipher
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 8, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class AesProviderTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{AesProviderTest.class.getName()});
+  }
+
+  private static final int SIZE = 1024 * 1024;
+
+  @Param({"PREFER_JDK", "BOUNCY_CASTLE"})
+  public ProviderPolicy provider;
+
+  @Param({"CBC", "CTR", "GCM"})
+  public String mode;
+
+  private byte[] data;
+  private byte[] encrypted;
+  private CipherSession session;
+  private Cipher gcm;
+  private long counter;
+
+  @Setup(Level.Trial)
+  public void setUp() throws GeneralSecurityException {
+    data = new byte[SIZE];
+    new Random(1).nextBytes(data);
+    session = session(provider, mode);
+    if ("GCM".equals(mode)) {
+      gcm = Cipher.getInstance("AES/GCM/NoPadding", session.getProvider());
+      encrypted = gcm(gcm, "123456789012".getBytes(StandardCharsets.US_ASCII), data);
+    } else {
+      encrypted = session.encrypt(data);
+    }
+  }
+
+  private static byte[] gcm(Cipher cipher, byte[] nonce, byte[] data) throws GeneralSecurityException {
+    cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("1234567890123456".getBytes(StandardCharsets.US_ASCII), "AES"), new GCMParameterSpec(128, nonce));
+    return cipher.doFinal(data);
+  }
+
+  private static CipherSession session(ProviderPolicy provider, String mode) {
+    top.csaf.crypto.enums.Mode cipherMode = top.csaf.crypto.enums.Mode.valueOf(mode);
+    boolean gcm = cipherMode == top.csaf.crypto.enums.Mode.GCM;
+    return BlockCipher.builder(BlockCipherType.AES).ivLength(gcm ? 12 : 16).providerPolicy(provider).build()
+      .session("1234567890123456", gcm ? "123456789012" : "1234567890123456", cipherMode, cipherMode == top.csaf.crypto.enums.Mode.CBC ? Padding.PKCS7 : Padding.NO);
+  }
+
+  public static void main(String[] args) throws GeneralSecurityException {
+    for (String mode : new String[]{"CBC", "CTR", "GCM"}) {
+      AesProviderTest jdk = new AesProviderTest();
+      jdk.provider = ProviderPolicy.PREFER_JDK;
+      jdk.mode = mode;
+      jdk.setUp();
+      AesProviderTest bc = new AesProviderTest();
+      bc.provider = ProviderPolicy.BOUNCY_CASTLE;
+      bc.mode = mode;
+      bc.setUp();
+      System.out.println(mode + ": " + jdk.session.getProvider().getName() + " / " + bc.session.getProvider().getName());
+      assertArrayEquals(bc.encrypted, jdk.encrypted);
+      assertArrayEquals(jdk.data, jdk.decrypt());
+      assertArrayEquals(bc.data, bc.decrypt());
+    }
+  }
+
+  @Benchmark
+  public byte[] encrypt() throws GeneralSecurityException {
+    if (gcm != null) {
+      return gcm(gcm, ByteBuffer.allocate(12).putLong(4, ++counter).array(), data);
+    }
+    return session.encrypt(data);
+  }
+
+  @Benchmark
+  public byte[] decrypt() {
+    return session.decrypt(encrypted);
+  }
+}
+
+// 1 核环境（AES-NI、PCLMULQDQ、VAES），MB/s 按 1 MiB / 平均耗时换算，单核下误差较大
+// 预热 3 x 1s 时 SunJCE 的 GCM 尚未完成编译（encrypt 25.044 ms/op，慢于 BouncyCastle 的 13.040 ms/op），因此预热改为 8 x 2s
+// Benchmark                (mode)     (provider)  Mode  Cnt   Score    Error  Units   MB/s
+// AesProviderTest.decrypt     CBC     PREFER_JDK  avgt    5   0.254 ±  0.035  ms/op   3937
+// AesProviderTest.decrypt     CBC  BOUNCY_CASTLE  avgt    5  13.122 ±  1.726  ms/op     76
+// AesProviderTest.decrypt     CTR     PREFER_JDK  avgt    5   1.540 ±  7.390  ms/op    649
+// AesProviderTest.decrypt     CTR  BOUNCY_CASTLE  avgt    5  10.197 ±  6.843  ms/op     98
+// AesProviderTest.decrypt     GCM     PREFER_JDK  avgt    5   2.689 ± 20.743  ms/op    372
+// AesProviderTest.decrypt     GCM  BOUNCY_CASTLE  avgt    5  11.360 ±  2.383  ms/op     88
+// AesProviderTest.encrypt     CBC     PREFER_JDK  avgt    5   1.599 ±  3.918  ms/op    625
+// AesProviderTest.encrypt     CBC  BOUNCY_CASTLE  avgt    5   9.591 ±  3.946  ms/op    104
+// AesProviderTest.encrypt     CTR     PREFER_JDK  avgt    5   0.123 ±  0.061  ms/op   8130
+// AesProviderTest.encrypt     CTR  BOUNCY_CASTLE  avgt    5   8.260 ±  0.437  ms/op    121
+// AesProviderTest.encrypt     GCM     PREFER_JDK  avgt    5   0.231 ±  0.023  ms/op   4329
+// AesProviderTest.encrypt     GCM  BOUNCY_CASTLE  avgt    5  13.244 ±  7.047  ms/op     76
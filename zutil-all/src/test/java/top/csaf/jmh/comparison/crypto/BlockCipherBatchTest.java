@@ -0,0 +1,120 @@
+package top.csaf.jmh.comparison.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.crypto.AesUtil;
+import top.csaf.crypto.Sm4Util;
+import top.csaf.crypto.enums.EncodingType;
+import top.csaf.crypto.enums.Padding;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 列加密场景：10 万行手机号逐个调用工具类与批量加密的耗时对比
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class BlockCipherBatchTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{BlockCipherBatchTest.class.getName()});
+  }
+
+  private static final int ROWS = 100_000;
+  private static final String KEY = "1234567890123456";
+  private static final String IV = "1234567890123456";
+
+  /**
+   * AES 使用 Hex 编码，SM4 使用 Base64 编码
+   */
+  @Param({"AES", "SM4"})
+  public String type;
+
+  private List<String> data;
+  private EncodingType encoding;
+  private ExecutorService executor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    data = new ArrayList<>(ROWS);
+    for (int i = 0; i < ROWS; i++) {
+      data.add(String.valueOf(13800000000L + i * 7919L));
+    }
+    encoding = "AES".equals(type) ? EncodingType.HEX : EncodingType.BASE_64;
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  public static void main(String[] args) {
+    BlockCipherBatchTest test = new BlockCipherBatchTest();
+    for (String type : new String[]{"AES", "SM4"}) {
+      test.type = type;
+      test.setUp();
+      try {
+        List<String> expected = test.encryptEach();
+        assertEquals(expected, test.encryptAll());
+        assertEquals(expected, test.encryptAllParallel());
+      } finally {
+        test.tearDown();
+      }
+    }
+  }
+
+  @Benchmark
+  public List<String> encryptEach() {
+    List<String> result = new ArrayList<>(data.size());
+    for (String item : data) {
+      result.add("AES".equals(type)
+        ? AesUtil.encrypt(item, KEY, null, IV, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS7, encoding)
+        : Sm4Util.encrypt(item, KEY, null, IV, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS7, encoding));
+    }
+    return result;
+  }
+
+  @Benchmark
+  public List<String> encryptAll() {
+    return "AES".equals(type)
+      ? AesUtil.encryptAll(data, KEY, null, IV, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS7, encoding)
+      : Sm4Util.encryptAll(data, KEY, null, IV, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS7, encoding);
+  }
+
+  /**
+   * 4 线程的线程池
+   */
+  @Benchmark
+  public List<String> encryptAllParallel() {
+    return "AES".equals(type)
+      ? AesUtil.encryptAll(data, KEY, null, IV, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS7, encoding, executor)
+      : Sm4Util.encryptAll(data, KEY, null, IV, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS7, encoding, executor);
+  }
+}
+
+// 1 核环境，-prof gc；encryptAllParallel 的线程池在单核下只增加调度开销
+// Hex 编码改为查表实现前（BouncyCastle Hex.toHexString 每 16 字节分配约 360 B）：encryptAll AES 36.090 ms/op，44009131 B/op
+// Benchmark                                                   (type)  Mode  Cnt          Score         Error  Units
+// BlockCipherBatchTest.encryptAll                                AES  avgt    5         13.847 ±       7.748  ms/op
+// BlockCipherBatchTest.encryptAll:gc.alloc.rate.norm             AES  avgt    5   20008527.064 ±     647.383   B/op
+// BlockCipherBatchTest.encryptAll                                SM4  avgt    5         43.438 ±      11.263  ms/op
+// BlockCipherBatchTest.encryptAll:gc.alloc.rate.norm             SM4  avgt    5   15207875.474 ±       7.842   B/op
+// BlockCipherBatchTest.encryptAllParallel                        AES  avgt    5         21.776 ±      14.187  ms/op
+// BlockCipherBatchTest.encryptAllParallel                        SM4  avgt    5         50.546 ±      10.504  ms/op
+// BlockCipherBatchTest.encryptEach                               AES  avgt    5        387.898 ±     189.564  ms/op
+// BlockCipherBatchTest.encryptEach:gc.alloc.rate.norm            AES  avgt    5  398800132.389 ±      49.464   B/op
+// BlockCipherBatchTest.encryptEach                               SM4  avgt    5        286.643 ±      97.695  ms/op
+// BlockCipherBatchTest.encryptEach:gc.alloc.rate.norm            SM4  avgt    5  315601933.943 ±      34.985   B/op
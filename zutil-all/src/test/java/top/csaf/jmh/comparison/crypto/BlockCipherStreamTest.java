@@ -0,0 +1,139 @@
+package top.csaf.jmh.comparison.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.crypto.BlockCipher;
+import top.csaf.crypto.CipherSession;
+import top.csaf.crypto.enums.BlockCipherType;
+import top.csaf.crypto.enums.Padding;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * 流和文件加密吞吐量测试，每次操作加密 16 MiB，MB/s = 16 / (ms/op) * 1000
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class BlockCipherStreamTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{BlockCipherStreamTest.class.getName()});
+  }
+
+  private static final int SIZE = 16 * 1024 * 1024;
+
+  /**
+   * 算法/加密模式
+   */
+  @Param({"AES/CTR", "AES/CBC", "SM4/CBC"})
+  public String cipher;
+
+  private byte[] data;
+  private CipherSession session;
+  private Path source;
+  private Path target;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    data = new byte[SIZE];
+    new Random(1).nextBytes(data);
+    session = session(cipher);
+    source = Files.write(Files.createTempFile("zutil-stream", ".plain"), data);
+    target = Files.createTempFile("zutil-stream", ".encrypted");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(source);
+    Files.deleteIfExists(target);
+  }
+
+  private static CipherSession session(String cipher) {
+    String[] parts = cipher.split("/");
+    top.csaf.crypto.enums.Mode mode = top.csaf.crypto.enums.Mode.valueOf(parts[1]);
+    return BlockCipher.builder(BlockCipherType.valueOf(parts[0])).build()
+      .session("1234567890123456", "1234567890123456", mode, mode == top.csaf.crypto.enums.Mode.CTR ? Padding.NO : Padding.PKCS7);
+  }
+
+  public static void main(String[] args) throws IOException {
+    BlockCipherStreamTest test = new BlockCipherStreamTest();
+    for (String cipher : new String[]{"AES/CTR", "AES/CBC", "SM4/CBC"}) {
+      test.cipher = cipher;
+      test.setUp();
+      byte[] expected = test.encryptBytes();
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      test.session.encrypt(new ByteArrayInputStream(test.data), out);
+      assertArrayEquals(expected, out.toByteArray());
+      test.encryptFile();
+      assertArrayEquals(expected, Files.readAllBytes(test.target));
+      test.tearDown();
+    }
+  }
+
+  /**
+   * 整块加密，内存中同时存在明文和密文
+   */
+  @Benchmark
+  public byte[] encryptBytes() {
+    return session.encrypt(data);
+  }
+
+  @Benchmark
+  public long encryptStream() {
+    return session.encrypt(new ByteArrayInputStream(data), NullOutputStream.INSTANCE);
+  }
+
+  @Benchmark
+  public long encryptFile() {
+    return session.encrypt(source, target);
+  }
+
+  private static final class NullOutputStream extends OutputStream {
+    private static final NullOutputStream INSTANCE = new NullOutputStream();
+
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  }
+}
+
+// 1 核环境，-wi 2 -i 3 -prof gc，MB/s 按 16 MiB / 平均耗时换算
+// Benchmark                                               (cipher)  Mode  Cnt         Score       Error   Units   MB/s
+// BlockCipherStreamTest.encryptBytes                       AES/CTR  avgt    3       170.894 ±   282.589   ms/op     98
+// BlockCipherStreamTest.encryptBytes:gc.alloc.rate.norm    AES/CTR  avgt    3  16777288.814 ±   387.388    B/op
+// BlockCipherStreamTest.encryptBytes                       AES/CBC  avgt    3       162.954 ±   334.218   ms/op    103
+// BlockCipherStreamTest.encryptBytes:gc.alloc.rate.norm    AES/CBC  avgt    3  16777301.935 ±   358.305    B/op
+// BlockCipherStreamTest.encryptBytes                       SM4/CBC  avgt    3       296.019 ±   215.925   ms/op     57
+// BlockCipherStreamTest.encryptBytes:gc.alloc.rate.norm    SM4/CBC  avgt    3  16777344.000 ±   870.720    B/op
+// BlockCipherStreamTest.encryptFile                        AES/CTR  avgt    3       197.662 ±   249.359   ms/op     85
+// BlockCipherStreamTest.encryptFile:gc.alloc.rate.norm     AES/CTR  avgt    3    151261.333 ±   966.947    B/op
+// BlockCipherStreamTest.encryptFile                        AES/CBC  avgt    3       206.542 ±   101.479   ms/op     81
+// BlockCipherStreamTest.encryptFile:gc.alloc.rate.norm     AES/CBC  avgt    3    216624.800 ±  3853.157    B/op
+// BlockCipherStreamTest.encryptFile                        SM4/CBC  avgt    3       319.995 ±   155.193   ms/op     52
+// BlockCipherStreamTest.encryptFile:gc.alloc.rate.norm     SM4/CBC  avgt    3    216693.714 ± 18324.881    B/op
+// BlockCipherStreamTest.encryptStream                      AES/CTR  avgt    3       160.978 ±   358.415   ms/op    104
+// BlockCipherStreamTest.encryptStream:gc.alloc.rate.norm   AES/CTR  avgt    3    135573.839 ±   541.844    B/op
+// BlockCipherStreamTest.encryptStream                      AES/CBC  avgt    3       137.735 ±   107.206   ms/op    122
+// BlockCipherStreamTest.encryptStream:gc.alloc.rate.norm   AES/CBC  avgt    3    200830.222 ±   416.158    B/op
+// BlockCipherStreamTest.encryptStream                      SM4/CBC  avgt    3       294.086 ±    78.006   ms/op     57
+// BlockCipherStreamTest.encryptStream:gc.alloc.rate.norm   SM4/CBC  avgt    3    200577.143 ±  2900.545    B/op
+// 文件加密改用堆内缓冲区前（直接缓冲区 + Cipher.update(ByteBuffer, ByteBuffer)）：encryptFile 每次分配约 17.8 MB，与数据大小成正比
@@ -5,7 +5,9 @@ import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.*;
 import top.csaf.crypto.BlockCipher;
+import top.csaf.crypto.CipherSession;
 import top.csaf.crypto.DesUtil;
+import top.csaf.crypto.enums.BlockCipherType;
 import top.csaf.crypto.enums.Padding;
 
 import java.security.Security;
@@ -42,9 +44,11 @@ public class DesDecryptHexTest {
   private static final byte[] KEY = KEY_STR.getBytes();
   private static final String IV_STR = "12345678";
   private static final byte[] IV = IV_STR.getBytes();
+  private static final CipherSession SESSION = BlockCipher.builder(BlockCipherType.DES).build().session(KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5);
 
   public static void main(String[] args) {
     assertEquals(new String(new DES(cn.hutool.crypto.Mode.CBC, cn.hutool.crypto.Padding.PKCS5Padding, KEY, IV).decrypt(ENCRYPTED_DATA)), DesUtil.decryptHex(ENCRYPTED_DATA, KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+    assertEquals(DesUtil.decryptHex(ENCRYPTED_DATA, KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5), SESSION.decryptHex(ENCRYPTED_DATA));
   }
 
   @Benchmark
@@ -56,6 +60,11 @@ public class DesDecryptHexTest {
   public String decryptByZUtil() {
     return DesUtil.decryptHex(ENCRYPTED_DATA, KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5);
   }
+
+  @Benchmark
+  public String decryptByZUtilSession() {
+    return SESSION.decryptHex(ENCRYPTED_DATA);
+  }
 }
 
 // Benchmark                                    Mode     Cnt     Score     Error   Units
@@ -83,3 +92,9 @@ public class DesDecryptHexTest {
 // DesDecryptHexTest.decryptByZUtil:p1.00     sample          1335.296             us/op
 // DesDecryptHexTest.decryptByHutool              ss       5   366.360 ± 293.532   us/op
 // DesDecryptHexTest.decryptByZUtil               ss       5   254.660 ± 242.567   us/op
+
+// 加入会话后（-bm avgt -wi 5 -i 5）
+// Benchmark                                Mode  Cnt  Score   Error  Units
+// DesDecryptHexTest.decryptByHutool        avgt    5  6.056 ± 2.079  us/op
+// DesDecryptHexTest.decryptByZUtil         avgt    5  5.438 ± 1.549  us/op
+// DesDecryptHexTest.decryptByZUtilSession  avgt    5  0.391 ± 0.056  us/op
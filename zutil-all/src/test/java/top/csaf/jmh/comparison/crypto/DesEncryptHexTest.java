@@ -5,7 +5,9 @@ import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.jupiter.api.Test;
 import org.openjdk.jmh.annotations.*;
 import top.csaf.crypto.BlockCipher;
+import top.csaf.crypto.CipherSession;
 import top.csaf.crypto.DesUtil;
+import top.csaf.crypto.enums.BlockCipherType;
 import top.csaf.crypto.enums.Padding;
 
 import java.security.Security;
@@ -42,9 +44,11 @@ public class DesEncryptHexTest {
   private static final byte[] KEY = KEY_STR.getBytes();
   private static final String IV_STR = "12345678";
   private static final byte[] IV = IV_STR.getBytes();
+  private static final CipherSession SESSION = BlockCipher.builder(BlockCipherType.DES).build().session(KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5);
 
   public static void main(String[] args) {
     assertEquals(new DES(cn.hutool.crypto.Mode.CBC, cn.hutool.crypto.Padding.PKCS5Padding, KEY, IV).encryptHex(DATA), DesUtil.encryptHex(DATA, KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+    assertEquals(DesUtil.encryptHex(DATA, KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5), SESSION.encryptHex(DATA));
   }
 
   @Benchmark
@@ -56,6 +60,11 @@ public class DesEncryptHexTest {
   public String encryptByZUtil() {
     return DesUtil.encryptHex(DATA, KEY_STR, IV_STR, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5);
   }
+
+  @Benchmark
+  public String encryptByZUtilSession() {
+    return SESSION.encryptHex(DATA);
+  }
 }
 
 // Benchmark                                    Mode     Cnt     Score     Error   Units
@@ -83,3 +92,9 @@ public class DesEncryptHexTest {
 // DesEncryptHexTest.encryptByZUtil:p1.00     sample          1736.704             us/op
 // DesEncryptHexTest.encryptByHutool              ss       5   286.500 ± 179.683   us/op
 // DesEncryptHexTest.encryptByZUtil               ss       5   232.560 ± 118.243   us/op
+
+// 加入会话后（-bm avgt -wi 5 -i 5）
+// Benchmark                                Mode  Cnt  Score   Error  Units
+// DesEncryptHexTest.encryptByHutool        avgt    5  4.636 ± 2.680  us/op
+// DesEncryptHexTest.encryptByZUtil         avgt    5  5.412 ± 1.723  us/op
+// DesEncryptHexTest.encryptByZUtilSession  avgt    5  0.311 ± 0.043  us/op
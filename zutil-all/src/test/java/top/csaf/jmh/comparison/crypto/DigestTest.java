@@ -0,0 +1,150 @@
+package top.csaf.jmh.comparison.crypto;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.charset.StandardCharsets;
+import top.csaf.crypto.DigestUtil;
+import top.csaf.crypto.Md5Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.Security;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 摘要性能测试：短字符串 MD5（原实现 vs 线程缓存 + 查表编码），以及 256 MiB 文件的 SHA-256（读入 byte[] vs 输入流 vs 内存映射）
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class DigestTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{DigestTest.class.getName()});
+  }
+
+  static {
+    Security.addProvider(new BouncyCastleProvider());
+  }
+
+  private static final int FILE_SIZE = 256 * 1024 * 1024;
+
+  private String text;
+  private Path file;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    text = "user-13800138000@example.com";
+    byte[] data = new byte[FILE_SIZE];
+    new Random(1).nextBytes(data);
+    file = Files.createTempFile("zutil-digest", ".bin");
+    Files.write(file, data);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  public static void main(String[] args) throws Exception {
+    DigestTest test = new DigestTest();
+    test.setUp();
+    try {
+      assertEquals(test.md5Legacy(), test.md5Util());
+      assertEquals(test.md5Legacy(), test.md5Codec());
+      String expected = test.fileReadAllBytes();
+      assertEquals(expected, test.fileCodecStream());
+      assertEquals(expected, test.fileStream());
+      assertEquals(expected, test.filePath());
+    } finally {
+      test.tearDown();
+    }
+  }
+
+  /**
+   * 原 Md5Util 实现：每次 getInstance（BC 提供者）并用 String.format 逐字节转十六进制
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String md5Legacy() throws Exception {
+    MessageDigest md = MessageDigest.getInstance("MD5", "BC");
+    byte[] digest = md.digest(text.getBytes(StandardCharsets.UTF_8));
+    StringBuilder hex = new StringBuilder(32);
+    for (byte b : digest) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String md5Codec() {
+    return DigestUtils.md5Hex(text);
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public String md5Util() {
+    return Md5Util.toLowerCase(text);
+  }
+
+  /**
+   * 整个文件读入堆内存后计算
+   */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String fileReadAllBytes() throws IOException {
+    return DigestUtils.sha256Hex(Files.readAllBytes(file));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String fileCodecStream() throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return DigestUtils.sha256Hex(in);
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String fileStream() throws IOException {
+    try (InputStream in = Files.newInputStream(file)) {
+      return DigestUtil.digestHex("SHA-256", in);
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public String filePath() {
+    return DigestUtil.sha256Hex(file);
+  }
+}
+
+// 1 核环境，-prof gc；文件为 256 MiB 随机数据，已在页缓存中
+// Benchmark                                         Mode  Cnt          Score        Error  Units
+// DigestTest.md5Legacy                              avgt    5       5072.981 ±   1937.241  ns/op
+// DigestTest.md5Legacy:gc.alloc.rate.norm           avgt    5       9296.055 ±      0.002   B/op
+// DigestTest.md5Codec                               avgt    5        265.904 ±      7.199  ns/op
+// DigestTest.md5Codec:gc.alloc.rate.norm            avgt    5        424.000 ±      0.001   B/op
+// DigestTest.md5Util                                avgt    5        197.501 ±     25.070  ns/op
+// DigestTest.md5Util:gc.alloc.rate.norm             avgt    5        200.000 ±      0.001   B/op
+// DigestTest.fileReadAllBytes                       avgt    5        503.518 ±     59.037  ms/op
+// DigestTest.fileReadAllBytes:gc.alloc.rate.norm    avgt    5  268436922.560 ±    126.384   B/op
+// DigestTest.fileCodecStream                        avgt    5        442.585 ±     52.648  ms/op
+// DigestTest.fileCodecStream:gc.alloc.rate.norm     avgt    5       2400.320 ±    140.925   B/op
+// DigestTest.fileStream                             avgt    5        268.260 ±     11.188  ms/op
+// DigestTest.fileStream:gc.alloc.rate.norm          avgt    5      66282.400 ±     89.547   B/op
+// DigestTest.filePath                               avgt    5        255.422 ±     18.186  ms/op
+// DigestTest.filePath:gc.alloc.rate.norm            avgt    5       1968.978 ±     93.365   B/op
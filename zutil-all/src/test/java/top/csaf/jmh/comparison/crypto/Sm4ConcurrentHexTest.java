@@ -0,0 +1,121 @@
+package top.csaf.jmh.comparison.crypto;
+
+import cn.hutool.crypto.symmetric.SM4;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.crypto.Sm4Util;
+import top.csaf.crypto.enums.EncodingType;
+import top.csaf.crypto.enums.Padding;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SM4 工具类多线程加密性能测试
+ * <p>
+ * 各线程交替使用 UTF-8 密钥和 Hex 密钥，同时校验结果：工具类静态方法不能因共享状态互相影响
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+public class Sm4ConcurrentHexTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{Sm4ConcurrentHexTest.class.getName()});
+  }
+
+  private static final String DATA = "1";
+  private static final String KEY_STR = "1234567890123456";
+  private static final String KEY_HEX = "31323334353637383930313233343536";
+  private static final byte[] KEY = KEY_STR.getBytes();
+  private static final String IV_STR = "1234567890123456";
+  private static final byte[] IV = IV_STR.getBytes();
+  private static final String EXPECTED = new SM4(cn.hutool.crypto.Mode.CBC, cn.hutool.crypto.Padding.PKCS5Padding, KEY, IV).encryptHex(DATA);
+
+  /**
+   * 结果错误的次数
+   */
+  private final AtomicLong mismatches = new AtomicLong();
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (mismatches.get() != 0) {
+      throw new IllegalStateException("Mismatches: " + mismatches.get());
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    Future<?>[] futures = new Future[8];
+    for (int i = 0; i < futures.length; i++) {
+      futures[i] = executor.submit(() -> {
+        for (int j = 0; j < 10000; j++) {
+          assertEquals(EXPECTED, Sm4Util.encryptHex(DATA, KEY_STR, null, IV_STR, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+          assertEquals(EXPECTED, Sm4Util.encryptHex(DATA, KEY_HEX, EncodingType.HEX, IV_STR, EncodingType.UTF_8, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+        }
+      });
+    }
+    try {
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Benchmark
+  public String encryptByHutool() {
+    return check(new SM4(cn.hutool.crypto.Mode.CBC, cn.hutool.crypto.Padding.PKCS5Padding, KEY, IV).encryptHex(DATA));
+  }
+
+  @Benchmark
+  public String encryptByZUtil() {
+    return check(Sm4Util.encryptHex(DATA, KEY_STR, null, IV_STR, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+  }
+
+  /**
+   * 同一线程交替使用 UTF-8 密钥和 Hex 密钥
+   */
+  @Benchmark
+  public String encryptByZUtilMixedEncoding(Counter counter) {
+    if ((counter.value++ & 1) == 0) {
+      return check(Sm4Util.encryptHex(DATA, KEY_STR, null, IV_STR, null, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+    }
+    return check(Sm4Util.encryptHex(DATA, KEY_HEX, EncodingType.HEX, IV_STR, EncodingType.UTF_8, top.csaf.crypto.enums.Mode.CBC, Padding.PKCS5));
+  }
+
+  private String check(String encrypted) {
+    if (!EXPECTED.equals(encrypted)) {
+      mismatches.incrementAndGet();
+    }
+    return encrypted;
+  }
+
+  @State(Scope.Thread)
+  public static class Counter {
+    private int value;
+  }
+}
+
+// 8 线程，1 核环境（-wi 3 -i 5）
+// 修改前：共享的 Builder 被并发修改编码，encryptByZUtilMixedEncoding 出现 649323 次错误结果（Mismatches），main 校验失败
+// Benchmark                                          Mode  Cnt  Score   Error   Units
+// Sm4ConcurrentHexTest.encryptByHutool              thrpt    5  0.145 ± 0.188  ops/us
+// Sm4ConcurrentHexTest.encryptByZUtil               thrpt    5  0.234 ± 0.121  ops/us
+// Sm4ConcurrentHexTest.encryptByZUtilMixedEncoding  thrpt    4  0.178 ± 0.064  ops/us
+// 修改后：结果全部正确
+// Benchmark                                          Mode  Cnt  Score   Error   Units
+// Sm4ConcurrentHexTest.encryptByHutool              thrpt    5  0.291 ± 0.519  ops/us
+// Sm4ConcurrentHexTest.encryptByZUtil               thrpt    5  0.227 ± 0.113  ops/us
+// Sm4ConcurrentHexTest.encryptByZUtilMixedEncoding  thrpt    5  0.169 ± 0.084  ops/us
@@ -0,0 +1,111 @@
+package top.csaf.jmh.comparison.crypto;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.crypto.DigestUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 树摘要随线程数的扩展性测试，文件 512 MiB，分块 4 MiB，MB/s = 512 / (ms/op) * 1000
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class TreeDigestTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{TreeDigestTest.class.getName()});
+  }
+
+  private static final int FILE_SIZE = 512 * 1024 * 1024;
+
+  /**
+   * ForkJoinPool 的并行度
+   */
+  @Param({"1", "2", "4", "8"})
+  public int threads;
+
+  @Param({"SHA-256", "SM3"})
+  public String algorithm;
+
+  private Path file;
+  private ForkJoinPool pool;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    byte[] data = new byte[FILE_SIZE];
+    new Random(1).nextBytes(data);
+    file = Files.createTempFile("zutil-tree", ".bin");
+    Files.write(file, data);
+    pool = new ForkJoinPool(threads);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    pool.shutdown();
+    Files.deleteIfExists(file);
+  }
+
+  public static void main(String[] args) throws Exception {
+    TreeDigestTest test = new TreeDigestTest();
+    test.algorithm = "SHA-256";
+    test.threads = 4;
+    test.setUp();
+    try {
+      ForkJoinPool single = new ForkJoinPool(1);
+      try {
+        assertEquals(DigestUtil.treeDigest(test.algorithm, test.file, DigestUtil.DEFAULT_CHUNK_SIZE, single).getRootHex(), test.tree());
+      } finally {
+        single.shutdown();
+      }
+    } finally {
+      test.tearDown();
+    }
+  }
+
+  /**
+   * 普通的单线程文件摘要，与线程数无关，作为基准
+   */
+  @Benchmark
+  public String serial() {
+    return DigestUtil.digestHex(algorithm, file);
+  }
+
+  @Benchmark
+  public String tree() {
+    return DigestUtil.treeDigest(algorithm, file, DigestUtil.DEFAULT_CHUNK_SIZE, pool).getRootHex();
+  }
+}
+
+// 1 核环境（nproc = 1），多线程只增加调度开销，无法体现多核扩展性，需在多核机器上复测；文件已在页缓存中，MB/s 按 512 MiB / 平均耗时换算
+// 单线程时树摘要与普通文件摘要耗时基本相同，分块和合并的额外开销可以忽略
+// Benchmark              (algorithm)  (threads)  Mode  Cnt     Score      Error  Units  MB/s
+// TreeDigestTest.serial      SHA-256          1  avgt    5   453.193 ±   47.729  ms/op   1130
+// TreeDigestTest.serial      SHA-256          2  avgt    5   506.357 ±   64.332  ms/op   1011
+// TreeDigestTest.serial      SHA-256          4  avgt    5   492.301 ±   31.851  ms/op   1040
+// TreeDigestTest.serial      SHA-256          8  avgt    5   557.439 ±  349.137  ms/op    918
+// TreeDigestTest.serial          SM3          1  avgt    5  4538.678 ± 1876.506  ms/op    113
+// TreeDigestTest.serial          SM3          2  avgt    5  4137.046 ±  619.653  ms/op    124
+// TreeDigestTest.serial          SM3          4  avgt    5  4181.149 ±  802.502  ms/op    122
+// TreeDigestTest.serial          SM3          8  avgt    5  3795.484 ± 1733.780  ms/op    135
+// TreeDigestTest.tree        SHA-256          1  avgt    5   483.335 ±   18.902  ms/op   1059
+// TreeDigestTest.tree        SHA-256          2  avgt    5   512.533 ±   57.571  ms/op    999
+// TreeDigestTest.tree        SHA-256          4  avgt    5   487.995 ±   68.742  ms/op   1049
+// TreeDigestTest.tree        SHA-256          8  avgt    5   486.922 ±   88.604  ms/op   1052
+// TreeDigestTest.tree            SM3          1  avgt    5  4116.933 ± 1866.886  ms/op    124
+// TreeDigestTest.tree            SM3          2  avgt    5  4078.034 ±  885.171  ms/op    126
+// TreeDigestTest.tree            SM3          4  avgt    5  4515.947 ±  479.446  ms/op    113
+// TreeDigestTest.tree            SM3          8  avgt    5  4716.375 ± 1603.742  ms/op    109
@@ -0,0 +1,207 @@
+package top.csaf.jmh.comparison.idcard;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.date.DateUtil;
+import top.csaf.idcard.IdCard;
+import top.csaf.idcard.IdCardUtil;
+import top.csaf.idcard.enums.CheckResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 100 万个身份证号码（约一半有效，其余为日期、顺序码、校验码、长度等各类错误）的批量校验与提取
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+public class IdCardValidateTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{IdCardValidateTest.class.getName()});
+  }
+
+  private static final int COUNT = 1_000_000;
+  private static final int[] COEFFICIENTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+  private static final char[] CHECK_CODES = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
+
+  private String[] numbers;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Random random = new Random(1);
+    numbers = new String[COUNT];
+    for (int i = 0; i < COUNT; i++) {
+      String first17 = String.format("%06d%04d%02d%02d%03d", 110101 + random.nextInt(500000), 1940 + random.nextInt(80),
+        1 + random.nextInt(12), 1 + random.nextInt(28), 1 + random.nextInt(999));
+      String number = first17 + checkCode(first17);
+      switch (random.nextInt(10)) {
+        case 0:
+          // 日期错误
+          number = number.substring(0, 10) + "13" + number.substring(12);
+          break;
+        case 1:
+          // 顺序码为 000
+          number = number.substring(0, 14) + "000" + number.substring(17);
+          break;
+        case 2:
+          // 校验码错误
+          number = first17 + (checkCode(first17) == '0' ? '1' : '0');
+          break;
+        case 3:
+          // 长度错误
+          number = number.substring(0, 16);
+          break;
+        case 4:
+          // 15 位号码
+          number = number.substring(0, 6) + number.substring(8, 17);
+          break;
+        default:
+          break;
+      }
+      numbers[i] = number;
+    }
+  }
+
+  private static char checkCode(String first17) {
+    int sum = 0;
+    for (int i = 0; i < 17; i++) {
+      sum += (first17.charAt(i) - '0') * COEFFICIENTS[i];
+    }
+    return CHECK_CODES[sum % 11];
+  }
+
+  public static void main(String[] args) {
+    IdCardValidateTest test = new IdCardValidateTest();
+    test.setUp();
+    int valid = test.validate();
+    System.out.println("valid: " + valid);
+    assertEquals(valid, test.validateLegacy());
+    assertEquals(valid, test.validateAll());
+    List<IdCard> idCards = test.getAll();
+    assertEquals(valid, idCards.size());
+    assertEquals(idCards, test.getEach());
+  }
+
+  /**
+   * 原实现：DateUtil.validate 每次构建 DateTimeFormatter，每个无效号码抛出并捕获一次异常（不含原实现的 ERROR 日志）
+   */
+  @Benchmark
+  public int validateLegacy() {
+    int valid = 0;
+    for (String number : numbers) {
+      try {
+        legacyExceptionValidate(number);
+        valid++;
+      } catch (IllegalArgumentException ignored) {
+        // 无效号码
+      }
+    }
+    return valid;
+  }
+
+  @Benchmark
+  public int validate() {
+    int valid = 0;
+    for (String number : numbers) {
+      if (IdCardUtil.validate(number)) {
+        valid++;
+      }
+    }
+    return valid;
+  }
+
+  @Benchmark
+  public int validateAll() {
+    int valid = 0;
+    for (CheckResult result : IdCardUtil.validateAll(numbers)) {
+      if (result == CheckResult.VALID) {
+        valid++;
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * 逐个调用 get，跳过无效号码
+   */
+  @Benchmark
+  public List<IdCard> getEach() {
+    return Arrays.stream(numbers).map(IdCardUtil::get).filter(idCard -> idCard != null).collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public List<IdCard> getAll() {
+    return IdCardUtil.getAll(Arrays.stream(numbers)).collect(Collectors.toList());
+  }
+
+  private static void legacyExceptionValidate(String number) {
+    int len = number.length();
+    if (len != 15 && len != 18) {
+      throw new IllegalArgumentException("Number: length should be 15 or 18");
+    }
+    if (number.charAt(0) == '0') {
+      throw new IllegalArgumentException("Number: cannot start with 0");
+    }
+    if (len == 18) {
+      for (int i = 0; i < 17; i++) {
+        char c = number.charAt(i);
+        if (c < '0' || c > '9') {
+          throw new IllegalArgumentException("Number: the first 17 digits of 18 digits ID Card number should be 0~9");
+        }
+      }
+      if (!DateUtil.validate(number.substring(6, 14), "uuuuMMdd")) {
+        throw new IllegalArgumentException("Number: the date of index 6~14 is invalid");
+      }
+      if ("000".equals(number.substring(14, 17))) {
+        throw new IllegalArgumentException("Number: the order code of index 14~17 cannot be 000");
+      }
+      final int[] coefficient = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+      final char[] checkCode = {'1', '0', 'X', '9', '8', '7', '6', '5', '4', '3', '2'};
+      int sum = 0;
+      for (int i = 0; i < coefficient.length; i++) {
+        sum += (number.charAt(i) - '0') * coefficient[i];
+      }
+      if (checkCode[sum % 11] != number.charAt(17)) {
+        throw new IllegalArgumentException("Number: the check code of index 17 is invalid");
+      }
+    } else {
+      for (int i = 0; i < 15; i++) {
+        char c = number.charAt(i);
+        if (c < '0' || c > '9') {
+          throw new IllegalArgumentException("Number: ID Card number should be 0~9");
+        }
+      }
+      if (!DateUtil.validate(number.substring(6, 12), "uuMMdd")) {
+        throw new IllegalArgumentException("Number: the date of index 6~12 is invalid");
+      }
+      if ("000".equals(number.substring(12))) {
+        throw new IllegalArgumentException("Number: the order code of index 12~15 cannot be 000");
+      }
+    }
+  }
+}
+
+// 1 核环境，-prof gc；100 万个号码中 598908 个有效
+// Benchmark                                             Mode  Cnt           Score          Error  Units
+// IdCardValidateTest.validateLegacy                     avgt    5        3696.369 ±     1389.462  ms/op
+// IdCardValidateTest.validateLegacy:gc.alloc.rate.norm  avgt    5  4817790544.000 ±        0.001   B/op
+// IdCardValidateTest.validate                           avgt    5          53.733 ±        5.032  ms/op
+// IdCardValidateTest.validate:gc.alloc.rate.norm        avgt    5          13.960 ±        1.741   B/op
+// IdCardValidateTest.validateAll                        avgt    5          52.299 ±        9.384  ms/op
+// IdCardValidateTest.validateAll:gc.alloc.rate.norm     avgt    5     4000029.225 ±        2.612   B/op
+// IdCardValidateTest.getEach                            avgt    5         542.622 ±      181.759  ms/op
+// IdCardValidateTest.getEach:gc.alloc.rate.norm         avgt    5   196587528.640 ±       53.993   B/op
+// IdCardValidateTest.getAll                             avgt    5         423.140 ±      548.538  ms/op
+// IdCardValidateTest.getAll:gc.alloc.rate.norm          avgt    5   163048802.966 ±      125.071   B/op
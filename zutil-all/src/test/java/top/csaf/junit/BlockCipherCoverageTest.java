@@ -2,8 +2,11 @@ package top.csaf.junit;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import top.csaf.crypto.AesUtil;
 import top.csaf.crypto.BlockCipher;
 import top.csaf.crypto.BlockCipherUtil;
+import top.csaf.crypto.DesUtil;
+import top.csaf.crypto.Sm4Util;
 import top.csaf.crypto.enums.BlockCipherType;
 import top.csaf.crypto.enums.EncodingType;
 import top.csaf.crypto.enums.Mode;
@@ -11,6 +14,14 @@ import top.csaf.crypto.enums.Padding;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,6 +75,38 @@ class BlockCipherCoverageTest {
     assertThrows(Exception.class, () -> encrypt.invoke(aes, new Object(), "1234567890123456", null, Mode.ECB, Padding.PKCS7, EncodingType.BASE_64));
   }
 
+  @DisplayName("工具类静态方法：编码参数只作用于本次调用，多线程并发结果正确")
+  @Test
+  void staticHelpersAreStateless() throws Exception {
+    String key = "1234567890123456";
+    String hexKey = "31323334353637383930313233343536";
+    String iv = "6543210987654321";
+    String expected = Sm4Util.encryptHex("hello", key, iv, Mode.CBC, Padding.PKCS7);
+    assertEquals(expected, Sm4Util.encryptHex("hello", hexKey, EncodingType.HEX, iv, null, Mode.CBC, Padding.PKCS7));
+    // 上一次调用的 Hex 密钥编码不能影响之后的调用
+    assertEquals(expected, Sm4Util.encryptHex("hello", key, iv, Mode.CBC, Padding.PKCS7));
+    assertEquals(AesUtil.encryptHex("hello", key, iv, Mode.CBC, Padding.PKCS7), AesUtil.encryptHex("hello", hexKey, EncodingType.HEX, iv, null, Mode.CBC, Padding.PKCS7));
+    assertEquals(DesUtil.encryptHex("hello", "12345678", "12345678", Mode.CBC, Padding.PKCS5), DesUtil.encryptHex("hello", "3132333435363738", EncodingType.HEX, "12345678", null, Mode.CBC, Padding.PKCS5));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int thread = t;
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 500; i++) {
+          boolean hex = (i + thread) % 2 == 0;
+          String encrypted = hex ? Sm4Util.encryptHex("hello", hexKey, EncodingType.HEX, iv, null, Mode.CBC, Padding.PKCS7) : Sm4Util.encryptHex("hello", key, iv, Mode.CBC, Padding.PKCS7);
+          assertEquals(expected, encrypted);
+          assertEquals("hello", hex ? Sm4Util.decryptHex(encrypted, hexKey, EncodingType.HEX, iv, null, Mode.CBC, Padding.PKCS7) : Sm4Util.decryptHex(encrypted, key, iv, Mode.CBC, Padding.PKCS7));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+  }
+
   @DisplayName("BlockCipherUtil：全部重载和异常分支")
   @Test
   void blockCipherUtilOverloads() throws Exception {
@@ -115,7 +158,8 @@ class BlockCipherCoverageTest {
   }
 
   private boolean isBlockCipherUtilNonNullParam(String methodName, Class<?>[] types, int index) {
-    return types[index].equals(Mode.class) || types[index].equals(Padding.class) || types[index].equals(String.class) && (index == 2 || methodName.startsWith("encrypt") && index == 1);
+    return types[index].equals(Mode.class) || types[index].equals(Padding.class) || types[index].equals(String.class) && (index == 2 || methodName.startsWith("encrypt") && index == 1)
+      || types[index].equals(List.class) || types[index].equals(Executor.class);
   }
 
   private Object[] args(String methodName, Class<?>[] types) {
@@ -144,6 +188,11 @@ class BlockCipherCoverageTest {
         args[i] = Mode.ECB;
       } else if (type.equals(Padding.class)) {
         args[i] = Padding.PKCS7;
+      } else if (type.equals(List.class)) {
+        args[i] = Collections.singletonList(methodName.startsWith("decrypt")
+          ? BlockCipherUtil.encrypt(BlockCipherType.AES, "hello", "1234567890123456", "1234567890123456", Mode.ECB, Padding.PKCS7, EncodingType.BASE_64) : "hello");
+      } else if (type.equals(Executor.class)) {
+        args[i] = (Executor) Runnable::run;
       }
     }
     return args;
@@ -0,0 +1,470 @@
+package top.csaf.junit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.csaf.crypto.AesUtil;
+import top.csaf.crypto.BlockCipher;
+import top.csaf.crypto.BlockCipherUtil;
+import top.csaf.crypto.CipherSession;
+import top.csaf.crypto.DesUtil;
+import top.csaf.crypto.Sm4Util;
+import top.csaf.crypto.enums.BlockCipherType;
+import top.csaf.crypto.enums.EncodingType;
+import top.csaf.crypto.enums.Mode;
+import top.csaf.crypto.enums.Padding;
+import top.csaf.crypto.enums.ProviderPolicy;
+
+import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
+import javax.crypto.CipherOutputStream;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("加解密会话测试")
+class CipherSessionTest {
+
+  private static final String KEY = "1234567890123456";
+  private static final String IV = "6543210987654321";
+
+  @DisplayName("与工具类结果一致")
+  @Test
+  void matchesUtil() {
+    for (Mode mode : new Mode[]{Mode.ECB, Mode.CBC, Mode.CTR, Mode.CFB, Mode.OFB}) {
+      CipherSession aes = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, mode, Padding.PKCS7);
+      CipherSession des = BlockCipher.builder(BlockCipherType.DES).build().session("12345678", "87654321", mode, Padding.PKCS5);
+      CipherSession sm4 = BlockCipher.builder(BlockCipherType.SM4).build().session(KEY, IV, mode, Padding.PKCS7);
+      for (String data : new String[]{"", "1", "hello world", "plaintext longer than one cipher block"}) {
+        // 反复调用验证复用的 Cipher 在 doFinal 后恢复到初始状态
+        for (int i = 0; i < 3; i++) {
+          String hex = aes.encryptHex(data);
+          assertEquals(AesUtil.encryptHex(data, KEY, EncodingType.UTF_8, IV, EncodingType.UTF_8, mode, Padding.PKCS7), hex, mode + data);
+          assertEquals(data, aes.decryptHex(hex));
+          String base64 = des.encryptBase64(data);
+          assertEquals(DesUtil.encryptBase64(data, "12345678", EncodingType.UTF_8, "87654321", EncodingType.UTF_8, mode, Padding.PKCS5), base64, mode + data);
+          assertEquals(data, des.decryptBase64(base64));
+          String sm4Hex = sm4.encrypt(data, EncodingType.HEX);
+          assertEquals(Sm4Util.encryptHex(data, KEY, EncodingType.UTF_8, IV, EncodingType.UTF_8, mode, Padding.PKCS7), sm4Hex, mode + data);
+          assertEquals(data, sm4.decrypt(sm4Hex, EncodingType.HEX));
+        }
+      }
+    }
+
+    // 编码后的密钥、不足长度的密钥补 0
+    CipherSession hexKey = BlockCipher.builder(BlockCipherType.AES).keyEncoding(EncodingType.HEX).build()
+      .session("31323334", IV, Mode.CBC, Padding.PKCS7);
+    assertEquals(BlockCipher.builder(BlockCipherType.AES).build().session("1234", IV, Mode.CBC, Padding.PKCS7).encryptHex("hello"), hexKey.encryptHex("hello"));
+    byte[] bytes = hexKey.encrypt(new byte[]{1, 2, 3});
+    assertArrayEquals(new byte[]{1, 2, 3}, hexKey.decrypt(bytes));
+  }
+
+  @DisplayName("认证加密模式的会话禁止用固定 IV 加密，仍可解密")
+  @Test
+  void aead(@TempDir Path dir) throws Exception {
+    CipherSession gcm = BlockCipher.builder(BlockCipherType.AES).ivLength(12).build().session(KEY, "123456789012", Mode.GCM, Padding.NO);
+    byte[] data = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    assertThrows(IllegalArgumentException.class, () -> gcm.encrypt(data));
+    assertThrows(IllegalArgumentException.class, () -> gcm.encryptBase64("0123456789abcdef"));
+    assertThrows(IllegalArgumentException.class, () -> gcm.encryptAll(Collections.singletonList("0123456789abcdef"), EncodingType.HEX));
+    assertThrows(IllegalArgumentException.class, () -> gcm.encrypt(new ByteArrayInputStream(data), new ByteArrayOutputStream()));
+    Path plain = Files.write(dir.resolve("plain"), data);
+    assertThrows(IllegalArgumentException.class, () -> gcm.encrypt(plain, dir.resolve("encrypted")));
+    assertThrows(IllegalArgumentException.class, () -> gcm.encryptInputStream(new ByteArrayInputStream(data)));
+    assertThrows(IllegalArgumentException.class, () -> gcm.encryptOutputStream(new ByteArrayOutputStream()));
+    assertFalse(Files.exists(dir.resolve("encrypted")));
+
+    // 其他地方用该 IV 加密一次的密文，会话可反复解密
+    byte[] encrypted = gcm(KEY, "123456789012", data);
+    for (int i = 0; i < 2; i++) {
+      assertArrayEquals(data, gcm.decrypt(encrypted));
+      assertEquals("0123456789abcdef", gcm.decryptBase64(Base64.getEncoder().encodeToString(encrypted)));
+      ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+      assertEquals(data.length, gcm.decrypt(new ByteArrayInputStream(encrypted), decrypted));
+      assertArrayEquals(data, decrypted.toByteArray());
+    }
+    // 每次生成随机 nonce 的分段加密不受限制
+    assertArrayEquals(data, gcm.decryptParallel(gcm.encryptParallel(data)));
+  }
+
+  @DisplayName("失败与非法参数")
+  @Test
+  void failure() {
+    CipherSession session = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7);
+    // 密文被篡改时与工具类一样返回空结果，之后仍可正常使用
+    assertArrayEquals(new byte[0], session.decrypt(new byte[16]));
+    assertEquals("hello", session.decryptHex(session.encryptHex("hello")));
+
+    CipherSession noPadding = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.NO);
+    assertThrows(IllegalArgumentException.class, () -> noPadding.encrypt(new byte[15]));
+    assertEquals(32, noPadding.encrypt(new byte[32]).length);
+    assertThrows(IllegalArgumentException.class, () -> BlockCipher.builder(BlockCipherType.AES).build().session(KEY + "1", IV, Mode.CBC, Padding.PKCS7));
+    assertThrows(IllegalArgumentException.class, () -> BlockCipher.builder(BlockCipherType.AES).build().session(1, IV, Mode.CBC, Padding.PKCS7));
+    assertThrows(NullPointerException.class, () -> session.encrypt((byte[]) null));
+    assertThrows(NullPointerException.class, () -> session.decryptHex(null));
+  }
+
+  @DisplayName("多线程共享")
+  @Test
+  void concurrent() throws Exception {
+    CipherSession session = BlockCipher.builder(BlockCipherType.SM4).build().session(KEY, IV, Mode.CBC, Padding.PKCS7);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int thread = t;
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 500; i++) {
+          String data = thread + "-" + i;
+          String hex = session.encryptHex(data);
+          assertEquals(Sm4Util.encryptHex(data, KEY, EncodingType.UTF_8, IV, EncodingType.UTF_8, Mode.CBC, Padding.PKCS7), hex);
+          assertEquals(data, session.decryptHex(hex));
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+  }
+
+  @DisplayName("流和文件加解密与整块加解密一致")
+  @Test
+  void stream(@TempDir Path dir) throws IOException {
+    Random random = new Random(1);
+    List<CipherSession> sessions = new ArrayList<>();
+    sessions.add(BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7));
+    sessions.add(BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CTR, Padding.NO));
+    sessions.add(BlockCipher.builder(BlockCipherType.SM4).build().session(KEY, IV, Mode.ECB, Padding.PKCS7));
+    for (CipherSession session : sessions) {
+      for (int size : new int[]{0, 1, 15, 16, 17, 1000, 4096, 100_003}) {
+        byte[] data = new byte[size];
+        random.nextBytes(data);
+        // NoPadding 的整块接口要求长度对齐，用流的结果解密回原文验证
+        for (int bufferSize : new int[]{1, 16, 1000, CipherSession.DEFAULT_BUFFER_SIZE}) {
+          ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+          long length = session.encrypt(new ByteArrayInputStream(data), encrypted, bufferSize);
+          assertEquals(encrypted.size(), length);
+          if (size % 16 == 0) {
+            assertArrayEquals(session.encrypt(data), encrypted.toByteArray(), size + "/" + bufferSize);
+          }
+          ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+          assertEquals(size, session.decrypt(new ByteArrayInputStream(encrypted.toByteArray()), decrypted, bufferSize));
+          assertArrayEquals(data, decrypted.toByteArray(), size + "/" + bufferSize);
+
+          Path plain = Files.write(dir.resolve("plain"), data);
+          assertEquals(length, session.encrypt(plain, dir.resolve("encrypted"), bufferSize));
+          assertArrayEquals(encrypted.toByteArray(), Files.readAllBytes(dir.resolve("encrypted")));
+          assertEquals(size, session.decrypt(dir.resolve("encrypted"), dir.resolve("decrypted"), bufferSize));
+          assertArrayEquals(data, Files.readAllBytes(dir.resolve("decrypted")));
+        }
+
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        try (CipherOutputStream out = session.encryptOutputStream(encrypted)) {
+          out.write(data);
+        }
+        try (CipherInputStream in = session.decryptInputStream(new ByteArrayInputStream(encrypted.toByteArray()))) {
+          assertArrayEquals(data, readAll(in));
+        }
+        try (CipherInputStream in = session.encryptInputStream(new ByteArrayInputStream(data))) {
+          ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+          try (OutputStream out = session.decryptOutputStream(decrypted)) {
+            out.write(readAll(in));
+          }
+          assertArrayEquals(data, decrypted.toByteArray());
+        }
+      }
+    }
+  }
+
+  @DisplayName("流和文件加解密失败")
+  @Test
+  void streamFailure(@TempDir Path dir) {
+    CipherSession session = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertThrows(RuntimeException.class, () -> session.decrypt(new ByteArrayInputStream(new byte[17]), out));
+    assertThrows(RuntimeException.class, () -> session.encrypt(dir.resolve("missing"), dir.resolve("target")));
+    assertThrows(IllegalArgumentException.class, () -> session.encrypt(new ByteArrayInputStream(new byte[1]), out, 0));
+    assertThrows(IllegalArgumentException.class, () -> session.encrypt(dir.resolve("missing"), dir.resolve("target"), -1));
+    assertThrows(NullPointerException.class, () -> session.encrypt((InputStream) null, out));
+    assertThrows(NullPointerException.class, () -> session.decrypt(dir, null));
+  }
+
+  @DisplayName("提供者选择策略：SunJCE 与 BouncyCastle 结果一致")
+  @Test
+  void providerPolicy() throws Exception {
+    Random random = new Random(1);
+    byte[] data = new byte[1000];
+    random.nextBytes(data);
+    // NoPadding 时长度需为密钥长度的整数倍
+    byte[] aligned = new byte[960];
+    random.nextBytes(aligned);
+    for (int keyLength : new int[]{16, 24, 32}) {
+      String key = "12345678901234567890123456789012".substring(0, keyLength);
+      for (Mode mode : new Mode[]{Mode.ECB, Mode.CBC, Mode.CFB, Mode.OFB, Mode.CTR, Mode.GCM}) {
+        for (Padding padding : new Padding[]{Padding.NO, Padding.PKCS5, Padding.PKCS7, Padding.ZERO}) {
+          if (mode == Mode.GCM && (padding != Padding.NO || keyLength != 16)) {
+            // 认证加密模式只能 NoPadding，密文附带 16 字节认证标签，只有密钥长度为 16 时能通过 NoPadding 的长度检查
+            continue;
+          }
+          String iv = mode == Mode.GCM ? "123456789012" : IV;
+          CipherSession jdk = BlockCipher.builder(BlockCipherType.AES).keyLength(keyLength).ivLength(iv.length())
+            .providerPolicy(ProviderPolicy.PREFER_JDK).build().session(key, iv, mode, padding);
+          CipherSession bc = BlockCipher.builder(BlockCipherType.AES).keyLength(keyLength).ivLength(iv.length())
+            .providerPolicy(ProviderPolicy.BOUNCY_CASTLE).build().session(key, iv, mode, padding);
+          assertEquals("BC", bc.getProvider().getName());
+          boolean supported = padding != Padding.ZERO && (padding == Padding.NO || mode != Mode.CTR && mode != Mode.GCM);
+          assertEquals(supported ? "SunJCE" : "BC", jdk.getProvider().getName(), mode + "/" + padding);
+          byte[] plaintext = padding == Padding.NO ? aligned : data;
+          byte[] encrypted;
+          if (mode == Mode.GCM) {
+            // 认证加密模式的会话不能用固定 IV 加密
+            encrypted = gcm(key, iv, plaintext);
+          } else {
+            encrypted = jdk.encrypt(plaintext);
+            assertArrayEquals(bc.encrypt(plaintext), encrypted, keyLength + "/" + mode + "/" + padding);
+          }
+          assertArrayEquals(plaintext, bc.decrypt(encrypted));
+          assertArrayEquals(plaintext, jdk.decrypt(encrypted));
+        }
+      }
+    }
+    // SM4 没有 SunJCE 实现
+    assertEquals("BC", BlockCipher.builder(BlockCipherType.SM4).build().session(KEY, IV, Mode.CBC, Padding.PKCS7).getProvider().getName());
+
+    // 全局默认策略，同样作用于工具类
+    String expected = AesUtil.encryptHex("hello", KEY, EncodingType.UTF_8, IV, EncodingType.UTF_8, Mode.CBC, Padding.PKCS7);
+    assertEquals(ProviderPolicy.PREFER_JDK, BlockCipher.getDefaultProviderPolicy());
+    assertEquals("SunJCE", BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7).getProvider().getName());
+    try {
+      BlockCipher.setDefaultProviderPolicy(ProviderPolicy.BOUNCY_CASTLE);
+      assertEquals("BC", BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7).getProvider().getName());
+      assertEquals(expected, AesUtil.encryptHex("hello", KEY, EncodingType.UTF_8, IV, EncodingType.UTF_8, Mode.CBC, Padding.PKCS7));
+    } finally {
+      BlockCipher.setDefaultProviderPolicy(ProviderPolicy.PREFER_JDK);
+    }
+    assertThrows(NullPointerException.class, () -> BlockCipher.setDefaultProviderPolicy(null));
+  }
+
+  @DisplayName("CTR 分段并行加解密与串行结果一致")
+  @Test
+  void parallelCtr() {
+    Random random = new Random(1);
+    byte[] data = new byte[100_016];
+    random.nextBytes(data);
+    // 计数器在分段之间进位和回绕
+    byte[] maxIv = new byte[16];
+    Arrays.fill(maxIv, (byte) 0xFF);
+    maxIv[15] = (byte) 0xF0;
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (ProviderPolicy policy : ProviderPolicy.values()) {
+        for (Object iv : new Object[]{IV, maxIv}) {
+          List<CipherSession> sessions = new ArrayList<>();
+          sessions.add(BlockCipher.builder(BlockCipherType.AES).providerPolicy(policy).build().session(KEY, iv, Mode.CTR, Padding.NO));
+          sessions.add(BlockCipher.builder(BlockCipherType.SM4).providerPolicy(policy).build().session(KEY, iv, Mode.CTR, Padding.NO));
+          sessions.add(BlockCipher.builder(BlockCipherType.DES).providerPolicy(policy).build().session("12345678", Arrays.copyOf((iv instanceof byte[] ? (byte[]) iv : IV.getBytes()), 8), Mode.CTR, Padding.NO));
+          for (CipherSession session : sessions) {
+            byte[] serial = session.encrypt(data);
+            assertArrayEquals(serial, session.encryptParallel(data));
+            assertArrayEquals(data, session.decryptParallel(serial));
+            // CTR 是流模式，任意长度的前缀加密结果都是串行密文的前缀
+            for (int length : new int[]{0, 1, 15, 17, 1000, 4097, 100_003}) {
+              byte[] plaintext = Arrays.copyOf(data, length);
+              for (int segmentSize : new int[]{1, 16, 100, 4096, CipherSession.DEFAULT_SEGMENT_SIZE}) {
+                byte[] encrypted = session.encryptParallel(plaintext, segmentSize, pool);
+                assertArrayEquals(Arrays.copyOf(serial, length), encrypted, session.getProvider().getName() + "/" + length + "/" + segmentSize);
+                assertArrayEquals(plaintext, session.decryptParallel(encrypted, pool));
+              }
+            }
+          }
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @DisplayName("GCM 分段并行加解密")
+  @Test
+  void parallelGcm() {
+    Random random = new Random(1);
+    byte[] data = new byte[100_003];
+    random.nextBytes(data);
+    CipherSession jdk = BlockCipher.builder(BlockCipherType.AES).ivLength(12).build().session(KEY, "123456789012", Mode.GCM, Padding.NO);
+    CipherSession bc = BlockCipher.builder(BlockCipherType.AES).ivLength(12).providerPolicy(ProviderPolicy.BOUNCY_CASTLE).build().session(KEY, "123456789012", Mode.GCM, Padding.NO);
+    CipherSession sm4 = BlockCipher.builder(BlockCipherType.SM4).ivLength(12).build().session(KEY, "123456789012", Mode.GCM, Padding.NO);
+    // 版本号 | 分段大小 | 盐 | nonce 前缀
+    int header = 1 + 4 + 16 + 7;
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int length : new int[]{0, 1, 100, 4096, 4097, 100_003}) {
+        byte[] plaintext = Arrays.copyOf(data, length);
+        for (int segmentSize : new int[]{1, 100, 4096, CipherSession.DEFAULT_SEGMENT_SIZE}) {
+          int segments = Math.max(1, (length + segmentSize - 1) / segmentSize);
+          byte[] encrypted = jdk.encryptParallel(plaintext, segmentSize, pool);
+          assertEquals(header + segments * 16 + length, encrypted.length);
+          assertArrayEquals(plaintext, jdk.decryptParallel(encrypted, pool));
+          assertArrayEquals(plaintext, bc.decryptParallel(encrypted));
+          assertArrayEquals(plaintext, jdk.decryptParallel(bc.encryptParallel(plaintext, segmentSize, pool)));
+          assertArrayEquals(plaintext, sm4.decryptParallel(sm4.encryptParallel(plaintext, segmentSize, pool), pool));
+          // 随机访问
+          int last = segments - 1;
+          assertArrayEquals(Arrays.copyOfRange(plaintext, last * segmentSize, length), jdk.decryptSegment(encrypted, last));
+          assertArrayEquals(Arrays.copyOfRange(plaintext, 0, Math.min(segmentSize, length)), bc.decryptSegment(encrypted, 0));
+        }
+      }
+      // 每次加密随机生成盐和 nonce 前缀
+      byte[] first = jdk.encryptParallel(data);
+      byte[] second = jdk.encryptParallel(data);
+      assertFalse(Arrays.equals(Arrays.copyOfRange(first, 5, 21), Arrays.copyOfRange(second, 5, 21)));
+      assertFalse(Arrays.equals(Arrays.copyOfRange(first, 21, header), Arrays.copyOfRange(second, 21, header)));
+
+      byte[] encrypted = jdk.encryptParallel(data, 1000, pool);
+      // 篡改分段内容
+      byte[] tampered = encrypted.clone();
+      tampered[header + 1016 * 50 + 3] ^= 1;
+      assertArrayEquals(new byte[0], jdk.decryptParallel(tampered, pool));
+      assertArrayEquals(new byte[0], jdk.decryptSegment(tampered, 50));
+      assertArrayEquals(Arrays.copyOfRange(data, 49000, 50000), jdk.decryptSegment(tampered, 49));
+      // 截掉最后一段
+      assertArrayEquals(new byte[0], jdk.decryptParallel(Arrays.copyOf(encrypted, encrypted.length - (100_003 - 100_000 + 16)), pool));
+      // 调换分段顺序
+      byte[] swapped = encrypted.clone();
+      System.arraycopy(encrypted, header, swapped, header + 1016, 1016);
+      System.arraycopy(encrypted, header + 1016, swapped, header, 1016);
+      assertArrayEquals(new byte[0], jdk.decryptParallel(swapped, pool));
+      // 篡改头部：分段大小、盐（改变消息密钥）、nonce 前缀
+      for (int offset : new int[]{4, 5, 20, 21, header - 1}) {
+        byte[] tamperedHeader = encrypted.clone();
+        tamperedHeader[offset] ^= 1;
+        assertArrayEquals(new byte[0], jdk.decryptParallel(tamperedHeader, pool), "header " + offset);
+      }
+      // 不再支持没有盐的版本 1
+      byte[] oldVersion = encrypted.clone();
+      oldVersion[0] = 1;
+      assertArrayEquals(new byte[0], jdk.decryptParallel(oldVersion, pool));
+      assertArrayEquals(new byte[0], jdk.decryptParallel(new byte[header + 15], pool));
+      // 篡改后仍可正常使用
+      assertArrayEquals(data, jdk.decryptParallel(encrypted, pool));
+
+      assertThrows(IllegalArgumentException.class, () -> jdk.decryptSegment(encrypted, -1));
+      assertThrows(IllegalArgumentException.class, () -> jdk.decryptSegment(encrypted, 101));
+      assertThrows(IllegalArgumentException.class, () -> jdk.encryptParallel(data, 0, pool));
+      CipherSession cbc = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7);
+      assertThrows(IllegalArgumentException.class, () -> cbc.encryptParallel(data));
+      assertThrows(IllegalArgumentException.class, () -> cbc.decryptParallel(data));
+      assertThrows(IllegalArgumentException.class, () -> cbc.decryptSegment(data, 0));
+      CipherSession ctrPadding = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CTR, Padding.PKCS7);
+      assertThrows(IllegalArgumentException.class, () -> ctrPadding.encryptParallel(data));
+      CipherSession ctr = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CTR, Padding.NO);
+      assertThrows(IllegalArgumentException.class, () -> ctr.decryptSegment(data, 0));
+      assertThrows(NullPointerException.class, () -> jdk.encryptParallel(data, 1, null));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @DisplayName("批量加解密与逐个调用工具类结果一致")
+  @Test
+  void batch() {
+    List<String> data = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      data.add(i % 1000 == 7 ? null : "13800" + i + (i % 3 == 0 ? "-abc" : ""));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (EncodingType encoding : new EncodingType[]{EncodingType.HEX, EncodingType.BASE_64}) {
+        List<String> expected = new ArrayList<>();
+        List<String> expectedSm4 = new ArrayList<>();
+        List<String> expectedDes = new ArrayList<>();
+        for (String item : data) {
+          expected.add(item == null ? null : AesUtil.encrypt(item, KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding));
+          expectedSm4.add(item == null ? null : Sm4Util.encrypt(item, KEY, null, IV, null, Mode.CTR, Padding.PKCS7, encoding));
+          expectedDes.add(item == null ? null : DesUtil.encrypt(item, "12345678", null, "87654321", null, Mode.ECB, Padding.PKCS5, encoding));
+        }
+        assertEquals(expected, AesUtil.encryptAll(data, KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding));
+        assertEquals(expected, AesUtil.encryptAll(new LinkedList<>(data), KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding, executor));
+        assertEquals(expectedSm4, Sm4Util.encryptAll(data, KEY, null, IV, null, Mode.CTR, Padding.PKCS7, encoding, executor));
+        assertEquals(expectedDes, DesUtil.encryptAll(data, "12345678", null, "87654321", null, Mode.ECB, Padding.PKCS5, encoding));
+        assertEquals(expected, BlockCipherUtil.encryptAll(BlockCipherType.AES, data, KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding, executor));
+        assertEquals(data, AesUtil.decryptAll(expected, KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding));
+        assertEquals(data, AesUtil.decryptAll(expected, KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding, executor));
+        assertEquals(data, Sm4Util.decryptAll(expectedSm4, KEY, null, IV, null, Mode.CTR, Padding.PKCS7, encoding));
+        assertEquals(data, DesUtil.decryptAll(expectedDes, "12345678", null, "87654321", null, Mode.ECB, Padding.PKCS5, encoding, executor));
+        assertEquals(data, BlockCipherUtil.decryptAll(BlockCipherType.AES, expected, KEY, null, IV, null, Mode.CBC, Padding.PKCS7, encoding));
+      }
+      // 工具类的批量加密在认证加密模式下与逐个调用 encrypt 一致，会话的批量加密仍然禁止
+      List<String> aligned = new ArrayList<>(Collections.nCopies(3000, "0123456789abcdef"));
+      aligned.set(1, "fedcba9876543210");
+      aligned.set(2500, null);
+      List<String> expectedGcm = new ArrayList<>();
+      for (String item : aligned) {
+        expectedGcm.add(item == null ? null : AesUtil.encryptHex(item, KEY, null, "123456789012", null, Mode.GCM, Padding.NO));
+      }
+      assertEquals(expectedGcm, AesUtil.encryptAll(aligned, KEY, null, "123456789012", null, Mode.GCM, Padding.NO, EncodingType.HEX));
+      assertEquals(expectedGcm, AesUtil.encryptAll(aligned, KEY, null, "123456789012", null, Mode.GCM, Padding.NO, EncodingType.HEX, executor));
+      assertEquals(aligned, AesUtil.decryptAll(expectedGcm, KEY, null, "123456789012", null, Mode.GCM, Padding.NO, EncodingType.HEX, executor));
+      CipherSession gcmSession = BlockCipher.builder(BlockCipherType.AES).ivLength(12).build().session(KEY, "123456789012", Mode.GCM, Padding.NO);
+      IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> gcmSession.encryptAll(aligned, EncodingType.HEX, executor));
+      assertTrue(e.getMessage().startsWith("Mode:"));
+      CipherSession session = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.PKCS7);
+      assertEquals(new ArrayList<>(), session.encryptAll(new ArrayList<>(), EncodingType.HEX, executor));
+      // 单个元素解密失败时结果为空字符串，不影响其他元素
+      List<String> ciphertexts = session.encryptAll(Arrays.asList("a", "b", "c"), EncodingType.HEX);
+      ciphertexts.set(1, "00000000000000000000000000000000");
+      assertEquals(Arrays.asList("a", "", "c"), session.decryptAll(ciphertexts, EncodingType.HEX));
+      // NoPadding 下长度不合法时与逐个调用一样抛出异常
+      CipherSession noPadding = BlockCipher.builder(BlockCipherType.AES).build().session(KEY, IV, Mode.CBC, Padding.NO);
+      List<String> invalid = new ArrayList<>(Collections.nCopies(3000, "0123456789abcdef"));
+      assertEquals(3000, noPadding.encryptAll(invalid, EncodingType.HEX, executor).size());
+      invalid.set(2500, "123");
+      assertThrows(IllegalArgumentException.class, () -> noPadding.encryptAll(invalid, EncodingType.HEX));
+      assertThrows(IllegalArgumentException.class, () -> noPadding.encryptAll(invalid, EncodingType.HEX, executor));
+      assertThrows(NullPointerException.class, () -> session.encryptAll(null, EncodingType.HEX));
+      assertThrows(NullPointerException.class, () -> session.decryptAll(ciphertexts, EncodingType.HEX, null));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * 直接用 JCE 做一次 AES/GCM 加密
+   */
+  private static byte[] gcm(String key, String iv, byte[] plaintext) throws GeneralSecurityException {
+    Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+    cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key.getBytes(StandardCharsets.US_ASCII), "AES"), new GCMParameterSpec(128, iv.getBytes(StandardCharsets.US_ASCII)));
+    return cipher.doFinal(plaintext);
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    byte[] buffer = new byte[777];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+}
@@ -12,7 +12,9 @@ import top.csaf.crypto.enums.Padding;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -100,7 +102,8 @@ class CipherWrapperCoverageTest {
   }
 
   private boolean isWrapperNonNullParam(Class<?>[] types, int index) {
-    return types[index].equals(Mode.class) || types[index].equals(Padding.class) || types[index].equals(String.class) && index == 1;
+    return types[index].equals(Mode.class) || types[index].equals(Padding.class) || types[index].equals(String.class) && index == 1
+      || types[index].equals(List.class) || types[index].equals(Executor.class);
   }
 
   private void assertAllWrapperMethods(Class<?> clazz, String key, String iv) {
@@ -141,6 +144,10 @@ class CipherWrapperCoverageTest {
         args[i] = Mode.ECB;
       } else if (type.equals(Padding.class)) {
         args[i] = Padding.PKCS7;
+      } else if (type.equals(List.class)) {
+        args[i] = Collections.singletonList("hello");
+      } else if (type.equals(Executor.class)) {
+        args[i] = (Executor) Runnable::run;
       }
     }
     return args;
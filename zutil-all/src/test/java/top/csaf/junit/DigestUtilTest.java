@@ -0,0 +1,253 @@
+package top.csaf.junit;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.codec.digest.MessageDigestAlgorithms;
+import org.bouncycastle.crypto.digests.SM3Digest;
+import org.bouncycastle.util.encoders.Hex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import top.csaf.crypto.DigestUtil;
+import top.csaf.crypto.Md5Util;
+import top.csaf.crypto.TreeDigest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("摘要工具类测试")
+class DigestUtilTest {
+
+  @DisplayName("各种输入类型与 commons-codec 结果一致")
+  @Test
+  void inputs(@TempDir Path dir) throws IOException {
+    byte[] data = new byte[300_000];
+    new Random(1).nextBytes(data);
+    Path file = Files.write(dir.resolve("data"), data);
+
+    for (String algorithm : new String[]{MessageDigestAlgorithms.MD5, MessageDigestAlgorithms.SHA_1, MessageDigestAlgorithms.SHA_256, MessageDigestAlgorithms.SHA_512}) {
+      String expected = new DigestUtils(algorithm).digestAsHex(data);
+      assertEquals(expected, DigestUtil.digestHex(algorithm, data));
+      assertEquals(expected, DigestUtil.digestHex(algorithm, ByteBuffer.wrap(data)));
+      assertEquals(expected, DigestUtil.digestHex(algorithm, new ByteArrayInputStream(data)));
+      assertEquals(expected, DigestUtil.digestHex(algorithm, file));
+    }
+    assertEquals(DigestUtils.md5Hex(data), DigestUtil.md5Hex(file));
+    assertEquals(DigestUtils.sha1Hex(data), DigestUtil.sha1Hex(ByteBuffer.wrap(data)));
+    assertEquals(DigestUtils.sha256Hex("你好"), DigestUtil.sha256Hex("你好"));
+    assertEquals(DigestUtils.sha512Hex(data), DigestUtil.sha512Hex(data));
+
+    // BouncyCastle 提供的 SM3
+    SM3Digest sm3 = new SM3Digest();
+    sm3.update(data, 0, data.length);
+    byte[] expected = new byte[sm3.getDigestSize()];
+    sm3.doFinal(expected, 0);
+    assertArrayEquals(expected, DigestUtil.digest("SM3", data));
+    assertEquals(Hex.toHexString(expected), DigestUtil.digestHex("SM3", file));
+
+    // 空文件
+    Path empty = Files.write(dir.resolve("empty"), new byte[0]);
+    assertEquals(DigestUtils.md5Hex(new byte[0]), DigestUtil.md5Hex(empty));
+  }
+
+  @DisplayName("ByteBuffer 只读取剩余部分且不改变 position")
+  @Test
+  void byteBuffer() {
+    byte[] data = "0123456789".getBytes();
+    ByteBuffer heap = ByteBuffer.wrap(data);
+    heap.position(2).limit(8);
+    assertEquals(DigestUtils.md5Hex("234567"), DigestUtil.md5Hex(heap));
+    assertEquals(2, heap.position());
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+    direct.put(data).flip();
+    assertEquals(DigestUtils.md5Hex(data), Md5Util.toLowerCase(direct));
+    assertEquals(0, direct.position());
+  }
+
+  @DisplayName("Md5Util 流、缓冲区与文件重载")
+  @Test
+  void md5(@TempDir Path dir) throws IOException {
+    byte[] data = "hello".getBytes();
+    Path file = Files.write(dir.resolve("hello"), data);
+    assertEquals("5d41402abc4b2a76b9719d911017c592", Md5Util.toLowerCase(file));
+    assertEquals("5D41402ABC4B2A76B9719D911017C592", Md5Util.toUpperCase(ByteBuffer.wrap(data)));
+    assertEquals("bc4b2a76b9719d91", Md5Util.toLowerCaseShort(new ByteArrayInputStream(data)));
+    assertEquals("BC4B2A76B9719D91", Md5Util.toUpperCaseShort(file));
+  }
+
+  @DisplayName("多线程结果一致，失败后缓存实例可继续使用")
+  @Test
+  void concurrency() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        final int seed = t;
+        futures.add(executor.submit(() -> {
+          Random random = new Random(seed);
+          for (int i = 0; i < 2000; i++) {
+            byte[] data = new byte[random.nextInt(200)];
+            random.nextBytes(data);
+            if (!DigestUtils.sha256Hex(data).equals(DigestUtil.sha256Hex(data))) {
+              return false;
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> future : futures) {
+        assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // 读取中途失败：缓存的 MessageDigest 被重置，不影响下一次调用
+    InputStream broken = new InputStream() {
+      private int count;
+
+      @Override
+      public int read() throws IOException {
+        if (count++ > 10) {
+          throw new IOException("broken");
+        }
+        return 'a';
+      }
+    };
+    assertThrows(RuntimeException.class, () -> DigestUtil.digest(MessageDigestAlgorithms.MD5, broken));
+    assertEquals(DigestUtils.md5Hex("abc"), DigestUtil.md5Hex("abc"));
+    assertThrows(RuntimeException.class, () -> DigestUtil.md5Hex(Paths.get("/not/exists")));
+    assertEquals(DigestUtils.md5Hex("abc"), DigestUtil.md5Hex("abc"));
+  }
+
+  @DisplayName("参数校验")
+  @Test
+  void validation() {
+    assertThrows(IllegalArgumentException.class, () -> DigestUtil.digest("NO-SUCH", new byte[0]));
+    assertThrows(NullPointerException.class, () -> DigestUtil.digest((String) null, new byte[0]));
+    assertThrows(NullPointerException.class, () -> DigestUtil.digestHex(MessageDigestAlgorithms.MD5, (Path) null));
+    assertThrows(NullPointerException.class, () -> Md5Util.toLowerCase((InputStream) null));
+  }
+
+  @DisplayName("树摘要与 RFC 6962 递归定义一致，且与线程数无关")
+  @Test
+  void treeDigest(@TempDir Path dir) throws Exception {
+    int chunkSize = 64 * 1024;
+    byte[] data = new byte[chunkSize * 6 + 123];
+    new Random(2).nextBytes(data);
+    Path file = Files.write(dir.resolve("tree"), data);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    ForkJoinPool single = new ForkJoinPool(1);
+    try {
+      for (String algorithm : new String[]{MessageDigestAlgorithms.SHA_256, "SM3"}) {
+        TreeDigest tree = DigestUtil.treeDigest(algorithm, file, chunkSize, pool);
+        assertEquals(7, tree.getChunkCount());
+        assertEquals(data.length, tree.getLength());
+        byte[][] leaves = new byte[7][];
+        for (int i = 0; i < leaves.length; i++) {
+          MessageDigest digest = MessageDigest.getInstance(algorithm);
+          digest.update((byte) 0);
+          digest.update(data, i * chunkSize, Math.min(chunkSize, data.length - i * chunkSize));
+          leaves[i] = digest.digest();
+          assertArrayEquals(leaves[i], tree.getLeaf(i));
+        }
+        assertArrayEquals(mth(algorithm, leaves, 0, leaves.length), tree.getRoot());
+        assertEquals(tree.getRootHex(), DigestUtil.treeDigest(algorithm, file, chunkSize, single).getRootHex());
+        assertEquals(algorithm + "/" + chunkSize + "/" + tree.getRootHex(), tree.toString());
+      }
+      // 分块数为 1 ~ 9 时的树形状
+      for (int chunks = 1; chunks <= 9; chunks++) {
+        Path part = Files.write(dir.resolve("part" + chunks), Arrays.copyOf(data, chunks * 1000));
+        TreeDigest tree = DigestUtil.treeDigest(MessageDigestAlgorithms.SHA_256, part, 1000, pool);
+        byte[][] leaves = new byte[chunks][];
+        for (int i = 0; i < chunks; i++) {
+          leaves[i] = tree.getLeaf(i);
+        }
+        assertArrayEquals(mth(MessageDigestAlgorithms.SHA_256, leaves, 0, chunks), tree.getRoot());
+      }
+    } finally {
+      pool.shutdown();
+      single.shutdown();
+    }
+
+    // 空文件为 1 个空分块
+    Path empty = Files.write(dir.resolve("empty"), new byte[0]);
+    TreeDigest tree = DigestUtil.treeDigest(MessageDigestAlgorithms.SHA_256, empty);
+    assertEquals(1, tree.getChunkCount());
+    assertArrayEquals(MessageDigest.getInstance(MessageDigestAlgorithms.SHA_256).digest(new byte[1]), tree.getRoot());
+    assertEquals(DigestUtil.DEFAULT_CHUNK_SIZE, tree.getChunkSize());
+  }
+
+  @DisplayName("树摘要序列化与损坏分块定位")
+  @Test
+  void verifyTree(@TempDir Path dir) throws IOException {
+    int chunkSize = 4096;
+    byte[] data = new byte[chunkSize * 10];
+    new Random(3).nextBytes(data);
+    Path file = Files.write(dir.resolve("verify"), data);
+    TreeDigest expected = TreeDigest.fromBytes(DigestUtil.treeDigest("SM3", file, chunkSize, ForkJoinPool.commonPool()).toBytes());
+    assertEquals(Collections.emptyList(), DigestUtil.verifyTree(file, expected));
+
+    // 修改第 3、7 块
+    data[3 * chunkSize + 5] ^= 1;
+    data[8 * chunkSize - 1] ^= 1;
+    Files.write(file, data);
+    assertEquals(Arrays.asList(3, 7), DigestUtil.verifyTree(file, expected));
+    assertFalse(DigestUtil.verifyTreeChunk(file, expected, 3));
+    assertTrue(DigestUtil.verifyTreeChunk(file, expected, 4));
+
+    // 截断到第 8 块中间：第 8 块不完整，第 9 块缺失
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      channel.truncate(8 * chunkSize + 10);
+    }
+    assertEquals(Arrays.asList(3, 7, 8, 9), DigestUtil.verifyTree(file, expected));
+    assertFalse(DigestUtil.verifyTreeChunk(file, expected, 9));
+
+    // 参数校验
+    assertThrows(IllegalArgumentException.class, () -> DigestUtil.treeDigest("SM3", file, 0, ForkJoinPool.commonPool()));
+    assertThrows(IllegalArgumentException.class, () -> DigestUtil.treeDigest("NO-SUCH", file));
+    assertThrows(RuntimeException.class, () -> DigestUtil.treeDigest("SM3", dir.resolve("missing")));
+    assertThrows(IllegalArgumentException.class, () -> expected.getLeaf(10));
+    assertThrows(IllegalArgumentException.class, () -> expected.compare(DigestUtil.treeDigest(MessageDigestAlgorithms.SHA_256, file, chunkSize, ForkJoinPool.commonPool())));
+    byte[] bytes = expected.toBytes();
+    assertThrows(IllegalArgumentException.class, () -> TreeDigest.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+    assertThrows(IllegalArgumentException.class, () -> TreeDigest.fromBytes(new byte[]{TreeDigest.VERSION, 3}));
+    bytes[0] = 2;
+    assertThrows(IllegalArgumentException.class, () -> TreeDigest.fromBytes(bytes));
+  }
+
+  /**
+   * RFC 6962 第 2.1 节的递归定义
+   */
+  private static byte[] mth(String algorithm, byte[][] leaves, int from, int to) throws Exception {
+    if (to - from == 1) {
+      return leaves[from];
+    }
+    int k = Integer.highestOneBit(to - from - 1);
+    MessageDigest digest = MessageDigest.getInstance(algorithm);
+    digest.update((byte) 1);
+    digest.update(mth(algorithm, leaves, from, from + k));
+    digest.update(mth(algorithm, leaves, from + k, to));
+    return digest.digest();
+  }
+}
@@ -5,14 +5,20 @@ import org.junit.jupiter.api.Test;
 import top.csaf.date.DateUtil;
 import top.csaf.idcard.IdCard;
 import top.csaf.idcard.IdCardUtil;
+import top.csaf.idcard.enums.CheckResult;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Period;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
@@ -68,6 +74,68 @@ public class IdCardUtilTest {
     assertFalse(IdCardUtil.validate("115010661121000"));
   }
 
+  @Test
+  void check() {
+    assertEquals(CheckResult.VALID, IdCardUtil.check("11010119491001159X"));
+    assertEquals(CheckResult.VALID, IdCardUtil.check("110101491001159"));
+    assertEquals(CheckResult.INVALID_LENGTH, IdCardUtil.check("11010119491001159"));
+    assertEquals(CheckResult.LEADING_ZERO, IdCardUtil.check("01010119491001159X"));
+    assertEquals(CheckResult.INVALID_DIGIT, IdCardUtil.check("A1010119491001159X"));
+    assertEquals(CheckResult.INVALID_DIGIT, IdCardUtil.check("11501066112198A"));
+    assertEquals(CheckResult.INVALID_DATE, IdCardUtil.check("11010119491301159X"));
+    assertEquals(CheckResult.INVALID_DATE, IdCardUtil.check("115010661321989"));
+    assertEquals(CheckResult.INVALID_ORDER_CODE, IdCardUtil.check("11010119491001000X"));
+    assertEquals(CheckResult.INVALID_ORDER_CODE, IdCardUtil.check("115010661121000"));
+    assertEquals(CheckResult.INVALID_CHECK_CODE, IdCardUtil.check("110101194910011591"));
+    assertEquals(CheckResult.INVALID_CHECK_CODE, IdCardUtil.check("11010119491001159x"));
+
+    // 日期：逐日与 LocalDate 对比，覆盖闰年规则（2000 年为闰年，1900、2100 年不是）
+    for (int year : new int[]{1900, 1996, 1999, 2000, 2023, 2024, 2100}) {
+      for (int month = 0; month <= 13; month++) {
+        for (int day = 0; day <= 32; day++) {
+          String number = withCheckCode(String.format("110101%04d%02d%02d123", year, month, day));
+          boolean exists = month >= 1 && month <= 12 && day >= 1 && day <= LocalDate.of(year, month, 1).lengthOfMonth();
+          assertEquals(exists ? CheckResult.VALID : CheckResult.INVALID_DATE, IdCardUtil.check(number), number);
+        }
+      }
+    }
+    // 15 位号码的出生年份为 19xx 年，1900 年不是闰年
+    assertEquals(CheckResult.INVALID_DATE, IdCardUtil.check("110101000229123"));
+    assertEquals(CheckResult.VALID, IdCardUtil.check("110101960229123"));
+    assertEquals(LocalDate.of(1996, 2, 29), IdCardUtil.getBirthday("110101960229123", LocalDate.class));
+  }
+
+  @Test
+  void validateAll() {
+    String[] numbers = {"11010119491001159X", null, "", "110101194910011591", "110101491001159"};
+    assertArrayEquals(new CheckResult[]{CheckResult.VALID, CheckResult.NULL, CheckResult.INVALID_LENGTH, CheckResult.INVALID_CHECK_CODE, CheckResult.VALID},
+      IdCardUtil.validateAll(numbers));
+    assertEquals(0, IdCardUtil.validateAll(new String[0]).length);
+
+    List<IdCard> idCards = IdCardUtil.getAll(Arrays.stream(numbers)).collect(Collectors.toList());
+    assertEquals(2, idCards.size());
+    assertEquals(IdCardUtil.get("11010119491001159X"), idCards.get(0));
+    assertEquals(IdCardUtil.get("110101491001159"), idCards.get(1));
+    assertEquals(LocalDate.of(1949, 10, 1), idCards.get(1).getBirthday());
+    assertNull(idCards.get(1).getCheckCode());
+    // 惰性处理，只读取需要的号码
+    assertEquals("11010119491001159X", IdCardUtil.getAll(Stream.concat(Stream.of("11010119491001159X"), Stream.generate(() -> {
+      throw new IllegalStateException();
+    }))).findFirst().map(IdCard::getNumber).orElse(null));
+  }
+
+  /**
+   * 补上正确的校验码
+   */
+  private static String withCheckCode(String first17) {
+    for (char c : "0123456789X".toCharArray()) {
+      if (IdCardUtil.validateCheckCode(first17 + c)) {
+        return first17 + c;
+      }
+    }
+    throw new IllegalStateException(first17);
+  }
+
   @Test
   void additionalBranches() {
     String number18 = "11010119491001159X";
@@ -0,0 +1,173 @@
+package top.csaf.http;
+
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Cache;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 命名客户端的磁盘缓存，同一目录只有一个 OkHttp {@link Cache} 实例
+ * <p>
+ * 一个目录同时只能被一个命名客户端使用，同名客户端重新注册时复用原实例（保留原实例的大小上限）。
+ * 客户端和执行中的请求各持有一个引用，请求的引用在响应体读完或关闭时释放；
+ * 客户端被替换或移除且所有请求结束后才关闭缓存，OkHttps 在回调线程中读取响应体时仍会写入缓存，提前关闭会使这些请求失败。
+ */
+@Slf4j
+final class DiskCache implements Interceptor {
+
+  /**
+   * 目录 -&gt; 未关闭的磁盘缓存
+   */
+  private static final Map<Path, DiskCache> CACHES = new HashMap<>();
+
+  /**
+   * 使用该目录的客户端名称
+   */
+  final String client;
+  final Path directory;
+  final Cache cache;
+  /**
+   * 客户端和执行中的请求持有的引用数
+   */
+  private final AtomicInteger refs = new AtomicInteger(1);
+  private boolean closed;
+
+  private DiskCache(final String client, final Path directory, final long maxBytes) {
+    this.client = client;
+    this.directory = directory;
+    this.cache = new Cache(directory.toFile(), maxBytes);
+  }
+
+  /**
+   * 获取目录的磁盘缓存并持有一个引用，不再使用时调用 {@link #release()}
+   *
+   * @param client    客户端名称
+   * @param directory 目录
+   * @param maxBytes  大小上限（字节）
+   * @return 磁盘缓存
+   * @throws IllegalArgumentException 目录正在被其他客户端使用
+   */
+  static synchronized DiskCache acquire(final String client, final Path directory, final long maxBytes) {
+    Path key = directory.toAbsolutePath().normalize();
+    DiskCache diskCache = CACHES.get(key);
+    if (diskCache == null) {
+      diskCache = new DiskCache(client, key, maxBytes);
+      CACHES.put(key, diskCache);
+      return diskCache;
+    }
+    if (!diskCache.client.equals(client)) {
+      throw new IllegalArgumentException("Disk directory: " + key + " is used by http client: " + diskCache.client);
+    }
+    diskCache.refs.incrementAndGet();
+    return diskCache;
+  }
+
+  /**
+   * 释放一个引用，全部释放后关闭缓存
+   */
+  void release() {
+    if (refs.decrementAndGet() != 0) {
+      return;
+    }
+    synchronized (DiskCache.class) {
+      // 期间可能被同名客户端重新获取
+      if (refs.get() != 0 || closed) {
+        return;
+      }
+      closed = true;
+      CACHES.remove(directory, this);
+      try {
+        cache.close();
+      } catch (IOException e) {
+        log.warn("Failed to close http disk cache: {}", directory, e);
+      }
+    }
+  }
+
+  /**
+   * 请求开始时持有引用，响应体读完或关闭时释放，作为最外层的应用拦截器，释放时缓存已写入完成
+   */
+  @Override
+  public Response intercept(final Chain chain) throws IOException {
+    refs.incrementAndGet();
+    Response response;
+    try {
+      response = chain.proceed(chain.request());
+    } catch (Throwable e) {
+      release();
+      throw e;
+    }
+    ResponseBody body = response.body();
+    if (body == null) {
+      release();
+      return response;
+    }
+    return response.newBuilder().body(new ReleasingBody(body)).build();
+  }
+
+  /**
+   * 读完或关闭时释放一次引用的响应体
+   */
+  private final class ReleasingBody extends ResponseBody {
+    private final ResponseBody delegate;
+    private final BufferedSource source;
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private ReleasingBody(final ResponseBody delegate) {
+      this.delegate = delegate;
+      this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+        @Override
+        public long read(final Buffer sink, final long byteCount) throws IOException {
+          long read = super.read(sink, byteCount);
+          if (read == -1) {
+            releaseOnce();
+          }
+          return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+          try {
+            super.close();
+          } finally {
+            releaseOnce();
+          }
+        }
+      });
+    }
+
+    private void releaseOnce() {
+      if (released.compareAndSet(false, true)) {
+        release();
+      }
+    }
+
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public BufferedSource source() {
+      return source;
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package top.csaf.http;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * {@link HttpUtil#download(String, java.nio.file.Path, DownloadOptions)} 的下载配置
+ */
+@Builder
+@Data
+public class DownloadOptions {
+  /**
+   * 客户端名称，默认为 {@link HttpUtil#DEFAULT_CLIENT}
+   */
+  @Builder.Default
+  private String client = HttpUtil.DEFAULT_CLIENT;
+  /**
+   * 消息头
+   */
+  private Map<String, String> headers;
+  /**
+   * 读写缓冲区大小（字节），整个下载过程只使用这一个缓冲区，默认 64KB
+   */
+  @Builder.Default
+  private int bufferSize = 64 * 1024;
+  /**
+   * 目标文件已存在时是否断点续传，默认 true
+   * <p>
+   * 续传时发送 Range 请求：服务端返回 206 时追加写入，返回 200 时从头覆盖，返回 416 时视为已下载完成；为 false 时直接覆盖
+   */
+  @Builder.Default
+  private boolean resume = true;
+  /**
+   * 续传时的 If-Range 校验值（ETag 或 Last-Modified），远程文件已变化时服务端返回完整内容，避免拼接出错误的文件
+   */
+  private String ifRange;
+  /**
+   * 边下载边计算的摘要算法，如 MD5、SHA-256，为空时不计算；续传时包含已下载部分
+   */
+  private String checksumAlgorithm;
+  /**
+   * 期望的摘要（十六进制，忽略大小写），不为空时下载完成后校验，不一致时抛出 {@link IllegalStateException}
+   */
+  private String expectedChecksum;
+  /**
+   * 进度回调，每写入一个缓冲区调用一次
+   */
+  private ProgressListener progressListener;
+
+  /**
+   * 下载进度回调
+   */
+  @FunctionalInterface
+  public interface ProgressListener {
+    /**
+     * 下载进度
+     *
+     * @param downloaded 目标文件已有的字节数，包括续传前已下载的部分
+     * @param total      文件总字节数，未知时为 -1
+     */
+    void onProgress(long downloaded, long total);
+  }
+}
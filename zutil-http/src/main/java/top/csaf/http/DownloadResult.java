@@ -0,0 +1,36 @@
+package top.csaf.http;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * {@link HttpUtil#download(String, Path, DownloadOptions)} 的下载结果
+ */
+@Value
+public class DownloadResult {
+  /**
+   * 目标文件
+   */
+  Path path;
+  /**
+   * 响应状态码
+   */
+  int status;
+  /**
+   * 本次传输的字节数
+   */
+  long transferred;
+  /**
+   * 目标文件的总字节数
+   */
+  long length;
+  /**
+   * 是否为断点续传
+   */
+  boolean resumed;
+  /**
+   * 整个文件的摘要（小写十六进制），未设置摘要算法时为 null
+   */
+  String checksum;
+}
@@ -0,0 +1,178 @@
+package top.csaf.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 客户端的 GET 响应内存缓存，按条目数和响应体字节数 LRU 淘汰，按 {@link HttpCacheConfig} 的有效期判断是否需要重新请求
+ */
+final class HttpCache {
+  private final HttpCacheConfig config;
+  private final long ttlNanos;
+  private final LinkedHashMap<String, Entry> entries;
+  /**
+   * 所有条目响应体的估算字节数，在 entries 的锁内更新
+   */
+  private long bytes;
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder revalidationCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+
+  HttpCache(final HttpCacheConfig config) {
+    if (config.getMaxEntries() < 1) {
+      throw new IllegalArgumentException("MaxEntries: should be greater than 0");
+    }
+    if (config.getMaxBytes() < 1) {
+      throw new IllegalArgumentException("MaxBytes: should be greater than 0");
+    }
+    this.config = config;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(config.getTtlMillis());
+    final int maxEntries = config.getMaxEntries();
+    this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+        if (size() > maxEntries) {
+          bytes -= eldest.getValue().bytes;
+          evictionCount.increment();
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * 生成缓存键，参数和消息头按名称排序，与传入 Map 的顺序无关
+   *
+   * @param url     请求地址
+   * @param params  URL 参数
+   * @param headers 消息头
+   * @return 缓存键
+   */
+  static String key(final String url, final Map<String, Object> params, final Map<String, String> headers) {
+    StringBuilder sb = new StringBuilder(url);
+    if (params != null && !params.isEmpty()) {
+      sb.append('\n').append(new TreeMap<>(params));
+    }
+    if (headers != null && !headers.isEmpty()) {
+      sb.append('\n').append(new TreeMap<>(headers));
+    }
+    return sb.toString();
+  }
+
+  HttpCacheConfig getConfig() {
+    return config;
+  }
+
+  Entry get(final String key) {
+    synchronized (entries) {
+      return entries.get(key);
+    }
+  }
+
+  /**
+   * 缓存响应体，超出最大字节数时按最久未使用淘汰；响应体本身超过最大字节数时不缓存，并移除该键的旧条目
+   *
+   * @param key          缓存键
+   * @param body         响应体
+   * @param etag         ETag
+   * @param lastModified Last-Modified
+   * @return 条目，未缓存时也可用于本次转换
+   */
+  Entry put(final String key, final String body, final String etag, final String lastModified) {
+    Entry entry = new Entry(body, etag, lastModified, System.nanoTime());
+    long maxBytes = config.getMaxBytes();
+    synchronized (entries) {
+      if (entry.bytes > maxBytes) {
+        remove(key);
+        return entry;
+      }
+      Entry old = entries.put(key, entry);
+      bytes += entry.bytes - (old == null ? 0 : old.bytes);
+      Iterator<Entry> iterator = entries.values().iterator();
+      while (bytes > maxBytes && iterator.hasNext()) {
+        Entry eldest = iterator.next();
+        iterator.remove();
+        bytes -= eldest.bytes;
+        evictionCount.increment();
+      }
+    }
+    return entry;
+  }
+
+  void remove(final String key) {
+    synchronized (entries) {
+      Entry old = entries.remove(key);
+      if (old != null) {
+        bytes -= old.bytes;
+      }
+    }
+  }
+
+  void clear() {
+    synchronized (entries) {
+      entries.clear();
+      bytes = 0;
+    }
+  }
+
+  boolean isFresh(final Entry entry) {
+    return System.nanoTime() - entry.storedAt < ttlNanos;
+  }
+
+  boolean canRevalidate(final Entry entry) {
+    return config.isRevalidate() && (entry.etag != null || entry.lastModified != null);
+  }
+
+  void recordHit() {
+    hitCount.increment();
+  }
+
+  void recordMiss() {
+    missCount.increment();
+  }
+
+  void recordRevalidation(final Entry entry) {
+    entry.storedAt = System.nanoTime();
+    revalidationCount.increment();
+  }
+
+  HttpCacheStats stats(final String name, final long diskHitCount) {
+    int size;
+    long bytes;
+    synchronized (entries) {
+      size = entries.size();
+      bytes = this.bytes;
+    }
+    return new HttpCacheStats(name, size, bytes, hitCount.sum(), missCount.sum(), revalidationCount.sum(), evictionCount.sum(), diskHitCount);
+  }
+
+  /**
+   * 缓存条目，响应体不可变，转换后的对象按类型缓存
+   */
+  static final class Entry {
+    final String body;
+    /**
+     * 响应体的估算字节数，每个字符按 2 字节计算，不包括转换后的对象
+     */
+    final long bytes;
+    final String etag;
+    final String lastModified;
+    final Map<Class<?>, Object> results = new ConcurrentHashMap<>();
+    volatile long storedAt;
+
+    private Entry(final String body, final String etag, final String lastModified, final long storedAt) {
+      this.body = body;
+      this.bytes = 2L * body.length();
+      this.etag = etag;
+      this.lastModified = lastModified;
+      this.storedAt = storedAt;
+    }
+  }
+}
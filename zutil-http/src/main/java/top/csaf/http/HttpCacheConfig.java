@@ -0,0 +1,54 @@
+package top.csaf.http;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * HTTP GET 响应缓存配置，通过 {@link HttpClientConfig#getCache()} 为客户端开启
+ * <p>
+ * 内存层按 (url, 参数, 消息头) 缓存响应体，有效期内直接返回；过期后如果响应带有 ETag 或 Last-Modified，
+ * 发送 If-None-Match / If-Modified-Since 条件请求，服务端返回 304 时继续使用缓存。
+ * 磁盘层为 OkHttp 的 {@link okhttp3.Cache}，按 HTTP 缓存语义工作，与内存层相互独立。
+ */
+@Builder
+@Data
+public class HttpCacheConfig {
+  /**
+   * 内存层最大条目数，超出时淘汰最久未使用的条目
+   */
+  @Builder.Default
+  private int maxEntries = 256;
+  /**
+   * 内存层响应体的最大字节数，每个字符按 2 字节估算，不包括 {@link #cacheResults} 缓存的对象；
+   * 超出时淘汰最久未使用的条目，单个响应体超过该值时不缓存
+   */
+  @Builder.Default
+  private long maxBytes = 16L * 1024 * 1024;
+  /**
+   * 内存层条目有效期（毫秒），有效期内不发送请求
+   */
+  @Builder.Default
+  private long ttlMillis = 60_000L;
+  /**
+   * 过期后是否使用 ETag / Last-Modified 条件请求重新验证，为 false 或响应没有验证器时重新请求
+   */
+  @Builder.Default
+  private boolean revalidate = true;
+  /**
+   * 是否同时缓存转换后的对象（按响应体类型区分），命中时不再解析 JSON
+   * <p>
+   * 开启后同一条目的所有调用方得到同一个对象实例，调用方不应修改
+   */
+  private boolean cacheResults;
+  /**
+   * 磁盘层目录，为空时不启用磁盘层
+   */
+  private Path diskDirectory;
+  /**
+   * 磁盘层最大字节数
+   */
+  @Builder.Default
+  private long diskMaxBytes = 50L * 1024 * 1024;
+}
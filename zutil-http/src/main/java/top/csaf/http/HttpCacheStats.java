@@ -0,0 +1,52 @@
+package top.csaf.http;
+
+import lombok.Value;
+
+/**
+ * HTTP GET 响应缓存的统计快照，由 {@link HttpUtil#cacheStats(String)} 获取
+ */
+@Value
+public class HttpCacheStats {
+  /**
+   * 客户端名称
+   */
+  String name;
+  /**
+   * 内存层条目数
+   */
+  int size;
+  /**
+   * 内存层响应体的估算字节数
+   */
+  long bytes;
+  /**
+   * 有效期内直接命中的次数
+   */
+  long hitCount;
+  /**
+   * 未命中（包括过期后无法重新验证）的次数
+   */
+  long missCount;
+  /**
+   * 过期后条件请求返回 304、继续使用缓存的次数
+   */
+  long revalidationCount;
+  /**
+   * 因超出最大条目数或最大字节数被淘汰的次数
+   */
+  long evictionCount;
+  /**
+   * 磁盘层命中次数，未启用磁盘层时为 0
+   */
+  long diskHitCount;
+
+  /**
+   * 获取内存层命中率，包括重新验证后的命中
+   *
+   * @return 命中率，没有请求时为 0
+   */
+  public double getHitRate() {
+    long total = hitCount + missCount + revalidationCount;
+    return total == 0 ? 0 : (double) (hitCount + revalidationCount) / total;
+  }
+}
@@ -0,0 +1,99 @@
+package top.csaf.http;
+
+import cn.zhxu.okhttps.HTTP;
+import lombok.Builder;
+import lombok.Data;
+import okhttp3.Protocol;
+
+import java.util.List;
+
+/**
+ * HTTP 客户端配置，用于 {@link HttpUtil#register(String, HttpClientConfig)} 创建可复用的命名客户端
+ * <p>
+ * 未设置的项与 OkHttp 默认值一致；每个命名客户端独占一个连接池和调度器，同一客户端的所有请求复用连接。
+ */
+@Builder
+@Data
+public class HttpClientConfig {
+  /**
+   * 连接池最大空闲连接数
+   */
+  @Builder.Default
+  private int maxIdleConnections = 5;
+  /**
+   * 空闲连接保活时间（毫秒）
+   */
+  @Builder.Default
+  private long keepAliveMillis = 5 * 60 * 1000L;
+  /**
+   * 调度器最大并发请求数，仅对异步请求生效
+   */
+  @Builder.Default
+  private int maxRequests = 64;
+  /**
+   * 调度器每个主机的最大并发请求数，仅对异步请求生效
+   */
+  @Builder.Default
+  private int maxRequestsPerHost = 5;
+  /**
+   * 连接超时时间（毫秒），0 为不超时
+   */
+  @Builder.Default
+  private long connectTimeoutMillis = 10_000L;
+  /**
+   * 读取超时时间（毫秒），0 为不超时
+   */
+  @Builder.Default
+  private long readTimeoutMillis = 10_000L;
+  /**
+   * 写入超时时间（毫秒），0 为不超时
+   */
+  @Builder.Default
+  private long writeTimeoutMillis = 10_000L;
+  /**
+   * 整个调用的超时时间（毫秒），包括 DNS 解析、连接、读写和重定向，0 为不超时
+   */
+  @Builder.Default
+  private long callTimeoutMillis = 0L;
+  /**
+   * HTTP/2 连接的 PING 间隔（毫秒），0 为不发送
+   */
+  @Builder.Default
+  private long pingIntervalMillis = 0L;
+  /**
+   * 支持的协议，为空时使用 OkHttp 默认值 [HTTP_2, HTTP_1_1]
+   * <p>
+   * 必须包含 {@link Protocol#HTTP_1_1}，或仅包含 {@link Protocol#H2_PRIOR_KNOWLEDGE}
+   */
+  private List<Protocol> protocols;
+  /**
+   * 连接失败时是否重试
+   */
+  @Builder.Default
+  private boolean retryOnConnectionFailure = true;
+  /**
+   * 是否跟随重定向
+   */
+  @Builder.Default
+  private boolean followRedirects = true;
+  /**
+   * 基础地址，设置后请求地址可使用相对路径
+   */
+  private String baseUrl;
+  /**
+   * GET 响应缓存配置，为空时不缓存
+   * <p>
+   * 对静态同步 GET 方法（默认客户端）和 {@link HttpUtil#sync(HttpRequest)} 生效，{@link HttpUtil#client(String)} 的 OkHttps API 不经过缓存
+   */
+  private HttpCacheConfig cache;
+  /**
+   * GET 请求合并配置，为空时不合并
+   * <p>
+   * 生效范围与 {@link #cache} 相同
+   */
+  private SingleFlightConfig singleFlight;
+  /**
+   * 额外的 OkHttp 配置，在以上配置之后执行，可覆盖以上配置
+   */
+  private HTTP.OkConfig okConfig;
+}
@@ -0,0 +1,39 @@
+package top.csaf.http;
+
+import lombok.Value;
+
+/**
+ * HTTP 客户端连接池和调度器的统计快照，由 {@link HttpUtil#stats(String)} 获取
+ */
+@Value
+public class HttpClientStats {
+  /**
+   * 客户端名称
+   */
+  String name;
+  /**
+   * 连接池中的连接总数
+   */
+  int connectionCount;
+  /**
+   * 连接池中的空闲连接数
+   */
+  int idleConnectionCount;
+  /**
+   * 正在执行的请求数（同步和异步）
+   */
+  int runningCallsCount;
+  /**
+   * 调度器中排队等待的异步请求数
+   */
+  int queuedCallsCount;
+
+  /**
+   * 获取使用中的连接数
+   *
+   * @return 使用中的连接数
+   */
+  public int getActiveConnectionCount() {
+    return connectionCount - idleConnectionCount;
+  }
+}
@@ -0,0 +1,167 @@
+package top.csaf.http;
+
+import lombok.Getter;
+import lombok.NonNull;
+import top.csaf.http.constant.ReqMethodConst;
+
+import java.util.Map;
+
+/**
+ * HTTP 请求描述，用于 {@link HttpUtil#sync(HttpRequest)}、{@link HttpUtil#async(HttpRequest)} 和 {@link HttpUtil#batch(java.util.List, int)}
+ *
+ * @param <T> 响应体需要转换的类型
+ */
+@Getter
+public class HttpRequest<T> {
+  /**
+   * 客户端名称，默认为 {@link HttpUtil#DEFAULT_CLIENT}
+   */
+  private String client = HttpUtil.DEFAULT_CLIENT;
+  /**
+   * 请求方法
+   */
+  private final String method;
+  /**
+   * 请求地址
+   */
+  private final String url;
+  /**
+   * 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link cn.zhxu.okhttps.HttpResult}
+   */
+  private final Class<T> resultClass;
+  /**
+   * 内容类型
+   */
+  private String contentType;
+  /**
+   * 参数
+   */
+  private Map<String, Object> params;
+  /**
+   * 消息头
+   */
+  private Map<String, String> headers;
+
+  private HttpRequest(final String method, final String url, final Class<T> resultClass) {
+    this.method = method;
+    this.url = url;
+    this.resultClass = resultClass;
+  }
+
+  /**
+   * 创建请求
+   *
+   * @param method      请求方法
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link cn.zhxu.okhttps.HttpResult}
+   * @param <T>         返回类型
+   * @return 请求
+   */
+  public static <T> HttpRequest<T> of(@NonNull final String method, @NonNull final String url, final Class<T> resultClass) {
+    return new HttpRequest<>(method, url, resultClass);
+  }
+
+  /**
+   * 创建 GET 请求
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型
+   * @param <T>         返回类型
+   * @return 请求
+   */
+  public static <T> HttpRequest<T> get(@NonNull final String url, final Class<T> resultClass) {
+    return of(ReqMethodConst.GET, url, resultClass);
+  }
+
+  /**
+   * 创建 POST 请求
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型
+   * @param <T>         返回类型
+   * @return 请求
+   */
+  public static <T> HttpRequest<T> post(@NonNull final String url, final Class<T> resultClass) {
+    return of(ReqMethodConst.POST, url, resultClass);
+  }
+
+  /**
+   * 创建 PUT 请求
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型
+   * @param <T>         返回类型
+   * @return 请求
+   */
+  public static <T> HttpRequest<T> put(@NonNull final String url, final Class<T> resultClass) {
+    return of(ReqMethodConst.PUT, url, resultClass);
+  }
+
+  /**
+   * 创建 PATCH 请求
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型
+   * @param <T>         返回类型
+   * @return 请求
+   */
+  public static <T> HttpRequest<T> patch(@NonNull final String url, final Class<T> resultClass) {
+    return of(ReqMethodConst.PATCH, url, resultClass);
+  }
+
+  /**
+   * 创建 DELETE 请求
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型
+   * @param <T>         返回类型
+   * @return 请求
+   */
+  public static <T> HttpRequest<T> delete(@NonNull final String url, final Class<T> resultClass) {
+    return of(ReqMethodConst.DELETE, url, resultClass);
+  }
+
+  /**
+   * 设置客户端名称
+   *
+   * @param client 客户端名称，需已通过 {@link HttpUtil#register(String, HttpClientConfig)} 注册
+   * @return 当前请求
+   */
+  public HttpRequest<T> client(@NonNull final String client) {
+    this.client = client;
+    return this;
+  }
+
+  /**
+   * 设置内容类型
+   *
+   * @param contentType 内容类型
+   * @return 当前请求
+   */
+  public HttpRequest<T> contentType(final String contentType) {
+    this.contentType = contentType;
+    return this;
+  }
+
+  /**
+   * 设置参数，GET、DELETE 为 URL 参数，POST、PUT、PATCH 为请求体参数
+   *
+   * @param params 参数
+   * @return 当前请求
+   */
+  public HttpRequest<T> params(final Map<String, Object> params) {
+    this.params = params;
+    return this;
+  }
+
+  /**
+   * 设置消息头
+   *
+   * @param headers 消息头
+   * @return 当前请求
+   */
+  public HttpRequest<T> headers(final Map<String, String> headers) {
+    this.headers = headers;
+    return this;
+  }
+}
@@ -1,27 +1,204 @@
 package top.csaf.http;
 
+import cn.zhxu.okhttps.AHttpTask;
+import cn.zhxu.okhttps.ConvertProvider;
+import cn.zhxu.okhttps.HTTP;
+import cn.zhxu.okhttps.HttpCall;
 import cn.zhxu.okhttps.HttpResult;
+import cn.zhxu.okhttps.HttpTask;
+import cn.zhxu.okhttps.OkHttpsException;
 import cn.zhxu.okhttps.SHttpTask;
+import cn.zhxu.okhttps.okhttp.OkHttpClientWrapper;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okio.ByteString;
+import top.csaf.coll.CollUtil;
 import top.csaf.coll.MapUtil;
-import top.csaf.constant.CommonPattern;
 import top.csaf.http.constant.HeaderConst;
 import top.csaf.http.constant.ReqMethodConst;
 import top.csaf.http.convert.AutoJsonMsgConvertor;
+import top.csaf.http.convert.BodyEncoder;
 import top.csaf.lang.StrUtil;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 
 /**
  * HTTP 工具类
+ * <p>
+ * 请求通过命名客户端发送，每个客户端独占并复用一个连接池和调度器，通过 {@link #register(String, HttpClientConfig)} 配置；
+ * 静态请求方法使用默认客户端 {@link #DEFAULT_CLIENT}，未配置时使用 {@link cn.zhxu.okhttps.HttpUtils} 的全局实例，
+ * 即应用通过 {@code HttpUtils.of(...)} 设置的实例（包括其 baseUrl、拦截器和消息转换器），未设置时为 OkHttps 的默认实例。
+ * <p>
+ * 通过 {@link #register(String, HttpClientConfig)} 或 {@link #configure(HttpClientConfig)} 配置默认客户端后，
+ * 它同时成为 {@link cn.zhxu.okhttps.HttpUtils} 的全局实例；移除后恢复为配置前的全局实例。
  */
 @Slf4j
 public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
 
   /**
-   * 获取请求参数长度
+   * 默认客户端名称，静态请求方法使用该客户端；未配置时为 {@link cn.zhxu.okhttps.HttpUtils} 的全局实例
+   */
+  public static final String DEFAULT_CLIENT = "default";
+
+  /**
+   * 命名客户端
+   */
+  private static final Map<String, Client> CLIENTS = new ConcurrentHashMap<>();
+  /**
+   * 未配置默认客户端时包装的 HttpUtils 全局实例，全局实例变化时重新包装
+   */
+  private static volatile Client global;
+  /**
+   * 配置默认客户端前的 HttpUtils 全局实例，移除默认客户端时恢复
+   */
+  private static HTTP replacedGlobal;
+
+  /**
+   * OkHttps 表单请求体类型
+   */
+  private static final String FORM = "form";
+  private static final String FORM_URLENCODED = "x-www-form-urlencoded";
+
+  /**
+   * 注册命名客户端，同名客户端会被替换，旧客户端的空闲连接会被关闭，执行中和排队的请求不受影响
+   * <p>
+   * 注册 {@link #DEFAULT_CLIENT} 时同时设置为 {@link cn.zhxu.okhttps.HttpUtils} 的全局实例，原全局实例在移除默认客户端时恢复
+   *
+   * @param name   客户端名称
+   * @param config 客户端配置
+   * @return 客户端
+   * @throws IllegalArgumentException 配置不合法，或磁盘缓存目录正在被其他客户端使用
+   */
+  public static synchronized HTTP register(@NonNull final String name, @NonNull final HttpClientConfig config) {
+    Client client = new Client(name, config);
+    Client old = CLIENTS.put(name, client);
+    if (DEFAULT_CLIENT.equals(name)) {
+      if (old == null) {
+        replacedGlobal = getHttp();
+      }
+      of(client.http);
+    }
+    if (old != null) {
+      old.close();
+    }
+    return client.http;
+  }
+
+  /**
+   * 配置默认客户端
+   *
+   * @param config 客户端配置
+   * @return 默认客户端
+   */
+  public static HTTP configure(@NonNull final HttpClientConfig config) {
+    return register(DEFAULT_CLIENT, config);
+  }
+
+  /**
+   * 获取命名客户端，可直接使用 OkHttps 的完整 API，如 {@code HttpUtil.client("api").sync("/users").get()}
+   * <p>
+   * 直接使用 OkHttps API 的请求不经过客户端的 GET 响应缓存和请求合并，需要时使用 {@link #sync(HttpRequest)}
+   *
+   * @param name 客户端名称，{@link #DEFAULT_CLIENT} 未配置时为 {@link cn.zhxu.okhttps.HttpUtils} 的全局实例
+   * @return 客户端
+   * @throws IllegalArgumentException 客户端未注册
+   */
+  public static HTTP client(@NonNull final String name) {
+    return getClient(name).http;
+  }
+
+  /**
+   * 移除命名客户端并关闭其空闲连接，执行中和排队的请求不受影响
+   *
+   * @param name 客户端名称，移除 {@link #DEFAULT_CLIENT} 后恢复使用配置前的 {@link cn.zhxu.okhttps.HttpUtils} 全局实例
+   * @return 是否存在并已移除
+   */
+  public static synchronized boolean remove(@NonNull final String name) {
+    Client client = CLIENTS.remove(name);
+    if (client == null) {
+      return false;
+    }
+    if (DEFAULT_CLIENT.equals(name)) {
+      // 配置后应用又设置了其他全局实例时保留应用的实例
+      if (getHttp() == client.http) {
+        of(replacedGlobal);
+      }
+      replacedGlobal = null;
+    }
+    client.close();
+    return true;
+  }
+
+  /**
+   * 获取默认客户端的连接池和调度器统计
+   *
+   * @return 统计快照
+   */
+  public static HttpClientStats stats() {
+    return stats(DEFAULT_CLIENT);
+  }
+
+  /**
+   * 获取命名客户端的连接池和调度器统计
+   *
+   * @param name 客户端名称
+   * @return 统计快照，{@link cn.zhxu.okhttps.HttpUtils} 的全局实例不是 OkHttp 实现时各项为 0
+   * @throws IllegalArgumentException 客户端未注册
+   */
+  public static HttpClientStats stats(@NonNull final String name) {
+    Client client = getClient(name);
+    if (client.pool == null) {
+      return new HttpClientStats(name, 0, 0, 0, 0);
+    }
+    return new HttpClientStats(name, client.pool.connectionCount(), client.pool.idleConnectionCount(),
+      client.dispatcher.runningCallsCount(), client.dispatcher.queuedCallsCount());
+  }
+
+  private static Client getClient(final String name) {
+    Client client = CLIENTS.get(name);
+    if (client != null) {
+      return client;
+    }
+    if (!DEFAULT_CLIENT.equals(name)) {
+      throw new IllegalArgumentException("Http client: " + name + " is not registered");
+    }
+    // 未配置默认客户端时使用应用通过 HttpUtils.of 设置的全局实例
+    HTTP http = getHttp();
+    client = global;
+    if (client == null || client.http != http) {
+      client = new Client(http);
+      global = client;
+    }
+    return client;
+  }
+
+  /**
+   * 获取请求参数长度，即请求参数转为 JSON 后 {@code {}[]:,"} 按百分号编码（3 个字符）计算时的字符数
+   * <p>
+   * 常见类型遍历参数直接累加，不序列化；含有其他类型时序列化后计算
    *
    * @param bodyParams 请求参数
    * @return 请求参数长度
@@ -30,15 +207,26 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
     if (MapUtil.isEmpty(bodyParams)) {
       return 0;
     }
-    String s = new AutoJsonMsgConvertor().serialize(bodyParams, false);
-    s = CommonPattern.LEFT_CURLY_BRACES.matcher(s).replaceAll("%7B");
-    s = CommonPattern.DOUBLE_QUOTATION_MARK.matcher(s).replaceAll("%22");
-    s = CommonPattern.COLON.matcher(s).replaceAll("%3A");
-    s = CommonPattern.LEFT_SQUARE_BRACKET.matcher(s).replaceAll("%5B");
-    s = CommonPattern.RIGHT_SQUARE_BRACKET.matcher(s).replaceAll("%5D");
-    s = CommonPattern.COMMA.matcher(s).replaceAll("%2C");
-    s = CommonPattern.RIGHT_CURLY_BRACES.matcher(s).replaceAll("%7D");
-    return s.length();
+    long length = BodyEncoder.urlEncodedJsonLength((Object) bodyParams);
+    if (length < 0) {
+      length = BodyEncoder.urlEncodedJsonLength(BeanDecoder.CONVERTOR.serialize(bodyParams, false));
+    }
+    return (int) length;
+  }
+
+  /**
+   * 同步请求，使用请求指定的客户端
+   * <p>
+   * 转换为指定类型的 GET 按该客户端的 {@link HttpClientConfig#getCache()} 和 {@link HttpClientConfig#getSingleFlight()} 缓存、合并
+   *
+   * @param request 请求
+   * @param <T>     返回类型
+   * @return 响应体
+   * @throws IllegalArgumentException 客户端未注册
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> T sync(@NonNull final HttpRequest<T> request) {
+    return (T) sync(getClient(request.getClient()), request.getMethod(), request.getUrl(), request.getContentType(), request.getParams(), request.getHeaders(), request.getResultClass(), request);
   }
 
   /**
@@ -52,14 +240,565 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
    * @param resultClass   响应体需要转换的类型
    * @return 响应体
    */
-  @SuppressWarnings("unchecked")
   protected static Object sync(@NonNull final String requestMethod, final String url, final String contentType, final Map<String, Object> params, final Map<String, String> headers, final Class resultClass) {
+    return sync(getClient(DEFAULT_CLIENT), requestMethod, url, contentType, params, headers, resultClass, null);
+  }
+
+  /**
+   * 使用命名客户端同步请求，按客户端配置缓存、合并 GET
+   *
+   * @param client        客户端
+   * @param requestMethod 请求方法
+   * @param url           请求地址
+   * @param contentType   内容类型
+   * @param params        参数
+   * @param headers       消息头
+   * @param resultClass   响应体需要转换的类型
+   * @param request       请求描述，用于计算合并键，为 null 时按以上参数创建
+   * @return 响应体
+   */
+  private static Object sync(final Client client, @NonNull final String requestMethod, final String url, final String contentType, final Map<String, Object> params, final Map<String, String> headers, final Class resultClass, final HttpRequest<?> request) {
+    // 缓存和请求合并只用于转换为指定类型的 GET，HttpResult 和 Body 只能读取一次，不能共享
+    if ((client.cache == null && client.singleFlight == null) || !ReqMethodConst.GET.equals(requestMethod) || resultClass == null
+      || HttpResult.class.equals(resultClass) || HttpResult.Body.class.equals(resultClass)) {
+      return sync(client.http, requestMethod, url, contentType, params, headers, resultClass);
+    }
+    if (client.singleFlight == null) {
+      return cachedGet(client, url, contentType, params, headers, resultClass);
+    }
+    if (StrUtil.isBlank(url)) {
+      throw new IllegalArgumentException("Url: should not be blank");
+    }
+    HttpRequest<?> key = request != null ? request : HttpRequest.of(requestMethod, url, resultClass).contentType(contentType).params(params).headers(headers);
+    return client.singleFlight.execute(client.singleFlight.key(key), () -> client.cache != null
+      ? cachedGet(client, url, contentType, params, headers, resultClass)
+      : sync(client.http, requestMethod, url, contentType, params, headers, resultClass));
+  }
+
+  /**
+   * 使用指定客户端同步请求
+   *
+   * @param http          客户端
+   * @param requestMethod 请求方法
+   * @param url           请求地址
+   * @param contentType   内容类型
+   * @param params        参数
+   * @param headers       消息头
+   * @param resultClass   响应体需要转换的类型
+   * @return 响应体
+   */
+  protected static Object sync(@NonNull final HTTP http, @NonNull final String requestMethod, final String url, final String contentType, final Map<String, Object> params, final Map<String, String> headers, final Class resultClass) {
+    if (StrUtil.isBlank(url)) {
+      throw new IllegalArgumentException("Url: should not be blank");
+    }
+    // 使用客户端的 sync 方法构建 Task
+    SHttpTask task = prepare(http.sync(url), requestMethod, contentType, params, headers);
+
+    // 执行请求
+    HttpResult result = task.request(requestMethod);
+    return toResult(result, resultClass);
+  }
+
+  /**
+   * 使用客户端的响应缓存同步 GET
+   * <p>
+   * 有效期内直接返回缓存；过期后有验证器时发送条件请求，304 时继续使用缓存；只缓存 200 且未声明 no-store 的响应
+   *
+   * @param client      客户端
+   * @param url         请求地址
+   * @param contentType 内容类型
+   * @param params      参数
+   * @param headers     消息头
+   * @param resultClass 响应体需要转换的类型，不能为 null、HttpResult 或 HttpResult.Body
+   * @return 响应体
+   */
+  private static Object cachedGet(final Client client, final String url, final String contentType, final Map<String, Object> params, final Map<String, String> headers, final Class resultClass) {
+    if (StrUtil.isBlank(url)) {
+      throw new IllegalArgumentException("Url: should not be blank");
+    }
+    HttpCache cache = client.cache;
+    String key = HttpCache.key(url, params, headers);
+    HttpCache.Entry entry = cache.get(key);
+    if (entry != null && cache.isFresh(entry)) {
+      cache.recordHit();
+      return cachedResult(cache, entry, resultClass);
+    }
+
+    SHttpTask task = prepare(client.http.sync(url), ReqMethodConst.GET, contentType, params, headers);
+    boolean conditional = entry != null && cache.canRevalidate(entry);
+    if (conditional) {
+      if (entry.etag != null) {
+        task.addHeader(HeaderConst.IF_NONE_MATCH, entry.etag);
+      }
+      if (entry.lastModified != null) {
+        task.addHeader(HeaderConst.IF_MODIFIED_SINCE, entry.lastModified);
+      }
+    }
+    HttpResult result = task.get();
+    if (conditional && result.getStatus() == 304) {
+      result.close();
+      cache.recordRevalidation(entry);
+      return cachedResult(cache, entry, resultClass);
+    }
+
+    cache.recordMiss();
+    String cacheControl = result.getHeader(HeaderConst.CACHE_CONTROL);
+    if (result.getStatus() != 200 || (cacheControl != null && cacheControl.contains("no-store"))) {
+      if (entry != null) {
+        cache.remove(key);
+      }
+      return toResult(result, resultClass);
+    }
+    entry = cache.put(key, result.getBody().toString(), result.getHeader(HeaderConst.ETAG), result.getHeader(HeaderConst.LAST_MODIFIED));
+    return cachedResult(cache, entry, resultClass);
+  }
+
+  /**
+   * 将缓存条目转换为指定类型，开启 {@link HttpCacheConfig#isCacheResults()} 时复用已转换的对象
+   *
+   * @param cache       缓存
+   * @param entry       缓存条目
+   * @param resultClass 响应体需要转换的类型
+   * @return 响应体
+   */
+  private static Object cachedResult(final HttpCache cache, final HttpCache.Entry entry, final Class<?> resultClass) {
+    if (String.class.equals(resultClass)) {
+      return entry.body;
+    }
+    if (!cache.getConfig().isCacheResults()) {
+      return bodyToResult(entry.body, resultClass);
+    }
+    Object result = entry.results.get(resultClass);
+    if (result == null) {
+      result = bodyToResult(entry.body, resultClass);
+      if (result != null) {
+        Object old = entry.results.putIfAbsent(resultClass, result);
+        if (old != null) {
+          result = old;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 获取默认客户端的 GET 响应缓存统计
+   *
+   * @return 统计快照，未开启缓存时为 null
+   */
+  public static HttpCacheStats cacheStats() {
+    return cacheStats(DEFAULT_CLIENT);
+  }
+
+  /**
+   * 获取命名客户端的 GET 响应缓存统计
+   *
+   * @param name 客户端名称
+   * @return 统计快照，未开启缓存时为 null
+   * @throws IllegalArgumentException 客户端未注册
+   */
+  public static HttpCacheStats cacheStats(@NonNull final String name) {
+    Client client = getClient(name);
+    if (client.cache == null) {
+      return null;
+    }
+    return client.cache.stats(name, client.diskCache == null ? 0 : client.diskCache.cache.hitCount());
+  }
+
+  /**
+   * 清空默认客户端的 GET 响应缓存，包括磁盘层
+   */
+  public static void clearCache() {
+    clearCache(DEFAULT_CLIENT);
+  }
+
+  /**
+   * 清空命名客户端的 GET 响应缓存，包括磁盘层
+   *
+   * @param name 客户端名称
+   * @throws IllegalArgumentException 客户端未注册
+   */
+  public static void clearCache(@NonNull final String name) {
+    Client client = getClient(name);
+    if (client.cache != null) {
+      client.cache.clear();
+    }
+    if (client.diskCache != null) {
+      try {
+        client.diskCache.cache.evictAll();
+      } catch (IOException e) {
+        throw new RuntimeException("Clear cache failed: " + client.diskCache.directory, e);
+      }
+    }
+  }
+
+  /**
+   * 异步请求
+   *
+   * @param request 请求
+   * @param <T>     返回类型
+   * @return 响应体，网络异常时以 {@link OkHttpsException} 异常完成；取消时同时取消请求
+   */
+  public static <T> CompletableFuture<T> async(@NonNull final HttpRequest<T> request) {
+    return async(getClient(request.getClient()).http, request.getMethod(), request.getUrl(), request.getContentType(), request.getParams(), request.getHeaders(), request.getResultClass());
+  }
+
+  /**
+   * 异步请求
+   *
+   * @param requestMethod 请求方法
+   * @param url           请求地址
+   * @param contentType   内容类型
+   * @param params        参数
+   * @param headers       消息头
+   * @param resultClass   响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>           返回类型
+   * @return 响应体，网络异常时以 {@link OkHttpsException} 异常完成；取消时同时取消请求
+   */
+  public static <T> CompletableFuture<T> async(@NonNull final String requestMethod, final String url, final String contentType, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    return async(getClient(DEFAULT_CLIENT).http, requestMethod, url, contentType, params, headers, resultClass);
+  }
+
+  /**
+   * 使用指定客户端异步请求，响应体的转换在 OkHttp 的回调线程中执行
+   *
+   * @param http          客户端
+   * @param requestMethod 请求方法
+   * @param url           请求地址
+   * @param contentType   内容类型
+   * @param params        参数
+   * @param headers       消息头
+   * @param resultClass   响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>           返回类型
+   * @return 响应体，网络异常时以 {@link OkHttpsException} 异常完成；取消时同时取消请求
+   */
+  @SuppressWarnings("unchecked")
+  protected static <T> CompletableFuture<T> async(@NonNull final HTTP http, @NonNull final String requestMethod, final String url, final String contentType, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    if (StrUtil.isBlank(url)) {
+      throw new IllegalArgumentException("Url: should not be blank");
+    }
+    CompletableFuture<T> future = new CompletableFuture<>();
+    // OkHttps 先回调 onComplete，再回调 onResponse 或 onException
+    AtomicReference<HttpResult.State> completeState = new AtomicReference<>();
+    AHttpTask task = prepare(http.async(url), requestMethod, contentType, params, headers)
+      .setOnComplete(state -> {
+        completeState.set(state);
+        if (state == HttpResult.State.CANCELED) {
+          future.cancel(false);
+        }
+      })
+      .setOnResponse(result -> {
+        try {
+          // 回调结束后 OkHttps 会关闭响应体，需要返回 HttpResult、Body 时先缓存
+          if (resultClass == null || HttpResult.class.equals(resultClass) || HttpResult.Body.class.equals(resultClass)) {
+            result.getBody().cache();
+          }
+          future.complete((T) toResult(result, resultClass));
+        } catch (Throwable e) {
+          future.completeExceptionally(e);
+        }
+      })
+      .setOnException(e -> {
+        HttpResult.State state = completeState.get();
+        future.completeExceptionally(new OkHttpsException(state != null ? state : HttpResult.State.EXCEPTION, "Async request failed: " + url, e));
+      });
+    HttpCall call = task.request(requestMethod);
+    future.whenComplete((result, e) -> {
+      if (future.isCancelled()) {
+        call.cancel();
+      }
+    });
+    return future;
+  }
+
+  /**
+   * 批量异步请求，最多同时执行 maxConcurrency 个请求
+   * <p>
+   * 实际并发还受客户端调度器的 maxRequests、maxRequestsPerHost 限制，见 {@link HttpClientConfig}
+   *
+   * @param requests       请求
+   * @param maxConcurrency 最大并发数
+   * @param <T>            返回类型
+   * @return 与请求顺序一致的响应体；任一请求失败时以该异常完成，并取消执行中的请求、不再发起剩余请求
+   */
+  public static <T> CompletableFuture<List<T>> batch(@NonNull final List<HttpRequest<T>> requests, final int maxConcurrency) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Max concurrency: should be greater than 0");
+    }
+    for (HttpRequest<T> request : requests) {
+      if (request == null) {
+        throw new NullPointerException("Requests: should not contain null");
+      }
+    }
+    return new Batch<>(requests).start(maxConcurrency);
+  }
+
+  /**
+   * 下载到文件，使用默认配置：目标文件已存在时断点续传
+   *
+   * @param url    请求地址
+   * @param target 目标文件，父目录不存在时自动创建
+   * @return 下载结果
+   */
+  public static DownloadResult download(@NonNull final String url, @NonNull final Path target) {
+    return download(url, target, DownloadOptions.builder().build());
+  }
+
+  /**
+   * 下载到文件
+   * <p>
+   * 响应体通过一个固定大小的缓冲区直接写入文件通道，内存占用与文件大小无关；摘要在写入的同时计算
+   *
+   * @param url     请求地址
+   * @param target  目标文件，父目录不存在时自动创建
+   * @param options 下载配置
+   * @return 下载结果
+   * @throws OkHttpsException      网络异常，或响应状态码不是 200、206（续传时的 416 除外）；续传响应的 Content-Range 与本地文件不一致时从头下载
+   * @throws IllegalStateException 摘要与期望值不一致
+   */
+  public static DownloadResult download(@NonNull final String url, @NonNull final Path target, @NonNull final DownloadOptions options) {
+    if (StrUtil.isBlank(url)) {
+      throw new IllegalArgumentException("Url: should not be blank");
+    }
+    if (options.getBufferSize() < 1) {
+      throw new IllegalArgumentException("Buffer size: should be greater than 0");
+    }
+    MessageDigest digest = null;
+    if (StrUtil.isNotBlank(options.getChecksumAlgorithm())) {
+      try {
+        digest = MessageDigest.getInstance(options.getChecksumAlgorithm());
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalArgumentException("Checksum algorithm: " + options.getChecksumAlgorithm() + " is not supported", e);
+      }
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(options.getBufferSize());
+
+    long existing;
+    try {
+      Path parent = target.toAbsolutePath().getParent();
+      if (parent != null && !Files.isDirectory(parent)) {
+        Files.createDirectories(parent);
+      }
+      existing = options.isResume() && Files.isRegularFile(target) ? Files.size(target) : 0;
+    } catch (IOException e) {
+      throw new RuntimeException("Download failed: " + target, e);
+    }
+
+    HttpResult result = downloadRequest(url, options, existing);
+    if (existing > 0 && !matchesRange(result, existing)) {
+      // 服务端返回的范围与本地文件不一致，从头下载
+      result.close();
+      existing = 0;
+      result = downloadRequest(url, options, 0);
+    }
+    try {
+      int status = result.getStatus();
+      // 续传时服务端返回 416 且总长度等于本地文件长度：已下载完成
+      boolean completed = existing > 0 && status == 416;
+      if (!completed && status != 200 && status != 206) {
+        throw new OkHttpsException(HttpResult.State.RESPONSED, "Download failed, status: " + status + ", url: " + url);
+      }
+      try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+        if (completed) {
+          if (digest != null) {
+            updateDigest(digest, channel, existing, buffer);
+          }
+          return new DownloadResult(target, status, 0, existing, true, checksum(digest, options));
+        }
+        // 服务端忽略 Range 或 If-Range 不匹配时返回 200，从头覆盖
+        boolean resumed = existing > 0 && status == 206;
+        long position = resumed ? existing : 0;
+        if (resumed) {
+          if (digest != null) {
+            updateDigest(digest, channel, existing, buffer);
+          }
+        } else {
+          channel.truncate(0);
+        }
+        long contentLength = result.getContentLength();
+        long total = contentLength < 0 ? -1 : position + contentLength;
+
+        long transferred = 0;
+        channel.position(position);
+        DownloadOptions.ProgressListener listener = options.getProgressListener();
+        try (InputStream in = result.getBody().toByteStream()) {
+          byte[] array = buffer.array();
+          int len;
+          while ((len = in.read(array)) != -1) {
+            if (len == 0) {
+              continue;
+            }
+            if (digest != null) {
+              digest.update(array, 0, len);
+            }
+            // 转为 Buffer 调用，兼容 Java 8 运行时
+            ((Buffer) buffer).clear();
+            ((Buffer) buffer).limit(len);
+            while (buffer.hasRemaining()) {
+              channel.write(buffer);
+            }
+            transferred += len;
+            if (listener != null) {
+              listener.onProgress(position + transferred, total);
+            }
+          }
+        }
+        return new DownloadResult(target, status, transferred, position + transferred, resumed, checksum(digest, options));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException("Download failed: " + target, e);
+    } finally {
+      result.close();
+    }
+  }
+
+  /**
+   * 发送下载请求
+   *
+   * @param url      请求地址
+   * @param options  下载配置
+   * @param existing 已下载的长度，大于 0 时从该位置续传
+   * @return 响应
+   */
+  private static HttpResult downloadRequest(final String url, final DownloadOptions options, final long existing) {
+    SHttpTask task = prepare(getClient(options.getClient()).http.sync(url), ReqMethodConst.GET, null, null, options.getHeaders());
+    if (existing > 0) {
+      task.addHeader(HeaderConst.RANGE, "bytes=" + existing + "-");
+      if (StrUtil.isNotBlank(options.getIfRange())) {
+        task.addHeader(HeaderConst.IF_RANGE, options.getIfRange());
+      }
+    }
+    return task.get();
+  }
+
+  /**
+   * 续传响应的 Content-Range 是否与本地文件一致
+   * <p>
+   * 206 时起始位置应等于本地文件长度，416 时应为 {@code bytes *}{@code /总长度} 且总长度等于本地文件长度；其他状态码不检查
+   *
+   * @param result   响应
+   * @param existing 本地文件长度
+   * @return 是否一致
+   */
+  private static boolean matchesRange(final HttpResult result, final long existing) {
+    int status = result.getStatus();
+    if (status != 206 && status != 416) {
+      return true;
+    }
+    String contentRange = result.getHeader(HeaderConst.CONTENT_RANGE);
+    if (contentRange == null || !contentRange.startsWith("bytes ")) {
+      return false;
+    }
+    int slash = contentRange.indexOf('/');
+    if (slash < 0) {
+      return false;
+    }
+    String range = contentRange.substring(6, slash).trim();
+    try {
+      if (status == 416) {
+        return "*".equals(range) && Long.parseLong(contentRange.substring(slash + 1).trim()) == existing;
+      }
+      int dash = range.indexOf('-');
+      return dash > 0 && Long.parseLong(range.substring(0, dash)) == existing;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  /**
+   * 流式读取响应体，使用默认客户端
+   *
+   * @param url      请求地址
+   * @param consumer 响应体输入流的消费者，返回后输入流和响应自动关闭
+   * @throws OkHttpsException 网络异常或响应状态码不是 2xx
+   */
+  public static void stream(@NonNull final String url, @NonNull final Consumer<InputStream> consumer) {
+    stream(url, null, consumer);
+  }
+
+  /**
+   * 流式读取响应体，使用默认客户端，适用于直接转发到 OutputStream 或边读边解析的场景
+   *
+   * @param url      请求地址
+   * @param headers  消息头
+   * @param consumer 响应体输入流的消费者，返回后输入流和响应自动关闭
+   * @throws OkHttpsException 网络异常或响应状态码不是 2xx
+   */
+  public static void stream(@NonNull final String url, final Map<String, String> headers, @NonNull final Consumer<InputStream> consumer) {
     if (StrUtil.isBlank(url)) {
       throw new IllegalArgumentException("Url: should not be blank");
     }
-    // 使用 OkHttps 的 sync 方法构建 Task
-    SHttpTask task = cn.zhxu.okhttps.HttpUtils.sync(url);
+    HttpResult result = prepare(getClient(DEFAULT_CLIENT).http.sync(url), ReqMethodConst.GET, null, null, headers).get();
+    try {
+      if (!result.isSuccessful()) {
+        throw new OkHttpsException(HttpResult.State.RESPONSED, "Stream failed, status: " + result.getStatus() + ", url: " + url);
+      }
+      try (InputStream in = result.getBody().toByteStream()) {
+        consumer.accept(in);
+      } catch (IOException e) {
+        throw new RuntimeException("Stream failed: " + url, e);
+      }
+    } finally {
+      result.close();
+    }
+  }
+
+  /**
+   * 读取文件开头指定长度的内容更新摘要
+   *
+   * @param digest  摘要
+   * @param channel 文件通道
+   * @param length  长度
+   * @param buffer  缓冲区
+   * @throws IOException 读取失败
+   */
+  private static void updateDigest(final MessageDigest digest, final FileChannel channel, final long length, final ByteBuffer buffer) throws IOException {
+    long position = 0;
+    while (position < length) {
+      ((Buffer) buffer).clear();
+      if (length - position < buffer.capacity()) {
+        ((Buffer) buffer).limit((int) (length - position));
+      }
+      int len = channel.read(buffer, position);
+      if (len < 0) {
+        break;
+      }
+      digest.update(buffer.array(), 0, len);
+      position += len;
+    }
+  }
 
+  /**
+   * 获取摘要并与期望值比较
+   *
+   * @param digest  摘要，为 null 时返回 null
+   * @param options 下载配置
+   * @return 小写十六进制摘要
+   * @throws IllegalStateException 摘要与期望值不一致
+   */
+  private static String checksum(final MessageDigest digest, final DownloadOptions options) {
+    if (digest == null) {
+      return null;
+    }
+    String checksum = ByteString.of(digest.digest()).hex();
+    if (StrUtil.isNotBlank(options.getExpectedChecksum()) && !checksum.equalsIgnoreCase(options.getExpectedChecksum().trim())) {
+      throw new IllegalStateException("Checksum mismatch, expected: " + options.getExpectedChecksum() + ", actual: " + checksum);
+    }
+    return checksum;
+  }
+
+  /**
+   * 添加请求方法对应的参数、内容类型和消息头
+   *
+   * @param task          任务
+   * @param requestMethod 请求方法
+   * @param contentType   内容类型
+   * @param params        参数
+   * @param headers       消息头
+   * @param <C>           任务类型
+   * @return 任务
+   */
+  private static <C extends HttpTask<C>> C prepare(final C task, final String requestMethod, final String contentType, final Map<String, Object> params, final Map<String, String> headers) {
     // 添加内容类型
     if (StrUtil.isNotBlank(contentType)) {
       task.bodyType(contentType);
@@ -70,7 +809,13 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
       if (ReqMethodConst.GET.equals(requestMethod) || ReqMethodConst.DELETE.equals(requestMethod)) {
         task.addUrlPara(params);
       } else if (ReqMethodConst.POST.equals(requestMethod) || ReqMethodConst.PATCH.equals(requestMethod) || ReqMethodConst.PUT.equals(requestMethod)) {
-        task.addBodyPara(params);
+        String bodyType = task.getBodyType();
+        if (FORM.equals(bodyType) || (bodyType != null && bodyType.endsWith(FORM_URLENCODED))) {
+          // 按计算好的长度一次编码，OkHttp FormBody 计算长度和写出时各编码一次
+          task.setBodyPara(BodyEncoder.encodeForm(params));
+        } else {
+          task.addBodyPara(params);
+        }
       }
     }
 
@@ -82,12 +827,20 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
     if (MapUtil.isEmpty(headers) || headers.get(HeaderConst.USER_AGENT) == null) {
       task.addHeader(HeaderConst.USER_AGENT, HeaderConst.USER_AGENT_X);
     }
+    return task;
+  }
 
-    // 执行请求
-    HttpResult result = task.request(requestMethod);
-
+  /**
+   * 将响应结果转换为指定类型
+   *
+   * @param result      响应结果
+   * @param resultClass 响应体需要转换的类型
+   * @return 响应体
+   */
+  @SuppressWarnings("unchecked")
+  private static Object toResult(final HttpResult result, final Class resultClass) {
     // 如果不需要转换类型，直接返回 HttpResult
-    if (resultClass == null) {
+    if (resultClass == null || HttpResult.class.equals(resultClass)) {
       return result;
     }
 
@@ -109,6 +862,8 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
 
   /**
    * 将响应字符串转换为指定类型（反射实现，零硬依赖）
+   * <p>
+   * 各 JSON 库的解析器和方法在首次使用时解析一次，之后所有响应共享
    *
    * @param jsonString  JSON 字符串
    * @param resultClass 目标类型
@@ -124,61 +879,31 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
     try {
       // === Jackson 处理 (ObjectNode, JsonNode, ArrayNode) ===
       if (className.startsWith("com.fasterxml.jackson.databind.")) {
-        Class<?> mapperClass = Class.forName("com.fasterxml.jackson.databind.ObjectMapper");
-        Object mapper = mapperClass.getConstructor().newInstance();
-        Method readTree = mapperClass.getMethod("readTree", String.class);
-        return (T) readTree.invoke(mapper, jsonString);
+        return (T) JacksonDecoder.READ_TREE.invoke(JacksonDecoder.MAPPER, jsonString);
       }
 
       // === Fastjson 处理 (v1 & v2) ===
       if (className.startsWith("com.alibaba.fastjson")) {
-        // 自动探测 v2 或 v1
-        Class<?> jsonClass;
-        try {
-          jsonClass = Class.forName("com.alibaba.fastjson2.JSON");
-        } catch (ClassNotFoundException e) {
-          jsonClass = Class.forName("com.alibaba.fastjson.JSON");
-        }
-
-        if (className.endsWith("JSONObject")) {
-          Method parseObject = jsonClass.getMethod("parseObject", String.class);
-          return (T) parseObject.invoke(null, jsonString);
-        } else if (className.endsWith("JSONArray")) {
-          Method parseArray = jsonClass.getMethod("parseArray", String.class);
-          return (T) parseArray.invoke(null, jsonString);
-        } else {
-          // JSON.class 或其他，默认尝试 parseObject
-          Method parseObject = jsonClass.getMethod("parseObject", String.class);
-          return (T) parseObject.invoke(null, jsonString);
+        if (className.endsWith("JSONArray")) {
+          return (T) FastjsonDecoder.PARSE_ARRAY.invoke(null, jsonString);
         }
+        // JSONObject、JSON.class 或其他，默认 parseObject
+        return (T) FastjsonDecoder.PARSE_OBJECT.invoke(null, jsonString);
       }
 
       // === Gson 处理 ===
       if (className.startsWith("com.google.gson.")) {
-        Class<?> parserClass = Class.forName("com.google.gson.JsonParser");
-        Object jsonElement;
-        try {
-          // Gson 2.8.6+ 使用静态方法 parseString
-          Method parseString = parserClass.getMethod("parseString", String.class);
-          jsonElement = parseString.invoke(null, jsonString);
-        } catch (NoSuchMethodException e) {
-          // 旧版本 Gson 使用 new JsonParser().parse()
-          Object parser = parserClass.getConstructor().newInstance();
-          Method parse = parserClass.getMethod("parse", String.class);
-          jsonElement = parse.invoke(parser, jsonString);
-        }
-
+        Object jsonElement = GsonDecoder.PARSE.invoke(GsonDecoder.PARSER, jsonString);
         if (className.endsWith("JsonObject")) {
-          Method getAsJsonObject = jsonElement.getClass().getMethod("getAsJsonObject");
-          return (T) getAsJsonObject.invoke(jsonElement);
+          return (T) GsonDecoder.GET_AS_JSON_OBJECT.invoke(jsonElement);
         } else if (className.endsWith("JsonArray")) {
-          Method getAsJsonArray = jsonElement.getClass().getMethod("getAsJsonArray");
-          return (T) getAsJsonArray.invoke(jsonElement);
+          return (T) GsonDecoder.GET_AS_JSON_ARRAY.invoke(jsonElement);
         }
         return (T) jsonElement;
       }
 
-    } catch (Exception e) {
+    } catch (Exception | LinkageError e) {
+      // LinkageError：解析器初始化失败
       log.error("Failed to parse JSON for class: {}", className, e);
       return null;
     }
@@ -186,7 +911,7 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
     // === 通用 Bean 处理 ===
     // 如果不是上述特定的 JSON 库类型，则使用 AutoJsonMsgConvertor 进行通用转换
     // 它会自动选择当前环境中最优的 JSON 库
-    return new AutoJsonMsgConvertor().toBean(resultClass, jsonString);
+    return BeanDecoder.CONVERTOR.toBean(resultClass, jsonString);
   }
 
   /**
@@ -890,4 +1615,386 @@ public class HttpUtil extends cn.zhxu.okhttps.HttpUtils {
   public static HttpResult delete(final String url) {
     return (HttpResult) sync(ReqMethodConst.DELETE, url, null, null, null, null);
   }
+
+  /**
+   * 异步 GET
+   *
+   * @param url         请求地址
+   * @param params      参数
+   * @param headers     消息头
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> getAsync(final String url, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    return async(ReqMethodConst.GET, url, null, params, headers, resultClass);
+  }
+
+  /**
+   * 异步 GET
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> getAsync(final String url, final Class<T> resultClass) {
+    return async(ReqMethodConst.GET, url, null, null, null, resultClass);
+  }
+
+  /**
+   * 异步 POST
+   *
+   * @param url         请求地址
+   * @param params      参数
+   * @param headers     消息头
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> postAsync(final String url, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    return async(ReqMethodConst.POST, url, null, params, headers, resultClass);
+  }
+
+  /**
+   * 异步 POST
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> postAsync(final String url, final Class<T> resultClass) {
+    return async(ReqMethodConst.POST, url, null, null, null, resultClass);
+  }
+
+  /**
+   * 异步 PUT
+   *
+   * @param url         请求地址
+   * @param params      参数
+   * @param headers     消息头
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> putAsync(final String url, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    return async(ReqMethodConst.PUT, url, null, params, headers, resultClass);
+  }
+
+  /**
+   * 异步 PUT
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> putAsync(final String url, final Class<T> resultClass) {
+    return async(ReqMethodConst.PUT, url, null, null, null, resultClass);
+  }
+
+  /**
+   * 异步 PATCH
+   *
+   * @param url         请求地址
+   * @param params      参数
+   * @param headers     消息头
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> patchAsync(final String url, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    return async(ReqMethodConst.PATCH, url, null, params, headers, resultClass);
+  }
+
+  /**
+   * 异步 PATCH
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> patchAsync(final String url, final Class<T> resultClass) {
+    return async(ReqMethodConst.PATCH, url, null, null, null, resultClass);
+  }
+
+  /**
+   * 异步 DELETE
+   *
+   * @param url         请求地址
+   * @param params      参数
+   * @param headers     消息头
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> deleteAsync(final String url, final Map<String, Object> params, final Map<String, String> headers, final Class<T> resultClass) {
+    return async(ReqMethodConst.DELETE, url, null, params, headers, resultClass);
+  }
+
+  /**
+   * 异步 DELETE
+   *
+   * @param url         请求地址
+   * @param resultClass 响应体需要转换的类型，为 null 或 HttpResult 时返回 {@link HttpResult}
+   * @param <T>         返回类型
+   * @return 响应体
+   */
+  public static <T> CompletableFuture<T> deleteAsync(final String url, final Class<T> resultClass) {
+    return async(ReqMethodConst.DELETE, url, null, null, null, resultClass);
+  }
+
+  /**
+   * Jackson 解析器，首次使用 Jackson 类型时初始化，ObjectMapper 线程安全可共享
+   */
+  private static final class JacksonDecoder {
+    private static final Object MAPPER;
+    private static final Method READ_TREE;
+
+    static {
+      try {
+        Class<?> mapperClass = Class.forName("com.fasterxml.jackson.databind.ObjectMapper");
+        MAPPER = mapperClass.getConstructor().newInstance();
+        READ_TREE = mapperClass.getMethod("readTree", String.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+  }
+
+  /**
+   * Fastjson 解析方法，首次使用 Fastjson 类型时初始化，优先 v2，其次 v1
+   */
+  private static final class FastjsonDecoder {
+    private static final Method PARSE_OBJECT;
+    private static final Method PARSE_ARRAY;
+
+    static {
+      try {
+        Class<?> jsonClass;
+        try {
+          jsonClass = Class.forName("com.alibaba.fastjson2.JSON");
+        } catch (ClassNotFoundException e) {
+          jsonClass = Class.forName("com.alibaba.fastjson.JSON");
+        }
+        PARSE_OBJECT = jsonClass.getMethod("parseObject", String.class);
+        PARSE_ARRAY = jsonClass.getMethod("parseArray", String.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+  }
+
+  /**
+   * Gson 解析方法，首次使用 Gson 类型时初始化
+   */
+  private static final class GsonDecoder {
+    /**
+     * 旧版本 Gson 的 JsonParser 实例，2.8.6+ 使用静态方法时为 null
+     */
+    private static final Object PARSER;
+    private static final Method PARSE;
+    private static final Method GET_AS_JSON_OBJECT;
+    private static final Method GET_AS_JSON_ARRAY;
+
+    static {
+      try {
+        Class<?> parserClass = Class.forName("com.google.gson.JsonParser");
+        Object parser = null;
+        Method parse;
+        try {
+          // Gson 2.8.6+ 使用静态方法 parseString
+          parse = parserClass.getMethod("parseString", String.class);
+        } catch (NoSuchMethodException e) {
+          // 旧版本 Gson 使用 new JsonParser().parse()
+          parser = parserClass.getConstructor().newInstance();
+          parse = parserClass.getMethod("parse", String.class);
+        }
+        PARSER = parser;
+        PARSE = parse;
+        Class<?> elementClass = Class.forName("com.google.gson.JsonElement");
+        GET_AS_JSON_OBJECT = elementClass.getMethod("getAsJsonObject");
+        GET_AS_JSON_ARRAY = elementClass.getMethod("getAsJsonArray");
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+  }
+
+  /**
+   * 通用 Bean 转换器，首次使用时初始化；未指定后端的 AutoJsonMsgConvertor 无状态，可共享
+   */
+  private static final class BeanDecoder {
+    private static final AutoJsonMsgConvertor CONVERTOR = new AutoJsonMsgConvertor();
+  }
+
+  /**
+   * 批量请求，完成一个请求后发起下一个，保持执行中的请求数不超过最大并发数
+   *
+   * @param <T> 返回类型
+   */
+  private static final class Batch<T> {
+    private final List<HttpRequest<T>> requests;
+    private final AtomicReferenceArray<T> results;
+    private final AtomicReferenceArray<CompletableFuture<T>> futures;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger remaining;
+    private final CompletableFuture<List<T>> future = new CompletableFuture<>();
+
+    private Batch(final List<HttpRequest<T>> requests) {
+      this.requests = requests;
+      results = new AtomicReferenceArray<>(requests.size());
+      futures = new AtomicReferenceArray<>(requests.size());
+      remaining = new AtomicInteger(requests.size());
+    }
+
+    private CompletableFuture<List<T>> start(final int maxConcurrency) {
+      if (requests.isEmpty()) {
+        future.complete(new ArrayList<>());
+        return future;
+      }
+      // 整体失败或取消时，取消执行中的请求
+      future.whenComplete((list, e) -> {
+        if (e != null) {
+          for (int i = 0; i < futures.length(); i++) {
+            CompletableFuture<T> item = futures.get(i);
+            if (item != null) {
+              item.cancel(false);
+            }
+          }
+        }
+      });
+      for (int i = 0, size = Math.min(maxConcurrency, requests.size()); i < size; i++) {
+        launchNext();
+      }
+      return future;
+    }
+
+    private void launchNext() {
+      int index = next.getAndIncrement();
+      if (index >= requests.size() || future.isDone()) {
+        return;
+      }
+      CompletableFuture<T> item;
+      try {
+        item = async(requests.get(index));
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      futures.set(index, item);
+      if (future.isDone()) {
+        item.cancel(false);
+        return;
+      }
+      item.whenComplete((result, e) -> {
+        if (e != null) {
+          future.completeExceptionally(e);
+          return;
+        }
+        results.set(index, result);
+        if (remaining.decrementAndGet() == 0) {
+          List<T> list = new ArrayList<>(results.length());
+          for (int i = 0; i < results.length(); i++) {
+            list.add(results.get(i));
+          }
+          future.complete(list);
+        } else {
+          launchNext();
+        }
+      });
+    }
+  }
+
+  /**
+   * 命名客户端，持有自建的连接池和调度器以便统计；包装 HttpUtils 全局实例时只用于发送请求和统计
+   */
+  private static final class Client {
+    private final HTTP http;
+    private final ConnectionPool pool;
+    private final Dispatcher dispatcher;
+    private final HttpCache cache;
+    private final DiskCache diskCache;
+    private final SingleFlight singleFlight;
+
+    private Client(final String name, final HttpClientConfig config) {
+      singleFlight = config.getSingleFlight() == null ? null : new SingleFlight(config.getSingleFlight());
+      HttpCacheConfig cacheConfig = config.getCache();
+      cache = cacheConfig == null ? null : new HttpCache(cacheConfig);
+      pool = new ConnectionPool(config.getMaxIdleConnections(), config.getKeepAliveMillis(), TimeUnit.MILLISECONDS);
+      dispatcher = new Dispatcher();
+      dispatcher.setMaxRequests(config.getMaxRequests());
+      dispatcher.setMaxRequestsPerHost(config.getMaxRequestsPerHost());
+      diskCache = cacheConfig == null || cacheConfig.getDiskDirectory() == null ? null
+        : DiskCache.acquire(name, cacheConfig.getDiskDirectory(), cacheConfig.getDiskMaxBytes());
+      try {
+        http = build(config);
+      } catch (RuntimeException e) {
+        if (diskCache != null) {
+          diskCache.release();
+        }
+        throw e;
+      }
+    }
+
+    private HTTP build(final HttpClientConfig config) {
+      HTTP.Builder builder = HTTP.builder().config(okBuilder -> {
+        okBuilder.connectionPool(pool)
+          .dispatcher(dispatcher)
+          .connectTimeout(config.getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+          .readTimeout(config.getReadTimeoutMillis(), TimeUnit.MILLISECONDS)
+          .writeTimeout(config.getWriteTimeoutMillis(), TimeUnit.MILLISECONDS)
+          .callTimeout(config.getCallTimeoutMillis(), TimeUnit.MILLISECONDS)
+          .pingInterval(config.getPingIntervalMillis(), TimeUnit.MILLISECONDS)
+          .retryOnConnectionFailure(config.isRetryOnConnectionFailure())
+          .followRedirects(config.isFollowRedirects());
+        if (diskCache != null) {
+          // 最外层的拦截器，在 okConfig 添加的拦截器之前
+          okBuilder.addInterceptor(diskCache).cache(diskCache.cache);
+        }
+        if (CollUtil.isNotEmpty(config.getProtocols())) {
+          okBuilder.protocols(config.getProtocols());
+        }
+        if (config.getOkConfig() != null) {
+          config.getOkConfig().config(okBuilder);
+        }
+      });
+      if (StrUtil.isNotBlank(config.getBaseUrl())) {
+        builder.baseUrl(config.getBaseUrl());
+      }
+      // 与 OkHttps 默认实例一致，注入类路径中的消息转换器
+      ConvertProvider.inject(builder);
+      return builder.build();
+    }
+
+    /**
+     * 包装 HttpUtils 的全局实例，不缓存、不合并请求；是 OkHttp 实现时统计其连接池和调度器
+     *
+     * @param http 全局实例
+     */
+    private Client(final HTTP http) {
+      this.http = http;
+      OkHttpClient okClient = http instanceof OkHttpClientWrapper ? ((OkHttpClientWrapper) http).okClient() : null;
+      pool = okClient == null ? null : okClient.connectionPool();
+      dispatcher = okClient == null ? null : okClient.dispatcher();
+      cache = null;
+      diskCache = null;
+      singleFlight = null;
+    }
+
+    /**
+     * 关闭空闲连接，释放磁盘缓存的引用
+     * <p>
+     * 不关闭调度器的线程池，执行中和排队的请求继续完成，线程池的线程空闲 60 秒后自动退出；
+     * 磁盘缓存在这些请求的响应体读完或关闭后关闭，同名客户端重新注册时继续使用
+     */
+    private void close() {
+      pool.evictAll();
+      if (diskCache != null) {
+        diskCache.release();
+      }
+    }
+  }
 }
@@ -0,0 +1,100 @@
+package top.csaf.http;
+
+import cn.zhxu.okhttps.HttpResult;
+import cn.zhxu.okhttps.OkHttpsException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 客户端的请求合并，键相同的并发调用共享同一次执行
+ */
+final class SingleFlight {
+  private final SingleFlightConfig config;
+  private final Map<String, CompletableFuture<Object>> calls = new ConcurrentHashMap<>();
+
+  SingleFlight(final SingleFlightConfig config) {
+    if (config.getWaitTimeoutMillis() < 0) {
+      throw new IllegalArgumentException("WaitTimeoutMillis: should not be negative");
+    }
+    this.config = config;
+  }
+
+  /**
+   * 生成合并键
+   *
+   * @param request 请求
+   * @return 合并键
+   */
+  String key(final HttpRequest<?> request) {
+    String key;
+    if (config.getKeyFunction() != null) {
+      key = config.getKeyFunction().apply(request);
+    } else {
+      Map<String, String> headers = request.getHeaders();
+      if (headers != null && config.getKeyHeaders() != null) {
+        Map<String, String> selected = new HashMap<>();
+        for (String name : config.getKeyHeaders()) {
+          String value = headers.get(name);
+          if (value != null) {
+            selected.put(name, value);
+          }
+        }
+        headers = selected;
+      }
+      key = request.getMethod() + ' ' + HttpCache.key(request.getUrl(), request.getParams(), headers);
+    }
+    return request.getResultClass().getName() + '\n' + key;
+  }
+
+  /**
+   * 执行调用，已有相同键的调用在执行时等待其结果
+   *
+   * @param key  合并键
+   * @param call 调用
+   * @return 调用结果
+   */
+  Object execute(final String key, final Supplier<Object> call) {
+    CompletableFuture<Object> future = new CompletableFuture<>();
+    CompletableFuture<Object> leader = calls.putIfAbsent(key, future);
+    if (leader == null) {
+      // 先释放键再完成，之后到达的调用不会拿到已结束的结果
+      Object result;
+      try {
+        result = call.get();
+      } catch (RuntimeException | Error e) {
+        calls.remove(key, future);
+        future.completeExceptionally(e);
+        throw e;
+      }
+      calls.remove(key, future);
+      future.complete(result);
+      return result;
+    }
+
+    try {
+      long timeout = config.getWaitTimeoutMillis();
+      return timeout > 0 ? leader.get(timeout, TimeUnit.MILLISECONDS) : leader.get();
+    } catch (TimeoutException e) {
+      throw new OkHttpsException(HttpResult.State.TIMEOUT, "Single flight wait timed out: " + key, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OkHttpsException(HttpResult.State.CANCELED, "Single flight wait interrupted: " + key, e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new RuntimeException("Single flight failed: " + key, cause);
+    }
+  }
+}
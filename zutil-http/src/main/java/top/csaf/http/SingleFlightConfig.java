@@ -0,0 +1,34 @@
+package top.csaf.http;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 请求合并（single-flight）配置，通过 {@link HttpClientConfig#getSingleFlight()} 为客户端开启
+ * <p>
+ * 同一时刻键相同的同步 GET 只有第一个调用方（leader）发送请求，其余调用方等待并共享它转换后的结果或异常；
+ * 请求结束后键即被释放，之后的调用重新发送请求（与 {@link HttpCacheConfig} 一起使用时由缓存决定是否发送）。
+ * 共享的结果是同一个对象实例，调用方不应修改。
+ */
+@Builder
+@Data
+public class SingleFlightConfig {
+  /**
+   * 参与默认键的消息头名称，为空时所有消息头都参与；设置 {@link #keyFunction} 时忽略
+   */
+  private Set<String> keyHeaders;
+  /**
+   * 自定义键函数，为空时按 (请求方法, url, 参数, {@link #keyHeaders}) 生成
+   * <p>
+   * 响应体需要转换的类型总会参与键，不同类型的调用不会合并
+   */
+  private Function<HttpRequest<?>, String> keyFunction;
+  /**
+   * 等待 leader 的超时时间（毫秒），超时抛出 {@link cn.zhxu.okhttps.OkHttpsException}，leader 的请求不受影响；0 为等待 leader 结束
+   */
+  @Builder.Default
+  private long waitTimeoutMillis = 0L;
+}
@@ -25,10 +25,30 @@ public class UrlUtil {
   private static final String DEFAULT_PREFIX = "?";
   // 参数分隔符
   private static final String PARAM_SEPARATOR = "&";
+  private static final char PARAM_SEPARATOR_CHAR = '&';
   // 键值分隔符
   private static final String KEY_VALUE_SEPARATOR = "=";
+  private static final char KEY_VALUE_SEPARATOR_CHAR = '=';
   // URL 片段分隔符
   private static final char FRAGMENT_SEPARATOR = '#';
+  // 百分号编码使用的十六进制字符
+  private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+  // application/x-www-form-urlencoded 中不需要编码的 ASCII 字符，与 URLEncoder 一致
+  private static final boolean[] FORM_SAFE = new boolean[0x80];
+  // RFC 3986 中不需要编码的 ASCII 字符（unreserved）
+  private static final boolean[] RFC3986_SAFE = new boolean[0x80];
+
+  static {
+    for (char c = 'a'; c <= 'z'; c++) {
+      FORM_SAFE[c] = RFC3986_SAFE[c] = true;
+      FORM_SAFE[c - 32] = RFC3986_SAFE[c - 32] = true;
+    }
+    for (char c = '0'; c <= '9'; c++) {
+      FORM_SAFE[c] = RFC3986_SAFE[c] = true;
+    }
+    FORM_SAFE['.'] = FORM_SAFE['-'] = FORM_SAFE['*'] = FORM_SAFE['_'] = true;
+    RFC3986_SAFE['.'] = RFC3986_SAFE['-'] = RFC3986_SAFE['~'] = RFC3986_SAFE['_'] = true;
+  }
 
   /**
    * 使用 UTF-8 对内容进行 URL 编码。
@@ -42,17 +62,92 @@ public class UrlUtil {
 
   /**
    * 使用指定字符集对内容进行 URL 编码。
+   * <p>结果与 {@link URLEncoder} 一致，空格编码为 "+"；UTF-8 直接按字符表编码，不需要编码时返回原内容。</p>
    *
    * @param value   待编码内容
    * @param charset 字符集
    * @return 编码后的字符串
    */
   public static String urlEncode(@NonNull final CharSequence value, @NonNull final Charset charset) {
-    try {
-      return URLEncoder.encode(value.toString(), charset.name());
-    } catch (UnsupportedEncodingException e) {
-      throw new RuntimeException(e);
+    if (!StandardCharsets.UTF_8.equals(charset)) {
+      try {
+        return URLEncoder.encode(value.toString(), charset.name());
+      } catch (UnsupportedEncodingException e) {
+        throw new RuntimeException(e);
+      }
     }
+    return encode(value, FORM_SAFE, true);
+  }
+
+  /**
+   * 使用 UTF-8 按 RFC 3986 对内容进行百分号编码，空格编码为 "%20"，只保留字母、数字和 "-._~"，适用于路径段。
+   *
+   * @param value 待编码内容
+   * @return 编码后的字符串
+   */
+  public static String urlEncodeRfc3986(@NonNull final CharSequence value) {
+    return encode(value, RFC3986_SAFE, false);
+  }
+
+  /**
+   * 按字符表编码，不需要编码时返回原内容。
+   */
+  private static String encode(final CharSequence value, final boolean[] safe, final boolean spaceAsPlus) {
+    int length = value.length();
+    int i = 0;
+    while (i < length) {
+      char c = value.charAt(i);
+      if (c >= 0x80 || !safe[c]) {
+        break;
+      }
+      i++;
+    }
+    if (i == length) {
+      return value.toString();
+    }
+    StringBuilder result = new StringBuilder(length + 16);
+    result.append(value, 0, i);
+    appendEncoded(result, value, i, safe, spaceAsPlus);
+    return result.toString();
+  }
+
+  /**
+   * 将内容从 start 开始按 UTF-8 百分号编码后追加到 result，不创建中间字符串。
+   */
+  private static void appendEncoded(final StringBuilder result, final CharSequence value, final int start, final boolean[] safe, final boolean spaceAsPlus) {
+    int length = value.length();
+    for (int i = start; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        if (safe[c]) {
+          result.append(c);
+        } else if (c == ' ' && spaceAsPlus) {
+          result.append('+');
+        } else {
+          appendPercent(result, c);
+        }
+      } else if (c < 0x800) {
+        appendPercent(result, 0xC0 | (c >> 6));
+        appendPercent(result, 0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        appendPercent(result, 0xF0 | (codePoint >> 18));
+        appendPercent(result, 0x80 | ((codePoint >> 12) & 0x3F));
+        appendPercent(result, 0x80 | ((codePoint >> 6) & 0x3F));
+        appendPercent(result, 0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // 不成对的代理字符按 String#getBytes 的处理编码为 "?"
+        appendPercent(result, '?');
+      } else {
+        appendPercent(result, 0xE0 | (c >> 12));
+        appendPercent(result, 0x80 | ((c >> 6) & 0x3F));
+        appendPercent(result, 0x80 | (c & 0x3F));
+      }
+    }
+  }
+
+  private static void appendPercent(final StringBuilder result, final int b) {
+    result.append('%').append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
   }
 
   /**
@@ -67,17 +162,72 @@ public class UrlUtil {
 
   /**
    * 使用指定字符集对内容进行 URL 解码。
+   * <p>结果与 {@link URLDecoder} 一致，"+" 解码为空格；UTF-8 直接解码，不含 "%" 和 "+" 时返回原内容。</p>
    *
    * @param value   待解码内容
    * @param charset 字符集
    * @return 解码后的字符串
+   * @throws IllegalArgumentException 百分号编码不完整或含有非十六进制字符
    */
   public static String urlDecode(@NonNull final CharSequence value, @NonNull final Charset charset) {
-    try {
-      return URLDecoder.decode(value.toString(), charset.name());
-    } catch (UnsupportedEncodingException e) {
-      throw new RuntimeException(e);
+    if (!StandardCharsets.UTF_8.equals(charset)) {
+      try {
+        return URLDecoder.decode(value.toString(), charset.name());
+      } catch (UnsupportedEncodingException e) {
+        throw new RuntimeException(e);
+      }
     }
+    return decode(value, 0, value.length());
+  }
+
+  /**
+   * 按 UTF-8 解码 value 的 [start, end) 部分，不含 "%" 和 "+" 时直接截取。
+   */
+  private static String decode(final CharSequence value, final int start, final int end) {
+    int i = start;
+    while (i < end) {
+      char c = value.charAt(i);
+      if (c == '%' || c == '+') {
+        break;
+      }
+      i++;
+    }
+    if (i == end) {
+      return value.subSequence(start, end).toString();
+    }
+    StringBuilder result = new StringBuilder(end - start);
+    result.append(value, start, i);
+    byte[] bytes = null;
+    while (i < end) {
+      char c = value.charAt(i);
+      if (c == '+') {
+        result.append(' ');
+        i++;
+      } else if (c == '%') {
+        // 连续的百分号编码作为一组字节解码
+        if (bytes == null) {
+          bytes = new byte[(end - i) / 3];
+        }
+        int pos = 0;
+        while (i + 2 < end && value.charAt(i) == '%') {
+          int high = Character.digit(value.charAt(i + 1), 16);
+          int low = Character.digit(value.charAt(i + 2), 16);
+          if (high < 0 || low < 0) {
+            throw new IllegalArgumentException("URLDecoder: Illegal hex characters in escape (%) pattern - " + value.subSequence(i, i + 3));
+          }
+          bytes[pos++] = (byte) ((high << 4) | low);
+          i += 3;
+        }
+        if (i < end && value.charAt(i) == '%') {
+          throw new IllegalArgumentException("URLDecoder: Incomplete trailing escape (%) pattern");
+        }
+        result.append(new String(bytes, 0, pos, StandardCharsets.UTF_8));
+      } else {
+        result.append(c);
+        i++;
+      }
+    }
+    return result.toString();
   }
 
   /**
@@ -326,31 +476,96 @@ public class UrlUtil {
       }
       return;
     }
-    Class<?> valueClass = value.getClass();
-    if (valueClass.isArray()) {
-      int length = Array.getLength(value);
-      if (length == 0) {
+    if (value instanceof Object[]) {
+      Object[] array = (Object[]) value;
+      if (array.length == 0) {
         appendPair(result, key, "", charset, encode);
         return;
       }
-      for (int i = 0; i < length; i++) {
-        appendParam(result, key, Array.get(value, i), charset, encode);
+      for (Object item : array) {
+        appendParam(result, key, item, charset, encode);
       }
       return;
     }
-    appendPair(result, key, String.valueOf(value), charset, encode);
+    if (value.getClass().isArray()) {
+      appendPrimitiveArray(result, key, value, charset, encode);
+      return;
+    }
+    appendPair(result, key, value instanceof CharSequence ? (CharSequence) value : String.valueOf(value), charset, encode);
+  }
+
+  /**
+   * 展开基本类型数组，按类型逐个追加，不装箱。
+   */
+  private static void appendPrimitiveArray(StringBuilder result, String key, Object array, Charset charset, boolean encode) {
+    if (Array.getLength(array) == 0) {
+      appendPair(result, key, "", charset, encode);
+    } else if (array instanceof int[]) {
+      for (int item : (int[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else if (array instanceof long[]) {
+      for (long item : (long[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else if (array instanceof double[]) {
+      for (double item : (double[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else if (array instanceof float[]) {
+      for (float item : (float[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else if (array instanceof short[]) {
+      for (short item : (short[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else if (array instanceof byte[]) {
+      for (byte item : (byte[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else if (array instanceof boolean[]) {
+      for (boolean item : (boolean[]) array) {
+        appendKey(result, key, charset, encode).append(item);
+      }
+    } else {
+      // char 可能需要编码
+      for (char item : (char[]) array) {
+        appendPair(result, key, String.valueOf(item), charset, encode);
+      }
+    }
   }
 
   /**
    * 追加单个 key=value 到结果中。
    */
-  private static void appendPair(StringBuilder result, String key, String value, Charset charset, boolean encode) {
-    String useKey = encode ? urlEncode(key, charset) : key;
-    String useValue = encode ? urlEncode(value, charset) : value;
+  private static void appendPair(StringBuilder result, String key, CharSequence value, Charset charset, boolean encode) {
+    appendKey(result, key, charset, encode);
+    appendPart(result, value, charset, encode);
+  }
+
+  /**
+   * 追加分隔符和 "key="，返回 result 以便继续追加值。
+   */
+  private static StringBuilder appendKey(StringBuilder result, String key, Charset charset, boolean encode) {
     if (result.length() > 0) {
       result.append(PARAM_SEPARATOR);
     }
-    result.append(useKey).append(KEY_VALUE_SEPARATOR).append(useValue);
+    appendPart(result, key, charset, encode);
+    return result.append(KEY_VALUE_SEPARATOR);
+  }
+
+  /**
+   * 追加 key 或 value，UTF-8 时直接编码到 result 中。
+   */
+  private static void appendPart(StringBuilder result, CharSequence part, Charset charset, boolean encode) {
+    if (!encode) {
+      result.append(part);
+    } else if (StandardCharsets.UTF_8.equals(charset)) {
+      appendEncoded(result, part, 0, FORM_SAFE, true);
+    } else {
+      result.append(urlEncode(part, charset));
+    }
   }
 
   /**
@@ -427,19 +642,35 @@ public class UrlUtil {
       return;
     }
     Charset useCharset = decode ? (charset == null ? StandardCharsets.UTF_8 : charset) : null;
-    String[] params = query.split(PARAM_SEPARATOR);
-    for (String param : params) {
-      if (param.isEmpty()) {
-        continue;
+    boolean utf8 = StandardCharsets.UTF_8.equals(useCharset);
+    int length = query.length();
+    int start = 0;
+    while (start <= length) {
+      int end = query.indexOf(PARAM_SEPARATOR_CHAR, start);
+      if (end < 0) {
+        end = length;
       }
-      int index = param.indexOf(KEY_VALUE_SEPARATOR);
-      String key = index >= 0 ? param.substring(0, index) : param;
-      String value = index >= 0 ? param.substring(index + 1) : "";
-      if (decode) {
-        key = urlDecode(key, useCharset);
-        value = urlDecode(value, useCharset);
+      if (end > start) {
+        // 只在当前键值对内查找 "="，避免大量无值参数时每次都扫描到后面的键值对
+        int keyEnd = start;
+        while (keyEnd < end && query.charAt(keyEnd) != KEY_VALUE_SEPARATOR_CHAR) {
+          keyEnd++;
+        }
+        String key;
+        String value;
+        if (!decode) {
+          key = query.substring(start, keyEnd);
+          value = keyEnd < end ? query.substring(keyEnd + 1, end) : "";
+        } else if (utf8) {
+          key = decode(query, start, keyEnd);
+          value = keyEnd < end ? decode(query, keyEnd + 1, end) : "";
+        } else {
+          key = urlDecode(query.substring(start, keyEnd), useCharset);
+          value = urlDecode(keyEnd < end ? query.substring(keyEnd + 1, end) : "", useCharset);
+        }
+        consumer.accept(key, value);
       }
-      consumer.accept(key, value);
+      start = end + 1;
     }
   }
 }
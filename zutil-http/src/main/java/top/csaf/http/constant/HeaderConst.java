@@ -11,13 +11,21 @@ public class HeaderConst {
   public static final String ACCEPT = "Accept";
   public static final String ACCEPT_ENCODING = "Accept-Encoding";
   public static final String ACCEPT_LANGUAGE = "Accept-Language";
+  public static final String CACHE_CONTROL = "Cache-Control";
   public static final String CONNECTION = "Connection";
   public static final String CONTENT_LENGTH = "Content-Length";
+  public static final String CONTENT_RANGE = "Content-Range";
   public static final String CONTENT_TYPE = "Content-Type";
   public static final String COOKIE = "Cookie";
   public static final String DNT = "DNT";
+  public static final String ETAG = "ETag";
   public static final String HOST = "Host";
+  public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+  public static final String IF_NONE_MATCH = "If-None-Match";
+  public static final String IF_RANGE = "If-Range";
+  public static final String LAST_MODIFIED = "Last-Modified";
   public static final String ORIGIN = "Origin";
+  public static final String RANGE = "Range";
   public static final String REFERER = "Referer";
   public static final String SEC_FETCH_DEST = "Sec-Fetch-Dest";
   public static final String SEC_FETCH_MODE = "Sec-Fetch-Mode";
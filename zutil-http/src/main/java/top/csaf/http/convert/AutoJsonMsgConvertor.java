@@ -22,6 +22,9 @@ import java.util.*;
  * <p>
  * 自动检测类路径下的 JSON 库，优先级：Fastjson2 > Fastjson (v1) > Jackson > Gson。
  * 实现了 OkHttps 的 MsgConvertor 接口，支持零依赖运行。
+ * <p>
+ * 类路径中存在 zutil-json 时，序列化和反序列化委托给 {@code top.csaf.json.JsonBackends} 中的后端：
+ * 优先使用构造时指定的后端，其次是全局显式指定的默认后端，否则使用与自动检测结果同名的后端。
  *
  * @author duanluan
  */
@@ -35,6 +38,10 @@ public class AutoJsonMsgConvertor implements MsgConvertor, ConvertProvider {
   private static final JsonProvider PROVIDER;
   private static Object jacksonObjectMapper;
   private static Object gsonInstance;
+  /**
+   * 类路径中是否存在 zutil-json 的 JsonBackend SPI
+   */
+  private static final boolean BACKEND_SPI_PRESENT;
 
   static {
     JsonProvider provider = JsonProvider.NONE;
@@ -64,11 +71,74 @@ public class AutoJsonMsgConvertor implements MsgConvertor, ConvertProvider {
     }
     PROVIDER = provider;
     log.info("AutoJsonMsgConvertor using provider: {}", PROVIDER);
+
+    boolean spiPresent;
+    try {
+      Class.forName("top.csaf.json.JsonBackends", false, AutoJsonMsgConvertor.class.getClassLoader());
+      spiPresent = true;
+    } catch (Throwable e) {
+      spiPresent = false;
+    }
+    BACKEND_SPI_PRESENT = spiPresent;
+  }
+
+  /**
+   * 指定的 JsonBackend 名称，为 null 时自动选择
+   */
+  private final String backendName;
+
+  public AutoJsonMsgConvertor() {
+    this(null);
+  }
+
+  /**
+   * @param backendName JsonBackend 名称，如 fastjson2、jackson，需要类路径中存在 zutil-json；为 null 时自动选择
+   */
+  public AutoJsonMsgConvertor(final String backendName) {
+    if (backendName != null && (!BACKEND_SPI_PRESENT || !JsonBackendBridge.isAvailable(backendName))) {
+      throw new IllegalArgumentException("JSON backend: " + backendName + " is not available");
+    }
+    this.backendName = backendName;
   }
 
   @Override
   public MsgConvertor getConvertor() {
-    return new AutoJsonMsgConvertor();
+    return new AutoJsonMsgConvertor(backendName);
+  }
+
+  /**
+   * 获取本次调用使用的 JsonBackend 名称
+   *
+   * @return JsonBackend 名称，为 null 时使用内置的反射实现
+   */
+  private String resolveBackendName() {
+    if (backendName != null) {
+      return backendName;
+    }
+    if (!BACKEND_SPI_PRESENT) {
+      return null;
+    }
+    if (JsonBackendBridge.isDefaultConfigured()) {
+      return JsonBackendBridge.defaultName();
+    }
+    String name;
+    switch (PROVIDER) {
+      case FASTJSON2:
+        name = "fastjson2";
+        break;
+      case FASTJSON_V1:
+        name = "fastjson";
+        break;
+      case JACKSON:
+        name = "jackson";
+        break;
+      case GSON:
+        name = "gson";
+        break;
+      default:
+        return null;
+    }
+    return JsonBackendBridge.isAvailable(name) ? name : null;
   }
 
   @Override
@@ -129,6 +199,10 @@ public class AutoJsonMsgConvertor implements MsgConvertor, ConvertProvider {
     }
 
     try {
+      String backend = resolveBackendName();
+      if (backend != null) {
+        return JsonBackendBridge.toJson(backend, object, pretty);
+      }
       switch (PROVIDER) {
         case FASTJSON2: {
           Class<?> jsonClass = Class.forName("com.alibaba.fastjson2.JSON");
@@ -203,6 +277,10 @@ public class AutoJsonMsgConvertor implements MsgConvertor, ConvertProvider {
       return null;
     }
     try {
+      String backend = resolveBackendName();
+      if (backend != null) {
+        return JsonBackendBridge.parseObject(backend, in, type);
+      }
       switch (PROVIDER) {
         case FASTJSON2: {
           Class<?> jsonClass = Class.forName("com.alibaba.fastjson2.JSON");
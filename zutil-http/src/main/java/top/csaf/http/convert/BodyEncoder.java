@@ -0,0 +1,286 @@
+package top.csaf.http.convert;
+
+import lombok.NonNull;
+
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 请求体长度计算和编码，遍历参数直接累加编码后的长度，不构建中间字符串
+ * <p>
+ * 表单编码与 OkHttp {@link okhttp3.FormBody} 一致（UTF-8，空值参数忽略）；
+ * JSON 长度按紧凑格式计算，只支持各 JSON 库输出一致的类型，其他类型返回 -1，由调用方序列化后计算。
+ */
+public final class BodyEncoder {
+
+  private BodyEncoder() {
+  }
+
+  /**
+   * OkHttp FormBody 需要百分号编码的 ASCII 字符
+   */
+  private static final String FORM_ENCODE_SET = " \"':;<=>@[]^`{}|/\\?#&!$(),~";
+
+  private static final byte[] HEX_DIGITS = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+  /**
+   * ASCII 字符是否需要百分号编码
+   */
+  private static final boolean[] FORM_ENCODE = new boolean[0x80];
+
+  /**
+   * JSON 结构字符，legacy 长度中按百分号编码后的 3 个字符计算
+   */
+  private static final String JSON_STRUCTURE = "{}[]:,\"";
+
+  static {
+    for (int c = 0; c < 0x80; c++) {
+      FORM_ENCODE[c] = c < 0x20 || c == 0x7f || c == '%' || c == '+' || FORM_ENCODE_SET.indexOf(c) != -1;
+    }
+  }
+
+  /**
+   * 计算 application/x-www-form-urlencoded 请求体的字节数
+   *
+   * @param params 参数，值为 null 的参数忽略，其他值使用 toString
+   * @return 字节数
+   */
+  public static long formLength(@NonNull final Map<String, ?> params) {
+    long length = 0;
+    boolean first = true;
+    for (Map.Entry<String, ?> entry : params.entrySet()) {
+      if (entry.getValue() == null) {
+        continue;
+      }
+      if (!first) {
+        length++;
+      }
+      first = false;
+      length += formLength(entry.getKey()) + 1 + formLength(entry.getValue().toString());
+    }
+    return length;
+  }
+
+  /**
+   * 编码 application/x-www-form-urlencoded 请求体，按 {@link #formLength(Map)} 一次分配结果数组
+   *
+   * @param params 参数，值为 null 的参数忽略，其他值使用 toString
+   * @return UTF-8 字节
+   */
+  public static byte[] encodeForm(@NonNull final Map<String, ?> params) {
+    long length = formLength(params);
+    if (length > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Form body: too large, length: " + length);
+    }
+    byte[] bytes = new byte[(int) length];
+    int pos = 0;
+    for (Map.Entry<String, ?> entry : params.entrySet()) {
+      if (entry.getValue() == null) {
+        continue;
+      }
+      if (pos > 0) {
+        bytes[pos++] = '&';
+      }
+      pos = encodeForm(entry.getKey(), bytes, pos);
+      bytes[pos++] = '=';
+      pos = encodeForm(entry.getValue().toString(), bytes, pos);
+    }
+    return bytes;
+  }
+
+  /**
+   * 计算紧凑 JSON 的 UTF-8 字节数
+   * <p>
+   * 支持 String 键的 Map（值不为 null）、Collection、对象数组、CharSequence、Character、Boolean 和整数类型；
+   * 字符串中含有控制字符、引号、反斜杠或 HTML 敏感字符等各 JSON 库转义方式不同的字符时不支持
+   *
+   * @param value 值
+   * @return 字节数，不支持时为 -1
+   */
+  public static long jsonLength(final Object value) {
+    return json(value, false);
+  }
+
+  /**
+   * 计算紧凑 JSON 中 {@code {}[]:,"} 按百分号编码（3 个字符）计算时的字符数，即 {@code HttpUtil.getContentLength} 的结果
+   *
+   * @param value 值
+   * @return 字符数，不支持的类型见 {@link #jsonLength(Object)}，不支持时为 -1
+   */
+  public static long urlEncodedJsonLength(final Object value) {
+    return json(value, true);
+  }
+
+  /**
+   * 计算已序列化的 JSON 中 {@code {}[]:,"} 按百分号编码（3 个字符）计算时的字符数
+   *
+   * @param json JSON 字符串
+   * @return 字符数
+   */
+  public static long urlEncodedJsonLength(@NonNull final String json) {
+    long length = json.length();
+    for (int i = 0; i < json.length(); i++) {
+      if (JSON_STRUCTURE.indexOf(json.charAt(i)) != -1) {
+        length += 2;
+      }
+    }
+    return length;
+  }
+
+  private static long formLength(final String s) {
+    long length = 0;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        length += FORM_ENCODE[c] ? 3 : 1;
+      } else if (c < 0x800) {
+        length += 6;
+      } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+        length += 12;
+        i++;
+      } else if (Character.isSurrogate(c)) {
+        // 不成对的代理字符编码为 ?
+        length += 3;
+      } else {
+        length += 9;
+      }
+    }
+    return length;
+  }
+
+  private static int encodeForm(final String s, final byte[] bytes, int pos) {
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      if (c < 0x80) {
+        if (FORM_ENCODE[c]) {
+          pos = percent(c, bytes, pos);
+        } else {
+          bytes[pos++] = (byte) c;
+        }
+      } else if (c < 0x800) {
+        pos = percent(0xc0 | (c >> 6), bytes, pos);
+        pos = percent(0x80 | (c & 0x3f), bytes, pos);
+      } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, s.charAt(++i));
+        pos = percent(0xf0 | (codePoint >> 18), bytes, pos);
+        pos = percent(0x80 | ((codePoint >> 12) & 0x3f), bytes, pos);
+        pos = percent(0x80 | ((codePoint >> 6) & 0x3f), bytes, pos);
+        pos = percent(0x80 | (codePoint & 0x3f), bytes, pos);
+      } else if (Character.isSurrogate(c)) {
+        pos = percent('?', bytes, pos);
+      } else {
+        pos = percent(0xe0 | (c >> 12), bytes, pos);
+        pos = percent(0x80 | ((c >> 6) & 0x3f), bytes, pos);
+        pos = percent(0x80 | (c & 0x3f), bytes, pos);
+      }
+    }
+    return pos;
+  }
+
+  private static int percent(final int b, final byte[] bytes, int pos) {
+    bytes[pos++] = '%';
+    bytes[pos++] = HEX_DIGITS[(b >> 4) & 0xf];
+    bytes[pos++] = HEX_DIGITS[b & 0xf];
+    return pos;
+  }
+
+  /**
+   * 遍历值累加 JSON 长度
+   *
+   * @param value  值
+   * @param legacy 为 true 时按字符计算且结构字符计 3，否则按 UTF-8 字节计算
+   * @return 长度，不支持时为 -1
+   */
+  private static long json(final Object value, final boolean legacy) {
+    if (value == null) {
+      return 4;
+    }
+    if (value instanceof CharSequence || value instanceof Character) {
+      return string(value.toString(), legacy);
+    }
+    if (value instanceof Boolean) {
+      return (Boolean) value ? 4 : 5;
+    }
+    if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+      return digits(((Number) value).longValue());
+    }
+    if (value instanceof BigInteger) {
+      return value.toString().length();
+    }
+    if (value instanceof Map) {
+      Map<?, ?> map = (Map<?, ?>) value;
+      // {} 和 n - 1 个逗号
+      long length = map.isEmpty() ? structure(legacy) * 2 : structure(legacy) * (map.size() + 1);
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        // 各 JSON 库对 null 值的处理不同
+        if (!(entry.getKey() instanceof String) || entry.getValue() == null) {
+          return -1;
+        }
+        long key = string((String) entry.getKey(), legacy);
+        long item = json(entry.getValue(), legacy);
+        if (key < 0 || item < 0) {
+          return -1;
+        }
+        length += key + structure(legacy) + item;
+      }
+      return length;
+    }
+    if (value instanceof Collection || value instanceof Object[]) {
+      Iterable<?> items = value instanceof Collection ? (Collection<?>) value : java.util.Arrays.asList((Object[]) value);
+      int size = value instanceof Collection ? ((Collection<?>) value).size() : ((Object[]) value).length;
+      long length = size == 0 ? structure(legacy) * 2 : structure(legacy) * (size + 1);
+      for (Object item : items) {
+        long itemLength = json(item, legacy);
+        if (itemLength < 0) {
+          return -1;
+        }
+        length += itemLength;
+      }
+      return length;
+    }
+    return -1;
+  }
+
+  private static long structure(final boolean legacy) {
+    return legacy ? 3 : 1;
+  }
+
+  private static long string(final String s, final boolean legacy) {
+    long length = structure(legacy) * 2;
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      // 各 JSON 库转义方式不同的字符
+      if (c < 0x20 || c == '"' || c == '\\' || c == '<' || c == '>' || c == '&' || c == '=' || c == '\'' || c == 0x7f
+        || c == 0x2028 || c == 0x2029) {
+        return -1;
+      }
+      if (Character.isSurrogate(c)) {
+        if (!Character.isHighSurrogate(c) || i + 1 == s.length() || !Character.isLowSurrogate(s.charAt(i + 1))) {
+          return -1;
+        }
+        // 代理对：2 个 UTF-16 字符，4 个 UTF-8 字节
+        length += legacy ? 2 : 4;
+        i++;
+      } else if (legacy) {
+        length += JSON_STRUCTURE.indexOf(c) != -1 ? 3 : 1;
+      } else {
+        length += c < 0x80 ? 1 : c < 0x800 ? 2 : 3;
+      }
+    }
+    return length;
+  }
+
+  private static long digits(final long value) {
+    if (value == Long.MIN_VALUE) {
+      return 20;
+    }
+    long v = value < 0 ? -value : value;
+    long length = value < 0 ? 2 : 1;
+    while (v >= 10) {
+      v /= 10;
+      length++;
+    }
+    return length;
+  }
+}
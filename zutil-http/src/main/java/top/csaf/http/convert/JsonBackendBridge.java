@@ -0,0 +1,38 @@
+package top.csaf.http.convert;
+
+import top.csaf.json.JsonBackend;
+import top.csaf.json.JsonBackends;
+
+import java.lang.reflect.Type;
+
+/**
+ * {@link AutoJsonMsgConvertor} 与 zutil-json 的 JsonBackend SPI 之间的桥接
+ * <p>
+ * 仅在类路径中存在 zutil-json 时才会被加载，避免 zutil-http 对 zutil-json 的强依赖。
+ */
+final class JsonBackendBridge {
+
+  private JsonBackendBridge() {
+  }
+
+  static boolean isAvailable(final String name) {
+    return JsonBackends.find(name) != null;
+  }
+
+  static boolean isDefaultConfigured() {
+    return JsonBackends.isDefaultConfigured();
+  }
+
+  static String defaultName() {
+    return JsonBackends.getDefault().name();
+  }
+
+  static String toJson(final String name, final Object object, final boolean pretty) {
+    return JsonBackends.get(name).toJson(object, pretty);
+  }
+
+  static <T> T parseObject(final String name, final String json, final Type type) {
+    JsonBackend backend = JsonBackends.get(name);
+    return backend.parseObject(json, type);
+  }
+}
@@ -0,0 +1,359 @@
+package top.csaf.ip;
+
+import lombok.NonNull;
+import top.csaf.lang.StrUtil;
+
+import java.util.*;
+
+/**
+ * IP 集合，由 CIDR（192.168.0.0/16）、IP 范围（1.1.1.1-1.1.1.9）或单个 IP 组成的规则一次构建，之后可高频判断 IP 是否命中及命中的规则。
+ * <p>
+ * 构建时把全部规则拆分为互不重叠的有序区间，重叠部分归属范围最小的规则（范围相同时取先添加的），
+ * 查询时二分查找，时间复杂度 O(log n)，传入已解析的 IP 时不分配对象。构建后不可变，线程安全。
+ */
+public final class IpSet {
+
+  private static final long IPV4_MAX = 0xFFFFFFFFL;
+  private static final char RANGE_SEPARATOR = '-';
+  private static final char PREFIX_SEPARATOR = '/';
+
+  /**
+   * 按范围大小升序、范围相同时按添加顺序排列
+   */
+  private static final Comparator<Interval> BY_SIZE = (a, b) -> {
+    int result = compare(a.sizeHigh, a.sizeLow, b.sizeHigh, b.sizeLow);
+    return result != 0 ? result : Integer.compare(a.rule, b.rule);
+  };
+
+  /**
+   * 按起始 IP 排列，用于互不重叠的区间
+   */
+  private static final Comparator<Interval> BY_START = (a, b) -> compare(a.startHigh, a.startLow, b.startHigh, b.startLow);
+
+  /**
+   * 原始规则，下标为区间所属的规则
+   */
+  private final String[] rules;
+  /**
+   * IPv4 区间的起始、结束（无符号 32 位值）和所属规则
+   */
+  private final long[] ipv4Starts;
+  private final long[] ipv4Ends;
+  private final int[] ipv4Rules;
+  /**
+   * IPv6 区间起始、结束的高低 64 位和所属规则
+   */
+  private final long[] ipv6StartHighs;
+  private final long[] ipv6StartLows;
+  private final long[] ipv6EndHighs;
+  private final long[] ipv6EndLows;
+  private final int[] ipv6Rules;
+
+  private IpSet(String[] rules, List<Interval> ipv4, List<Interval> ipv6) {
+    this.rules = rules;
+    int size = ipv4.size();
+    ipv4Starts = new long[size];
+    ipv4Ends = new long[size];
+    ipv4Rules = new int[size];
+    for (int i = 0; i < size; i++) {
+      Interval interval = ipv4.get(i);
+      ipv4Starts[i] = interval.startLow;
+      ipv4Ends[i] = interval.endLow;
+      ipv4Rules[i] = interval.rule;
+    }
+    size = ipv6.size();
+    ipv6StartHighs = new long[size];
+    ipv6StartLows = new long[size];
+    ipv6EndHighs = new long[size];
+    ipv6EndLows = new long[size];
+    ipv6Rules = new int[size];
+    for (int i = 0; i < size; i++) {
+      Interval interval = ipv6.get(i);
+      ipv6StartHighs[i] = interval.startHigh;
+      ipv6StartLows[i] = interval.startLow;
+      ipv6EndHighs[i] = interval.endHigh;
+      ipv6EndLows[i] = interval.endLow;
+      ipv6Rules[i] = interval.rule;
+    }
+  }
+
+  /**
+   * 构建 IP 集合
+   *
+   * @param rules 规则：CIDR（如 192.168.0.0/16、2001:db8::/32）、IP 范围（如 1.1.1.1-1.1.1.9，两端版本相同且包含两端）或单个 IP
+   * @return IP 集合
+   */
+  public static IpSet of(@NonNull final String... rules) {
+    return of(Arrays.asList(rules));
+  }
+
+  /**
+   * 构建 IP 集合
+   *
+   * @param rules 规则，格式见 {@link #of(String...)}
+   * @return IP 集合
+   */
+  public static IpSet of(@NonNull final Collection<String> rules) {
+    String[] ruleArray = rules.toArray(new String[0]);
+    List<Interval> ipv4 = new ArrayList<>();
+    List<Interval> ipv6 = new ArrayList<>();
+    for (int i = 0; i < ruleArray.length; i++) {
+      Interval interval = parseRule(ruleArray[i], i);
+      (interval.ipv4 ? ipv4 : ipv6).add(interval);
+    }
+    return new IpSet(ruleArray, split(ipv4), split(ipv6));
+  }
+
+  /**
+   * 规则数
+   *
+   * @return 规则数
+   */
+  public int size() {
+    return rules.length;
+  }
+
+  /**
+   * 判断 IP 是否命中任一规则
+   *
+   * @param ip IPv4 或 IPv6，非法时返回 false
+   * @return 是否命中
+   */
+  public boolean contains(final String ip) {
+    return match(ip) != null;
+  }
+
+  /**
+   * 获取 IP 命中的规则
+   *
+   * @param ip IPv4 或 IPv6，非法时返回 null
+   * @return 命中的规则（多条规则重叠时为范围最小的规则），未命中时返回 null
+   */
+  public String match(final String ip) {
+    if (ip == null) {
+      return null;
+    }
+    long ipv4 = IpUtil.parseIpv4(ip, 0, ip.length());
+    if (ipv4 >= 0) {
+      return rule(indexOfIpv4(ipv4));
+    }
+    long[] ipv6 = new long[2];
+    return IpUtil.parseIpv6(ip, 0, ip.length(), ipv6) ? rule(indexOfIpv6(ipv6[0], ipv6[1])) : null;
+  }
+
+  /**
+   * 判断 IPv4 是否命中任一规则
+   *
+   * @param ip {@link IpUtil#parseIpv4ToInt(CharSequence)} 的结果
+   * @return 是否命中
+   */
+  public boolean containsIpv4(final int ip) {
+    return indexOfIpv4(ip & IPV4_MAX) >= 0;
+  }
+
+  /**
+   * 获取 IPv4 命中的规则
+   *
+   * @param ip {@link IpUtil#parseIpv4ToInt(CharSequence)} 的结果
+   * @return 命中的规则，未命中时返回 null
+   */
+  public String matchIpv4(final int ip) {
+    return rule(indexOfIpv4(ip & IPV4_MAX));
+  }
+
+  /**
+   * 判断 IPv6 是否命中任一规则
+   *
+   * @param high {@link IpUtil#parseIpv6ToLongs(CharSequence, long[])} 结果的高 64 位
+   * @param low  低 64 位
+   * @return 是否命中
+   */
+  public boolean containsIpv6(final long high, final long low) {
+    return indexOfIpv6(high, low) >= 0;
+  }
+
+  /**
+   * 获取 IPv6 命中的规则
+   *
+   * @param high {@link IpUtil#parseIpv6ToLongs(CharSequence, long[])} 结果的高 64 位
+   * @param low  低 64 位
+   * @return 命中的规则，未命中时返回 null
+   */
+  public String matchIpv6(final long high, final long low) {
+    return rule(indexOfIpv6(high, low));
+  }
+
+  private String rule(final int index) {
+    return index < 0 ? null : rules[index];
+  }
+
+  /**
+   * 二分查找起始值不大于 ip 的最后一个区间
+   *
+   * @param ip 无符号 32 位值
+   * @return 所属规则下标，未命中时返回 -1
+   */
+  private int indexOfIpv4(final long ip) {
+    int low = 0;
+    int high = ipv4Starts.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (ipv4Starts[mid] <= ip) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high >= 0 && ip <= ipv4Ends[high] ? ipv4Rules[high] : -1;
+  }
+
+  private int indexOfIpv6(final long ipHigh, final long ipLow) {
+    int low = 0;
+    int high = ipv6StartHighs.length - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (compare(ipv6StartHighs[mid], ipv6StartLows[mid], ipHigh, ipLow) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return high >= 0 && compare(ipHigh, ipLow, ipv6EndHighs[high], ipv6EndLows[high]) <= 0 ? ipv6Rules[high] : -1;
+  }
+
+  /**
+   * 按无符号比较两个 128 位值
+   */
+  private static int compare(final long aHigh, final long aLow, final long bHigh, final long bLow) {
+    int result = Long.compareUnsigned(aHigh, bHigh);
+    return result != 0 ? result : Long.compareUnsigned(aLow, bLow);
+  }
+
+  /**
+   * 解析单条规则为区间
+   *
+   * @param rule  规则
+   * @param index 规则下标
+   * @return 区间
+   */
+  private static Interval parseRule(final String rule, final int index) {
+    if (StrUtil.isBlank(rule)) {
+      throw new IllegalArgumentException("Rule: should not be blank");
+    }
+    if (rule.indexOf(PREFIX_SEPARATOR) != -1) {
+      IpUtil.CidrInfo cidr = IpUtil.parseCidr(rule);
+      if (cidr.ipv4) {
+        long mask = IpUtil.prefixToMaskLong(cidr.prefix);
+        return new Interval(true, 0, cidr.low & mask, 0, cidr.low | (~mask & IPV4_MAX), index);
+      }
+      long highMask = cidr.prefix == 0 ? 0 : cidr.prefix >= 64 ? -1L : -1L << (64 - cidr.prefix);
+      long lowMask = cidr.prefix <= 64 ? 0 : -1L << (128 - cidr.prefix);
+      return new Interval(false, cidr.high & highMask, cidr.low & lowMask, cidr.high | ~highMask, cidr.low | ~lowMask, index);
+    }
+    int separator = rule.indexOf(RANGE_SEPARATOR);
+    int startEnd = separator == -1 ? rule.length() : separator;
+    int endStart = separator == -1 ? 0 : separator + 1;
+    long startIpv4 = IpUtil.parseIpv4(rule, 0, startEnd);
+    long endIpv4 = IpUtil.parseIpv4(rule, endStart, rule.length());
+    long[] start = new long[2];
+    long[] end = new long[2];
+    Interval interval;
+    if (startIpv4 >= 0 && endIpv4 >= 0) {
+      interval = new Interval(true, 0, startIpv4, 0, endIpv4, index);
+    } else if (IpUtil.parseIpv6(rule, 0, startEnd, start) && IpUtil.parseIpv6(rule, endStart, rule.length(), end)) {
+      interval = new Interval(false, start[0], start[1], end[0], end[1], index);
+    } else {
+      throw new IllegalArgumentException("Rule: should be a valid CIDR, IP range or IP, rule: " + rule);
+    }
+    if (compare(interval.startHigh, interval.startLow, interval.endHigh, interval.endLow) > 0) {
+      throw new IllegalArgumentException("StartIp: should be less than or equal to EndIp, rule: " + rule);
+    }
+    return interval;
+  }
+
+  /**
+   * 把可能重叠的规则区间拆分为互不重叠的有序区间
+   * <p>
+   * 按范围从小到大依次加入，每个区间只填充尚未被覆盖的空隙，因此重叠部分归属范围最小的规则；最后合并相邻且属于同一规则的区间
+   *
+   * @param intervals 规则区间
+   * @return 互不重叠的有序区间
+   */
+  private static List<Interval> split(final List<Interval> intervals) {
+    intervals.sort(BY_SIZE);
+    TreeSet<Interval> segments = new TreeSet<>(BY_START);
+    List<Interval> gaps = new ArrayList<>();
+    for (Interval interval : intervals) {
+      gaps.clear();
+      long cursorHigh = interval.startHigh;
+      long cursorLow = interval.startLow;
+      boolean covered = false;
+      Interval first = segments.floor(interval);
+      if (first == null || compare(first.endHigh, first.endLow, cursorHigh, cursorLow) < 0) {
+        first = segments.higher(interval);
+      }
+      if (first != null) {
+        for (Interval segment : segments.tailSet(first, true)) {
+          if (compare(segment.startHigh, segment.startLow, interval.endHigh, interval.endLow) > 0) {
+            break;
+          }
+          if (compare(segment.startHigh, segment.startLow, cursorHigh, cursorLow) > 0) {
+            // 空隙为 [cursor, segment.start - 1]
+            long endLow = segment.startLow - 1;
+            long endHigh = segment.startLow == 0 ? segment.startHigh - 1 : segment.startHigh;
+            gaps.add(new Interval(interval.ipv4, cursorHigh, cursorLow, endHigh, endLow, interval.rule));
+          }
+          if (compare(segment.endHigh, segment.endLow, interval.endHigh, interval.endLow) >= 0) {
+            covered = true;
+            break;
+          }
+          cursorLow = segment.endLow + 1;
+          cursorHigh = cursorLow == 0 ? segment.endHigh + 1 : segment.endHigh;
+        }
+      }
+      if (!covered) {
+        gaps.add(new Interval(interval.ipv4, cursorHigh, cursorLow, interval.endHigh, interval.endLow, interval.rule));
+      }
+      segments.addAll(gaps);
+    }
+    List<Interval> result = new ArrayList<>(segments.size());
+    for (Interval segment : segments) {
+      Interval last = result.isEmpty() ? null : result.get(result.size() - 1);
+      if (last != null && last.rule == segment.rule && last.endLow + 1 == segment.startLow
+        && (last.endLow == -1 ? last.endHigh + 1 : last.endHigh) == segment.startHigh) {
+        result.set(result.size() - 1, new Interval(last.ipv4, last.startHigh, last.startLow, segment.endHigh, segment.endLow, last.rule));
+      } else {
+        result.add(segment);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 闭区间 [start, end]，IPv4 只使用低位
+   */
+  private static final class Interval {
+    private final boolean ipv4;
+    private final long startHigh;
+    private final long startLow;
+    private final long endHigh;
+    private final long endLow;
+    private final int rule;
+    /**
+     * end - start，用于比较范围大小
+     */
+    private final long sizeHigh;
+    private final long sizeLow;
+
+    private Interval(boolean ipv4, long startHigh, long startLow, long endHigh, long endLow, int rule) {
+      this.ipv4 = ipv4;
+      this.startHigh = startHigh;
+      this.startLow = startLow;
+      this.endHigh = endHigh;
+      this.endLow = endLow;
+      this.rule = rule;
+      this.sizeLow = endLow - startLow;
+      this.sizeHigh = endHigh - startHigh - (Long.compareUnsigned(endLow, startLow) < 0 ? 1 : 0);
+    }
+  }
+}
@@ -12,6 +12,7 @@ import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * IP 工具类，提供校验、转换、范围判断及 ip2region 查询能力。
@@ -23,7 +24,19 @@ public class IpUtil {
   private static final int IPV6_BIT_LENGTH = 128;
   private static final long IPV4_MAX = 0xFFFFFFFFL;
   private static final int REGION_PARTS = 5;
-  private static final String REGION_SPLIT_REGEX = "\\|";
+  private static final char REGION_SEPARATOR = '|';
+  /**
+   * 区域字典的最大条目数，超出后不再缓存，避免任意输入导致内存无限增长（官方数据只有几千个不同区域）
+   */
+  private static final int REGION_DICTIONARY_MAX = 65536;
+  /**
+   * 原始区域字符串 -> 共享的 RegionInfo
+   */
+  private static final Map<String, RegionInfo> REGION_INFOS = new ConcurrentHashMap<>();
+  /**
+   * 区域字段（国家、省、市等）的驻留字典
+   */
+  private static final Map<String, String> REGION_ITEMS = new ConcurrentHashMap<>();
 
   /**
    * 判断是否为合法 IP（IPv4 或 IPv6）。
@@ -42,31 +55,7 @@ public class IpUtil {
    * @return 是否合法
    */
   public static boolean isValidIpv4(String ip) {
-    if (StrUtil.isBlank(ip)) {
-      return false;
-    }
-    String[] parts = ip.split("\\.", -1);
-    if (parts.length != IPV4_SEGMENT_COUNT) {
-      return false;
-    }
-    // 逐段校验，拒绝空段、非数字或超范围的值。
-    for (String part : parts) {
-      if (part.isEmpty() || part.length() > 3) {
-        return false;
-      }
-      int value = 0;
-      for (int i = 0; i < part.length(); i++) {
-        char c = part.charAt(i);
-        if (c < '0' || c > '9') {
-          return false;
-        }
-        value = value * 10 + (c - '0');
-      }
-      if (value > 255) {
-        return false;
-      }
-    }
-    return true;
+    return ip != null && parseIpv4(ip, 0, ip.length()) >= 0;
   }
 
   /**
@@ -76,19 +65,52 @@ public class IpUtil {
    * @return 是否合法
    */
   public static boolean isValidIpv6(String ip) {
-    if (StrUtil.isBlank(ip)) {
-      return false;
+    return ip != null && parseIpv6(ip, 0, ip.length(), new long[2]);
+  }
+
+  /**
+   * IPv4 转 int（网络字节序，最高段在最高位），单次遍历，不拆分字符串。
+   *
+   * @param ip IPv4
+   * @return int 值，按无符号使用时可 {@code & 0xFFFFFFFFL}
+   */
+  public static int parseIpv4ToInt(@NonNull CharSequence ip) {
+    long value = parseIpv4(ip, 0, ip.length());
+    if (value < 0) {
+      throw new IllegalArgumentException("Ip: should be a valid IPv4");
     }
-    // 兼容形如 [::1] 的括号包裹形式。
-    String candidate = stripBrackets(ip);
-    if (!candidate.contains(":")) {
-      return false;
+    return (int) value;
+  }
+
+  /**
+   * IPv6 转高低两个 long，单次遍历，不抛异常、不分配对象，不查询 DNS。
+   * <p>
+   * 支持 RFC 4291 的全部文本格式：{@code ::} 压缩、前导零、内嵌 IPv4（如 {@code ::ffff:1.2.3.4}），
+   * 以及 {@code [::1]} 括号形式和 {@code %zone} 区域标识（区域标识只校验格式，不校验本机是否存在该网卡）。
+   *
+   * @param ip   IPv6
+   * @param dest 结果，dest[0] 为高 64 位，dest[1] 为低 64 位，长度至少为 2
+   * @return 是否合法，不合法时 dest 内容不变
+   */
+  public static boolean parseIpv6ToLongs(CharSequence ip, @NonNull long[] dest) {
+    if (dest.length < 2) {
+      throw new IllegalArgumentException("Dest: length should be at least 2");
     }
-    try {
-      return InetAddress.getByName(candidate) instanceof Inet6Address;
-    } catch (Exception e) {
-      return false;
+    return ip != null && parseIpv6(ip, 0, ip.length(), dest);
+  }
+
+  /**
+   * IPv6 转高低两个 long，见 {@link #parseIpv6ToLongs(CharSequence, long[])}。
+   *
+   * @param ip IPv6
+   * @return [高 64 位, 低 64 位]
+   */
+  public static long[] parseIpv6ToLongs(@NonNull CharSequence ip) {
+    long[] dest = new long[2];
+    if (!parseIpv6(ip, 0, ip.length(), dest)) {
+      throw new IllegalArgumentException("Ip: should be a valid IPv6");
     }
+    return dest;
   }
 
   /**
@@ -129,12 +151,7 @@ public class IpUtil {
    * @return 无符号 long
    */
   public static long ipv4ToLong(@NonNull String ip) {
-    int[] parts = parseIpv4Parts(ip);
-    // 按网络字节序拼接为无符号 long。
-    return ((long) parts[0] << 24)
-      | ((long) parts[1] << 16)
-      | ((long) parts[2] << 8)
-      | (long) parts[3];
+    return parseIpv4ToInt(ip) & IPV4_MAX;
   }
 
   /**
@@ -160,15 +177,11 @@ public class IpUtil {
    * @return 字节数组
    */
   public static byte[] ipToBytes(@NonNull String ip) {
-    if (!isValidIp(ip)) {
+    byte[] bytes = ipToBytesOrNull(ip);
+    if (bytes == null) {
       throw new IllegalArgumentException("Ip: should be a valid IP");
     }
-    try {
-      // 交由 InetAddress 解析，兼容 IPv4/IPv6。
-      return InetAddress.getByName(stripBrackets(ip)).getAddress();
-    } catch (Exception e) {
-      throw new RuntimeException("Ip: parse failed", e);
-    }
+    return bytes;
   }
 
   /**
@@ -178,14 +191,27 @@ public class IpUtil {
    * @return 字节数组或 null
    */
   public static byte[] ipToBytesOrNull(String ip) {
-    if (!isValidIp(ip)) {
+    if (ip == null) {
       return null;
     }
-    try {
-      return InetAddress.getByName(stripBrackets(ip)).getAddress();
-    } catch (Exception e) {
+    long ipv4 = parseIpv4(ip, 0, ip.length());
+    if (ipv4 >= 0) {
+      return ipv4ToBytes(ipv4);
+    }
+    long[] ipv6 = new long[2];
+    if (!parseIpv6(ip, 0, ip.length(), ipv6)) {
       return null;
     }
+    // 与 InetAddress 一致：IPv4 映射地址（::ffff:a.b.c.d）返回 4 字节。
+    if (ipv6[0] == 0 && (ipv6[1] >>> IPV4_BIT_LENGTH) == 0xFFFFL) {
+      return ipv4ToBytes(ipv6[1] & IPV4_MAX);
+    }
+    byte[] bytes = new byte[16];
+    for (int i = 0; i < 8; i++) {
+      bytes[i] = (byte) (ipv6[0] >>> (56 - 8 * i));
+      bytes[i + 8] = (byte) (ipv6[1] >>> (56 - 8 * i));
+    }
+    return bytes;
   }
 
   /**
@@ -347,14 +373,15 @@ public class IpUtil {
       }
       return ipVal >= startVal && ipVal <= endVal;
     }
-    if (isValidIpv6(ip) && isValidIpv6(startIp) && isValidIpv6(endIp)) {
-      BigInteger ipVal = ipToBigInteger(ipToBytes(ip));
-      BigInteger startVal = ipToBigInteger(ipToBytes(startIp));
-      BigInteger endVal = ipToBigInteger(ipToBytes(endIp));
-      if (startVal.compareTo(endVal) > 0) {
+    long[] ipVal = new long[2];
+    long[] startVal = new long[2];
+    long[] endVal = new long[2];
+    if (parseIpv6(ip, 0, ip.length(), ipVal) && parseIpv6(startIp, 0, startIp.length(), startVal)
+      && parseIpv6(endIp, 0, endIp.length(), endVal)) {
+      if (compareIpv6(startVal, endVal) > 0) {
         throw new IllegalArgumentException("StartIp: should be less than or equal to EndIp");
       }
-      return ipVal.compareTo(startVal) >= 0 && ipVal.compareTo(endVal) <= 0;
+      return compareIpv6(ipVal, startVal) >= 0 && compareIpv6(ipVal, endVal) <= 0;
     }
     throw new IllegalArgumentException("Ip: should be valid and same IP version");
   }
@@ -369,22 +396,28 @@ public class IpUtil {
   public static boolean isInCidr(@NonNull String ip, @NonNull String cidr) {
     CidrInfo cidrInfo = parseCidr(cidr);
     if (cidrInfo.ipv4) {
-      if (!isValidIpv4(ip)) {
+      long ipVal = parseIpv4(ip, 0, ip.length());
+      if (ipVal < 0) {
         return false;
       }
-      long ipVal = ipv4ToLong(ip);
-      long baseVal = ipv4ToLong(cidrInfo.baseIp);
       long mask = prefixToMaskLong(cidrInfo.prefix);
-      return (ipVal & mask) == (baseVal & mask);
+      return (ipVal & mask) == (cidrInfo.low & mask);
     }
-    if (!isValidIpv6(ip)) {
+    long[] ipVal = new long[2];
+    if (!parseIpv6(ip, 0, ip.length(), ipVal)) {
       return false;
     }
-    // IPv6 使用前缀长度进行高位匹配。
-    BigInteger ipVal = ipToBigInteger(ipToBytes(ip));
-    BigInteger baseVal = ipToBigInteger(ipToBytes(cidrInfo.baseIp));
-    int shift = IPV6_BIT_LENGTH - cidrInfo.prefix;
-    return ipVal.shiftRight(shift).equals(baseVal.shiftRight(shift));
+    // IPv6 使用前缀长度进行高位匹配：前缀不超过 64 位时只比较高位。
+    int prefix = cidrInfo.prefix;
+    if (prefix == 0) {
+      return true;
+    }
+    if (prefix <= 64) {
+      long mask = -1L << (64 - prefix);
+      return (ipVal[0] & mask) == (cidrInfo.high & mask);
+    }
+    long mask = -1L << (IPV6_BIT_LENGTH - prefix);
+    return ipVal[0] == cidrInfo.high && (ipVal[1] & mask) == (cidrInfo.low & mask);
   }
 
   /**
@@ -620,25 +653,75 @@ public class IpUtil {
       Arrays.fill(result, "");
       return result;
     }
-    String[] parts = region.split(REGION_SPLIT_REGEX, -1);
-    // 固定长度 5，缺失部分补空，并规整 "0" 为 ""。
+    // 按下标逐段截取，固定长度 5，缺失部分补空，并规整 "0" 为 ""。
+    int start = 0;
     for (int i = 0; i < REGION_PARTS; i++) {
-      String value = i < parts.length ? parts[i] : "";
-      result[i] = normalizeRegionItem(value);
+      if (start > region.length()) {
+        result[i] = "";
+        continue;
+      }
+      int end = region.indexOf(REGION_SEPARATOR, start);
+      if (end == -1) {
+        end = region.length();
+      }
+      result[i] = normalizeRegionItem(region.substring(start, end));
+      start = end + 1;
     }
     return result;
   }
 
   /**
    * 解析 ip2region 区域字符串。
+   * <p>
+   * 结果按原始区域字符串缓存，各字段驻留，相同区域返回同一个不可变实例。
    *
    * @param region 区域字符串
    * @return 区域信息对象
    */
   public static RegionInfo parseRegion(String region) {
-    String[] parts = splitRegion(region);
     String raw = region == null ? "" : region;
-    return new RegionInfo(parts[0], parts[1], parts[2], parts[3], parts[4], raw);
+    RegionInfo info = REGION_INFOS.get(raw);
+    if (info != null) {
+      return info;
+    }
+    String[] parts = splitRegion(raw);
+    info = new RegionInfo(internRegionItem(parts[0]), internRegionItem(parts[1]), internRegionItem(parts[2]),
+      internRegionItem(parts[3]), internRegionItem(parts[4]), raw);
+    if (REGION_INFOS.size() < REGION_DICTIONARY_MAX) {
+      RegionInfo existing = REGION_INFOS.putIfAbsent(raw, info);
+      if (existing != null) {
+        return existing;
+      }
+    }
+    return info;
+  }
+
+  /**
+   * 基于 ip2region 批量查询区域信息（需要先创建搜索器）。
+   *
+   * @param searcher 搜索器
+   * @param ips      IPv4 数组
+   * @return 与 ips 一一对应的区域信息
+   */
+  public static RegionInfo[] searchRegionInfos(@NonNull RegionSearcher searcher, @NonNull String[] ips) {
+    RegionInfo[] result = new RegionInfo[ips.length];
+    for (int i = 0; i < ips.length; i++) {
+      result[i] = searchRegionInfo(searcher, ips[i]);
+    }
+    return result;
+  }
+
+  /**
+   * 通过 ip2region 文件路径批量查询区域信息，整批只打开一次文件。
+   *
+   * @param dbPath ip2region 数据库路径
+   * @param ips    IPv4 数组
+   * @return 与 ips 一一对应的区域信息
+   */
+  public static RegionInfo[] searchRegionInfos(@NonNull String dbPath, @NonNull String[] ips) {
+    try (Ip2RegionSearcher searcher = Ip2RegionSearcher.newWithFileOnly(dbPath)) {
+      return searchRegionInfos(searcher, ips);
+    }
   }
 
   /**
@@ -805,17 +888,228 @@ public class IpUtil {
    * @return 长度为 4 的段值数组
    */
   private static int[] parseIpv4Parts(String ip) {
-    if (!isValidIpv4(ip)) {
-      throw new IllegalArgumentException("Ip: should be a valid IPv4");
-    }
-    String[] parts = ip.split("\\.", -1);
+    int value = parseIpv4ToInt(ip);
     int[] result = new int[IPV4_SEGMENT_COUNT];
     for (int i = 0; i < IPV4_SEGMENT_COUNT; i++) {
-      result[i] = Integer.parseInt(parts[i]);
+      result[i] = (value >>> (24 - 8 * i)) & 0xFF;
     }
     return result;
   }
 
+  /**
+   * 解析点分十进制 IPv4，每段 1~3 位数字且不超过 255，不分配对象、不抛异常。
+   *
+   * @param s     字符序列
+   * @param start 起始下标（含）
+   * @param end   结束下标（不含）
+   * @return 无符号 32 位值，非法时返回 -1
+   */
+  static long parseIpv4(CharSequence s, int start, int end) {
+    long result = 0;
+    int segments = 0;
+    int value = 0;
+    int digits = 0;
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c == '.') {
+        if (digits == 0 || ++segments == IPV4_SEGMENT_COUNT) {
+          return -1;
+        }
+        result = (result << 8) | value;
+        value = 0;
+        digits = 0;
+      } else if (c >= '0' && c <= '9') {
+        value = value * 10 + (c - '0');
+        if (++digits > 3 || value > 255) {
+          return -1;
+        }
+      } else {
+        return -1;
+      }
+    }
+    if (digits == 0 || segments != IPV4_SEGMENT_COUNT - 1) {
+      return -1;
+    }
+    return (result << 8) | value;
+  }
+
+  /**
+   * 解析 IPv6 文本（RFC 4291），支持括号、{@code ::} 压缩、内嵌 IPv4 和区域标识，不分配对象、不抛异常。
+   * <p>
+   * {@code ::} 之前的分组按下标直接写入高位，之后的分组逐个左移累加，结束时正好右对齐，两者按位或即为结果。
+   *
+   * @param s     字符序列
+   * @param start 起始下标（含）
+   * @param end   结束下标（不含）
+   * @param dest  结果，dest[0] 为高 64 位，dest[1] 为低 64 位，仅合法时写入
+   * @return 是否合法
+   */
+  static boolean parseIpv6(CharSequence s, int start, int end, long[] dest) {
+    // 兼容形如 [::1] 的括号包裹形式。
+    if (end - start > 2 && s.charAt(start) == '[' && s.charAt(end - 1) == ']') {
+      start++;
+      end--;
+    }
+    // 区域标识（如 fe80::1%eth0）只校验格式。
+    for (int i = start; i < end; i++) {
+      if (s.charAt(i) == '%') {
+        if (!isValidZone(s, i + 1, end)) {
+          return false;
+        }
+        end = i;
+        break;
+      }
+    }
+    if (start == end) {
+      return false;
+    }
+    long headHigh = 0;
+    long headLow = 0;
+    long tailHigh = 0;
+    long tailLow = 0;
+    int groups = 0;
+    // :: 之前的分组数，-1 表示没有 ::
+    int compressAt = -1;
+    int i = start;
+    if (s.charAt(i) == ':') {
+      if (i + 1 == end || s.charAt(i + 1) != ':') {
+        return false;
+      }
+      compressAt = 0;
+      i += 2;
+    }
+    while (i < end) {
+      int groupEnd = i;
+      boolean dot = false;
+      while (groupEnd < end && s.charAt(groupEnd) != ':') {
+        dot |= s.charAt(groupEnd) == '.';
+        groupEnd++;
+      }
+      if (dot) {
+        // 内嵌 IPv4 只能位于末尾，占 2 个分组。
+        long ipv4 = groupEnd == end && groups + 2 <= 8 ? parseIpv4(s, i, end) : -1;
+        if (ipv4 < 0) {
+          return false;
+        }
+        if (compressAt < 0) {
+          headLow |= ipv4;
+        } else {
+          tailHigh = (tailHigh << 32) | (tailLow >>> 32);
+          tailLow = (tailLow << 32) | ipv4;
+        }
+        groups += 2;
+        break;
+      }
+      int length = groupEnd - i;
+      if (length == 0 || length > 4 || groups == 8) {
+        return false;
+      }
+      long value = 0;
+      for (; i < groupEnd; i++) {
+        int digit = hexDigit(s.charAt(i));
+        if (digit < 0) {
+          return false;
+        }
+        value = (value << 4) | digit;
+      }
+      if (compressAt < 0) {
+        if (groups < 4) {
+          headHigh |= value << (48 - 16 * groups);
+        } else {
+          headLow |= value << (48 - 16 * (groups - 4));
+        }
+      } else {
+        tailHigh = (tailHigh << 16) | (tailLow >>> 48);
+        tailLow = (tailLow << 16) | value;
+      }
+      groups++;
+      if (i == end) {
+        break;
+      }
+      // 当前字符为 :，其后不能直接结束；:: 只能出现一次。
+      if (++i == end) {
+        return false;
+      }
+      if (s.charAt(i) == ':') {
+        if (compressAt >= 0) {
+          return false;
+        }
+        compressAt = groups;
+        i++;
+      }
+    }
+    // 没有 :: 时必须正好 8 个分组，有 :: 时至少压缩 1 个分组。
+    if (compressAt < 0 ? groups != 8 : groups > 7) {
+      return false;
+    }
+    dest[0] = headHigh | tailHigh;
+    dest[1] = headLow | tailLow;
+    return true;
+  }
+
+  /**
+   * 十六进制字符转数值（仅 ASCII）。
+   *
+   * @param c 字符
+   * @return 数值，非十六进制字符返回 -1
+   */
+  private static int hexDigit(char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    }
+    if (c >= 'a' && c <= 'f') {
+      return c - 'a' + 10;
+    }
+    if (c >= 'A' && c <= 'F') {
+      return c - 'A' + 10;
+    }
+    return -1;
+  }
+
+  /**
+   * 校验区域标识：非空，只包含字母、数字和 {@code -._~}（RFC 6874）。
+   *
+   * @param s     字符序列
+   * @param start 起始下标（含）
+   * @param end   结束下标（不含）
+   * @return 是否合法
+   */
+  private static boolean isValidZone(CharSequence s, int start, int end) {
+    if (start >= end) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9'
+        || c == '-' || c == '.' || c == '_' || c == '~')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 无符号 32 位 IPv4 值转 4 字节数组。
+   *
+   * @param value 无符号 32 位值
+   * @return 字节数组
+   */
+  private static byte[] ipv4ToBytes(long value) {
+    return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8), (byte) value};
+  }
+
+  /**
+   * 按无符号比较两个 IPv6 的 long 表示。
+   *
+   * @param a [高 64 位, 低 64 位]
+   * @param b [高 64 位, 低 64 位]
+   * @return 比较结果
+   */
+  private static int compareIpv6(long[] a, long[] b) {
+    int high = Long.compareUnsigned(a[0], b[0]);
+    return high != 0 ? high : Long.compareUnsigned(a[1], b[1]);
+  }
+
   /**
    * 将字节数组转为无符号 BigInteger，便于 IPv6 比较。
    *
@@ -826,6 +1120,24 @@ public class IpUtil {
     return new BigInteger(1, bytes);
   }
 
+  /**
+   * 驻留区域字段，字典已满时直接返回原字符串。
+   *
+   * @param item 区域字段
+   * @return 驻留后的字段
+   */
+  private static String internRegionItem(String item) {
+    String interned = REGION_ITEMS.get(item);
+    if (interned != null) {
+      return interned;
+    }
+    if (REGION_ITEMS.size() < REGION_DICTIONARY_MAX) {
+      interned = REGION_ITEMS.putIfAbsent(item, item);
+      return interned == null ? item : interned;
+    }
+    return item;
+  }
+
   /**
    * 规范化 ip2region 的区域字段："0" 或空白视为未知。
    *
@@ -867,7 +1179,7 @@ public class IpUtil {
    * @param prefix 前缀长度
    * @return 掩码的 long 值
    */
-  private static long prefixToMaskLong(int prefix) {
+  static long prefixToMaskLong(int prefix) {
     if (prefix == 0) {
       return 0L;
     }
@@ -880,7 +1192,7 @@ public class IpUtil {
    * @param cidr CIDR（如 192.168.1.0/24）
    * @return 解析后的结构体
    */
-  private static CidrInfo parseCidr(String cidr) {
+  static CidrInfo parseCidr(String cidr) {
     if (StrUtil.isBlank(cidr)) {
       throw new IllegalArgumentException("Cidr: should not be blank");
     }
@@ -898,17 +1210,19 @@ public class IpUtil {
       throw new IllegalArgumentException("Prefix: should be a number");
     }
     // IPv4/IPv6 前缀范围不同，分别校验。
-    if (isValidIpv4(baseIp)) {
+    long ipv4 = parseIpv4(baseIp, 0, baseIp.length());
+    if (ipv4 >= 0) {
       if (prefix < 0 || prefix > IPV4_BIT_LENGTH) {
         throw new IllegalArgumentException("Prefix: should be between 0 and 32");
       }
-      return new CidrInfo(baseIp, prefix, true);
+      return new CidrInfo(baseIp, prefix, true, 0, ipv4);
     }
-    if (isValidIpv6(baseIp)) {
+    long[] ipv6 = new long[2];
+    if (parseIpv6(baseIp, 0, baseIp.length(), ipv6)) {
       if (prefix < 0 || prefix > IPV6_BIT_LENGTH) {
         throw new IllegalArgumentException("Prefix: should be between 0 and 128");
       }
-      return new CidrInfo(baseIp, prefix, false);
+      return new CidrInfo(baseIp, prefix, false, ipv6[0], ipv6[1]);
     }
     throw new IllegalArgumentException("Cidr: base IP is invalid");
   }
@@ -960,18 +1274,26 @@ public class IpUtil {
    * CIDR 解析后的结构体，避免重复拆分计算。
    */
   @AllArgsConstructor
-  private static final class CidrInfo {
+  static final class CidrInfo {
     /**
      * CIDR 左侧的基础 IP。
      */
-    private final String baseIp;
+    final String baseIp;
     /**
      * 前缀长度。
      */
-    private final int prefix;
+    final int prefix;
     /**
      * 是否为 IPv4（false 表示 IPv6）。
      */
-    private final boolean ipv4;
+    final boolean ipv4;
+    /**
+     * 基础 IP 的高 64 位，IPv4 时为 0。
+     */
+    final long high;
+    /**
+     * 基础 IP 的低 64 位，IPv4 时为无符号 32 位值。
+     */
+    final long low;
   }
 }
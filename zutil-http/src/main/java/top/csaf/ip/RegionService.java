@@ -0,0 +1,319 @@
+package top.csaf.ip;
+
+import lombok.NonNull;
+
+import java.io.Closeable;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ip2region 区域查询服务：xdb 只加载一次（堆内 byte[] 或内存映射），多线程共享同一份数据无锁查询
+ * <p>
+ * 直接按 xdb 格式读取共享的只读 {@link ByteBuffer}（只使用绝对位置读取，不修改缓冲区状态），
+ * 不像上游 Searcher 的文件模式每次查询都读文件，也不需要每个线程各建一个搜索器。
+ * {@link #reload(String)} 加载完新文件后再原子替换，替换前后的查询都不会中断。
+ * <p>
+ * 区域信息按 xdb 中的区域数据位置缓存（区域数有限，通常只有几千个），相同区域返回同一个实例，命中时不创建字符串。
+ * 开启 {@link RegionServiceConfig#getCacheSize()} 时另按 ip 缓存，命中时不再二分查找。
+ * 两种缓存都属于当前数据，热加载时随数据一起原子替换，且都使用 {@link ConcurrentHashMap}，查询不加锁。
+ */
+public final class RegionService implements IpUtil.RegionSearcher, Closeable {
+
+  private static final int HEADER_LENGTH = 256;
+  private static final int VECTOR_INDEX_COLS = 256;
+  private static final int VECTOR_INDEX_SIZE = 8;
+  private static final int SEGMENT_INDEX_SIZE = 14;
+  private static final int VECTOR_INDEX_LENGTH = VECTOR_INDEX_COLS * VECTOR_INDEX_COLS * VECTOR_INDEX_SIZE;
+  private static final long IPV4_MAX = 0xFFFFFFFFL;
+
+  private final RegionServiceConfig config;
+  /**
+   * 当前数据，关闭后为 null
+   */
+  private volatile Snapshot snapshot;
+  private RegionService(final ByteBuffer data, final RegionServiceConfig config) {
+    if (config.getCacheSize() < 0) {
+      throw new IllegalArgumentException("CacheSize: should be greater than or equal to 0");
+    }
+    this.config = config;
+    this.snapshot = new Snapshot(data, config.getCacheSize());
+  }
+
+  /**
+   * 使用默认配置（堆内加载，不缓存）打开 xdb 文件
+   *
+   * @param dbPath xdb 文件路径
+   * @return 区域查询服务
+   */
+  public static RegionService open(@NonNull final String dbPath) {
+    return open(dbPath, RegionServiceConfig.builder().build());
+  }
+
+  /**
+   * 打开 xdb 文件
+   *
+   * @param dbPath xdb 文件路径
+   * @param config 配置
+   * @return 区域查询服务
+   */
+  public static RegionService open(@NonNull final String dbPath, @NonNull final RegionServiceConfig config) {
+    return new RegionService(load(dbPath, config.getMode()), config);
+  }
+
+  /**
+   * 使用内存中的 xdb 内容创建服务，忽略 {@link RegionServiceConfig#getMode()}
+   *
+   * @param content xdb 内容，调用方之后不应修改
+   * @param config  配置
+   * @return 区域查询服务
+   */
+  public static RegionService of(@NonNull final byte[] content, @NonNull final RegionServiceConfig config) {
+    return new RegionService(wrap(ByteBuffer.wrap(content)), config);
+  }
+
+  /**
+   * 查询区域字符串
+   *
+   * @param ip IPv4
+   * @return 区域字符串，未找到时为 null
+   */
+  @Override
+  public String search(@NonNull final String ip) {
+    return search(IpUtil.parseIpv4ToInt(ip));
+  }
+
+  /**
+   * 查询区域字符串
+   *
+   * @param ip {@link IpUtil#parseIpv4ToInt(CharSequence)} 的结果
+   * @return 区域字符串，未找到时为 null
+   */
+  public String search(final int ip) {
+    ByteBuffer buffer = snapshot().data;
+    int ptr = segmentPtr(buffer, ip);
+    return ptr < 0 ? null : string(buffer, buffer.getInt(ptr + 10), buffer.getShort(ptr + 8) & 0xFFFF);
+  }
+
+  /**
+   * 查询区域信息
+   *
+   * @param ip IPv4
+   * @return 区域信息，未找到时为未知区域
+   */
+  public IpUtil.RegionInfo searchRegionInfo(@NonNull final String ip) {
+    return searchRegionInfo(IpUtil.parseIpv4ToInt(ip));
+  }
+
+  /**
+   * 查询区域信息，开启缓存时优先从当前数据的 ip 缓存获取
+   *
+   * @param ip {@link IpUtil#parseIpv4ToInt(CharSequence)} 的结果
+   * @return 区域信息，未找到时为未知区域
+   */
+  public IpUtil.RegionInfo searchRegionInfo(final int ip) {
+    Snapshot current = snapshot();
+    if (current.ips == null) {
+      return searchRegionInfo(current, ip);
+    }
+    IpUtil.RegionInfo info = current.ips.get(ip);
+    if (info == null) {
+      info = searchRegionInfo(current, ip);
+      current.cache(ip, info);
+    }
+    return info;
+  }
+
+  /**
+   * 批量查询区域信息，整批使用同一份数据（批量查询过程中热加载不影响本批结果）
+   *
+   * @param ips IPv4 数组
+   * @return 与 ips 一一对应的区域信息，未找到时为未知区域
+   */
+  public IpUtil.RegionInfo[] searchRegionInfo(@NonNull final String[] ips) {
+    Snapshot current = snapshot();
+    IpUtil.RegionInfo[] result = new IpUtil.RegionInfo[ips.length];
+    for (int i = 0; i < ips.length; i++) {
+      result[i] = searchRegionInfo(current, IpUtil.parseIpv4ToInt(ips[i]));
+    }
+    return result;
+  }
+
+  /**
+   * 加载新的 xdb 文件并原子替换，加载失败时继续使用原数据
+   *
+   * @param dbPath xdb 文件路径
+   */
+  public void reload(@NonNull final String dbPath) {
+    replace(load(dbPath, config.getMode()));
+  }
+
+  /**
+   * 使用内存中的 xdb 内容原子替换
+   *
+   * @param content xdb 内容，调用方之后不应修改
+   */
+  public void reload(@NonNull final byte[] content) {
+    replace(wrap(ByteBuffer.wrap(content)));
+  }
+
+  /**
+   * 释放数据，之后查询抛出 {@link IllegalStateException}；内存映射由 GC 回收
+   */
+  @Override
+  public void close() {
+    snapshot = null;
+  }
+
+  private void replace(final ByteBuffer buffer) {
+    snapshot();
+    snapshot = new Snapshot(buffer, config.getCacheSize());
+  }
+
+  private Snapshot snapshot() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      throw new IllegalStateException("RegionService: should not be closed");
+    }
+    return current;
+  }
+
+  /**
+   * 查询区域信息，按区域数据位置缓存
+   *
+   * @param current 数据
+   * @param ip      IPv4
+   * @return 区域信息，未找到时为未知区域
+   */
+  private static IpUtil.RegionInfo searchRegionInfo(final Snapshot current, final int ip) {
+    ByteBuffer buffer = current.data;
+    int ptr = segmentPtr(buffer, ip);
+    if (ptr < 0) {
+      return IpUtil.parseRegion(null);
+    }
+    int dataPtr = buffer.getInt(ptr + 10);
+    IpUtil.RegionInfo info = current.regions.get(dataPtr);
+    if (info == null) {
+      info = IpUtil.parseRegion(string(buffer, dataPtr, buffer.getShort(ptr + 8) & 0xFFFF));
+      current.regions.put(dataPtr, info);
+    }
+    return info;
+  }
+
+  /**
+   * 在 IP 所在的 /16 向量索引桶内二分查找段索引
+   *
+   * @param buffer xdb 内容
+   * @param ip     IPv4
+   * @return 段索引位置，未找到时返回 -1
+   */
+  private static int segmentPtr(final ByteBuffer buffer, final int ip) {
+    long value = ip & IPV4_MAX;
+    int vectorPtr = HEADER_LENGTH + (ip >>> 16) * VECTOR_INDEX_SIZE;
+    int startPtr = buffer.getInt(vectorPtr);
+    int endPtr = buffer.getInt(vectorPtr + 4);
+    int low = 0;
+    int high = (endPtr - startPtr) / SEGMENT_INDEX_SIZE;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int ptr = startPtr + mid * SEGMENT_INDEX_SIZE;
+      if (value < (buffer.getInt(ptr) & IPV4_MAX)) {
+        high = mid - 1;
+      } else if (value > (buffer.getInt(ptr + 4) & IPV4_MAX)) {
+        low = mid + 1;
+      } else {
+        return ptr;
+      }
+    }
+    return -1;
+  }
+
+  private static String string(final ByteBuffer buffer, final int ptr, final int length) {
+    if (buffer.hasArray()) {
+      return new String(buffer.array(), buffer.arrayOffset() + ptr, length, StandardCharsets.UTF_8);
+    }
+    byte[] bytes = new byte[length];
+    ByteBuffer duplicate = buffer.duplicate();
+    ((Buffer) duplicate).position(ptr);
+    duplicate.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static ByteBuffer load(final String dbPath, final RegionServiceConfig.Mode mode) {
+    try {
+      if (mode == RegionServiceConfig.Mode.MMAP) {
+        try (FileChannel channel = FileChannel.open(Paths.get(dbPath), StandardOpenOption.READ)) {
+          // 映射在通道关闭后依然有效
+          return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+      }
+      return wrap(ByteBuffer.wrap(Files.readAllBytes(Paths.get(dbPath))));
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new RuntimeException("Load ip2region xdb failed: " + dbPath, e);
+    }
+  }
+
+  private static ByteBuffer wrap(final ByteBuffer buffer) {
+    if (buffer.capacity() < HEADER_LENGTH + VECTOR_INDEX_LENGTH) {
+      throw new IllegalArgumentException("Content: should be a valid ip2region xdb");
+    }
+    return buffer.order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * 一次加载的 xdb 数据及其区域信息缓存，热加载时整体替换，替换前开始的查询只会写入旧数据的缓存
+   */
+  private static final class Snapshot {
+    /**
+     * 小端序的 xdb 内容
+     */
+    private final ByteBuffer data;
+    /**
+     * 区域数据位置 -&gt; 区域信息
+     */
+    private final Map<Integer, IpUtil.RegionInfo> regions = new ConcurrentHashMap<>();
+    /**
+     * ip -&gt; 区域信息，未开启时为 null
+     */
+    private final Map<Integer, IpUtil.RegionInfo> ips;
+    /**
+     * ip 缓存的最大条目数
+     */
+    private final int cacheSize;
+
+    private Snapshot(final ByteBuffer data, final int cacheSize) {
+      this.data = data;
+      this.cacheSize = cacheSize;
+      this.ips = cacheSize == 0 ? null : new ConcurrentHashMap<>();
+    }
+
+    /**
+     * 缓存 ip 的区域信息，达到最大条目数时先淘汰任意一个条目
+     * <p>
+     * 不维护访问顺序，避免查询时加锁；并发写入时条目数可能短暂超出上限几个
+     *
+     * @param ip   IPv4
+     * @param info 区域信息
+     */
+    private void cache(final int ip, final IpUtil.RegionInfo info) {
+      if (ips.size() >= cacheSize) {
+        Iterator<Integer> iterator = ips.keySet().iterator();
+        if (iterator.hasNext()) {
+          iterator.next();
+          iterator.remove();
+        }
+      }
+      ips.put(ip, info);
+    }
+  }
+}
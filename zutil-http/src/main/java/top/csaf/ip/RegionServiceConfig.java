@@ -0,0 +1,39 @@
+package top.csaf.ip;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * {@link RegionService} 的配置
+ */
+@Builder
+@Data
+public class RegionServiceConfig {
+  /**
+   * xdb 加载方式，默认 {@link Mode#HEAP}
+   */
+  @Builder.Default
+  private Mode mode = Mode.HEAP;
+  /**
+   * ip -&gt; RegionInfo 的缓存条目数，0 表示不缓存；达到上限时淘汰任意条目，不按访问顺序淘汰
+   * <p>
+   * 查询本身只有十几次内存读取，缓存只在 IP 高度重复且需要 {@link IpUtil.RegionInfo} 时有收益
+   */
+  private int cacheSize;
+
+  /**
+   * xdb 加载方式
+   */
+  public enum Mode {
+    /**
+     * 整个文件读入堆内 byte[]
+     */
+    HEAP,
+    /**
+     * 只读内存映射，不占用堆，由操作系统页缓存按需加载
+     * <p>
+     * 映射期间不要原地覆盖文件（应写入新文件后 {@link RegionService#reload(String)}），否则可能读到不完整的数据
+     */
+    MMAP
+  }
+}
@@ -1,5 +1,6 @@
 package top.csaf.http;
 
+import cn.zhxu.okhttps.HTTP;
 import cn.zhxu.okhttps.HttpResult;
 import cn.zhxu.okhttps.OkHttpsException;
 import com.alibaba.fastjson2.JSON;
@@ -13,6 +14,8 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import okio.Buffer;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -20,12 +23,28 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import top.csaf.http.constant.HeaderConst;
+import top.csaf.http.constant.ReqMethodConst;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,6 +74,15 @@ class HttpUtilTest {
     Map<String, Object> params = new HashMap<>();
     params.put("a", 1);
     assertTrue(HttpUtil.getContentLength(params) > 0);
+    // 直接计算与序列化后计算一致
+    params.put("b", Arrays.asList("x", 2));
+    params.put("c", 1.5);
+    params.put("d", null);
+    for (Map<String, Object> p : Arrays.asList(Collections.singletonMap("a", (Object) 1), params)) {
+      String json = new top.csaf.http.convert.AutoJsonMsgConvertor().serialize(p, false);
+      assertEquals(json.replace("{", "%7B").replace("\"", "%22").replace(":", "%3A").replace("[", "%5B")
+        .replace("]", "%5D").replace(",", "%2C").replace("}", "%7D").length(), HttpUtil.getContentLength(p));
+    }
   }
 
   // ... (核心测试: testGetParams, testPostParams, testHeaders, testReturnTypes, testException 保持不变) ...
@@ -75,6 +103,18 @@ class HttpUtilTest {
     params.put("u", "admin");
     HttpUtil.post(baseUrl, params);
     assertTrue(server.takeRequest().getBody().readUtf8().contains("u=admin"));
+
+    // 表单请求体与 OkHttp FormBody 编码一致，长度已知
+    server.enqueue(new MockResponse().setBody("OK"));
+    params.put("name", "中文 a+b&c=d");
+    params.put("skip", null);
+    HttpUtil.post(baseUrl, params);
+    RecordedRequest request = server.takeRequest();
+    String body = request.getBody().readUtf8();
+    assertTrue(body.contains("name=%E4%B8%AD%E6%96%87%20a%2Bb%26c%3Dd"), body);
+    assertFalse(body.contains("skip"));
+    assertEquals(String.valueOf(body.length()), request.getHeader(HeaderConst.CONTENT_LENGTH));
+    assertTrue(request.getHeader(HeaderConst.CONTENT_TYPE).startsWith("application/x-www-form-urlencoded"));
   }
 
   @Test
@@ -313,6 +353,570 @@ class HttpUtilTest {
     assertNull(bodyToResult.invoke(null, "not json", JsonNode.class));
   }
 
+  @Test
+  @DisplayName("命名客户端: 配置、复用连接和统计")
+  void testClient() throws InterruptedException {
+    HTTP http = HttpUtil.register("test", HttpClientConfig.builder()
+      .maxIdleConnections(2)
+      .keepAliveMillis(60_000)
+      .maxRequestsPerHost(10)
+      .readTimeoutMillis(5_000)
+      .protocols(java.util.Collections.singletonList(okhttp3.Protocol.HTTP_1_1))
+      .baseUrl(baseUrl)
+      .build());
+    try {
+      assertSame(http, HttpUtil.client("test"));
+      for (int i = 0; i < 3; i++) {
+        server.enqueue(new MockResponse().setBody("OK"));
+        assertEquals("OK", HttpUtil.sync(http, ReqMethodConst.GET, "api", null, null, null, String.class));
+      }
+      // 同一客户端复用同一个连接
+      server.takeRequest();
+      server.takeRequest();
+      assertEquals(2, server.takeRequest().getSequenceNumber());
+      HttpClientStats stats = HttpUtil.stats("test");
+      assertEquals("test", stats.getName());
+      assertEquals(1, stats.getConnectionCount());
+      assertEquals(1, stats.getIdleConnectionCount());
+      assertEquals(0, stats.getActiveConnectionCount());
+      assertEquals(0, stats.getRunningCallsCount());
+      assertEquals(0, stats.getQueuedCallsCount());
+
+      // 替换后关闭旧客户端的空闲连接
+      HTTP replaced = HttpUtil.register("test", HttpClientConfig.builder().build());
+      assertNotSame(http, replaced);
+      assertEquals(0, HttpUtil.stats("test").getConnectionCount());
+    } finally {
+      assertTrue(HttpUtil.remove("test"));
+    }
+    assertFalse(HttpUtil.remove("test"));
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.client("test"));
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.stats("test"));
+
+    // 默认客户端：未配置时使用应用设置的 HttpUtils 全局实例（包括其 baseUrl），配置后共用，移除后恢复
+    HTTP global = HTTP.builder().baseUrl(baseUrl).build();
+    cn.zhxu.okhttps.HttpUtils.of(global);
+    try {
+      assertSame(global, HttpUtil.client(HttpUtil.DEFAULT_CLIENT));
+      server.enqueue(new MockResponse().setBody("OK"));
+      assertEquals("OK", HttpUtil.get("global", String.class));
+      assertEquals("/global", server.takeRequest().getPath());
+      assertTrue(HttpUtil.stats().getConnectionCount() >= 1);
+      assertNull(HttpUtil.cacheStats());
+
+      HTTP configured = HttpUtil.configure(HttpClientConfig.builder().connectTimeoutMillis(3_000).build());
+      assertSame(configured, cn.zhxu.okhttps.HttpUtils.getHttp());
+      assertSame(configured, HttpUtil.client(HttpUtil.DEFAULT_CLIENT));
+      server.enqueue(new MockResponse().setBody("OK"));
+      assertEquals("OK", HttpUtil.get(baseUrl, String.class));
+      assertTrue(HttpUtil.remove(HttpUtil.DEFAULT_CLIENT));
+      assertSame(global, cn.zhxu.okhttps.HttpUtils.getHttp());
+      assertSame(global, HttpUtil.client(HttpUtil.DEFAULT_CLIENT));
+    } finally {
+      HttpUtil.remove(HttpUtil.DEFAULT_CLIENT);
+      cn.zhxu.okhttps.HttpUtils.of(HTTP.builder().build());
+    }
+  }
+
+  @Test
+  @DisplayName("命名客户端: 替换和移除时排队的请求继续完成")
+  void testClientClose(@TempDir Path dir) throws Exception {
+    for (int i = 0; i < 3; i++) {
+      server.enqueue(new MockResponse().setBody("OK" + i).setHeadersDelay(200, TimeUnit.MILLISECONDS));
+    }
+    HttpUtil.register("closing", HttpClientConfig.builder()
+      .maxRequests(1)
+      .cache(HttpCacheConfig.builder().diskDirectory(dir).build())
+      .build());
+    List<CompletableFuture<String>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(HttpUtil.async(HttpRequest.get(baseUrl + i, String.class).client("closing")));
+    }
+    assertEquals(2, HttpUtil.stats("closing").getQueuedCallsCount());
+    // 同一磁盘缓存目录只能被一个客户端使用，同名客户端重新注册时复用
+    HttpCacheConfig diskConfig = HttpCacheConfig.builder().diskDirectory(dir).build();
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.register("other", HttpClientConfig.builder().cache(diskConfig).build()));
+    HttpUtil.register("closing", HttpClientConfig.builder().cache(diskConfig).build());
+    HttpUtil.register("closing", HttpClientConfig.builder().build());
+    assertTrue(HttpUtil.remove("closing"));
+    // 旧客户端的请求未结束时磁盘缓存不关闭
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.register("other", HttpClientConfig.builder().cache(diskConfig).build()));
+    for (int i = 0; i < 3; i++) {
+      assertEquals("OK" + i, futures.get(i).get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(3, server.getRequestCount());
+    // 响应体读完后磁盘缓存关闭，目录可被其他客户端使用
+    HttpUtil.register("other", HttpClientConfig.builder().cache(diskConfig).build());
+    assertTrue(HttpUtil.remove("other"));
+  }
+
+  @Test
+  @DisplayName("异步请求")
+  void testAsync() throws Exception {
+    server.enqueue(new MockResponse().setBody("{\"name\":\"test\"}"));
+    assertEquals("test", HttpUtil.getAsync(baseUrl, TestBean.class).get(5, TimeUnit.SECONDS).getName());
+
+    server.enqueue(new MockResponse().setBody("OK"));
+    Map<String, Object> params = new HashMap<>();
+    params.put("u", "admin");
+    assertEquals("OK", HttpUtil.postAsync(baseUrl, params, null, String.class).get(5, TimeUnit.SECONDS));
+    server.takeRequest();
+    RecordedRequest request = server.takeRequest();
+    assertEquals("POST", request.getMethod());
+    assertTrue(request.getBody().readUtf8().contains("u=admin"));
+    assertEquals(HeaderConst.USER_AGENT_X, request.getHeader(HeaderConst.USER_AGENT));
+
+    // 返回 HttpResult、Body 时回调结束后仍可读取
+    server.enqueue(new MockResponse().setBody("OK"));
+    HttpResult result = HttpUtil.getAsync(baseUrl, HttpResult.class).get(5, TimeUnit.SECONDS);
+    assertEquals(200, result.getStatus());
+    assertEquals("OK", result.getBody().toString());
+    server.enqueue(new MockResponse().setBody("OK"));
+    assertEquals("OK", HttpUtil.async(HttpRequest.put(baseUrl, HttpResult.Body.class)).get(5, TimeUnit.SECONDS).toString());
+
+    server.enqueue(new MockResponse().setBody("OK"));
+    assertEquals("OK", HttpUtil.deleteAsync(baseUrl, String.class).get(5, TimeUnit.SECONDS));
+    server.enqueue(new MockResponse().setBody("OK"));
+    assertEquals("OK", HttpUtil.patchAsync(baseUrl, String.class).get(5, TimeUnit.SECONDS));
+
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.getAsync("", String.class));
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.async(HttpRequest.get(baseUrl, String.class).client("none")));
+
+    // 取消时同时取消请求
+    server.enqueue(new MockResponse().setBody("OK").setHeadersDelay(1, TimeUnit.SECONDS));
+    CompletableFuture<String> delayed = HttpUtil.getAsync(baseUrl, String.class);
+    assertTrue(delayed.cancel(true));
+    assertThrows(CancellationException.class, delayed::join);
+
+    // 网络异常
+    server.shutdown();
+    ExecutionException e = assertThrows(ExecutionException.class, () -> HttpUtil.getAsync(baseUrl, String.class).get(5, TimeUnit.SECONDS));
+    assertInstanceOf(OkHttpsException.class, e.getCause());
+  }
+
+  @Test
+  @DisplayName("批量请求: 保持顺序、限制并发")
+  void testBatch() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        int current = running.incrementAndGet();
+        maxRunning.accumulateAndGet(current, Math::max);
+        Thread.sleep(20);
+        running.decrementAndGet();
+        String path = request.getPath();
+        return new MockResponse().setBody(path.substring(path.indexOf('=') + 1));
+      }
+    });
+    HttpUtil.register("batch", HttpClientConfig.builder().maxRequestsPerHost(64).build());
+    try {
+      List<HttpRequest<String>> requests = new ArrayList<>();
+      for (int i = 0; i < 20; i++) {
+        requests.add(HttpRequest.get(baseUrl + "?i=" + i, String.class).client("batch"));
+      }
+      List<String> results = HttpUtil.batch(requests, 4).get(10, TimeUnit.SECONDS);
+      assertEquals(20, results.size());
+      for (int i = 0; i < 20; i++) {
+        assertEquals(String.valueOf(i), results.get(i));
+      }
+      assertTrue(maxRunning.get() <= 4, "max running: " + maxRunning.get());
+      assertTrue(maxRunning.get() > 1, "max running: " + maxRunning.get());
+
+      assertTrue(HttpUtil.batch(new ArrayList<HttpRequest<String>>(), 1).get().isEmpty());
+
+      // 任一请求失败时整体失败
+      requests.set(10, HttpRequest.get("http://127.0.0.1:1/", String.class).client("batch"));
+      ExecutionException e = assertThrows(ExecutionException.class, () -> HttpUtil.batch(requests, 2).get(10, TimeUnit.SECONDS));
+      assertInstanceOf(OkHttpsException.class, e.getCause());
+    } finally {
+      HttpUtil.remove("batch");
+    }
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.batch(new ArrayList<HttpRequest<String>>(), 0));
+    assertThrows(NullPointerException.class, () -> HttpUtil.batch(Collections.singletonList((HttpRequest<String>) null), 1));
+  }
+
+  @Test
+  @DisplayName("下载: 校验、进度、断点续传")
+  void testDownload(@TempDir Path dir) throws Exception {
+    byte[] data = new byte[300 * 1024 + 7];
+    new Random(1).nextBytes(data);
+    String sha256 = hex(MessageDigest.getInstance("SHA-256").digest(data));
+    Path target = dir.resolve("a/b/file.bin");
+
+    // 完整下载
+    server.enqueue(new MockResponse().setBody(new Buffer().write(data)));
+    List<long[]> progress = new ArrayList<>();
+    DownloadResult result = HttpUtil.download(baseUrl, target, DownloadOptions.builder()
+      .bufferSize(8192)
+      .checksumAlgorithm("SHA-256")
+      .expectedChecksum(sha256.toUpperCase())
+      .progressListener((downloaded, total) -> progress.add(new long[]{downloaded, total}))
+      .build());
+    assertArrayEquals(data, Files.readAllBytes(target));
+    assertEquals(200, result.getStatus());
+    assertEquals(data.length, result.getTransferred());
+    assertEquals(data.length, result.getLength());
+    assertFalse(result.isResumed());
+    assertEquals(sha256, result.getChecksum());
+    assertTrue(progress.size() > 1);
+    assertArrayEquals(new long[]{data.length, data.length}, progress.get(progress.size() - 1));
+    assertNull(server.takeRequest().getHeader(HeaderConst.RANGE));
+
+    // 断点续传：服务端返回 206
+    int half = data.length / 2;
+    Files.write(target, Arrays.copyOf(data, half));
+    server.enqueue(new MockResponse().setResponseCode(206)
+      .setHeader("Content-Range", "bytes " + half + "-" + (data.length - 1) + "/" + data.length)
+      .setBody(new Buffer().write(data, half, data.length - half)));
+    result = HttpUtil.download(baseUrl, target, DownloadOptions.builder().checksumAlgorithm("SHA-256").ifRange("\"v1\"").build());
+    RecordedRequest request = server.takeRequest();
+    assertEquals("bytes=" + half + "-", request.getHeader(HeaderConst.RANGE));
+    assertEquals("\"v1\"", request.getHeader(HeaderConst.IF_RANGE));
+    assertArrayEquals(data, Files.readAllBytes(target));
+    assertTrue(result.isResumed());
+    assertEquals(data.length - half, result.getTransferred());
+    assertEquals(data.length, result.getLength());
+    assertEquals(sha256, result.getChecksum());
+
+    // 已下载完成：服务端返回 416，总长度与本地文件一致
+    server.enqueue(new MockResponse().setResponseCode(416).setHeader("Content-Range", "bytes */" + data.length));
+    result = HttpUtil.download(baseUrl, target, DownloadOptions.builder().checksumAlgorithm("SHA-256").build());
+    assertEquals(416, result.getStatus());
+    assertEquals(0, result.getTransferred());
+    assertEquals(sha256, result.getChecksum());
+    server.takeRequest();
+
+    // Content-Range 与本地文件不一致：416 的总长度不同、缺少 Content-Range、206 的起始位置不同时从头下载
+    MockResponse[] mismatches = {
+      new MockResponse().setResponseCode(416).setHeader("Content-Range", "bytes */" + (data.length * 2)),
+      new MockResponse().setResponseCode(416),
+      new MockResponse().setResponseCode(206).setHeader("Content-Range", "bytes 0-2/" + data.length).setBody("abc")
+    };
+    for (MockResponse mismatch : mismatches) {
+      Files.write(target, Arrays.copyOf(data, half));
+      server.enqueue(mismatch);
+      server.enqueue(new MockResponse().setBody(new Buffer().write(data)));
+      result = HttpUtil.download(baseUrl, target, DownloadOptions.builder().checksumAlgorithm("SHA-256").build());
+      assertEquals(200, result.getStatus());
+      assertFalse(result.isResumed());
+      assertEquals(sha256, result.getChecksum());
+      assertArrayEquals(data, Files.readAllBytes(target));
+      assertEquals("bytes=" + half + "-", server.takeRequest().getHeader(HeaderConst.RANGE));
+      assertNull(server.takeRequest().getHeader(HeaderConst.RANGE));
+    }
+
+    // 服务端忽略 Range 返回 200：从头覆盖
+    Files.write(target, new byte[]{1, 2, 3});
+    server.enqueue(new MockResponse().setBody(new Buffer().write(data)));
+    result = HttpUtil.download(baseUrl, target);
+    assertFalse(result.isResumed());
+    assertNull(result.getChecksum());
+    assertArrayEquals(data, Files.readAllBytes(target));
+    assertEquals("bytes=3-", server.takeRequest().getHeader(HeaderConst.RANGE));
+
+    // 不续传
+    server.enqueue(new MockResponse().setBody("new"));
+    HttpUtil.download(baseUrl, target, DownloadOptions.builder().resume(false).build());
+    assertNull(server.takeRequest().getHeader(HeaderConst.RANGE));
+    assertEquals("new", new String(Files.readAllBytes(target), StandardCharsets.UTF_8));
+
+    // 摘要不一致
+    server.enqueue(new MockResponse().setBody("abc"));
+    assertThrows(IllegalStateException.class, () -> HttpUtil.download(baseUrl, dir.resolve("c.bin"), DownloadOptions.builder().checksumAlgorithm("MD5").expectedChecksum("00").build()));
+
+    // 响应失败时不创建文件
+    server.enqueue(new MockResponse().setResponseCode(404));
+    assertThrows(OkHttpsException.class, () -> HttpUtil.download(baseUrl, dir.resolve("d.bin")));
+    assertFalse(Files.exists(dir.resolve("d.bin")));
+
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.download("", target));
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.download(baseUrl, target, DownloadOptions.builder().bufferSize(0).build()));
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.download(baseUrl, target, DownloadOptions.builder().checksumAlgorithm("none").build()));
+  }
+
+  @Test
+  @DisplayName("流式读取响应体")
+  void testStream() throws Exception {
+    byte[] data = new byte[100 * 1024];
+    new Random(2).nextBytes(data);
+    server.enqueue(new MockResponse().setBody(new Buffer().write(data)));
+    java.io.ByteArrayOutputStream out = new java.io.ByteArrayOutputStream();
+    HttpUtil.stream(baseUrl, in -> {
+      try {
+        byte[] buffer = new byte[4096];
+        int len;
+        while ((len = in.read(buffer)) != -1) {
+          out.write(buffer, 0, len);
+        }
+      } catch (IOException e) {
+        throw new java.io.UncheckedIOException(e);
+      }
+    });
+    assertArrayEquals(data, out.toByteArray());
+
+    Map<String, String> headers = new HashMap<>();
+    headers.put("Token", "123");
+    server.enqueue(new MockResponse().setBody("OK"));
+    HttpUtil.stream(baseUrl, headers, in -> {
+    });
+    server.takeRequest();
+    assertEquals("123", server.takeRequest().getHeader("Token"));
+
+    server.enqueue(new MockResponse().setResponseCode(500));
+    assertThrows(OkHttpsException.class, () -> HttpUtil.stream(baseUrl, in -> fail()));
+    assertThrows(IllegalArgumentException.class, () -> HttpUtil.stream(" ", in -> fail()));
+  }
+
+  @Test
+  @DisplayName("GET 响应缓存")
+  void testCache(@TempDir Path dir) throws Exception {
+    assertNull(HttpUtil.cacheStats());
+    HttpUtil.configure(HttpClientConfig.builder()
+      .cache(HttpCacheConfig.builder().maxEntries(2).ttlMillis(200).cacheResults(true).build())
+      .build());
+    try {
+      // 有效期内不发送请求，转换后的对象也被复用
+      server.enqueue(new MockResponse().setBody("{\"name\":\"a\"}").setHeader(HeaderConst.ETAG, "\"v1\""));
+      TestBean bean = HttpUtil.get(baseUrl, TestBean.class);
+      assertEquals("a", bean.getName());
+      assertSame(bean, HttpUtil.get(baseUrl, TestBean.class));
+      assertEquals("{\"name\":\"a\"}", HttpUtil.get(baseUrl, String.class));
+      assertEquals(1, server.getRequestCount());
+      // HttpResult 不走缓存
+      server.enqueue(new MockResponse().setBody("raw"));
+      assertEquals("raw", HttpUtil.get(baseUrl).getBody().toString());
+      server.takeRequest();
+      server.takeRequest();
+
+      // 过期后条件请求，304 时继续使用缓存
+      Thread.sleep(300);
+      server.enqueue(new MockResponse().setResponseCode(304));
+      assertSame(bean, HttpUtil.get(baseUrl, TestBean.class));
+      assertEquals("\"v1\"", server.takeRequest().getHeader(HeaderConst.IF_NONE_MATCH));
+      // 过期后内容已变化
+      Thread.sleep(300);
+      server.enqueue(new MockResponse().setBody("{\"name\":\"b\"}").setHeader(HeaderConst.LAST_MODIFIED, "Mon, 19 Oct 2026 00:00:00 GMT"));
+      assertEquals("b", HttpUtil.get(baseUrl, TestBean.class).getName());
+      server.takeRequest();
+      Thread.sleep(300);
+      server.enqueue(new MockResponse().setResponseCode(304));
+      assertEquals("b", HttpUtil.get(baseUrl, TestBean.class).getName());
+      assertEquals("Mon, 19 Oct 2026 00:00:00 GMT", server.takeRequest().getHeader(HeaderConst.IF_MODIFIED_SINCE));
+
+      // 参数不同为不同条目，参数顺序无关；超出最大条目数时淘汰
+      Map<String, Object> params = new java.util.LinkedHashMap<>();
+      params.put("a", 1);
+      params.put("b", 2);
+      Map<String, Object> reversed = new java.util.LinkedHashMap<>();
+      reversed.put("b", 2);
+      reversed.put("a", 1);
+      server.enqueue(new MockResponse().setBody("p"));
+      assertEquals("p", HttpUtil.get(baseUrl, params, String.class));
+      assertEquals("p", HttpUtil.get(baseUrl, reversed, String.class));
+      server.takeRequest();
+      server.enqueue(new MockResponse().setBody("q"));
+      assertEquals("q", HttpUtil.get(baseUrl + "q", String.class));
+      server.takeRequest();
+
+      // 非 200 和 no-store 不缓存
+      server.enqueue(new MockResponse().setResponseCode(404).setBody("missing"));
+      server.enqueue(new MockResponse().setResponseCode(404).setBody("missing"));
+      assertEquals("missing", HttpUtil.get(baseUrl + "missing", String.class));
+      assertEquals("missing", HttpUtil.get(baseUrl + "missing", String.class));
+      server.enqueue(new MockResponse().setBody("s").setHeader(HeaderConst.CACHE_CONTROL, "no-store"));
+      server.enqueue(new MockResponse().setBody("s"));
+      assertEquals("s", HttpUtil.get(baseUrl + "s", String.class));
+      assertEquals("s", HttpUtil.get(baseUrl + "s", String.class));
+
+      HttpCacheStats stats = HttpUtil.cacheStats();
+      assertEquals(HttpUtil.DEFAULT_CLIENT, stats.getName());
+      assertEquals(2, stats.getSize());
+      assertEquals(3, stats.getHitCount());
+      assertEquals(2, stats.getRevalidationCount());
+      assertEquals(8, stats.getMissCount());
+      assertTrue(stats.getEvictionCount() >= 1);
+      assertEquals(0, stats.getDiskHitCount());
+      assertEquals(5.0 / 13, stats.getHitRate(), 1e-9);
+
+      HttpUtil.clearCache();
+      assertEquals(0, HttpUtil.cacheStats().getSize());
+
+      // 磁盘层按 HTTP 缓存语义命中
+      HttpUtil.configure(HttpClientConfig.builder()
+        .cache(HttpCacheConfig.builder().ttlMillis(0).diskDirectory(dir).build())
+        .build());
+      int count = server.getRequestCount();
+      server.enqueue(new MockResponse().setBody("disk").setHeader(HeaderConst.CACHE_CONTROL, "max-age=60"));
+      assertEquals("disk", HttpUtil.get(baseUrl + "disk", String.class));
+      assertEquals("disk", HttpUtil.get(baseUrl + "disk", String.class));
+      assertEquals(count + 1, server.getRequestCount());
+      assertEquals(1, HttpUtil.cacheStats().getDiskHitCount());
+      HttpUtil.clearCache();
+
+      assertThrows(IllegalArgumentException.class, () -> HttpUtil.configure(HttpClientConfig.builder()
+        .cache(HttpCacheConfig.builder().maxEntries(0).build()).build()));
+      assertThrows(IllegalArgumentException.class, () -> HttpUtil.configure(HttpClientConfig.builder()
+        .cache(HttpCacheConfig.builder().maxBytes(0).build()).build()));
+
+      // 按响应体字节数（每个字符 2 字节）淘汰最久未使用的条目，超过上限的响应体不缓存
+      HttpUtil.configure(HttpClientConfig.builder()
+        .cache(HttpCacheConfig.builder().maxBytes(20).build())
+        .build());
+      count = server.getRequestCount();
+      server.enqueue(new MockResponse().setBody("aaaa"));
+      server.enqueue(new MockResponse().setBody("bbbb"));
+      assertEquals("aaaa", HttpUtil.get(baseUrl + "a", String.class));
+      assertEquals("bbbb", HttpUtil.get(baseUrl + "b", String.class));
+      assertEquals("aaaa", HttpUtil.get(baseUrl + "a", String.class));
+      assertEquals(16, HttpUtil.cacheStats().getBytes());
+      server.enqueue(new MockResponse().setBody("cccc"));
+      assertEquals("cccc", HttpUtil.get(baseUrl + "c", String.class));
+      assertEquals(count + 3, server.getRequestCount());
+      stats = HttpUtil.cacheStats();
+      assertEquals(2, stats.getSize());
+      assertEquals(16, stats.getBytes());
+      assertEquals(1, stats.getEvictionCount());
+      assertEquals("aaaa", HttpUtil.get(baseUrl + "a", String.class));
+      assertEquals(count + 3, server.getRequestCount());
+      server.enqueue(new MockResponse().setBody("bbbb"));
+      assertEquals("bbbb", HttpUtil.get(baseUrl + "b", String.class));
+      assertEquals(count + 4, server.getRequestCount());
+      server.enqueue(new MockResponse().setBody("large-body!"));
+      server.enqueue(new MockResponse().setBody("large-body!"));
+      assertEquals("large-body!", HttpUtil.get(baseUrl + "large", String.class));
+      assertEquals("large-body!", HttpUtil.get(baseUrl + "large", String.class));
+      assertEquals(count + 6, server.getRequestCount());
+      assertTrue(HttpUtil.cacheStats().getBytes() <= 20);
+      HttpUtil.clearCache();
+      assertEquals(0, HttpUtil.cacheStats().getBytes());
+
+      // 命名客户端通过 sync(HttpRequest) 使用自己的缓存
+      HttpUtil.register("cached", HttpClientConfig.builder()
+        .cache(HttpCacheConfig.builder().build())
+        .build());
+      count = server.getRequestCount();
+      server.enqueue(new MockResponse().setBody("{\"name\":\"named\"}"));
+      HttpRequest<TestBean> request = HttpRequest.get(baseUrl + "named", TestBean.class).client("cached");
+      assertEquals("named", HttpUtil.sync(request).getName());
+      assertEquals("named", HttpUtil.sync(request).getName());
+      assertEquals(count + 1, server.getRequestCount());
+      assertEquals(1, HttpUtil.cacheStats("cached").getHitCount());
+      assertEquals(1, HttpUtil.cacheStats("cached").getMissCount());
+      HttpUtil.clearCache("cached");
+      assertEquals(0, HttpUtil.cacheStats("cached").getSize());
+      assertThrows(IllegalArgumentException.class, () -> HttpUtil.sync(HttpRequest.get(baseUrl, String.class).client("missing")));
+    } finally {
+      HttpUtil.remove(HttpUtil.DEFAULT_CLIENT);
+      HttpUtil.remove("cached");
+    }
+    assertNull(HttpUtil.cacheStats());
+  }
+
+  @Test
+  @DisplayName("请求合并")
+  void testSingleFlight() throws Exception {
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        return new MockResponse().setBody("{\"name\":\"" + request.getPath() + "\"}").setHeadersDelay(300, TimeUnit.MILLISECONDS);
+      }
+    });
+    HttpUtil.configure(HttpClientConfig.builder()
+      .maxRequestsPerHost(64)
+      .singleFlight(SingleFlightConfig.builder().keyHeaders(Collections.singleton("Token")).build())
+      .build());
+    java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(8);
+    try {
+      // 相同请求只发送一次，共享转换后的对象
+      Map<String, String> headers = new HashMap<>();
+      headers.put("Token", "1");
+      headers.put("Trace", "a");
+      Map<String, String> otherTrace = new HashMap<>(headers);
+      otherTrace.put("Trace", "b");
+      List<CompletableFuture<TestBean>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        Map<String, String> h = i % 2 == 0 ? headers : otherTrace;
+        futures.add(CompletableFuture.supplyAsync(() -> HttpUtil.getByHeader(baseUrl + "same", h, TestBean.class), executor));
+      }
+      TestBean first = futures.get(0).get(5, TimeUnit.SECONDS);
+      assertEquals("/same", first.getName());
+      for (CompletableFuture<TestBean> future : futures) {
+        assertSame(first, future.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(1, server.getRequestCount());
+      // 结束后重新请求；不同参数、类型、参与键的消息头分别请求
+      assertEquals("/same", HttpUtil.getByHeader(baseUrl + "same", headers, TestBean.class).getName());
+      assertEquals(2, server.getRequestCount());
+      Map<String, Object> params = new HashMap<>();
+      params.put("a", 1);
+      Map<String, String> otherToken = new HashMap<>();
+      otherToken.put("Token", "2");
+      CompletableFuture<TestBean> byParams = CompletableFuture.supplyAsync(() -> HttpUtil.get(baseUrl + "same", params, TestBean.class), executor);
+      CompletableFuture<String> byType = CompletableFuture.supplyAsync(() -> HttpUtil.get(baseUrl + "same", String.class), executor);
+      CompletableFuture<TestBean> byToken = CompletableFuture.supplyAsync(() -> HttpUtil.getByHeader(baseUrl + "same", otherToken, TestBean.class), executor);
+      assertEquals("/same?a=1", byParams.get(5, TimeUnit.SECONDS).getName());
+      assertEquals("{\"name\":\"/same\"}", byType.get(5, TimeUnit.SECONDS));
+      assertEquals("/same", byToken.get(5, TimeUnit.SECONDS).getName());
+      assertEquals(5, server.getRequestCount());
+
+      // 异常由所有等待方共享
+      List<CompletableFuture<TestBean>> failed = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        failed.add(CompletableFuture.supplyAsync(() -> HttpUtil.get("http://127.0.0.1:1/fail", TestBean.class), executor));
+      }
+      for (CompletableFuture<TestBean> future : failed) {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OkHttpsException.class, e.getCause());
+      }
+
+      // 自定义键函数和等待超时
+      HttpUtil.configure(HttpClientConfig.builder()
+        .singleFlight(SingleFlightConfig.builder().keyFunction(HttpRequest::getMethod).waitTimeoutMillis(50).build())
+        .build());
+      CompletableFuture<TestBean> leader = CompletableFuture.supplyAsync(() -> HttpUtil.get(baseUrl + "x", TestBean.class), executor);
+      Thread.sleep(100);
+      OkHttpsException e = assertThrows(OkHttpsException.class, () -> HttpUtil.get(baseUrl + "y", TestBean.class));
+      assertEquals(HttpResult.State.TIMEOUT, e.getState());
+      assertEquals("/x", leader.get(5, TimeUnit.SECONDS).getName());
+      assertEquals(6, server.getRequestCount());
+
+      assertThrows(IllegalArgumentException.class, () -> HttpUtil.get(" ", TestBean.class));
+      assertThrows(IllegalArgumentException.class, () -> HttpUtil.configure(HttpClientConfig.builder()
+        .singleFlight(SingleFlightConfig.builder().waitTimeoutMillis(-1).build()).build()));
+
+      // 命名客户端通过 sync(HttpRequest) 合并请求
+      HttpUtil.register("merged", HttpClientConfig.builder()
+        .maxRequestsPerHost(64)
+        .singleFlight(SingleFlightConfig.builder().build())
+        .build());
+      HttpRequest<TestBean> request = HttpRequest.get(baseUrl + "named", TestBean.class).client("merged");
+      List<CompletableFuture<TestBean>> named = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        named.add(CompletableFuture.supplyAsync(() -> HttpUtil.sync(request), executor));
+      }
+      TestBean shared = named.get(0).get(5, TimeUnit.SECONDS);
+      assertEquals("/named", shared.getName());
+      for (CompletableFuture<TestBean> future : named) {
+        assertSame(shared, future.get(5, TimeUnit.SECONDS));
+      }
+      assertEquals(7, server.getRequestCount());
+    } finally {
+      executor.shutdownNow();
+      HttpUtil.remove(HttpUtil.DEFAULT_CLIENT);
+      HttpUtil.remove("merged");
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    StringBuilder sb = new StringBuilder();
+    for (byte b : bytes) {
+      sb.append(String.format("%02x", b));
+    }
+    return sb.toString();
+  }
+
   @Data
   static class TestBean {
     private String name;
@@ -9,6 +9,7 @@ import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CharsetEncoder;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -223,6 +224,23 @@ class UrlUtilTest {
     assertEquals("2", map.get("b"));
   }
 
+  /**
+   * 验证大量无值参数时只在当前键值对内查找 "="，解析耗时与长度线性相关。
+   */
+  @Test
+  void testToMapParamsManyFlags() {
+    StringBuilder url = new StringBuilder("http://localhost?");
+    for (int i = 0; i < 300_000; i++) {
+      url.append('f').append(i).append('&');
+    }
+    url.append("last=1");
+    Map<String, String> map = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> UrlUtil.toMapParams(url));
+    assertEquals(300_001, map.size());
+    assertEquals("", map.get("f0"));
+    assertEquals("", map.get("f299999"));
+    assertEquals("1", map.get("last"));
+  }
+
   /**
    * 验证多值参数的解析结果。
    */
@@ -373,6 +391,94 @@ class UrlUtilTest {
     assertEquals(Arrays.asList("a b"), map.get("tag"));
   }
 
+  /**
+   * 验证 UTF-8 编码/解码与 URLEncoder/URLDecoder 一致，不需要处理时返回原内容。
+   */
+  @Test
+  void testUrlEncodeDecodeMatchesJdk() throws Exception {
+    StringBuilder ascii = new StringBuilder();
+    for (char c = 0; c < 0x80; c++) {
+      ascii.append(c);
+    }
+    String[] inputs = {"", "abcXYZ019.-*_", ascii.toString(), "中文 空格", "😀", "é~", "\ud800", "\udc00a", "\ud800\u00e9", "a+b%c"};
+    for (String input : inputs) {
+      String expected = java.net.URLEncoder.encode(input, "UTF-8");
+      assertEquals(expected, UrlUtil.urlEncode(input), input);
+      assertEquals(expected, UrlUtil.urlEncode(new StringBuilder(input)), input);
+      assertEquals(java.net.URLDecoder.decode(expected, "UTF-8"), UrlUtil.urlDecode(expected));
+    }
+    java.util.Random random = new java.util.Random(1);
+    for (int i = 0; i < 1000; i++) {
+      char[] chars = new char[random.nextInt(16)];
+      for (int j = 0; j < chars.length; j++) {
+        chars[j] = (char) (random.nextBoolean() ? random.nextInt(0x80) : random.nextInt(0x10000));
+      }
+      String input = new String(chars);
+      String expected = java.net.URLEncoder.encode(input, "UTF-8");
+      assertEquals(expected, UrlUtil.urlEncode(input));
+      assertEquals(java.net.URLDecoder.decode(expected, "UTF-8"), UrlUtil.urlDecode(expected));
+    }
+    // 不完整的多字节序列与 URLDecoder 一样替换为 U+FFFD
+    assertEquals(java.net.URLDecoder.decode("%E4%B8a", "UTF-8"), UrlUtil.urlDecode("%E4%B8a"));
+
+    String plain = "abc123";
+    assertSame(plain, UrlUtil.urlEncode(plain));
+    assertSame(plain, UrlUtil.urlDecode(plain));
+    assertThrows(IllegalArgumentException.class, () -> UrlUtil.urlDecode("a%"));
+    assertThrows(IllegalArgumentException.class, () -> UrlUtil.urlDecode("a%4"));
+    assertThrows(IllegalArgumentException.class, () -> UrlUtil.urlDecode("a%4G"));
+    assertThrows(IllegalArgumentException.class, () -> UrlUtil.urlDecode("%-1"));
+  }
+
+  /**
+   * 验证 RFC 3986 编码。
+   */
+  @Test
+  void testUrlEncodeRfc3986() {
+    assertEquals("a%20b~c.d-e_f%2A%2B%2F%E4%B8%AD", UrlUtil.urlEncodeRfc3986("a b~c.d-e_f*+/中"));
+    String plain = "abc-._~";
+    assertSame(plain, UrlUtil.urlEncodeRfc3986(plain));
+    assertThrows(NullPointerException.class, () -> UrlUtil.urlEncodeRfc3986(null));
+  }
+
+  /**
+   * 验证基本类型数组按元素展开。
+   */
+  @Test
+  void testToUrlParamsPrimitiveArrays() {
+    Map<String, Object> params = new LinkedHashMap<>();
+    params.put("i", new int[]{1, -2});
+    params.put("l", new long[]{3L});
+    params.put("d", new double[]{1.5, Double.NaN});
+    params.put("f", new float[]{2.5f});
+    params.put("s", new short[]{4});
+    params.put("b", new byte[]{5});
+    params.put("z", new boolean[]{true});
+    params.put("c", new char[]{'a', ' '});
+    params.put("e", new long[0]);
+    params.put("o", new Object[]{"x y", null});
+    String expected = "?i=1&i=-2&l=3&d=1.5&d=NaN&f=2.5&s=4&b=5&z=true&c=a&c= &e=&o=x y&o=";
+    assertEquals(expected, UrlUtil.toUrlParams(params));
+    assertEquals(expected.replace(' ', '+'), UrlUtil.toUrlParams(params, StandardCharsets.UTF_8));
+    assertEquals(expected.replace(' ', '+'), UrlUtil.toUrlParams(params, StandardCharsets.ISO_8859_1));
+  }
+
+  /**
+   * 验证查询串解析跳过空参数，只按第一个 "=" 分隔。
+   */
+  @Test
+  void testToMapParamsIndexBased() {
+    Map<String, List<String>> map = UrlUtil.toMultiMapParams("?", "http://x?&&a=1=2&&b&c=%E4%B8%AD+x&a=3&", StandardCharsets.UTF_8);
+    assertEquals(Arrays.asList("1=2", "3"), map.get("a"));
+    assertEquals(Arrays.asList(""), map.get("b"));
+    assertEquals(Arrays.asList("中 x"), map.get("c"));
+    assertEquals(3, map.size());
+    Map<String, String> raw = UrlUtil.toMapParams("http://x?c=%E4%B8%AD+x&d=");
+    assertEquals("%E4%B8%AD+x", raw.get("c"));
+    assertEquals("", raw.get("d"));
+    assertEquals("中 x", UrlUtil.toMapParams("http://x?c=%D6%D0+x", Charset.forName("GBK")).get("c"));
+  }
+
   @Test
   void testConstructor() throws Exception {
     Constructor<UrlUtil> constructor = UrlUtil.class.getDeclaredConstructor();
@@ -199,6 +199,33 @@ class AutoJsonMsgConvertorTest {
     assertNull(((java.lang.reflect.ParameterizedType) type).getOwnerType());
   }
 
+  @DisplayName("指定 JsonBackend")
+  @Test
+  void jsonBackend() {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("a", 1);
+    map.put("b", null);
+    for (String name : Arrays.asList("fastjson2", "fastjson", "jackson", "gson")) {
+      AutoJsonMsgConvertor convertor = new AutoJsonMsgConvertor(name);
+      assertNotSame(convertor, convertor.getConvertor());
+      assertEquals(1, ((Number) convertor.toMapper(convertor.serialize(map, false)).toMap().get("a")).intValue(), name);
+      assertTrue(convertor.serialize(map, true).contains("\n"), name);
+    }
+    // Jackson 默认输出 null 字段，Gson 默认不输出
+    assertTrue(new AutoJsonMsgConvertor("jackson").serialize(map, false).contains("\"b\""));
+    assertFalse(new AutoJsonMsgConvertor("gson").serialize(map, false).contains("\"b\""));
+    assertThrows(IllegalArgumentException.class, () -> new AutoJsonMsgConvertor("none"));
+
+    // 全局默认后端
+    top.csaf.json.JsonBackends.setDefault("jackson");
+    try {
+      assertTrue(new AutoJsonMsgConvertor().serialize(map, false).contains("\"b\""));
+    } finally {
+      top.csaf.json.JsonBackends.setDefault((top.csaf.json.JsonBackend) null);
+    }
+    assertFalse(new AutoJsonMsgConvertor().serialize(map, false).contains("\"b\""));
+  }
+
   @DisplayName("当前 JSON 提供者")
   @Test
   void currentProvider() throws Exception {
@@ -0,0 +1,111 @@
+package top.csaf.http.convert;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import okhttp3.FormBody;
+import okio.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("请求体长度计算和编码测试")
+class BodyEncoderTest {
+
+  private static final String[] STRINGS = {"", "admin", "a b+c%d", "中文", "😀x", "\ud800", "é~!*'()", "k=v&x/y?z#", "\u0001\u007f", "{[:,]}"};
+
+  private static byte[] okHttpForm(Map<String, ?> params) throws Exception {
+    FormBody.Builder builder = new FormBody.Builder(StandardCharsets.UTF_8);
+    params.forEach((k, v) -> {
+      if (v != null) {
+        builder.add(k, v.toString());
+      }
+    });
+    FormBody body = builder.build();
+    Buffer buffer = new Buffer();
+    body.writeTo(buffer);
+    assertEquals(body.contentLength(), buffer.size());
+    return buffer.readByteArray();
+  }
+
+  @DisplayName("表单编码与 OkHttp FormBody 一致")
+  @Test
+  void form() throws Exception {
+    Map<String, Object> params = new LinkedHashMap<>();
+    for (int i = 0; i < STRINGS.length; i++) {
+      params.put("k" + STRINGS[i], STRINGS[STRINGS.length - 1 - i]);
+    }
+    params.put("n", 123);
+    params.put("skip", null);
+    params.put("d", 1.5);
+    byte[] expected = okHttpForm(params);
+    assertEquals(expected.length, BodyEncoder.formLength(params));
+    assertArrayEquals(expected, BodyEncoder.encodeForm(params));
+
+    // 全部 ASCII 字符
+    StringBuilder ascii = new StringBuilder();
+    for (char c = 0; c < 0x80; c++) {
+      ascii.append(c);
+    }
+    params = Collections.singletonMap(ascii.toString(), ascii.toString());
+    assertArrayEquals(okHttpForm(params), BodyEncoder.encodeForm(params));
+
+    Map<String, Object> empty = new HashMap<>();
+    assertEquals(0, BodyEncoder.formLength(empty));
+    assertEquals(0, BodyEncoder.encodeForm(empty).length);
+    empty.put("a", null);
+    assertEquals(0, BodyEncoder.encodeForm(empty).length);
+    assertThrows(NullPointerException.class, () -> BodyEncoder.formLength(null));
+  }
+
+  @DisplayName("JSON 长度与各 JSON 库一致")
+  @Test
+  void json() throws Exception {
+    Map<String, Object> nested = new LinkedHashMap<>();
+    nested.put("中文", "😀{[:,]}");
+    nested.put("list", Arrays.asList(1, -20L, (short) 3, (byte) -4, null, true, false, "x"));
+    nested.put("array", new Object[]{Long.MIN_VALUE, Long.MAX_VALUE, new BigInteger("123456789012345678901234567890")});
+    nested.put("empty", new ArrayList<>());
+    nested.put("emptyMap", new HashMap<>());
+    nested.put("c", 'c');
+    Map<String, Object> params = new LinkedHashMap<>();
+    params.put("a", 1);
+    params.put("nested", nested);
+    params.put("sb", new StringBuilder("builder"));
+
+    ObjectMapper mapper = new ObjectMapper();
+    Gson gson = new Gson();
+    String[] outputs = {
+      mapper.writeValueAsString(params),
+      gson.toJson(params),
+      com.alibaba.fastjson2.JSON.toJSONString(params),
+      com.alibaba.fastjson.JSON.toJSONString(params),
+      new AutoJsonMsgConvertor().serialize(params, false)
+    };
+    for (String json : outputs) {
+      assertEquals(json.getBytes(StandardCharsets.UTF_8).length, BodyEncoder.jsonLength(params), json);
+      assertEquals(BodyEncoder.urlEncodedJsonLength(json), BodyEncoder.urlEncodedJsonLength((Object) params), json);
+    }
+    assertEquals(4, BodyEncoder.jsonLength(null));
+    assertEquals(2, BodyEncoder.jsonLength(Collections.emptyMap()));
+    assertEquals(6, BodyEncoder.urlEncodedJsonLength((Object) Collections.emptyList()));
+    assertEquals(5 + 3 * 4, BodyEncoder.urlEncodedJsonLength("{\"a\":1}"));
+
+    // 各 JSON 库输出不同的值
+    assertEquals(-1, BodyEncoder.jsonLength(Collections.singletonMap("a", null)));
+    assertEquals(-1, BodyEncoder.jsonLength(Collections.singletonMap(1, "a")));
+    assertEquals(-1, BodyEncoder.jsonLength(Collections.singletonList(1.5)));
+    assertEquals(-1, BodyEncoder.jsonLength(Collections.singletonList(BigDecimal.ONE)));
+    assertEquals(-1, BodyEncoder.jsonLength(new int[]{1}));
+    assertEquals(-1, BodyEncoder.jsonLength(new Date()));
+    for (String s : new String[]{"\"", "\\", "<", ">", "&", "=", "'", "\n", "\u007f", "\u2028", "\u2029", "\ud800", "\udc00x"}) {
+      assertEquals(-1, BodyEncoder.jsonLength(s), s);
+      assertEquals(-1, BodyEncoder.urlEncodedJsonLength((Object) Collections.singletonMap(s, "v")), s);
+    }
+  }
+}
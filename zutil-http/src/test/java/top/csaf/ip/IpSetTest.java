@@ -0,0 +1,126 @@
+package top.csaf.ip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IP 集合测试")
+class IpSetTest {
+
+  /**
+   * 逐条规则判断，重叠时取范围最小、范围相同时取先添加的规则
+   */
+  private static String bruteForce(List<String> rules, String ip) {
+    String result = null;
+    BigInteger resultSize = null;
+    for (String rule : rules) {
+      boolean hit;
+      BigInteger size;
+      if (rule.contains("/")) {
+        hit = IpUtil.isInCidr(ip, rule);
+        int prefix = Integer.parseInt(rule.substring(rule.indexOf('/') + 1));
+        size = BigInteger.ONE.shiftLeft((rule.contains(":") ? 128 : 32) - prefix);
+      } else {
+        String[] ends = rule.contains("-") ? rule.split("-") : new String[]{rule, rule};
+        boolean sameVersion = IpUtil.isValidIpv4(ip) == IpUtil.isValidIpv4(ends[0]);
+        hit = sameVersion && IpUtil.isInRange(ip, ends[0], ends[1]);
+        size = new BigInteger(1, IpUtil.ipToBytes(ends[1])).subtract(new BigInteger(1, IpUtil.ipToBytes(ends[0]))).add(BigInteger.ONE);
+      }
+      if (hit && (resultSize == null || size.compareTo(resultSize) < 0)) {
+        result = rule;
+        resultSize = size;
+      }
+    }
+    return result;
+  }
+
+  @DisplayName("CIDR、范围和单个 IP")
+  @Test
+  void match() {
+    IpSet set = IpSet.of("10.0.0.0/8", "10.1.0.0/16", "10.1.2.3", "192.168.1.10-192.168.1.20", "2001:db8::/32",
+      "2001:db8:1::/48", "fe80::1-fe80::ff", "0.0.0.0/32", "255.255.255.255/32", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff");
+    assertEquals(10, set.size());
+    assertEquals("10.0.0.0/8", set.match("10.2.3.4"));
+    assertEquals("10.1.0.0/16", set.match("10.1.3.4"));
+    assertEquals("10.1.2.3", set.match("10.1.2.3"));
+    assertEquals("10.1.0.0/16", set.match("10.1.2.4"));
+    assertEquals("192.168.1.10-192.168.1.20", set.match("192.168.1.10"));
+    assertEquals("192.168.1.10-192.168.1.20", set.match("192.168.1.20"));
+    assertNull(set.match("192.168.1.21"));
+    assertEquals("0.0.0.0/32", set.match("0.0.0.0"));
+    assertEquals("255.255.255.255/32", set.match("255.255.255.255"));
+    assertNull(set.match("11.0.0.0"));
+    assertEquals("2001:db8::/32", set.match("2001:db8::1"));
+    assertEquals("2001:db8:1::/48", set.match("2001:db8:1:ffff::1"));
+    assertEquals("fe80::1-fe80::ff", set.match("[fe80::ff]"));
+    assertNull(set.match("fe80::100"));
+    assertEquals("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff", set.match("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"));
+    assertNull(set.match("::"));
+    assertNull(set.match(null));
+    assertNull(set.match("abc"));
+    assertFalse(set.contains("1.1.1.1"));
+    assertTrue(set.contains("10.0.0.0"));
+
+    // 已解析的 IP
+    assertTrue(set.containsIpv4(IpUtil.parseIpv4ToInt("255.255.255.255")));
+    assertEquals("10.1.2.3", set.matchIpv4(IpUtil.parseIpv4ToInt("10.1.2.3")));
+    long[] ipv6 = IpUtil.parseIpv6ToLongs("2001:db8:1::1");
+    assertTrue(set.containsIpv6(ipv6[0], ipv6[1]));
+    assertEquals("2001:db8:1::/48", set.matchIpv6(ipv6[0], ipv6[1]));
+
+    // 未对齐的 CIDR 按前缀计算网络地址，全部地址
+    IpSet all = IpSet.of("1.2.3.4/0", "::1/0");
+    assertEquals("1.2.3.4/0", all.match("255.0.0.1"));
+    assertEquals("::1/0", all.match("ffff::"));
+    assertFalse(IpSet.of().contains("1.1.1.1"));
+    // 范围相同时取先添加的规则
+    assertEquals("1.1.1.0/24", IpSet.of("1.1.1.0/24", "1.1.1.0-1.1.1.255").match("1.1.1.1"));
+  }
+
+  @DisplayName("非法规则")
+  @Test
+  void invalid() {
+    for (String rule : new String[]{"", " ", "1.1.1.1/33", "::/129", "1.1.1/8", "1.1.1.2-1.1.1.1", "1.1.1.1-::1", "1.1.1.1-", "abc"}) {
+      assertThrows(IllegalArgumentException.class, () -> IpSet.of(rule), rule);
+    }
+    assertThrows(NullPointerException.class, () -> IpSet.of((List<String>) null));
+  }
+
+  @DisplayName("与逐条规则判断一致")
+  @Test
+  void matchesBruteForce() {
+    Random random = new Random(1);
+    List<String> rules = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      // 集中在 10.0.0.0/20 和 2001:db8::/116 内以产生大量重叠
+      int a = random.nextInt(1 << 12);
+      int b = random.nextInt(1 << 12);
+      switch (random.nextInt(4)) {
+        case 0:
+          rules.add(IpUtil.longToIpv4(0x0A000000L + a) + "/" + (20 + random.nextInt(13)));
+          break;
+        case 1:
+          rules.add(IpUtil.longToIpv4(0x0A000000L + Math.min(a, b)) + "-" + IpUtil.longToIpv4(0x0A000000L + Math.max(a, b)));
+          break;
+        case 2:
+          rules.add("2001:db8::" + Integer.toHexString(a) + "/" + (116 + random.nextInt(13)));
+          break;
+        default:
+          rules.add("2001:db8::" + Integer.toHexString(Math.min(a, b)) + "-2001:db8::" + Integer.toHexString(Math.max(a, b)));
+      }
+    }
+    IpSet set = IpSet.of(rules);
+    for (int i = 0; i < 5000; i++) {
+      int offset = random.nextInt(1 << 13) - (1 << 12) / 2;
+      String ip = i % 2 == 0 ? IpUtil.longToIpv4(0x0A000000L + offset) : "2001:db8::" + Integer.toHexString(Math.max(offset, 0));
+      assertEquals(bruteForce(rules, ip), set.match(ip), ip);
+    }
+    assertEquals(rules.size(), set.size());
+  }
+}
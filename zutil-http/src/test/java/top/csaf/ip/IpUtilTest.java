@@ -8,6 +8,7 @@ import org.mockito.Mockito;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
@@ -69,6 +70,67 @@ class IpUtilTest {
     assertFalse(IpUtil.isValidIpv6("[::1"));
   }
 
+  /**
+   * 验证手写解析与 InetAddress 结果一致。
+   */
+  @Test
+  void testParseMatchesInetAddress() throws Exception {
+    String[] valid = {"::", "::1", "1::", "1:2:3:4:5:6:7:8", "1:2:3:4:5:6:7::", "::2:3:4:5:6:7:8", "2001:db8::1",
+      "2001:DB8:0:0:8:800:200C:417A", "ff01::101", "0000:0000:0000:0000:0000:0000:0000:0001", "fe80::1:2",
+      "::1.2.3.4", "::ffff:1.2.3.4", "1:2:3:4:5:6:1.2.3.4", "1::5:6:255.255.255.255", "[2001:db8::1]", "64:ff9b::c000:221"};
+    for (String ip : valid) {
+      assertTrue(IpUtil.isValidIpv6(ip), ip);
+      String literal = ip.startsWith("[") ? ip.substring(1, ip.length() - 1) : ip;
+      byte[] expected = InetAddress.getByName(literal).getAddress();
+      assertArrayEquals(expected, IpUtil.ipToBytes(ip), ip);
+      long[] longs = IpUtil.parseIpv6ToLongs(ip);
+      byte[] full = expected.length == 16 ? expected
+        : new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, (byte) 0xFF, (byte) 0xFF, expected[0], expected[1], expected[2], expected[3]};
+      assertEquals(new BigInteger(1, full), new BigInteger(Long.toUnsignedString(longs[0])).shiftLeft(64).or(new BigInteger(Long.toUnsignedString(longs[1]))), ip);
+    }
+    String[] invalid = {":", ":::", "1:", ":1", "1::2::3", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7:8::", "::1:2:3:4:5:6:7:8",
+      "1:2:3:4:5:6:7", "12345::", "g::", "::1.2.3", "::1.2.3.4:1", "::256.1.1.1", "1:2:3:4:5:6:7:1.2.3.4",
+      "::1%", "::1%a b", "[::1]%1", "[]", "[", "１::", " ::1", "::1 "};
+    long[] dest = {7, 7};
+    for (String ip : invalid) {
+      assertFalse(IpUtil.isValidIpv6(ip), ip);
+      assertFalse(IpUtil.parseIpv6ToLongs(ip, dest), ip);
+      assertNull(IpUtil.ipToBytesOrNull(ip), ip);
+      assertThrows(IllegalArgumentException.class, () -> IpUtil.parseIpv6ToLongs(ip), ip);
+    }
+    assertFalse(IpUtil.isValidIpv6("1.2.3.4"));
+    // 不合法时不修改结果
+    assertArrayEquals(new long[]{7, 7}, dest);
+    assertFalse(IpUtil.parseIpv6ToLongs(null, dest));
+    assertThrows(IllegalArgumentException.class, () -> IpUtil.parseIpv6ToLongs("::1", new long[1]));
+
+    // 区域标识只校验格式
+    assertTrue(IpUtil.parseIpv6ToLongs("fe80::1%eth0", dest));
+    assertArrayEquals(new long[]{0xfe80L << 48, 1}, dest);
+    assertTrue(IpUtil.isValidIpv6("[fe80::1%25]"));
+    assertArrayEquals(new byte[]{(byte) 0xfe, (byte) 0x80, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1},
+      IpUtil.ipToBytes("fe80::1%eth0"));
+
+    for (String ip : new String[]{"0.0.0.0", "255.255.255.255", "1.2.3.4", "192.168.001.010", "10.0.0.255"}) {
+      assertEquals(ByteBuffer.wrap(InetAddress.getByName(ip).getAddress()).getInt(), IpUtil.parseIpv4ToInt(ip), ip);
+    }
+    for (String ip : new String[]{"", "1.2.3", "1.2.3.4.", ".1.2.3", "1..2.3", "1.2.3.4.5", "256.1.1.1", "0001.1.1.1", "1.2.3.a", "1.2.3.-1"}) {
+      assertFalse(IpUtil.isValidIpv4(ip), ip);
+      assertThrows(IllegalArgumentException.class, () -> IpUtil.parseIpv4ToInt(ip), ip);
+    }
+    assertEquals(-1, IpUtil.parseIpv4ToInt("255.255.255.255"));
+    assertEquals(0xFFFFFFFFL, IpUtil.ipv4ToLong("255.255.255.255"));
+
+    // IPv6 前缀跨越高低 64 位
+    assertTrue(IpUtil.isInCidr("2001:db8::1", "::/0"));
+    assertTrue(IpUtil.isInCidr("2001:db8::1", "2001:db8::1/128"));
+    assertFalse(IpUtil.isInCidr("2001:db8::2", "2001:db8::1/128"));
+    assertTrue(IpUtil.isInCidr("2001:db8:0:0:7fff::", "2001:db8::/65"));
+    assertFalse(IpUtil.isInCidr("2001:db8:0:0:8000::", "2001:db8::/65"));
+    assertTrue(IpUtil.isInRange("8000::", "::1", "ffff::"));
+    assertFalse(IpUtil.isInRange("ffff::1", "::1", "ffff::"));
+  }
+
   /**
    * 验证 IPv4 转换。
    */
@@ -99,9 +161,9 @@ class IpUtilTest {
     // 静态 mock InetAddress，触发解析失败分支。
     try (MockedStatic<InetAddress> mocked = Mockito.mockStatic(InetAddress.class)) {
       mocked.when(() -> InetAddress.getByName("1.2.3.4")).thenThrow(new RuntimeException("boom"));
-      RuntimeException bytesError = assertThrows(RuntimeException.class, () -> IpUtil.ipToBytes("1.2.3.4"));
-      assertEquals("Ip: parse failed", bytesError.getMessage());
-      assertNull(IpUtil.ipToBytesOrNull("1.2.3.4"));
+      // 转字节数组不经过 InetAddress。
+      assertArrayEquals(new byte[]{1, 2, 3, 4}, IpUtil.ipToBytes("1.2.3.4"));
+      assertArrayEquals(new byte[]{1, 2, 3, 4}, IpUtil.ipToBytesOrNull("1.2.3.4"));
       RuntimeException addressError = assertThrows(RuntimeException.class, () -> IpUtil.toInetAddress("1.2.3.4"));
       assertEquals("Ip: parse failed", addressError.getMessage());
       InetAddress address = ReflectionTestUtils.invokeMethod(IpUtil.class, "toInetAddressOrNull", "1.2.3.4");
@@ -414,6 +476,52 @@ class IpUtilTest {
 
     assertArrayEquals(new String[]{"", "", "", "", ""}, IpUtil.splitRegion(null));
     assertArrayEquals(new String[]{"", "", "", "", ""}, IpUtil.splitRegion(" "));
+
+    // 与正则拆分结果一致
+    for (String region : new String[]{"a|b|c|d|e|f", "a||", "||||", "|||||", "0|0|0|0|0", "a|b|", "a", "|a", " |a| |0|x"}) {
+      String[] expected = new String[5];
+      String[] split = region.split("\\|", -1);
+      for (int i = 0; i < 5; i++) {
+        String value = i < split.length ? split[i] : "";
+        expected[i] = value.trim().isEmpty() || "0".equals(value) ? "" : value;
+      }
+      assertArrayEquals(expected, IpUtil.splitRegion(region), region);
+    }
+  }
+
+  /**
+   * 验证区域字典：相同区域返回同一实例，字段驻留。
+   */
+  @Test
+  void testRegionDictionary() {
+    IpUtil.RegionInfo info = IpUtil.parseRegion(new String("中国|0|广东|深圳|电信"));
+    assertSame(info, IpUtil.parseRegion(new String("中国|0|广东|深圳|电信")));
+    IpUtil.RegionInfo other = IpUtil.parseRegion("中国|0|广东|广州|联通");
+    assertNotSame(info, other);
+    assertSame(info.getCountry(), other.getCountry());
+    assertSame(info.getProvince(), other.getProvince());
+    assertSame(IpUtil.parseRegion(null), IpUtil.parseRegion(""));
+
+    // 批量查询
+    IpUtil.RegionSearcher searcher = ip -> ip.startsWith("1.") ? "中国|0|广东|深圳|电信" : null;
+    IpUtil.RegionInfo[] infos = IpUtil.searchRegionInfos(searcher, new String[]{"1.2.3.4", "2.2.3.4", "1.1.1.1"});
+    assertEquals(3, infos.length);
+    assertSame(info, infos[0]);
+    assertTrue(infos[1].isUnknown());
+    assertSame(info, infos[2]);
+    assertEquals(0, IpUtil.searchRegionInfos(searcher, new String[0]).length);
+    assertThrows(IllegalArgumentException.class, () -> IpUtil.searchRegionInfos(searcher, new String[]{"1.1.1.1", "999.1.1.1"}));
+
+    IpUtil.Ip2RegionSearcher fileSearcher = Mockito.mock(IpUtil.Ip2RegionSearcher.class);
+    Mockito.when(fileSearcher.search(Mockito.anyString())).thenReturn("中国|0|广东|深圳|电信");
+    try (MockedStatic<IpUtil.Ip2RegionSearcher> mocked = Mockito.mockStatic(IpUtil.Ip2RegionSearcher.class)) {
+      mocked.when(() -> IpUtil.Ip2RegionSearcher.newWithFileOnly("db.xdb")).thenReturn(fileSearcher);
+      infos = IpUtil.searchRegionInfos("db.xdb", new String[]{"1.2.3.4", "5.6.7.8"});
+      assertSame(info, infos[1]);
+      // 整批只打开一次文件
+      mocked.verify(() -> IpUtil.Ip2RegionSearcher.newWithFileOnly("db.xdb"), Mockito.times(1));
+      Mockito.verify(fileSearcher).close();
+    }
   }
 
   /**
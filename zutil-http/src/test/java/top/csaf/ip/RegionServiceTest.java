@@ -0,0 +1,132 @@
+package top.csaf.ip;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lionsoul.ip2region.xdb.Searcher;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ip2region 区域查询服务测试")
+class RegionServiceTest {
+
+  @DisplayName("各加载方式与上游 Searcher 结果一致")
+  @Test
+  void matchesSearcher(@TempDir Path dir) throws Exception {
+    byte[] content = XdbWriter.random(20_000, 500, 1);
+    Path db = Files.write(dir.resolve("ip2region.xdb"), content);
+    Searcher searcher = Searcher.newWithBuffer(content);
+    RegionServiceConfig heap = RegionServiceConfig.builder().build();
+    RegionServiceConfig mmap = RegionServiceConfig.builder().mode(RegionServiceConfig.Mode.MMAP).build();
+    try (RegionService heapService = RegionService.open(db.toString(), heap);
+         RegionService mmapService = RegionService.open(db.toString(), mmap);
+         RegionService bufferService = RegionService.of(content, heap)) {
+      Random random = new Random(2);
+      List<String> ips = new ArrayList<>();
+      for (int i = 0; i < 20_000; i++) {
+        ips.add(IpUtil.longToIpv4(random.nextInt() & 0xFFFFFFFFL));
+      }
+      ips.add("0.0.0.0");
+      ips.add("255.255.255.255");
+      ips.add("1.0.255.255");
+      ips.add("1.1.0.0");
+      for (String ip : ips) {
+        String expected = searcher.search(ip);
+        assertNotNull(expected, ip);
+        assertEquals(expected, heapService.search(ip), ip);
+        assertEquals(expected, mmapService.search(ip), ip);
+        assertEquals(expected, bufferService.search(IpUtil.parseIpv4ToInt(ip)), ip);
+      }
+      assertEquals(IpUtil.parseRegion(searcher.search("8.8.8.8")).getCity(), heapService.searchRegionInfo("8.8.8.8").getCity());
+
+      // 批量查询与逐个查询一致，相同区域共享实例
+      String[] batch = ips.subList(0, 1000).toArray(new String[0]);
+      IpUtil.RegionInfo[] infos = mmapService.searchRegionInfo(batch);
+      for (int i = 0; i < batch.length; i++) {
+        assertSame(mmapService.searchRegionInfo(batch[i]), infos[i], batch[i]);
+        assertSame(IpUtil.parseRegion(searcher.search(batch[i])), infos[i], batch[i]);
+      }
+      assertThrows(IllegalArgumentException.class, () -> heapService.search("999.1.1.1"));
+      assertThrows(IllegalArgumentException.class, () -> heapService.search("::1"));
+    }
+    searcher.close();
+  }
+
+  @DisplayName("ip 缓存")
+  @Test
+  void cache() {
+    byte[] content = XdbWriter.random(1000, 100, 1);
+    try (RegionService service = RegionService.of(content, RegionServiceConfig.builder().cacheSize(2).build())) {
+      IpUtil.RegionInfo first = service.searchRegionInfo("1.2.3.4");
+      assertSame(first, service.searchRegionInfo("1.2.3.4"));
+      for (int i = 0; i < 100; i++) {
+        service.searchRegionInfo(i + ".6.7.8");
+      }
+      // 1.2.3.4 可能已被淘汰，重新查询仍得到区域字典中的同一实例
+      assertSame(first, service.searchRegionInfo("1.2.3.4"));
+    }
+    try (RegionService service = RegionService.of(content, RegionServiceConfig.builder().build())) {
+      assertSame(service.searchRegionInfo("1.2.3.4"), service.searchRegionInfo("1.2.3.4"));
+    }
+    assertThrows(IllegalArgumentException.class, () -> RegionService.of(content, RegionServiceConfig.builder().cacheSize(-1).build()));
+  }
+
+  @DisplayName("热加载与关闭")
+  @Test
+  void reload(@TempDir Path dir) throws Exception {
+    long[] starts = {0, 0x80000000L};
+    byte[] v1 = XdbWriter.write(starts, new String[]{"中国|0|广东|深圳|电信", "美国|0|0|0|0"});
+    byte[] v2 = XdbWriter.write(starts, new String[]{"中国|0|北京|北京|联通", "日本|0|0|0|0"});
+    Path db1 = Files.write(dir.resolve("v1.xdb"), v1);
+    Path db2 = Files.write(dir.resolve("v2.xdb"), v2);
+    RegionService service = RegionService.open(db1.toString(), RegionServiceConfig.builder()
+      .mode(RegionServiceConfig.Mode.MMAP).cacheSize(16).build());
+    assertEquals("广东", service.searchRegionInfo("1.1.1.1").getProvince());
+    service.reload(db2.toString());
+    // 缓存随数据一起替换
+    assertEquals("北京", service.searchRegionInfo("1.1.1.1").getProvince());
+    assertEquals("日本|0|0|0|0", service.search("200.1.1.1"));
+
+    // 加载失败时继续使用原数据
+    assertThrows(RuntimeException.class, () -> service.reload(dir.resolve("missing.xdb").toString()));
+    assertThrows(IllegalArgumentException.class, () -> service.reload(new byte[10]));
+    assertEquals("日本|0|0|0|0", service.search("200.1.1.1"));
+
+    // 查询过程中反复替换，每次查询都得到某一版本的完整结果
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicBoolean running = new AtomicBoolean(true);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(executor.submit(() -> {
+        while (running.get()) {
+          String region = service.search("1.1.1.1");
+          if (!"中国|0|广东|深圳|电信".equals(region) && !"中国|0|北京|北京|联通".equals(region)) {
+            throw new IllegalStateException(region);
+          }
+        }
+      }));
+    }
+    for (int i = 0; i < 200; i++) {
+      service.reload(i % 2 == 0 ? v1 : v2);
+    }
+    running.set(false);
+    for (Future<?> future : futures) {
+      future.get(10, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    service.close();
+    assertThrows(IllegalStateException.class, () -> service.search("1.1.1.1"));
+    assertThrows(IllegalStateException.class, () -> service.reload(v1));
+    assertThrows(RuntimeException.class, () -> RegionService.open(dir.resolve("missing.xdb").toString()));
+    assertThrows(IllegalArgumentException.class, () -> RegionService.of(new byte[0], RegionServiceConfig.builder().build()));
+  }
+}
@@ -0,0 +1,99 @@
+package top.csaf.ip;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 测试用 ip2region xdb 生成器，格式与上游 maker 一致：256 字节文件头、256x256 向量索引、区域数据、14 字节的段索引
+ */
+public final class XdbWriter {
+
+  private XdbWriter() {
+  }
+
+  /**
+   * 生成 xdb
+   *
+   * @param starts  各段起始 IP（无符号 32 位），第一个必须为 0，第 i 段到 starts[i + 1] - 1 结束，最后一段到 255.255.255.255
+   * @param regions 各段区域字符串
+   * @return xdb 内容
+   */
+  public static byte[] write(long[] starts, String[] regions) {
+    Map<String, byte[]> distinct = new LinkedHashMap<>();
+    int dataLength = 0;
+    int entryCount = 0;
+    for (int i = 0; i < starts.length; i++) {
+      if (!distinct.containsKey(regions[i])) {
+        byte[] bytes = regions[i].getBytes(StandardCharsets.UTF_8);
+        distinct.put(regions[i], bytes);
+        dataLength += bytes.length;
+      }
+      long end = i + 1 < starts.length ? starts[i + 1] - 1 : 0xFFFFFFFFL;
+      // 每条段索引不跨越向量索引的 /16 桶
+      entryCount += (int) ((end >>> 16) - (starts[i] >>> 16) + 1);
+    }
+    int dataStart = 256 + 256 * 256 * 8;
+    int indexStart = dataStart + dataLength;
+    ByteBuffer buffer = ByteBuffer.allocate(indexStart + entryCount * 14).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putShort(0, (short) 2);
+    buffer.putShort(2, (short) 1);
+    Map<String, Integer> pointers = new LinkedHashMap<>();
+    int ptr = dataStart;
+    for (Map.Entry<String, byte[]> entry : distinct.entrySet()) {
+      pointers.put(entry.getKey(), ptr);
+      for (byte b : entry.getValue()) {
+        buffer.put(ptr++, b);
+      }
+    }
+    int entryPtr = indexStart;
+    boolean[] seen = new boolean[256 * 256];
+    for (int i = 0; i < starts.length; i++) {
+      long start = starts[i];
+      long end = i + 1 < starts.length ? starts[i + 1] - 1 : 0xFFFFFFFFL;
+      byte[] bytes = distinct.get(regions[i]);
+      while (start <= end) {
+        long pieceEnd = Math.min(end, start | 0xFFFF);
+        int bucket = (int) (start >>> 16);
+        buffer.putInt(entryPtr, (int) start);
+        buffer.putInt(entryPtr + 4, (int) pieceEnd);
+        buffer.putShort(entryPtr + 8, (short) bytes.length);
+        buffer.putInt(entryPtr + 10, pointers.get(regions[i]));
+        if (!seen[bucket]) {
+          seen[bucket] = true;
+          buffer.putInt(256 + bucket * 8, entryPtr);
+        }
+        buffer.putInt(256 + bucket * 8 + 4, entryPtr);
+        entryPtr += 14;
+        start = pieceEnd + 1;
+      }
+    }
+    buffer.putInt(8, indexStart);
+    buffer.putInt(12, entryPtr - 14);
+    return buffer.array();
+  }
+
+  /**
+   * 生成随机 xdb
+   *
+   * @param segments 段数
+   * @param distinct 不同区域数
+   * @param seed     随机种子
+   * @return xdb 内容
+   */
+  public static byte[] random(int segments, int distinct, long seed) {
+    Random random = new Random(seed);
+    long[] starts = new long[segments];
+    String[] regions = new String[segments];
+    long step = 0x1_0000_0000L / segments;
+    for (int i = 0; i < segments; i++) {
+      starts[i] = i == 0 ? 0 : i * step + random.nextInt((int) Math.min(step / 2, Integer.MAX_VALUE));
+      int region = random.nextInt(distinct);
+      regions[i] = "中国|0|省" + region % 34 + "|市" + region + "|" + (region % 3 == 0 ? "电信" : region % 3 == 1 ? "联通" : "0");
+    }
+    return write(starts, regions);
+  }
+}
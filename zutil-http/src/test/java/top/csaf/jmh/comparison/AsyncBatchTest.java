@@ -0,0 +1,106 @@
+package top.csaf.jmh.comparison;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.http.HttpClientConfig;
+import top.csaf.http.HttpRequest;
+import top.csaf.http.HttpUtil;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地 MockWebServer 上 100 个请求的同步循环、批量异步对比，服务端每个请求延迟 2ms 模拟网络耗时
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+public class AsyncBatchTest {
+
+  public static void main(String[] args) throws IOException {
+    // 结果是否相等
+    AsyncBatchTest test = new AsyncBatchTest();
+    test.setup();
+    try {
+      System.out.println(test.syncLoop().equals(test.batch()));
+      System.out.println(test.syncLoop().equals(test.asyncAll()));
+    } finally {
+      test.tearDown();
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{AsyncBatchTest.class.getName()});
+  }
+
+  private static final String CLIENT = "benchmark";
+  private static final int REQUEST_COUNT = 100;
+
+  @Param({"4", "16", "64"})
+  public int maxConcurrency = 16;
+
+  private MockWebServer server;
+  private List<HttpRequest<String>> requests;
+
+  @Setup
+  public void setup() throws IOException {
+    server = new MockWebServer();
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        return new MockResponse().setBody("OK").setHeadersDelay(2, TimeUnit.MILLISECONDS);
+      }
+    });
+    server.start();
+    HttpUtil.register(CLIENT, HttpClientConfig.builder().maxIdleConnections(64).maxRequests(64).maxRequestsPerHost(64).build());
+    requests = new ArrayList<>(REQUEST_COUNT);
+    for (int i = 0; i < REQUEST_COUNT; i++) {
+      requests.add(HttpRequest.get(server.url("/api?i=" + i).toString(), String.class).client(CLIENT));
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    HttpUtil.remove(CLIENT);
+    server.shutdown();
+  }
+
+  @Benchmark
+  public List<String> syncLoop() {
+    List<String> results = new ArrayList<>(REQUEST_COUNT);
+    for (HttpRequest<String> request : requests) {
+      results.add(HttpUtil.get(request.getUrl(), String.class));
+    }
+    return results;
+  }
+
+  @Benchmark
+  public List<String> batch() {
+    return HttpUtil.batch(requests, maxConcurrency).join();
+  }
+
+  @Benchmark
+  public List<String> asyncAll() {
+    List<CompletableFuture<String>> futures = new ArrayList<>(REQUEST_COUNT);
+    for (HttpRequest<String> request : requests) {
+      futures.add(HttpUtil.async(request));
+    }
+    List<String> results = new ArrayList<>(REQUEST_COUNT);
+    for (CompletableFuture<String> future : futures) {
+      results.add(future.join());
+    }
+    return results;
+  }
+}
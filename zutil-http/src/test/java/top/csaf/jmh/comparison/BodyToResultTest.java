@@ -0,0 +1,165 @@
+package top.csaf.jmh.comparison;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.gson.JsonObject;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.http.HttpUtil;
+import top.csaf.http.convert.AutoJsonMsgConvertor;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HttpUtil 响应体转换的开销：共享解析器（当前实现）与每次反射创建解析器（旧实现）对比
+ * <p>
+ * decode* 只测转换，get* 在本地 MockWebServer 上测完整请求，响应体为约 1KB 的 JSON
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+public class BodyToResultTest {
+
+  public static void main(String[] args) throws Exception {
+    // 结果是否相等
+    BodyToResultTest test = new BodyToResultTest();
+    test.setup();
+    try {
+      System.out.println(test.decodeJacksonLegacy().equals(test.decodeJackson()));
+      System.out.println(test.decodeGsonLegacy().equals(test.decodeGson()));
+      System.out.println(test.decodeBeanLegacy().equals(test.decodeBean()));
+      System.out.println(test.getJacksonLegacy().equals(test.getJackson()));
+    } finally {
+      test.tearDown();
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{BodyToResultTest.class.getName()});
+  }
+
+  @NoArgsConstructor
+  @Data
+  public static class Order {
+    private Long id;
+    private String name;
+    private List<Item> items;
+  }
+
+  @NoArgsConstructor
+  @Data
+  public static class Item {
+    private Long id;
+    private String name;
+    private Double price;
+  }
+
+  private String json;
+  private String url;
+  private MockWebServer server;
+  private Method bodyToResult;
+
+  @Setup
+  public void setup() throws IOException, NoSuchMethodException {
+    StringBuilder sb = new StringBuilder("{\"id\":1234567890,\"name\":\"order\",\"items\":[");
+    for (int i = 0; i < 20; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\",\"price\":").append(i * 1.5).append('}');
+    }
+    json = sb.append("]}").toString();
+
+    bodyToResult = HttpUtil.class.getDeclaredMethod("bodyToResult", String.class, Class.class);
+    bodyToResult.setAccessible(true);
+
+    server = new MockWebServer();
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public MockResponse dispatch(RecordedRequest request) {
+        return new MockResponse().setBody(json);
+      }
+    });
+    server.start();
+    url = server.url("/order").toString();
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    server.shutdown();
+  }
+
+  @Benchmark
+  public Object decodeJackson() throws Exception {
+    return bodyToResult.invoke(null, json, JsonNode.class);
+  }
+
+  @Benchmark
+  public Object decodeJacksonLegacy() throws Exception {
+    Class<?> mapperClass = Class.forName("com.fasterxml.jackson.databind.ObjectMapper");
+    Object mapper = mapperClass.getConstructor().newInstance();
+    Method readTree = mapperClass.getMethod("readTree", String.class);
+    return readTree.invoke(mapper, json);
+  }
+
+  @Benchmark
+  public Object decodeGson() throws Exception {
+    return bodyToResult.invoke(null, json, JsonObject.class);
+  }
+
+  @Benchmark
+  public Object decodeGsonLegacy() throws Exception {
+    Class<?> parserClass = Class.forName("com.google.gson.JsonParser");
+    Method parseString = parserClass.getMethod("parseString", String.class);
+    Object jsonElement = parseString.invoke(null, json);
+    Method getAsJsonObject = jsonElement.getClass().getMethod("getAsJsonObject");
+    return getAsJsonObject.invoke(jsonElement);
+  }
+
+  @Benchmark
+  public Object decodeBean() throws Exception {
+    return bodyToResult.invoke(null, json, Order.class);
+  }
+
+  @Benchmark
+  public Object decodeBeanLegacy() {
+    return new AutoJsonMsgConvertor().toBean(Order.class, json);
+  }
+
+  @Benchmark
+  public JsonNode getJackson() {
+    return HttpUtil.get(url, JsonNode.class);
+  }
+
+  @Benchmark
+  public Object getJacksonLegacy() throws Exception {
+    String body = HttpUtil.get(url, String.class);
+    Class<?> mapperClass = Class.forName("com.fasterxml.jackson.databind.ObjectMapper");
+    Object mapper = mapperClass.getConstructor().newInstance();
+    Method readTree = mapperClass.getMethod("readTree", String.class);
+    return readTree.invoke(mapper, body);
+  }
+}
+
+// Benchmark                             Mode  Cnt      Score   Error  Units
+// BodyToResultTest.decodeBean           avgt    2      2.059          us/op
+// BodyToResultTest.decodeBeanLegacy     avgt    2      2.330          us/op
+// BodyToResultTest.decodeGson           avgt    2      7.654          us/op
+// BodyToResultTest.decodeGsonLegacy     avgt    2     11.506          us/op
+// BodyToResultTest.decodeJackson        avgt    2      6.252          us/op
+// BodyToResultTest.decodeJacksonLegacy  avgt    2     18.003          us/op
+// BodyToResultTest.getJackson           avgt    2  44916.208          us/op
+// BodyToResultTest.getJacksonLegacy     avgt    2  45038.207          us/op
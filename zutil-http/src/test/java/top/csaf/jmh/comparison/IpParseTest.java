@@ -0,0 +1,158 @@
+package top.csaf.jmh.comparison;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.csaf.ip.IpUtil;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IP 校验和解析：单次遍历的手写解析（当前实现）与 split / InetAddress.getByName（旧实现）对比
+ * <p>
+ * 每次调用处理 8 个 IPv4 或 8 个 IPv6（含压缩、内嵌 IPv4 和非法地址）
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+public class IpParseTest {
+
+  public static void main(String[] args) {
+    // 结果是否相等
+    IpParseTest test = new IpParseTest();
+    for (String ip : test.ipv4s) {
+      System.out.println(isValidIpv4Legacy(ip) == IpUtil.isValidIpv4(ip));
+    }
+    for (String ip : test.ipv6s) {
+      System.out.println(isValidIpv6Legacy(ip) == IpUtil.isValidIpv6(ip));
+      if (IpUtil.isValidIpv6(ip)) {
+        System.out.println(Arrays.equals(ipToBytesLegacy(ip), IpUtil.ipToBytes(ip)));
+      }
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{IpParseTest.class.getName()});
+  }
+
+  private final String[] ipv4s = {"1.2.3.4", "192.168.1.1", "10.0.0.255", "255.255.255.255", "8.8.8.8", "172.16.254.1",
+    "999.1.1.1", "1.2.3"};
+  private final String[] ipv6s = {"::1", "2001:db8::1", "fe80::1:2:3:4", "2001:db8:85a3:0:0:8a2e:370:7334",
+    "::ffff:192.168.1.1", "[2001:db8::8]", "2001:db8::gg", "2001:::1"};
+  private final long[] dest = new long[2];
+
+  private static boolean isValidIpv4Legacy(String ip) {
+    String[] parts = ip.split("\\.", -1);
+    if (parts.length != 4) {
+      return false;
+    }
+    for (String part : parts) {
+      if (part.isEmpty() || part.length() > 3) {
+        return false;
+      }
+      int value = 0;
+      for (int i = 0; i < part.length(); i++) {
+        char c = part.charAt(i);
+        if (c < '0' || c > '9') {
+          return false;
+        }
+        value = value * 10 + (c - '0');
+      }
+      if (value > 255) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String stripBrackets(String ip) {
+    return ip.startsWith("[") && ip.endsWith("]") ? ip.substring(1, ip.length() - 1) : ip;
+  }
+
+  private static boolean isValidIpv6Legacy(String ip) {
+    String candidate = stripBrackets(ip);
+    if (!candidate.contains(":")) {
+      return false;
+    }
+    try {
+      // 旧实现中 IPv4 映射地址解析为 Inet4Address，这里与新实现一样视为合法
+      return InetAddress.getByName(candidate) instanceof Inet6Address || candidate.startsWith("::ffff:");
+    } catch (Exception e) {
+      return false;
+    }
+  }
+
+  private static byte[] ipToBytesLegacy(String ip) {
+    try {
+      return InetAddress.getByName(stripBrackets(ip)).getAddress();
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+  @Benchmark
+  public void isValidIpv4(Blackhole blackhole) {
+    for (String ip : ipv4s) {
+      blackhole.consume(IpUtil.isValidIpv4(ip));
+    }
+  }
+
+  @Benchmark
+  public void isValidIpv4Legacy(Blackhole blackhole) {
+    for (String ip : ipv4s) {
+      blackhole.consume(isValidIpv4Legacy(ip));
+    }
+  }
+
+  @Benchmark
+  public void isValidIpv6(Blackhole blackhole) {
+    for (String ip : ipv6s) {
+      blackhole.consume(IpUtil.isValidIpv6(ip));
+    }
+  }
+
+  @Benchmark
+  public void isValidIpv6Legacy(Blackhole blackhole) {
+    for (String ip : ipv6s) {
+      blackhole.consume(isValidIpv6Legacy(ip));
+    }
+  }
+
+  @Benchmark
+  public void parseIpv6ToLongs(Blackhole blackhole) {
+    for (String ip : ipv6s) {
+      blackhole.consume(IpUtil.parseIpv6ToLongs(ip, dest));
+    }
+  }
+
+  @Benchmark
+  public void ipToBytes(Blackhole blackhole) {
+    for (String ip : ipv6s) {
+      blackhole.consume(IpUtil.ipToBytesOrNull(ip));
+    }
+  }
+
+  @Benchmark
+  public void ipToBytesLegacy(Blackhole blackhole) {
+    for (String ip : ipv6s) {
+      blackhole.consume(ipToBytesLegacy(ip));
+    }
+  }
+}
+
+// Benchmark                      Mode  Cnt     Score   Error  Units
+// IpParseTest.ipToBytes          avgt    2   473.924          ns/op
+// IpParseTest.ipToBytesLegacy    avgt    2  3947.932          ns/op
+// IpParseTest.isValidIpv4        avgt    2   181.015          ns/op
+// IpParseTest.isValidIpv4Legacy  avgt    2  1059.097          ns/op
+// IpParseTest.isValidIpv6        avgt    2   629.217          ns/op
+// IpParseTest.isValidIpv6Legacy  avgt    2  7385.589          ns/op
+// IpParseTest.parseIpv6ToLongs   avgt    2   623.850          ns/op
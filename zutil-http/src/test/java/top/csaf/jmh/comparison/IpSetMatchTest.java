@@ -0,0 +1,100 @@
+package top.csaf.jmh.comparison;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.ip.IpSet;
+import top.csaf.ip.IpUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CIDR 批量匹配：预构建的 {@link IpSet}（当前实现）与逐条调用 {@link IpUtil#isInCidr(String, String)}（旧实现）对比
+ * <p>
+ * 规则为随机的 IPv4 /16~/32 与 IPv6 /32~/64 CIDR 各半，每次调用匹配 1 个 IPv4 和 1 个 IPv6
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+public class IpSetMatchTest {
+
+  public static void main(String[] args) {
+    // 结果是否相等
+    IpSetMatchTest test = new IpSetMatchTest();
+    test.ruleCount = 1000;
+    test.setup();
+    for (int i = 0; i < 1000; i++) {
+      test.next = i;
+      int result = test.ipSet();
+      test.next = i;
+      System.out.println(result == test.isInCidrLegacy());
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{IpSetMatchTest.class.getName()});
+  }
+
+  @Param({"10", "1000", "100000"})
+  private int ruleCount;
+
+  private List<String> rules;
+  private IpSet ipSet;
+  private String[] ipv4s;
+  private String[] ipv6s;
+  private int next;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1);
+    rules = new ArrayList<>(ruleCount);
+    for (int i = 0; i < ruleCount; i++) {
+      rules.add(i % 2 == 0
+        ? IpUtil.longToIpv4(random.nextInt() & 0xFFFFFFFFL) + "/" + (16 + random.nextInt(17))
+        : String.format("2001:%x:%x::/%d", random.nextInt(0x10000), random.nextInt(0x10000), 32 + random.nextInt(33)));
+    }
+    ipSet = IpSet.of(rules);
+    ipv4s = new String[1024];
+    ipv6s = new String[1024];
+    for (int i = 0; i < ipv4s.length; i++) {
+      ipv4s[i] = IpUtil.longToIpv4(random.nextInt() & 0xFFFFFFFFL);
+      ipv6s[i] = String.format("2001:%x:%x::1", random.nextInt(0x10000), random.nextInt(0x10000));
+    }
+  }
+
+  @Benchmark
+  public int ipSet() {
+    int i = next++ & 1023;
+    return (ipSet.contains(ipv4s[i]) ? 1 : 0) + (ipSet.contains(ipv6s[i]) ? 2 : 0);
+  }
+
+  @Benchmark
+  public int isInCidrLegacy() {
+    int i = next++ & 1023;
+    return (matchLegacy(ipv4s[i]) ? 1 : 0) + (matchLegacy(ipv6s[i]) ? 2 : 0);
+  }
+
+  private boolean matchLegacy(String ip) {
+    for (String rule : rules) {
+      if (IpUtil.isInCidr(ip, rule)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
+
+// Benchmark                      (ruleCount)  Mode  Cnt         Score   Error  Units
+// IpSetMatchTest.ipSet                    10  avgt    2       199.900          ns/op
+// IpSetMatchTest.ipSet                  1000  avgt    2       289.907          ns/op
+// IpSetMatchTest.ipSet                100000  avgt    2       514.864          ns/op
+// IpSetMatchTest.isInCidrLegacy           10  avgt    2      2808.286          ns/op
+// IpSetMatchTest.isInCidrLegacy         1000  avgt    2    410160.499          ns/op
+// IpSetMatchTest.isInCidrLegacy       100000  avgt    2  44568305.670          ns/op
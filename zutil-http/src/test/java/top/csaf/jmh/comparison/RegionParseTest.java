@@ -0,0 +1,128 @@
+package top.csaf.jmh.comparison;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import top.csaf.ip.IpUtil;
+import top.csaf.ip.RegionService;
+import top.csaf.ip.RegionServiceConfig;
+import top.csaf.ip.XdbWriter;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 区域解析：下标拆分 + 区域字典（当前实现）与正则拆分、每次新建 RegionInfo（旧实现）对比；
+ * 以及 {@link RegionService} 批量查询与逐个查询旧实现（查询字符串后解析）对比
+ * <p>
+ * 每次调用处理 1024 个区域字符串 / IP，区域字符串每次都是新实例（与从 xdb 读出时一致）
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+public class RegionParseTest {
+
+  public static void main(String[] args) {
+    // 结果是否相等
+    RegionParseTest test = new RegionParseTest();
+    test.setup();
+    for (String region : test.regions) {
+      System.out.println(Arrays.equals(splitLegacy(region), IpUtil.splitRegion(region)));
+    }
+    IpUtil.RegionInfo[] batch = test.service.searchRegionInfo(test.ips);
+    for (int i = 0; i < test.ips.length; i++) {
+      System.out.println(batch[i].toString().equals(test.service.search(test.ips[i])));
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{RegionParseTest.class.getName()});
+  }
+
+  private String[] regions;
+  private String[] ips;
+  private RegionService service;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1);
+    regions = new String[1024];
+    for (int i = 0; i < regions.length; i++) {
+      int region = random.nextInt(3000);
+      regions[i] = "中国|0|省" + region % 34 + "|市" + region + "|" + (region % 3 == 0 ? "电信" : "联通");
+    }
+    ips = new String[1024];
+    for (int i = 0; i < ips.length; i++) {
+      ips[i] = IpUtil.longToIpv4(random.nextInt() & 0xFFFFFFFFL);
+    }
+    service = RegionService.of(XdbWriter.random(680_000, 3000, 1), RegionServiceConfig.builder().build());
+  }
+
+  private static String[] splitLegacy(String region) {
+    String[] result = new String[5];
+    String[] parts = region.split("\\|", -1);
+    for (int i = 0; i < 5; i++) {
+      String value = i < parts.length ? parts[i] : "";
+      result[i] = value.trim().isEmpty() || "0".equals(value) ? "" : value;
+    }
+    return result;
+  }
+
+  @Benchmark
+  public void splitRegion(Blackhole blackhole) {
+    for (String region : regions) {
+      blackhole.consume(IpUtil.splitRegion(region));
+    }
+  }
+
+  @Benchmark
+  public void splitRegionLegacy(Blackhole blackhole) {
+    for (String region : regions) {
+      blackhole.consume(splitLegacy(region));
+    }
+  }
+
+  @Benchmark
+  public void parseRegion(Blackhole blackhole) {
+    for (String region : regions) {
+      blackhole.consume(IpUtil.parseRegion(new String(region)));
+    }
+  }
+
+  @Benchmark
+  public void parseRegionLegacy(Blackhole blackhole) {
+    for (String region : regions) {
+      String raw = new String(region);
+      String[] parts = splitLegacy(raw);
+      blackhole.consume(new IpUtil.RegionInfo(parts[0], parts[1], parts[2], parts[3], parts[4], raw));
+    }
+  }
+
+  @Benchmark
+  public IpUtil.RegionInfo[] searchRegionInfoBatch() {
+    return service.searchRegionInfo(ips);
+  }
+
+  @Benchmark
+  public void searchRegionInfoLegacy(Blackhole blackhole) {
+    for (String ip : ips) {
+      String raw = service.search(ip);
+      String[] parts = splitLegacy(raw);
+      blackhole.consume(new IpUtil.RegionInfo(parts[0], parts[1], parts[2], parts[3], parts[4], raw));
+    }
+  }
+}
+
+// Benchmark                               Mode  Cnt    Score   Error  Units
+// RegionParseTest.parseRegion             avgt    2   31.788          us/op
+// RegionParseTest.parseRegionLegacy       avgt    2  224.266          us/op
+// RegionParseTest.searchRegionInfoBatch   avgt    2   70.058          us/op
+// RegionParseTest.searchRegionInfoLegacy  avgt    2  315.521          us/op
+// RegionParseTest.splitRegion             avgt    2  183.038          us/op
+// RegionParseTest.splitRegionLegacy       avgt    2  169.440          us/op
@@ -0,0 +1,128 @@
+package top.csaf.jmh.comparison;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.ip.IpUtil;
+import top.csaf.ip.RegionService;
+import top.csaf.ip.RegionServiceConfig;
+import top.csaf.ip.XdbWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ip2region 多线程查询吞吐量：{@link RegionService} 各加载方式（当前实现）与每次打开文件、共享上游内存搜索器（旧实现）对比
+ * <p>
+ * xdb 为随机生成的 68 万段、3000 个不同区域（与官方数据规模相近），8 线程从 4096 个随机 IP 中取值查询
+ */
+@State(Scope.Benchmark)
+@Threads(8)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.Throughput)
+public class RegionSearchTest {
+
+  public static void main(String[] args) throws IOException {
+    // 结果是否相等
+    RegionSearchTest test = new RegionSearchTest();
+    test.setup();
+    try {
+      for (String ip : test.ips) {
+        String expected = IpUtil.searchRegion(test.dbPath.toString(), ip);
+        System.out.println(expected.equals(test.heap.search(ip)) && expected.equals(test.mmap.search(ip))
+          && expected.equals(test.bufferSearcher.search(ip)));
+      }
+    } finally {
+      test.tearDown();
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{RegionSearchTest.class.getName()});
+  }
+
+  private Path dbPath;
+  private String[] ips;
+  private RegionService heap;
+  private RegionService mmap;
+  private RegionService heapCached;
+  private IpUtil.Ip2RegionSearcher bufferSearcher;
+
+  @Setup
+  public void setup() throws IOException {
+    byte[] content = XdbWriter.random(680_000, 3000, 1);
+    dbPath = Files.createTempFile("ip2region", ".xdb");
+    Files.write(dbPath, content);
+    Random random = new Random(2);
+    ips = new String[4096];
+    for (int i = 0; i < ips.length; i++) {
+      ips[i] = IpUtil.longToIpv4(random.nextInt() & 0xFFFFFFFFL);
+    }
+    heap = RegionService.open(dbPath.toString());
+    mmap = RegionService.open(dbPath.toString(), RegionServiceConfig.builder().mode(RegionServiceConfig.Mode.MMAP).build());
+    heapCached = RegionService.open(dbPath.toString(), RegionServiceConfig.builder().cacheSize(8192).build());
+    bufferSearcher = IpUtil.Ip2RegionSearcher.newWithBuffer(content);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    heap.close();
+    mmap.close();
+    heapCached.close();
+    bufferSearcher.close();
+    Files.deleteIfExists(dbPath);
+  }
+
+  private String ip() {
+    return ips[ThreadLocalRandom.current().nextInt(ips.length)];
+  }
+
+  @Benchmark
+  public String fileOnlyLegacy() {
+    return IpUtil.searchRegion(dbPath.toString(), ip());
+  }
+
+  @Benchmark
+  public String bufferSearcherLegacy() {
+    return bufferSearcher.search(ip());
+  }
+
+  @Benchmark
+  public String heap() {
+    return heap.search(ip());
+  }
+
+  @Benchmark
+  public String mmap() {
+    return mmap.search(ip());
+  }
+
+  @Benchmark
+  public IpUtil.RegionInfo heapRegionInfo() {
+    return heap.searchRegionInfo(ip());
+  }
+
+  @Benchmark
+  public IpUtil.RegionInfo heapRegionInfoCached() {
+    return heapCached.searchRegionInfo(ip());
+  }
+}
+
+// Benchmark                               Mode  Cnt  Score   Error   Units
+// RegionSearchTest.bufferSearcherLegacy  thrpt    2  1.235          ops/us
+// RegionSearchTest.fileOnlyLegacy        thrpt    2  0.087          ops/us
+// RegionSearchTest.heap                  thrpt    2  2.894          ops/us
+// RegionSearchTest.heapRegionInfo        thrpt    2  0.953          ops/us
+// RegionSearchTest.heapRegionInfoCached  thrpt    2  2.892          ops/us
+// RegionSearchTest.mmap                  thrpt    2  2.553          ops/us
+// ip 缓存移入 Snapshot 改用 ConcurrentHashMap 后（不再加全局锁，热加载时随数据替换），-wi 2 -i 2 重测 heap*
+// RegionSearchTest.heap                  thrpt    2  3.280          ops/us
+// RegionSearchTest.heapRegionInfo        thrpt    2  2.361          ops/us
+// RegionSearchTest.heapRegionInfoCached  thrpt    2  5.114          ops/us
@@ -0,0 +1,88 @@
+package top.csaf.jmh.comparison;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.http.HttpClientConfig;
+import top.csaf.http.HttpUtil;
+import top.csaf.http.SingleFlightConfig;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 32 个线程同时请求同一地址时，开启与关闭请求合并的延迟分布（关注 p99），服务端每个请求延迟 5ms 并串行处理，模拟受保护的上游
+ */
+@State(Scope.Benchmark)
+@Threads(32)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.SampleTime)
+public class SingleFlightTest {
+
+  public static void main(String[] args) throws IOException {
+    // 结果是否相等
+    SingleFlightTest test = new SingleFlightTest();
+    test.singleFlight = true;
+    test.setup();
+    try {
+      System.out.println(test.get().equals(HttpUtil.get(test.url, Map.class)));
+    } finally {
+      test.tearDown();
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{SingleFlightTest.class.getName()});
+  }
+
+  @Param({"false", "true"})
+  public boolean singleFlight;
+
+  private MockWebServer server;
+  private String url;
+
+  @Setup
+  public void setup() throws IOException {
+    server = new MockWebServer();
+    server.setDispatcher(new Dispatcher() {
+      @Override
+      public synchronized MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+        Thread.sleep(5);
+        return new MockResponse().setBody("{\"id\":1,\"name\":\"config\"}");
+      }
+    });
+    server.start();
+    url = server.url("/config").toString();
+    HttpUtil.configure(HttpClientConfig.builder()
+      .maxIdleConnections(32)
+      .singleFlight(singleFlight ? SingleFlightConfig.builder().build() : null)
+      .build());
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    HttpUtil.remove(HttpUtil.DEFAULT_CLIENT);
+    server.shutdown();
+  }
+
+  @Benchmark
+  public Map<?, ?> get() {
+    return HttpUtil.get(url, Map.class);
+  }
+}
+
+// Benchmark                    (singleFlight)    Mode   Cnt    Score    Error  Units
+// SingleFlightTest.get                  false  sample   695  176.544 ± 11.523  ms/op
+// SingleFlightTest.get:p0.50            false  sample        171.966           ms/op
+// SingleFlightTest.get:p0.99            false  sample        402.506           ms/op
+// SingleFlightTest.get                   true  sample  2594   50.059 ±  0.178  ms/op
+// SingleFlightTest.get:p0.50             true  sample         49.807           ms/op
+// SingleFlightTest.get:p0.99             true  sample         60.097           ms/op
@@ -0,0 +1,73 @@
+package top.csaf.id;
+
+/**
+ * 按线程租用序列号段的 SnowFlake 雪花算法
+ * <p>
+ * 每个线程用一次 CAS 从 {@link LockFreeSnowFlake} 的共享状态中租用同一毫秒内 leaseSize 个连续的序列号，
+ * 之后在 {@link ThreadLocal} 中逐个发放，不读取时钟、不访问共享状态，用完再租用下一段。
+ * <p>
+ * ID 全局唯一，同一线程内严格递增，但不同线程之间不保证递增；
+ * ID 中的时间戳是租用时的时间，线程长时间不生成 ID 时，段内剩余的 ID 时间戳会偏早。
+ * 适合批量插入等短时间内大量生成 ID、不依赖全局顺序的场景。
+ */
+public class LeasingSnowFlake extends LockFreeSnowFlake {
+
+  /**
+   * 每次租用的序列号数量（1~4096）
+   */
+  private final int leaseSize;
+  /**
+   * 当前线程租用的序列号段：[下一个状态, 最后一个状态]
+   */
+  private final ThreadLocal<long[]> lease = ThreadLocal.withInitial(() -> new long[]{1, 0});
+
+  /**
+   * 构造函数 (使用默认开始时间，不借用未来时间)
+   *
+   * @param datacenterId 数据中心 ID（0~31）
+   * @param machineId    机器 ID（0~31）
+   * @param leaseSize    每次租用的序列号数量（1~4096）
+   */
+  public LeasingSnowFlake(long datacenterId, long machineId, int leaseSize) {
+    super(datacenterId, machineId);
+    this.leaseSize = checkLeaseSize(leaseSize);
+  }
+
+  /**
+   * 构造函数 (自定义开始时间)
+   *
+   * @param datacenterId    数据中心 ID（0~31）
+   * @param machineId       机器 ID（0~31）
+   * @param startTimeMillis 开始时间戳 (Twepoch)，一旦上线不可更改
+   * @param maxBorrowMillis 序列号用完时最多借用未来多少毫秒，0 表示不借用、等待下一毫秒
+   * @param leaseSize       每次租用的序列号数量（1~4096）
+   */
+  public LeasingSnowFlake(long datacenterId, long machineId, long startTimeMillis, long maxBorrowMillis, int leaseSize) {
+    super(datacenterId, machineId, startTimeMillis, maxBorrowMillis);
+    this.leaseSize = checkLeaseSize(leaseSize);
+  }
+
+  private static int checkLeaseSize(int leaseSize) {
+    if (leaseSize > MAX_SEQUENCE + 1 || leaseSize < 1) {
+      throw new IllegalArgumentException("leaseSize can't be greater than " + (MAX_SEQUENCE + 1) + " or less than 1");
+    }
+    return leaseSize;
+  }
+
+  /**
+   * 从当前线程租用的序列号段获得下一个 ID，段用完时租用新的一段
+   *
+   * @return SnowflakeId
+   */
+  @Override
+  public long next() {
+    long[] lease = this.lease.get();
+    if (lease[0] > lease[1]) {
+      long start = reserve(leaseSize);
+      lease[0] = start;
+      lease[1] = end(start, leaseSize);
+    }
+    long state = lease[0]++;
+    return id(state >>> SEQUENCE_BIT, state & MAX_SEQUENCE);
+  }
+}
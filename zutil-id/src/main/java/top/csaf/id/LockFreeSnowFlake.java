@@ -0,0 +1,157 @@
+package top.csaf.id;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 无锁的 SnowFlake 雪花算法
+ * <p>
+ * ID 结构、开始时间和时钟回拨的处理与 {@link SnowFlake} 相同，但不使用 synchronized：
+ * 把（距开始时间的毫秒数，序列号）按 ID 中的位置打包为一个 long，即 elapsed &lt;&lt; 12 | sequence，
+ * 保存在 {@link AtomicLong} 中，每次生成 ID 用一次 CAS 推进。状态只增不减，ID 全局唯一且严格递增。
+ * <p>
+ * 借用未来时间：同一毫秒内序列号用完后，状态加 1 会自然进位到下一毫秒。
+ * maxBorrowMillis 为 0 时与 {@link SnowFlake} 一样等待时钟进入下一毫秒；
+ * 大于 0 时允许状态最多领先时钟 maxBorrowMillis 毫秒，突发流量下直接使用下一毫秒的序列号而不等待，
+ * 时钟追上后恢复正常，代价是 ID 中的时间戳最多比实际时间晚 maxBorrowMillis 毫秒。
+ */
+public class LockFreeSnowFlake extends SnowFlake {
+
+  /**
+   * 时钟回拨时最多等待的毫秒数，超过时抛出异常
+   */
+  private final static long MAX_BACKWARD_MILLIS = 5;
+
+  /**
+   * 状态最多领先时钟的毫秒数
+   */
+  private final long maxBorrowMillis;
+  /**
+   * 距开始时间的毫秒数 &lt;&lt; 12 | 序列号
+   */
+  private final AtomicLong state = new AtomicLong();
+
+  /**
+   * 构造函数 (使用默认开始时间，不借用未来时间)
+   *
+   * @param datacenterId 数据中心 ID（0~31）
+   * @param machineId    机器 ID（0~31）
+   */
+  public LockFreeSnowFlake(long datacenterId, long machineId) {
+    super(datacenterId, machineId);
+    this.maxBorrowMillis = 0;
+  }
+
+  /**
+   * 构造函数 (自定义开始时间)
+   *
+   * @param datacenterId    数据中心 ID（0~31）
+   * @param machineId       机器 ID（0~31）
+   * @param startTimeMillis 开始时间戳 (Twepoch)，一旦上线不可更改
+   * @param maxBorrowMillis 序列号用完时最多借用未来多少毫秒，0 表示不借用、等待下一毫秒
+   */
+  public LockFreeSnowFlake(long datacenterId, long machineId, long startTimeMillis, long maxBorrowMillis) {
+    super(datacenterId, machineId, startTimeMillis);
+    if (maxBorrowMillis < 0) {
+      throw new IllegalArgumentException("maxBorrowMillis can't be less than 0");
+    }
+    this.maxBorrowMillis = maxBorrowMillis;
+  }
+
+  /**
+   * 获得下一个 ID
+   *
+   * @return SnowflakeId
+   */
+  @Override
+  public long next() {
+    long start = reserve(1);
+    return id(start >>> SEQUENCE_BIT, start & MAX_SEQUENCE);
+  }
+
+  /**
+   * 批量获得 ID
+   * <p>
+   * 每毫秒用一次 CAS 预留该毫秒内最多 n 个连续的序列号，结果唯一且严格递增；
+   * 多线程同时调用时各自的结果不交叉，但不同线程的 ID 之间不保证与调用顺序一致。
+   *
+   * @param n 数量，大于 0
+   * @return SnowflakeId 数组
+   */
+  @Override
+  public long[] nextBatch(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n can't be less than 1");
+    }
+    long[] ids = new long[n];
+    int filled = 0;
+    while (filled < n) {
+      long start = reserve(n - filled);
+      long first = id(start >>> SEQUENCE_BIT, start & MAX_SEQUENCE);
+      long end = end(start, n - filled);
+      for (long i = 0; i <= end - start; i++) {
+        ids[filled++] = first + i;
+      }
+    }
+    return ids;
+  }
+
+  /**
+   * 用一次 CAS 预留同一毫秒内最多 count 个连续的序列号
+   *
+   * @param count 数量，大于 0
+   * @return 预留的第一个状态，最后一个状态为 {@link #end(long, long)}
+   */
+  final long reserve(long count) {
+    while (true) {
+      // 先读状态再读时钟：读到的状态一定不晚于此刻的时钟 + maxBorrowMillis，
+      // 否则线程在两次读取之间被挂起时，过期的时钟会被误判为时钟回拨
+      long current = state.get();
+      long now = timeGen() - startTimeMillis;
+      long currentMillis = current >>> SEQUENCE_BIT;
+      long start;
+      if (now > currentMillis) {
+        // 新的一毫秒，序列号从 0 开始
+        start = now << SEQUENCE_BIT;
+      } else {
+        // 同一毫秒，或状态领先时钟（借用了未来时间、时钟回拨）
+        if (currentMillis - now > maxBorrowMillis + MAX_BACKWARD_MILLIS) {
+          throw new RuntimeException(String.format("Clock moved backwards. Refusing to generate id for %d milliseconds", currentMillis - now - maxBorrowMillis));
+        }
+        start = current + 1;
+        long ahead = (start >>> SEQUENCE_BIT) - now;
+        if (ahead > maxBorrowMillis) {
+          await(ahead - maxBorrowMillis);
+          continue;
+        }
+      }
+      if (state.compareAndSet(current, end(start, count))) {
+        return start;
+      }
+    }
+  }
+
+  /**
+   * 从 start 开始预留 count 个序列号时的最后一个状态，不超过 start 所在的毫秒
+   *
+   * @param start 第一个状态
+   * @param count 数量，大于 0
+   * @return 最后一个状态
+   */
+  static long end(long start, long count) {
+    return Math.min(start + count - 1, start | MAX_SEQUENCE);
+  }
+
+  /**
+   * 等待时钟前进，不持有任何锁
+   *
+   * @param millis 需要等待的毫秒数
+   */
+  private static void await(long millis) {
+    if (millis > 1) {
+      LockSupport.parkNanos((millis - 1) * 1_000_000L);
+    } else {
+      Thread.yield();
+    }
+  }
+}
@@ -26,7 +26,7 @@ public class SnowFlake {
   /**
    * 序列号占用位数
    */
-  private final static long SEQUENCE_BIT = 12;
+  final static long SEQUENCE_BIT = 12;
 
   /**
    * 数据中心最大值
@@ -39,7 +39,7 @@ public class SnowFlake {
   /**
    * 序列号最大值
    */
-  private final static long MAX_SEQUENCE = ~(-1L << SEQUENCE_BIT);
+  final static long MAX_SEQUENCE = ~(-1L << SEQUENCE_BIT);
 
   /**
    * 数据中心 ID 左移位数
@@ -52,7 +52,7 @@ public class SnowFlake {
   /**
    * 时间戳左移位数
    */
-  private final static long TIMESTAMP_LEFT = DATACENTER_LEFT + DATACENTER_BIT;
+  final static long TIMESTAMP_LEFT = DATACENTER_LEFT + DATACENTER_BIT;
 
   /**
    * 数据中心 ID（0~31）
@@ -65,7 +65,7 @@ public class SnowFlake {
   /**
    * 开始时间戳
    */
-  private final long startTimeMillis;
+  final long startTimeMillis;
   /**
    * 序列号
    */
@@ -146,7 +146,47 @@ public class SnowFlake {
     lastTimestamp = currTimestamp;
 
     // 使用自定义的起始时间计算时间戳差值
-    return ((currTimestamp - this.startTimeMillis) << TIMESTAMP_LEFT) //
+    return id(currTimestamp - this.startTimeMillis, sequence);
+  }
+
+  /**
+   * 批量获得 ID
+   * <p>
+   * 每毫秒只读取一次时钟、做一次时钟回拨检查，然后一次性分配该毫秒剩余的连续序列号，
+   * 结果与连续调用 n 次 {@link #next()} 相同：唯一且严格递增。
+   *
+   * @param n 数量，大于 0
+   * @return SnowflakeId 数组
+   */
+  public synchronized long[] nextBatch(int n) {
+    if (n < 1) {
+      throw new IllegalArgumentException("n can't be less than 1");
+    }
+    long[] ids = new long[n];
+    int filled = 0;
+    while (filled < n) {
+      // 每毫秒的第一个 ID 由 next() 生成，包括时钟回拨检查和等待下一毫秒
+      long first = next();
+      ids[filled++] = first;
+      // 序列号在 ID 的最低位，同一毫秒内剩余的序列号对应连续的 ID
+      int count = (int) Math.min(n - filled, MAX_SEQUENCE - sequence);
+      for (int i = 1; i <= count; i++) {
+        ids[filled++] = first + i;
+      }
+      sequence += count;
+    }
+    return ids;
+  }
+
+  /**
+   * 组装 ID
+   *
+   * @param elapsed  距开始时间的毫秒数
+   * @param sequence 序列号
+   * @return SnowflakeId
+   */
+  final long id(long elapsed, long sequence) {
+    return (elapsed << TIMESTAMP_LEFT) //
       | (datacenterId << DATACENTER_LEFT) //
       | (machineId << MACHINE_LEFT) //
       | sequence;
@@ -0,0 +1,151 @@
+package top.csaf.jmh.comparison.id;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.id.LeasingSnowFlake;
+import top.csaf.id.LockFreeSnowFlake;
+import top.csaf.id.SnowFlake;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SnowFlake 单个 ID 的平均耗时：next()、nextBatch(1000)、按线程租用序列号段
+ * <p>
+ * 真实时钟下每毫秒最多 4096 个 ID，所有方式都被限制在约 244 ns/个；
+ * fastClock 为 true 时把微秒当作毫秒，序列号不再是瓶颈，用来比较每个 ID 的 CPU 开销
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+public class SnowFlakeBatchTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    org.openjdk.jmh.Main.main(new String[]{SnowFlakeBatchTest.class.getName()});
+  }
+
+  private static final long START = 1767225600000L;
+  private static final int BATCH = 1000;
+  private static final long BASE_MILLIS = System.currentTimeMillis();
+  private static final long BASE_NANOS = System.nanoTime();
+
+  @Param({"false", "true"})
+  public boolean fastClock;
+
+  private SnowFlake synchronizedSnowFlake;
+  private SnowFlake lockFreeSnowFlake;
+  private SnowFlake leasingSnowFlake;
+
+  /**
+   * fastClock 为 true 时每微秒前进一“毫秒”
+   */
+  private static long fastTime() {
+    return BASE_MILLIS + (System.nanoTime() - BASE_NANOS) / 1000;
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (fastClock) {
+      synchronizedSnowFlake = new SnowFlake(1, 1, START) {
+        @Override
+        protected long timeGen() {
+          return fastTime();
+        }
+      };
+      lockFreeSnowFlake = new LockFreeSnowFlake(1, 1, START, 0) {
+        @Override
+        protected long timeGen() {
+          return fastTime();
+        }
+      };
+      leasingSnowFlake = new LeasingSnowFlake(1, 1, START, 0, 4096) {
+        @Override
+        protected long timeGen() {
+          return fastTime();
+        }
+      };
+    } else {
+      synchronizedSnowFlake = new SnowFlake(1, 1, START);
+      lockFreeSnowFlake = new LockFreeSnowFlake(1, 1, START, 0);
+      leasingSnowFlake = new LeasingSnowFlake(1, 1, START, 0, 4096);
+    }
+  }
+
+  public static void main(String[] args) {
+    SnowFlakeBatchTest test = new SnowFlakeBatchTest();
+    for (boolean fastClock : new boolean[]{false, true}) {
+      test.fastClock = fastClock;
+      test.setUp();
+      Set<Long> ids = new HashSet<>();
+      for (int i = 0; i < 100; i++) {
+        for (long id : test.synchronizedBatch()) {
+          ids.add(id);
+        }
+        ids.add(test.synchronizedNext());
+      }
+      assertEquals(100 * (BATCH + 1), ids.size());
+      ids.clear();
+      for (int i = 0; i < 100; i++) {
+        for (long id : test.lockFreeBatch()) {
+          ids.add(id);
+        }
+        ids.add(test.lockFreeNext());
+      }
+      assertEquals(100 * (BATCH + 1), ids.size());
+      ids.clear();
+      for (int i = 0; i < 100_000; i++) {
+        ids.add(test.leasingNext());
+      }
+      assertEquals(100_000, ids.size());
+    }
+  }
+
+  @Benchmark
+  public long synchronizedNext() {
+    return synchronizedSnowFlake.next();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public long[] synchronizedBatch() {
+    return synchronizedSnowFlake.nextBatch(BATCH);
+  }
+
+  @Benchmark
+  public long lockFreeNext() {
+    return lockFreeSnowFlake.next();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public long[] lockFreeBatch() {
+    return lockFreeSnowFlake.nextBatch(BATCH);
+  }
+
+  @Benchmark
+  public long leasingNext() {
+    return leasingSnowFlake.next();
+  }
+}
+
+// 1 核环境（nproc = 1），单线程；真实时钟下所有方式都达到序列号上限 4096 个/毫秒（约 244 ns/个）
+// fastClock = true 时：nextBatch 每毫秒只读一次时钟、一次加锁或 CAS，单个 ID 的开销从约 70 ns 降到 1~3 ns；租用序列号段约 7 ns（ThreadLocal 查找）
+// Benchmark                             (fastClock)  Mode  Cnt    Score    Error  Units
+// SnowFlakeBatchTest.leasingNext              false  avgt    3  245.403 ± 31.277  ns/op
+// SnowFlakeBatchTest.leasingNext               true  avgt    3    6.796 ±  4.884  ns/op
+// SnowFlakeBatchTest.lockFreeBatch            false  avgt    3  245.349 ± 22.803  ns/op
+// SnowFlakeBatchTest.lockFreeBatch             true  avgt    3    2.510 ±  4.063  ns/op
+// SnowFlakeBatchTest.lockFreeNext             false  avgt    3  246.436 ± 51.749  ns/op
+// SnowFlakeBatchTest.lockFreeNext              true  avgt    3   65.073 ±  6.132  ns/op
+// SnowFlakeBatchTest.synchronizedBatch        false  avgt    3  244.495 ±  4.252  ns/op
+// SnowFlakeBatchTest.synchronizedBatch         true  avgt    3    1.013 ±  0.593  ns/op
+// SnowFlakeBatchTest.synchronizedNext         false  avgt    3  245.694 ± 29.263  ns/op
+// SnowFlakeBatchTest.synchronizedNext          true  avgt    3   71.366 ± 18.340  ns/op
@@ -0,0 +1,93 @@
+package top.csaf.jmh.comparison.id;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import top.csaf.id.LockFreeSnowFlake;
+import top.csaf.id.SnowFlake;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * SnowFlake 多线程竞争测试：synchronized、CAS 无锁、CAS 无锁 + 借用未来 10 毫秒
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.Throughput)
+public class SnowFlakeContentionTest {
+
+  @Test
+  public void benchmark() throws Exception {
+    for (String threads : new String[]{"1", "4", "16", "64"}) {
+      org.openjdk.jmh.Main.main(new String[]{SnowFlakeContentionTest.class.getName(), "-t", threads});
+    }
+  }
+
+  private static final long START = 1767225600000L;
+
+  private final SnowFlake synchronizedSnowFlake = new SnowFlake(1, 1, START);
+  private final SnowFlake lockFreeSnowFlake = new LockFreeSnowFlake(1, 1, START, 0);
+  private final SnowFlake borrowSnowFlake = new LockFreeSnowFlake(1, 1, START, 10);
+
+  public static void main(String[] args) {
+    SnowFlakeContentionTest test = new SnowFlakeContentionTest();
+    for (SnowFlake snowFlake : new SnowFlake[]{test.synchronizedSnowFlake, test.lockFreeSnowFlake, test.borrowSnowFlake}) {
+      Set<Long> ids = new HashSet<>();
+      long last = 0;
+      for (int i = 0; i < 100_000; i++) {
+        long id = snowFlake.next();
+        assertTrue(id > last);
+        ids.add(id);
+        last = id;
+      }
+      assertEquals(100_000, ids.size());
+    }
+  }
+
+  @Benchmark
+  public long synchronizedNext() {
+    return synchronizedSnowFlake.next();
+  }
+
+  @Benchmark
+  public long lockFree() {
+    return lockFreeSnowFlake.next();
+  }
+
+  @Benchmark
+  public long borrow() {
+    return borrowSnowFlake.next();
+  }
+}
+
+// 1 核环境（nproc = 1），线程之间没有真正的并行竞争，无法体现 CAS 相对 synchronized 的优势，需在多核机器上复测
+// 三种实现都达到了序列号上限 4096 个/毫秒（约 4.1 ops/us），瓶颈是时钟而不是锁；借用未来时间只在突发时减少等待，不提高持续吞吐量
+// 64 线程测试发现并修复了先读时钟后读状态时，线程被挂起导致误报时钟回拨的问题
+// threads  Benchmark                                  Mode  Cnt  Score   Error   Units
+//       1  SnowFlakeContentionTest.borrow            thrpt    3  4.110 ± 0.112  ops/us
+//       1  SnowFlakeContentionTest.lockFree          thrpt    3  4.088 ± 0.093  ops/us
+//       1  SnowFlakeContentionTest.synchronizedNext  thrpt    3  4.046 ± 0.560  ops/us
+//       4  SnowFlakeContentionTest.borrow            thrpt    3  4.079 ± 0.538  ops/us
+//       4  SnowFlakeContentionTest.lockFree          thrpt    3  4.045 ± 0.581  ops/us
+//       4  SnowFlakeContentionTest.synchronizedNext  thrpt    3  4.014 ± 0.857  ops/us
+//      16  SnowFlakeContentionTest.borrow            thrpt    3  4.090 ± 0.253  ops/us
+//      16  SnowFlakeContentionTest.lockFree          thrpt    3  4.076 ± 0.127  ops/us
+//      16  SnowFlakeContentionTest.synchronizedNext  thrpt    3  4.079 ± 0.647  ops/us
+//      64  SnowFlakeContentionTest.borrow            thrpt    3  4.130 ± 1.061  ops/us
+//      64  SnowFlakeContentionTest.lockFree          thrpt    3  3.954 ± 0.680  ops/us
+//      64  SnowFlakeContentionTest.synchronizedNext  thrpt    3  4.061 ± 0.671  ops/us
+// 16 线程，-bm sample -tu us
+// SnowFlakeContentionTest.borrow:p0.99              sample  0.197  us/op
+// SnowFlakeContentionTest.borrow:p0.999             sample  0.650  us/op
+// SnowFlakeContentionTest.lockFree:p0.99            sample  0.122  us/op
+// SnowFlakeContentionTest.lockFree:p0.999           sample  0.865  us/op
+// SnowFlakeContentionTest.synchronizedNext:p0.99    sample  0.139  us/op
+// SnowFlakeContentionTest.synchronizedNext:p0.999   sample  1.007  us/op
@@ -0,0 +1,103 @@
+package top.csaf.junit.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.csaf.id.LeasingSnowFlake;
+import top.csaf.id.LockFreeSnowFlake;
+import top.csaf.id.SnowFlake;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("按线程租用序列号段的 SnowFlake 雪花算法测试")
+class LeasingSnowFlakeTest {
+
+  private static final long START = System.currentTimeMillis() - 86400000L;
+
+  @DisplayName("构造函数参数验证")
+  @Test
+  void constructor() {
+    assertDoesNotThrow(() -> new LeasingSnowFlake(1, 1, 1));
+    assertDoesNotThrow(() -> new LeasingSnowFlake(1, 1, START, 10, 4096));
+    assertThrows(IllegalArgumentException.class, () -> new LeasingSnowFlake(1, 1, 0));
+    assertThrows(IllegalArgumentException.class, () -> new LeasingSnowFlake(1, 1, 4097));
+    assertThrows(IllegalArgumentException.class, () -> new LeasingSnowFlake(32, 1, 100));
+    assertThrows(IllegalArgumentException.class, () -> new LeasingSnowFlake(1, 1, START, -1, 100));
+  }
+
+  @DisplayName("单线程：同一段内 ID 连续，整体严格递增")
+  @Test
+  void monotonicity() {
+    SnowFlake snowFlake = new LeasingSnowFlake(3, 7, START, 0, 256);
+    long last = snowFlake.next();
+    assertEquals(3, (last >>> 17) & 31);
+    assertEquals(7, (last >>> 12) & 31);
+    for (int i = 0; i < 100_000; i++) {
+      long id = snowFlake.next();
+      assertTrue(id > last, "新 ID 应该大于旧 ID");
+      last = id;
+    }
+  }
+
+  @DisplayName("多线程全局唯一，每个线程内严格递增，与 next()、nextBatch() 混用也不重复")
+  @Test
+  void concurrency() throws Exception {
+    for (long maxBorrowMillis : new long[]{0, 10}) {
+      LeasingSnowFlake snowFlake = new LeasingSnowFlake(1, 1, START, maxBorrowMillis, 100);
+      int threads = 32;
+      int count = 20_000;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          boolean batch = t % 4 == 0;
+          futures.add(executor.submit(() -> {
+            start.await();
+            if (batch) {
+              return snowFlake.nextBatch(count);
+            }
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+              ids[i] = snowFlake.next();
+            }
+            return ids;
+          }));
+        }
+        start.countDown();
+        Set<Long> all = new HashSet<>(threads * count * 2);
+        for (Future<long[]> future : futures) {
+          long[] ids = future.get();
+          for (int i = 0; i < ids.length; i++) {
+            assertTrue(i == 0 || ids[i] > ids[i - 1]);
+            all.add(ids[i]);
+          }
+        }
+        assertEquals(threads * count, all.size(), "生成的 ID 应该唯一");
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  @DisplayName("与其他机器 ID 的实例混用时 ID 不重复")
+  @Test
+  void differentMachines() {
+    SnowFlake leasing = new LeasingSnowFlake(1, 1, START, 0, 4096);
+    SnowFlake lockFree = new LockFreeSnowFlake(1, 2, START, 0);
+    Set<Long> all = new HashSet<>();
+    for (int i = 0; i < 10_000; i++) {
+      all.add(leasing.next());
+      all.add(lockFree.next());
+    }
+    assertEquals(20_000, all.size());
+  }
+}
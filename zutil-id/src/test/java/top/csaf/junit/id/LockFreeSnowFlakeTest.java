@@ -0,0 +1,234 @@
+package top.csaf.junit.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.csaf.id.LockFreeSnowFlake;
+import top.csaf.id.SnowFlake;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("无锁 SnowFlake 雪花算法测试")
+class LockFreeSnowFlakeTest {
+
+  private static final long START = System.currentTimeMillis() - 86400000L;
+
+  @DisplayName("构造函数参数验证")
+  @Test
+  void constructor() {
+    assertDoesNotThrow(() -> new LockFreeSnowFlake(31, 31));
+    assertDoesNotThrow(() -> new LockFreeSnowFlake(0, 0, START, 10));
+    assertThrows(IllegalArgumentException.class, () -> new LockFreeSnowFlake(32, 0));
+    assertThrows(IllegalArgumentException.class, () -> new LockFreeSnowFlake(0, -1));
+    assertThrows(IllegalArgumentException.class, () -> new LockFreeSnowFlake(0, 0, System.currentTimeMillis() + 1000000, 0));
+    assertThrows(IllegalArgumentException.class, () -> new LockFreeSnowFlake(0, 0, START, -1));
+  }
+
+  @DisplayName("与 SnowFlake 相同的位结构")
+  @Test
+  void layout() {
+    SnowFlake snowFlake = new LockFreeSnowFlake(3, 7, START, 0);
+    long id = snowFlake.next();
+    assertEquals(3, (id >>> 17) & 31);
+    assertEquals(7, (id >>> 12) & 31);
+    assertTrue(Math.abs(System.currentTimeMillis() - (START + (id >>> 22))) < 1000);
+  }
+
+  @DisplayName("单线程唯一且严格递增")
+  @Test
+  void monotonicity() {
+    for (long maxBorrowMillis : new long[]{0, 10}) {
+      SnowFlake snowFlake = new LockFreeSnowFlake(1, 1, START, maxBorrowMillis);
+      long last = -1;
+      for (int i = 0; i < 200_000; i++) {
+        long id = snowFlake.next();
+        assertTrue(id > last, "新 ID 应该大于旧 ID");
+        last = id;
+      }
+    }
+  }
+
+  @DisplayName("多线程全局唯一，每个线程内严格递增")
+  @Test
+  void concurrency() throws Exception {
+    for (long maxBorrowMillis : new long[]{0, 10}) {
+      LockFreeSnowFlake snowFlake = new LockFreeSnowFlake(1, 1, START, maxBorrowMillis);
+      int threads = 32;
+      int count = 20_000;
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          futures.add(executor.submit(() -> {
+            start.await();
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+              ids[i] = snowFlake.next();
+            }
+            return ids;
+          }));
+        }
+        start.countDown();
+        Set<Long> all = new HashSet<>(threads * count * 2);
+        for (Future<long[]> future : futures) {
+          long[] ids = future.get();
+          for (int i = 0; i < ids.length; i++) {
+            assertTrue(i == 0 || ids[i] > ids[i - 1]);
+            all.add(ids[i]);
+          }
+        }
+        assertEquals(threads * count, all.size(), "生成的 ID 应该唯一");
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  @DisplayName("批量生成：唯一、递增，并与 next() 衔接")
+  @Test
+  void nextBatch() {
+    for (long maxBorrowMillis : new long[]{0, 10}) {
+      SnowFlake snowFlake = new LockFreeSnowFlake(1, 1, START, maxBorrowMillis);
+      assertThrows(IllegalArgumentException.class, () -> snowFlake.nextBatch(0));
+      long last = snowFlake.next();
+      for (int n : new int[]{1, 4095, 4096, 10_000}) {
+        for (long id : snowFlake.nextBatch(n)) {
+          assertTrue(id > last, "新 ID 应该大于旧 ID");
+          last = id;
+        }
+        long id = snowFlake.next();
+        assertTrue(id > last);
+        last = id;
+      }
+    }
+  }
+
+  @DisplayName("批量生成：每毫秒一次 CAS，借用时时钟静止也能连续分配")
+  @Test
+  void nextBatchBorrow() {
+    MockSnowFlake snowFlake = new MockSnowFlake(2);
+    long now = snowFlake.micros.get() / 1000 - START;
+    long[] ids = snowFlake.nextBatch(3 * 4096);
+    for (int i = 0; i < ids.length; i++) {
+      assertEquals(now + i / 4096, ids[i] >>> 22);
+      assertEquals(i % 4096, ids[i] & 4095);
+    }
+  }
+
+  @DisplayName("多线程批量生成全局唯一")
+  @Test
+  void nextBatchConcurrency() throws Exception {
+    LockFreeSnowFlake snowFlake = new LockFreeSnowFlake(1, 1, START, 0);
+    int threads = 16;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<long[]>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          long[] ids = new long[20 * 1000];
+          for (int i = 0; i < 20; i++) {
+            System.arraycopy(snowFlake.nextBatch(1000), 0, ids, i * 1000, 1000);
+          }
+          return ids;
+        }));
+      }
+      Set<Long> all = new HashSet<>();
+      for (Future<long[]> future : futures) {
+        long[] ids = future.get();
+        for (int i = 0; i < ids.length; i++) {
+          assertTrue(i == 0 || ids[i] > ids[i - 1]);
+          all.add(ids[i]);
+        }
+      }
+      assertEquals(threads * 20 * 1000, all.size(), "生成的 ID 应该唯一");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * 可控制时间的 LockFreeSnowFlake，tick 为 true 时每次读取时间后前进 step 微秒
+   */
+  static class MockSnowFlake extends LockFreeSnowFlake {
+    AtomicLong micros;
+    boolean tick;
+    long step = 1;
+
+    MockSnowFlake(long maxBorrowMillis) {
+      super(1, 1, START, maxBorrowMillis);
+      micros = new AtomicLong(System.currentTimeMillis() * 1000);
+    }
+
+    @Override
+    protected long timeGen() {
+      if (micros == null) {
+        return System.currentTimeMillis();
+      }
+      return (tick ? micros.getAndAdd(step) : micros.get()) / 1000;
+    }
+  }
+
+  @DisplayName("借用未来时间：时钟静止时最多领先 maxBorrowMillis 毫秒")
+  @Test
+  void borrow() {
+    MockSnowFlake snowFlake = new MockSnowFlake(2);
+    long now = snowFlake.micros.get() / 1000 - START;
+    // 3 毫秒（当前 + 借用 2 毫秒）的序列号都可以直接使用
+    for (int i = 0; i < 3 * 4096; i++) {
+      long id = snowFlake.next();
+      assertEquals(now + i / 4096, id >>> 22);
+      assertEquals(i % 4096, id & 4095);
+    }
+    // 再借用需要等待时钟
+    snowFlake.tick = true;
+    long id = snowFlake.next();
+    assertEquals(now + 3, id >>> 22);
+    assertTrue(snowFlake.micros.get() / 1000 - START >= now + 1);
+  }
+
+  @DisplayName("不借用时序列号用完等待下一毫秒，ID 时间戳不超过时钟")
+  @Test
+  void exhausted() {
+    MockSnowFlake snowFlake = new MockSnowFlake(0);
+    snowFlake.tick = true;
+    for (int i = 0; i < 50_000; i++) {
+      long id = snowFlake.next();
+      assertTrue(START + (id >>> 22) <= snowFlake.micros.get() / 1000);
+    }
+  }
+
+  @DisplayName("时钟回拨")
+  @Test
+  void clockBackwards() {
+    MockSnowFlake snowFlake = new MockSnowFlake(0);
+    snowFlake.step = 100;
+    long first = snowFlake.next();
+    // 小幅回拨：等待时钟追上后继续
+    snowFlake.micros.addAndGet(-3000);
+    snowFlake.tick = true;
+    assertTrue(snowFlake.next() > first);
+    // 大幅回拨：抛出异常
+    snowFlake.tick = false;
+    snowFlake.micros.addAndGet(-1_000_000);
+    RuntimeException e = assertThrows(RuntimeException.class, snowFlake::next);
+    assertTrue(e.getMessage().contains("Clock moved backwards"));
+
+    // 借用模式下回拨不超过 maxBorrowMillis + 5 毫秒时不等待
+    MockSnowFlake borrow = new MockSnowFlake(10);
+    long id = borrow.next();
+    borrow.micros.addAndGet(-8000);
+    assertTrue(borrow.next() > id);
+    borrow.micros.addAndGet(-10_000);
+    assertThrows(RuntimeException.class, borrow::next);
+  }
+}
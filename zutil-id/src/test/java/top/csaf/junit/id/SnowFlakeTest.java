@@ -68,6 +68,26 @@ class SnowFlakeTest {
     }
   }
 
+  @DisplayName("批量生成：唯一、递增，并与 next() 衔接")
+  @Test
+  void testNextBatch() {
+    SnowFlake snowFlake = new SnowFlake(1, 1);
+    assertThrows(IllegalArgumentException.class, () -> snowFlake.nextBatch(0));
+    long lastId = snowFlake.next();
+    for (int n : new int[]{1, 4095, 4096, 10_000}) {
+      long[] ids = snowFlake.nextBatch(n);
+      assertEquals(n, ids.length);
+      for (long id : ids) {
+        assertTrue(id > lastId, "新 ID 应该大于旧 ID");
+        assertEquals(1, (id >>> 12) & 31);
+        lastId = id;
+      }
+      long id = snowFlake.next();
+      assertTrue(id > lastId, "批量生成后 next() 应该继续递增");
+      lastId = id;
+    }
+  }
+
   @DisplayName("自定义起始时间逻辑验证")
   @Test
   void testCustomEpoch() {
@@ -0,0 +1,92 @@
+package top.csaf.json;
+
+import top.csaf.charset.StandardCharsets;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * JSON 后端 SPI
+ * <p>
+ * 通过 {@link java.util.ServiceLoader} 加载，实现类需在 META-INF/services/top.csaf.json.JsonBackend 中声明，由 {@link JsonBackends} 统一管理。<br>
+ * 内置 Fastjson2、Fastjson、Jackson、Gson 四种实现，类路径中缺少对应 JSON 库时自动跳过。<br>
+ * 实现类必须是线程安全的，且构造时不应直接引用 JSON 库的类，以便在库缺失时能正常实例化并通过 {@link #isAvailable()} 返回 false。
+ */
+public interface JsonBackend {
+
+  /**
+   * 后端名称，全局唯一，如 fastjson2、jackson
+   *
+   * @return 后端名称
+   */
+  String name();
+
+  /**
+   * 优先级，值越小越优先，未指定默认后端时使用优先级最高的可用后端
+   *
+   * @return 优先级
+   */
+  int order();
+
+  /**
+   * 是否可用，通常用于判断类路径中是否存在对应的 JSON 库
+   *
+   * @return 是否可用
+   */
+  boolean isAvailable();
+
+  /**
+   * 对象转 JSON 字符串，使用 JSON 库的默认序列化行为
+   *
+   * @param object 对象
+   * @param pretty 是否格式化输出
+   * @return JSON 字符串
+   */
+  String toJson(Object object, boolean pretty);
+
+  /**
+   * 对象转 UTF-8 JSON 字节数组
+   *
+   * @param object 对象
+   * @return UTF-8 JSON 字节数组
+   */
+  default byte[] toJsonBytes(Object object) {
+    return toJson(object, false).getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * JSON 字符串转对象
+   *
+   * @param json JSON 字符串
+   * @param type 对象类型，支持泛型
+   * @param <T>  对象类型
+   * @return 对象
+   */
+  <T> T parseObject(String json, Type type);
+
+  /**
+   * UTF-8 JSON 字节数组的指定区间转对象
+   *
+   * @param bytes  UTF-8 JSON 字节数组
+   * @param offset 起始下标
+   * @param length 长度
+   * @param type   对象类型，支持泛型
+   * @param <T>    对象类型
+   * @return 对象
+   */
+  default <T> T parseObject(byte[] bytes, int offset, int length, Type type) {
+    return parseObject(new String(bytes, offset, length, StandardCharsets.UTF_8), type);
+  }
+
+  /**
+   * JSON 字符串转集合
+   *
+   * @param json  JSON 字符串
+   * @param clazz 集合元素类型
+   * @param <T>   集合元素类型
+   * @return 集合
+   */
+  default <T> List<T> parseArray(String json, Class<T> clazz) {
+    return parseObject(json, new ListType(clazz));
+  }
+}
@@ -0,0 +1,218 @@
+package top.csaf.json;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import top.csaf.lang.StrUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * JSON 后端注册表
+ * <p>
+ * 首次使用时通过 {@link ServiceLoader} 加载所有 {@link JsonBackend}，按 {@link JsonBackend#order()} 排序并过滤不可用的后端。<br>
+ * 默认后端的选择顺序：{@link #setDefault(String)} 设置的后端 &gt; 系统属性 {@value #PROPERTY_NAME} 指定的后端 &gt; 优先级最高的可用后端。<br>
+ * 单个调用点可通过 {@link #get(String)} 显式选择后端，如 {@code JsonBackends.get("jackson").toJson(obj, false)}。
+ */
+@Slf4j
+public class JsonBackends {
+
+  /**
+   * 指定默认后端名称的系统属性
+   */
+  public static final String PROPERTY_NAME = "zutil.json.backend";
+
+  /**
+   * 可用的后端，按优先级排序，写时复制
+   */
+  private static volatile List<JsonBackend> backends;
+  /**
+   * 显式设置的默认后端
+   */
+  private static volatile JsonBackend configured;
+  /**
+   * 默认后端缓存
+   */
+  private static volatile JsonBackend defaultBackend;
+
+  static {
+    List<JsonBackend> list = new ArrayList<>();
+    Iterator<JsonBackend> iterator = ServiceLoader.load(JsonBackend.class, JsonBackends.class.getClassLoader()).iterator();
+    while (true) {
+      try {
+        if (!iterator.hasNext()) {
+          break;
+        }
+        JsonBackend backend = iterator.next();
+        if (backend.isAvailable()) {
+          list.add(backend);
+        }
+      } catch (ServiceConfigurationError | LinkageError e) {
+        // 实现类或其依赖缺失，跳过
+        log.debug("Skip unavailable JSON backend", e);
+      }
+    }
+    list.sort(Comparator.comparingInt(JsonBackend::order));
+    backends = Collections.unmodifiableList(list);
+    log.debug("Available JSON backends: {}", names(list));
+  }
+
+  /**
+   * 获取所有可用的后端
+   *
+   * @return 按优先级排序的不可变列表
+   */
+  public static List<JsonBackend> list() {
+    return backends;
+  }
+
+  /**
+   * 根据名称查找可用的后端
+   *
+   * @param name 后端名称，忽略大小写
+   * @return 后端，不存在或不可用时返回 null
+   */
+  public static JsonBackend find(final String name) {
+    if (StrUtil.isBlank(name)) {
+      return null;
+    }
+    for (JsonBackend backend : backends) {
+      if (backend.name().equalsIgnoreCase(name)) {
+        return backend;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * 根据名称获取可用的后端
+   *
+   * @param name 后端名称，忽略大小写
+   * @return 后端
+   * @throws IllegalArgumentException 后端不存在或不可用
+   */
+  public static JsonBackend get(@NonNull final String name) {
+    JsonBackend backend = find(name);
+    if (backend == null) {
+      throw new IllegalArgumentException("JSON backend: " + name + " is not available, available backends: " + names(backends));
+    }
+    return backend;
+  }
+
+  /**
+   * 获取默认后端
+   *
+   * @return 默认后端
+   * @throws IllegalStateException 没有任何可用的后端
+   */
+  public static JsonBackend getDefault() {
+    JsonBackend backend = defaultBackend;
+    return backend != null ? backend : resolveDefault();
+  }
+
+  /**
+   * 是否显式指定了默认后端（{@link #setDefault(String)} 或系统属性 {@value #PROPERTY_NAME}）
+   *
+   * @return 是否显式指定
+   */
+  public static boolean isDefaultConfigured() {
+    return configured != null || StrUtil.isNotBlank(System.getProperty(PROPERTY_NAME));
+  }
+
+  /**
+   * 设置全局默认后端
+   *
+   * @param name 后端名称，为空时恢复为自动选择
+   * @throws IllegalArgumentException 后端不存在或不可用
+   */
+  public static void setDefault(final String name) {
+    setDefault(StrUtil.isBlank(name) ? null : get(name));
+  }
+
+  /**
+   * 设置全局默认后端
+   *
+   * @param backend 后端，为 null 时恢复为自动选择
+   */
+  public static synchronized void setDefault(final JsonBackend backend) {
+    configured = backend;
+    defaultBackend = null;
+  }
+
+  /**
+   * 注册后端，同名后端会被替换
+   *
+   * @param backend 后端
+   * @throws IllegalArgumentException 后端不可用
+   */
+  public static synchronized void register(@NonNull final JsonBackend backend) {
+    if (!backend.isAvailable()) {
+      throw new IllegalArgumentException("JSON backend: " + backend.name() + " is not available");
+    }
+    List<JsonBackend> list = new ArrayList<>(backends);
+    list.removeIf(item -> item.name().equalsIgnoreCase(backend.name()));
+    list.add(backend);
+    list.sort(Comparator.comparingInt(JsonBackend::order));
+    backends = Collections.unmodifiableList(list);
+    defaultBackend = null;
+  }
+
+  /**
+   * 注销后端
+   *
+   * @param name 后端名称，忽略大小写
+   * @return 是否存在并已注销
+   */
+  public static synchronized boolean unregister(@NonNull final String name) {
+    List<JsonBackend> list = new ArrayList<>(backends);
+    if (!list.removeIf(item -> item.name().equalsIgnoreCase(name))) {
+      return false;
+    }
+    backends = Collections.unmodifiableList(list);
+    if (configured != null && configured.name().equalsIgnoreCase(name)) {
+      configured = null;
+    }
+    defaultBackend = null;
+    return true;
+  }
+
+  /**
+   * 在锁内重新检查并解析、发布默认后端，避免与 {@link #setDefault(JsonBackend)}、{@link #register(JsonBackend)}、
+   * {@link #unregister(String)} 并发时用旧的解析结果覆盖它们的清空
+   *
+   * @return 默认后端
+   */
+  private static synchronized JsonBackend resolveDefault() {
+    JsonBackend backend = defaultBackend;
+    if (backend != null) {
+      return backend;
+    }
+    if (configured != null) {
+      backend = configured;
+    } else {
+      String name = System.getProperty(PROPERTY_NAME);
+      if (StrUtil.isNotBlank(name)) {
+        backend = get(name.trim());
+      } else if (backends.isEmpty()) {
+        throw new IllegalStateException("No JSON backend available");
+      } else {
+        backend = backends.get(0);
+      }
+    }
+    defaultBackend = backend;
+    return backend;
+  }
+
+  private static List<String> names(final List<JsonBackend> list) {
+    List<String> names = new ArrayList<>(list.size());
+    for (JsonBackend backend : list) {
+      names.add(backend.name());
+    }
+    return names;
+  }
+}
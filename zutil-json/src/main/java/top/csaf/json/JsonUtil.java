@@ -1,14 +1,18 @@
 package top.csaf.json;
 
 import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONException;
 import com.alibaba.fastjson2.JSONReader;
 import com.alibaba.fastjson2.JSONWriter;
 import lombok.NonNull;
 import top.csaf.charset.StandardCharsets;
 import top.csaf.coll.CollUtil;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +21,8 @@ import java.util.Map;
  * JSON 工具类
  * <p>
  * {@link JSONWriter.Feature}、{@link JSONReader.Feature}：<a href="https://alibaba.github.io/fastjson2/features_cn.html">序列化和反序列化行为</a>
+ * <p>
+ * 传入 Feature 的方法始终使用 Fastjson2；不传 Feature 的 {@link #toJsonNoFeature(Object)}、parseObject、parseArray 使用 {@link JsonBackends#getDefault()} 默认后端（未指定时为 Fastjson2）。
  */
 public class JsonUtil {
 
@@ -46,13 +52,101 @@ public class JsonUtil {
   }
 
   /**
-   * 对象转 JSON 字符串，不含序列化特性
+   * 对象转 JSON 字符串，不含序列化特性，使用默认后端
    *
    * @param object 对象
    * @return JSON 字符串
    */
   public static String toJsonNoFeature(@NonNull final Object object) {
-    return JSON.toJSONString(object);
+    return JsonBackends.getDefault().toJson(object, false);
+  }
+
+  /**
+   * 对象转 UTF-8 JSON 字节数组，输出值为 null 的字段
+   *
+   * @param object 对象
+   * @return UTF-8 JSON 字节数组
+   */
+  public static byte[] toJsonBytes(@NonNull final Object object) {
+    return toJsonBytes(object, JSONWriter.Feature.WriteMapNullValue);
+  }
+
+  /**
+   * 对象转 UTF-8 JSON 字节数组，直接使用 Fastjson2 的 UTF-8 写入器，不经过 String 中转
+   *
+   * @param object   对象
+   * @param features 序列化行为，为空时默认输出值为 null 的字段
+   * @return UTF-8 JSON 字节数组
+   */
+  public static byte[] toJsonBytes(@NonNull final Object object, final JSONWriter.Feature... features) {
+    if (CollUtil.sizeIsEmpty(features)) {
+      return toJsonBytes(object);
+    }
+    return JSON.toJSONBytes(object, features);
+  }
+
+  /**
+   * 对象以 UTF-8 JSON 写入输出流，输出值为 null 的字段
+   *
+   * @param object 对象
+   * @param out    输出流，不会被关闭
+   * @return 写入的字节数
+   */
+  public static int writeTo(@NonNull final Object object, @NonNull final OutputStream out) {
+    return writeTo(object, out, JSONWriter.Feature.WriteMapNullValue);
+  }
+
+  /**
+   * 对象以 UTF-8 JSON 写入输出流
+   * <p>
+   * 序列化使用 Fastjson2 线程内缓存的写缓冲区，完成后一次性刷入输出流，不产生中间 String 和 byte[]
+   *
+   * @param object   对象
+   * @param out      输出流，不会被关闭
+   * @param features 序列化行为，为空时默认输出值为 null 的字段
+   * @return 写入的字节数
+   */
+  public static int writeTo(@NonNull final Object object, @NonNull final OutputStream out, final JSONWriter.Feature... features) {
+    if (CollUtil.sizeIsEmpty(features)) {
+      return writeTo(object, out);
+    }
+    return JSON.writeTo(out, object, features);
+  }
+
+  /**
+   * 对象以 UTF-8 JSON 写入 ByteBuffer，输出值为 null 的字段
+   *
+   * @param object 对象
+   * @param target 目标缓冲区，从当前 position 开始写入
+   * @return 写入的字节数
+   */
+  public static int writeTo(@NonNull final Object object, @NonNull final ByteBuffer target) {
+    return writeTo(object, target, JSONWriter.Feature.WriteMapNullValue);
+  }
+
+  /**
+   * 对象以 UTF-8 JSON 写入 ByteBuffer
+   * <p>
+   * 适用于调用方自行池化输出缓冲区（如 Netty、Kafka 的 ByteBuffer）的场景：序列化使用 Fastjson2 线程内缓存的写缓冲区，仅向目标缓冲区拷贝一次，不分配结果数组
+   *
+   * @param object   对象
+   * @param target   目标缓冲区，从当前 position 开始写入，写入后 position 后移
+   * @param features 序列化行为，为空时默认输出值为 null 的字段
+   * @return 写入的字节数
+   * @throws java.nio.BufferOverflowException 目标缓冲区剩余空间不足
+   */
+  public static int writeTo(@NonNull final Object object, @NonNull final ByteBuffer target, final JSONWriter.Feature... features) {
+    if (CollUtil.sizeIsEmpty(features)) {
+      return writeTo(object, target);
+    }
+    try (JSONWriter writer = JSONWriter.ofUTF8(features)) {
+      writer.setRootObject(object);
+      writer.writeAny(object);
+      return writer.flushTo(new ByteBufferOutputStream(target));
+    } catch (IOException e) {
+      // ByteBufferOutputStream 不会抛出 IOException
+      throw new JSONException("write JSON to ByteBuffer failed", e);
+    }
   }
 
   /**
@@ -60,7 +154,7 @@ public class JsonUtil {
    *
    * @param json     JSON 字符串
    * @param clazz    对象类型
-   * @param features 反序列化行为
+   * @param features 反序列化行为，为空时使用默认后端
    * @param <T>      对象类型
    * @return 对象
    */
@@ -68,7 +162,61 @@ public class JsonUtil {
     if (CollUtil.sizeIsNotEmpty(features)) {
       return JSON.parseObject(json, clazz, features);
     }
-    return JSON.parseObject(json, clazz);
+    return JsonBackends.getDefault().parseObject(json, clazz);
+  }
+
+  /**
+   * UTF-8 JSON 字节数组转对象
+   *
+   * @param bytes    UTF-8 JSON 字节数组
+   * @param clazz    对象类型
+   * @param features 反序列化行为
+   * @param <T>      对象类型
+   * @return 对象
+   */
+  public static <T> T parseObject(@NonNull final byte[] bytes, @NonNull final Class<T> clazz, final JSONReader.Feature... features) {
+    return parseObject(bytes, 0, bytes.length, clazz, features);
+  }
+
+  /**
+   * UTF-8 JSON 字节数组的指定区间转对象，直接使用 Fastjson2 的 UTF-8 读取器，不经过 String 中转
+   *
+   * @param bytes    UTF-8 JSON 字节数组
+   * @param offset   起始下标
+   * @param length   长度
+   * @param clazz    对象类型
+   * @param features 反序列化行为，为空时使用默认后端
+   * @param <T>      对象类型
+   * @return 对象
+   */
+  public static <T> T parseObject(@NonNull final byte[] bytes, final int offset, final int length, @NonNull final Class<T> clazz, final JSONReader.Feature... features) {
+    if (offset < 0 || length < 0 || offset > bytes.length - length) {
+      throw new IndexOutOfBoundsException("Offset: " + offset + ", length: " + length + ", bytes length: " + bytes.length);
+    }
+    if (CollUtil.sizeIsNotEmpty(features)) {
+      return JSON.parseObject(bytes, offset, length, StandardCharsets.UTF_8, clazz, features);
+    }
+    return JsonBackends.getDefault().parseObject(bytes, offset, length, clazz);
+  }
+
+  /**
+   * UTF-8 JSON ByteBuffer 转对象
+   * <p>
+   * 读取 position 到 limit 之间的内容，不改变缓冲区的 position；堆缓冲区直接读取底层数组，直接缓冲区仅拷贝一次
+   *
+   * @param buffer   UTF-8 JSON 缓冲区
+   * @param clazz    对象类型
+   * @param features 反序列化行为
+   * @param <T>      对象类型
+   * @return 对象
+   */
+  public static <T> T parseObject(@NonNull final ByteBuffer buffer, @NonNull final Class<T> clazz, final JSONReader.Feature... features) {
+    if (buffer.hasArray()) {
+      return parseObject(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), clazz, features);
+    }
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return parseObject(bytes, 0, bytes.length, clazz, features);
   }
 
   /**
@@ -76,7 +224,7 @@ public class JsonUtil {
    *
    * @param json     JSON 字符串
    * @param clazz    集合元素类型
-   * @param features 反序列化行为
+   * @param features 反序列化行为，为空时使用默认后端
    * @param <T>      集合元素类型
    * @return 集合
    */
@@ -84,7 +232,7 @@ public class JsonUtil {
     if (CollUtil.sizeIsNotEmpty(features)) {
       return JSON.parseArray(json, clazz, features);
     }
-    return JSON.parseArray(json, clazz);
+    return JsonBackends.getDefault().parseArray(json, clazz);
   }
 
   /**
@@ -165,4 +313,25 @@ public class JsonUtil {
   public static Object parse(String json) {
     return JSON.parse(json, JSONReader.Feature.AllowUnQuotedFieldNames);
   }
+
+  /**
+   * 写入 ByteBuffer 的输出流适配器，用于 {@link JSONWriter#flushTo(OutputStream)}
+   */
+  private static class ByteBufferOutputStream extends OutputStream {
+    private final ByteBuffer target;
+
+    ByteBufferOutputStream(ByteBuffer target) {
+      this.target = target;
+    }
+
+    @Override
+    public void write(int b) {
+      target.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+      target.put(b, off, len);
+    }
+  }
 }
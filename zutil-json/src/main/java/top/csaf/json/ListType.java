@@ -0,0 +1,53 @@
+package top.csaf.json;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * List&lt;T&gt; 的 ParameterizedType 实现，用于 {@link JsonBackend#parseArray(String, Class)}
+ */
+class ListType implements ParameterizedType {
+
+  private final Type[] args;
+
+  ListType(Type elementType) {
+    this.args = new Type[]{elementType};
+  }
+
+  @Override
+  public Type[] getActualTypeArguments() {
+    return args.clone();
+  }
+
+  @Override
+  public Type getRawType() {
+    return List.class;
+  }
+
+  @Override
+  public Type getOwnerType() {
+    return null;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof ParameterizedType)) {
+      return false;
+    }
+    ParameterizedType that = (ParameterizedType) o;
+    return List.class.equals(that.getRawType()) && that.getOwnerType() == null && Arrays.equals(args, that.getActualTypeArguments());
+  }
+
+  @Override
+  public int hashCode() {
+    // 与 JDK ParameterizedTypeImpl 保持一致
+    return Arrays.hashCode(args) ^ List.class.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return List.class.getName() + "<" + args[0].getTypeName() + ">";
+  }
+}
@@ -0,0 +1,57 @@
+package top.csaf.json.backend;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONWriter;
+import top.csaf.charset.StandardCharsets;
+import top.csaf.json.JsonBackend;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Fastjson2 后端
+ */
+public class Fastjson2JsonBackend implements JsonBackend {
+
+  public static final String NAME = "fastjson2";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public int order() {
+    return 100;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return JsonBackendUtil.isPresent("com.alibaba.fastjson2.JSON");
+  }
+
+  @Override
+  public String toJson(final Object object, final boolean pretty) {
+    return pretty ? JSON.toJSONString(object, JSONWriter.Feature.PrettyFormat) : JSON.toJSONString(object);
+  }
+
+  @Override
+  public byte[] toJsonBytes(final Object object) {
+    return JSON.toJSONBytes(object);
+  }
+
+  @Override
+  public <T> T parseObject(final String json, final Type type) {
+    return JSON.parseObject(json, type);
+  }
+
+  @Override
+  public <T> T parseObject(final byte[] bytes, final int offset, final int length, final Type type) {
+    return JSON.parseObject(bytes, offset, length, StandardCharsets.UTF_8, type);
+  }
+
+  @Override
+  public <T> List<T> parseArray(final String json, final Class<T> clazz) {
+    return JSON.parseArray(json, clazz);
+  }
+}
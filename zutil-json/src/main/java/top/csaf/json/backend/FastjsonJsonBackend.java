@@ -0,0 +1,64 @@
+package top.csaf.json.backend;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import top.csaf.json.JsonBackend;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Fastjson (v1) 后端
+ * <p>
+ * 对 Fastjson 的调用集中在 {@link Delegate} 中，类路径中缺少 Fastjson 时本类仍可正常加载。
+ */
+public class FastjsonJsonBackend implements JsonBackend {
+
+  public static final String NAME = "fastjson";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public int order() {
+    return 200;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return JsonBackendUtil.isPresent("com.alibaba.fastjson.JSON");
+  }
+
+  @Override
+  public String toJson(final Object object, final boolean pretty) {
+    return Delegate.toJson(object, pretty);
+  }
+
+  @Override
+  public <T> T parseObject(final String json, final Type type) {
+    return Delegate.parseObject(json, type);
+  }
+
+  @Override
+  public <T> List<T> parseArray(final String json, final Class<T> clazz) {
+    return Delegate.parseArray(json, clazz);
+  }
+
+  private static final class Delegate {
+
+    static String toJson(final Object object, final boolean pretty) {
+      return pretty ? JSON.toJSONString(object, SerializerFeature.PrettyFormat)
+        : JSON.toJSONString(object);
+    }
+
+    static <T> T parseObject(final String json, final Type type) {
+      return JSON.parseObject(json, type);
+    }
+
+    static <T> List<T> parseArray(final String json, final Class<T> clazz) {
+      return JSON.parseArray(json, clazz);
+    }
+  }
+}
@@ -0,0 +1,67 @@
+package top.csaf.json.backend;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import top.csaf.json.JsonBackend;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Gson 后端
+ * <p>
+ * 共享同一个 Gson 实例，对 Gson 的调用集中在 {@link Delegate} 中，类路径中缺少 Gson 时本类仍可正常加载。
+ */
+public class GsonJsonBackend implements JsonBackend {
+
+  public static final String NAME = "gson";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public int order() {
+    return 400;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return JsonBackendUtil.isPresent("com.google.gson.Gson");
+  }
+
+  @Override
+  public String toJson(final Object object, final boolean pretty) {
+    return Delegate.toJson(object, pretty);
+  }
+
+  @Override
+  public <T> T parseObject(final String json, final Type type) {
+    return Delegate.parseObject(json, type);
+  }
+
+  @Override
+  public <T> List<T> parseArray(final String json, final Class<T> clazz) {
+    return Delegate.parseArray(json, clazz);
+  }
+
+  private static final class Delegate {
+
+    private static final Gson GSON = new Gson();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
+    static String toJson(final Object object, final boolean pretty) {
+      return pretty ? PRETTY_GSON.toJson(object) : GSON.toJson(object);
+    }
+
+    static <T> T parseObject(final String json, final Type type) {
+      return GSON.fromJson(json, type);
+    }
+
+    static <T> List<T> parseArray(final String json, final Class<T> clazz) {
+      return GSON.fromJson(json, TypeToken.getParameterized(List.class, clazz).getType());
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package top.csaf.json.backend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import top.csaf.json.JsonBackend;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Jackson 后端
+ * <p>
+ * 共享同一个 ObjectMapper，对 Jackson 的调用集中在 {@link Delegate} 中，类路径中缺少 Jackson 时本类仍可正常加载。<br>
+ * 解析、序列化失败时抛出 {@link UncheckedIOException}。
+ */
+public class JacksonJsonBackend implements JsonBackend {
+
+  public static final String NAME = "jackson";
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public int order() {
+    return 300;
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return JsonBackendUtil.isPresent("com.fasterxml.jackson.databind.ObjectMapper");
+  }
+
+  @Override
+  public String toJson(final Object object, final boolean pretty) {
+    try {
+      return Delegate.toJson(object, pretty);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public byte[] toJsonBytes(final Object object) {
+    try {
+      return Delegate.toJsonBytes(object);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public <T> T parseObject(final String json, final Type type) {
+    try {
+      return Delegate.parseObject(json, type);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public <T> T parseObject(final byte[] bytes, final int offset, final int length, final Type type) {
+    try {
+      return Delegate.parseObject(bytes, offset, length, type);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public <T> List<T> parseArray(final String json, final Class<T> clazz) {
+    try {
+      return Delegate.parseArray(json, clazz);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class Delegate {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter PRETTY_WRITER = MAPPER.writerWithDefaultPrettyPrinter();
+
+    static String toJson(final Object object, final boolean pretty) throws IOException {
+      return pretty ? PRETTY_WRITER.writeValueAsString(object) : MAPPER.writeValueAsString(object);
+    }
+
+    static byte[] toJsonBytes(final Object object) throws IOException {
+      return MAPPER.writeValueAsBytes(object);
+    }
+
+    static <T> T parseObject(final String json, final Type type) throws IOException {
+      return MAPPER.readValue(json, MAPPER.getTypeFactory().constructType(type));
+    }
+
+    static <T> T parseObject(final byte[] bytes, final int offset, final int length, final Type type) throws IOException {
+      return MAPPER.readValue(bytes, offset, length, MAPPER.getTypeFactory().constructType(type));
+    }
+
+    static <T> List<T> parseArray(final String json, final Class<T> clazz) throws IOException {
+      return MAPPER.readValue(json, MAPPER.getTypeFactory().constructCollectionType(List.class, clazz));
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package top.csaf.json.backend;
+
+/**
+ * 内置 JSON 后端的辅助方法
+ */
+final class JsonBackendUtil {
+
+  private JsonBackendUtil() {
+  }
+
+  /**
+   * 类路径中是否存在指定类，不初始化该类
+   *
+   * @param className 类名
+   * @return 是否存在
+   */
+  static boolean isPresent(final String className) {
+    try {
+      Class.forName(className, false, JsonBackendUtil.class.getClassLoader());
+      return true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package top.csaf.jmh.comparison;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import top.csaf.json.JsonBackend;
+import top.csaf.json.JsonBackends;
+import top.csaf.json.backend.Fastjson2JsonBackend;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 各 JsonBackend 序列化、反序列化的吞吐量和内存分配对比
+ * <p>
+ * 默认使用内置的 {@link TestBean}，可通过系统属性换成业务自己的 DTO：
+ * <ul>
+ *   <li>{@value #DTO_CLASS_PROPERTY}：DTO 全类名，需在测试类路径中</li>
+ *   <li>{@value #DTO_JSON_PROPERTY}：DTO 的 JSON 样本文件路径（UTF-8）</li>
+ * </ul>
+ * 内存分配见结果中的 gc.alloc.rate.norm（B/op）。
+ */
+@State(Scope.Benchmark)
+@Threads(1)
+@Fork(1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.Throughput)
+public class JsonBackendTest {
+
+  public static final String DTO_CLASS_PROPERTY = "zutil.json.bench.class";
+  public static final String DTO_JSON_PROPERTY = "zutil.json.bench.json";
+
+  public static void main(String[] args) throws Exception {
+    // 结果是否相等
+    JsonBackendTest test = new JsonBackendTest();
+    for (JsonBackend backend : JsonBackends.list()) {
+      test.backend = backend.name();
+      test.setup();
+      System.out.println(backend.name() + ": " + test.dto.equals(test.parseObject()) + ", " + test.dto.equals(test.parseBytes()));
+    }
+  }
+
+  @Test
+  public void benchmark() throws Exception {
+    new Runner(new OptionsBuilder()
+      .include(JsonBackendTest.class.getName())
+      .addProfiler(GCProfiler.class)
+      .build()).run();
+  }
+
+  @NoArgsConstructor
+  @Data
+  public static class TestBean {
+    private Long id;
+    private String name;
+    private Integer age;
+    private Boolean enabled;
+    private List<String> tags;
+    private List<TestBean> children;
+  }
+
+  @Param({"fastjson2", "fastjson", "jackson", "gson"})
+  public String backend;
+
+  private JsonBackend jsonBackend;
+  private Class<?> dtoClass;
+  private Object dto;
+  private String json;
+  private byte[] jsonBytes;
+
+  @Setup
+  public void setup() throws IOException, ClassNotFoundException {
+    jsonBackend = JsonBackends.get(backend);
+    String className = System.getProperty(DTO_CLASS_PROPERTY);
+    String jsonPath = System.getProperty(DTO_JSON_PROPERTY);
+    if (className != null && jsonPath != null) {
+      dtoClass = Class.forName(className);
+      // 统一用 Fastjson2 读取样本，保证各后端的输入对象相同
+      dto = new Fastjson2JsonBackend().parseObject(new String(Files.readAllBytes(Paths.get(jsonPath)), java.nio.charset.StandardCharsets.UTF_8), dtoClass);
+    } else {
+      dtoClass = TestBean.class;
+      dto = defaultBean();
+    }
+    json = jsonBackend.toJson(dto, false);
+    jsonBytes = jsonBackend.toJsonBytes(dto);
+  }
+
+  private static TestBean defaultBean() {
+    TestBean bean = new TestBean();
+    bean.setId(1234567890123L);
+    bean.setName("张三");
+    bean.setAge(18);
+    bean.setEnabled(true);
+    List<String> tags = new ArrayList<>();
+    tags.add("a");
+    tags.add("b");
+    bean.setTags(tags);
+    List<TestBean> children = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      TestBean child = new TestBean();
+      child.setId((long) i);
+      child.setName("child" + i);
+      child.setTags(tags);
+      children.add(child);
+    }
+    bean.setChildren(children);
+    return bean;
+  }
+
+  @Benchmark
+  public String toJson() {
+    return jsonBackend.toJson(dto, false);
+  }
+
+  @Benchmark
+  public byte[] toJsonBytes() {
+    return jsonBackend.toJsonBytes(dto);
+  }
+
+  @Benchmark
+  public Object parseObject() {
+    return jsonBackend.parseObject(json, dtoClass);
+  }
+
+  @Benchmark
+  public Object parseBytes() {
+    return jsonBackend.parseObject(jsonBytes, 0, jsonBytes.length, dtoClass);
+  }
+}
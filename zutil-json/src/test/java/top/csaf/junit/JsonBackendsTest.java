@@ -0,0 +1,184 @@
+package top.csaf.junit;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import top.csaf.json.JsonBackend;
+import top.csaf.json.JsonBackends;
+import top.csaf.json.JsonUtil;
+import top.csaf.json.backend.Fastjson2JsonBackend;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JSON 后端 SPI 测试")
+class JsonBackendsTest {
+
+  @NoArgsConstructor
+  @Data
+  public static class TestBean {
+    private String name;
+    private Integer age;
+    private List<String> tags;
+  }
+
+  @AfterEach
+  void tearDown() {
+    JsonBackends.setDefault((JsonBackend) null);
+  }
+
+  @DisplayName("ServiceLoader 加载内置后端并按优先级排序")
+  @Test
+  void list() {
+    List<String> names = new ArrayList<>();
+    for (JsonBackend backend : JsonBackends.list()) {
+      names.add(backend.name());
+    }
+    assertEquals(4, names.size());
+    assertEquals("fastjson2", names.get(0));
+    assertTrue(names.containsAll(java.util.Arrays.asList("fastjson", "jackson", "gson")));
+    assertThrows(UnsupportedOperationException.class, () -> JsonBackends.list().clear());
+
+    assertEquals("jackson", JsonBackends.get("JACKSON").name());
+    assertNull(JsonBackends.find("none"));
+    assertNull(JsonBackends.find(" "));
+    assertThrows(IllegalArgumentException.class, () -> JsonBackends.get("none"));
+    assertThrows(NullPointerException.class, () -> JsonBackends.get(null));
+  }
+
+  @DisplayName("各后端读写结果一致")
+  @Test
+  void roundTrip() {
+    TestBean bean = new TestBean();
+    bean.setName("张三");
+    bean.setAge(18);
+    bean.setTags(java.util.Arrays.asList("a", "b"));
+    for (JsonBackend backend : JsonBackends.list()) {
+      String json = backend.toJson(bean, false);
+      assertEquals(bean, backend.parseObject(json, TestBean.class), backend.name());
+      assertTrue(backend.toJson(bean, true).contains("\n"), backend.name());
+
+      byte[] bytes = backend.toJsonBytes(bean);
+      byte[] padded = new byte[bytes.length + 2];
+      System.arraycopy(bytes, 0, padded, 1, bytes.length);
+      assertEquals(bean, backend.parseObject(padded, 1, bytes.length, TestBean.class), backend.name());
+
+      List<TestBean> list = backend.parseArray("[" + json + "]", TestBean.class);
+      assertEquals(1, list.size(), backend.name());
+      assertEquals(bean, list.get(0), backend.name());
+
+      Map<String, Object> map = backend.parseObject(json, Map.class);
+      assertEquals("张三", map.get("name"), backend.name());
+    }
+  }
+
+  @DisplayName("全局默认后端")
+  @Test
+  void defaultBackend() {
+    assertFalse(JsonBackends.isDefaultConfigured());
+    assertEquals("fastjson2", JsonBackends.getDefault().name());
+
+    JsonBackends.setDefault("gson");
+    assertTrue(JsonBackends.isDefaultConfigured());
+    assertEquals("gson", JsonBackends.getDefault().name());
+    // JsonUtil 无 Feature 的方法使用默认后端：Gson 默认不输出 null 字段
+    TestBean bean = new TestBean();
+    bean.setName("a");
+    assertEquals("{\"name\":\"a\"}", JsonUtil.toJsonNoFeature(bean));
+    assertEquals(bean, JsonUtil.parseObject("{\"name\":\"a\"}", TestBean.class));
+    assertEquals(bean, JsonUtil.parseArray("[{\"name\":\"a\"}]", TestBean.class).get(0));
+    assertEquals(bean, JsonUtil.parseObject("{\"name\":\"a\"}".getBytes(StandardCharsets.UTF_8), TestBean.class));
+
+    JsonBackends.setDefault("");
+    assertFalse(JsonBackends.isDefaultConfigured());
+    assertEquals("fastjson2", JsonBackends.getDefault().name());
+    assertThrows(IllegalArgumentException.class, () -> JsonBackends.setDefault("none"));
+
+    System.setProperty(JsonBackends.PROPERTY_NAME, "jackson");
+    try {
+      JsonBackends.setDefault((JsonBackend) null);
+      assertTrue(JsonBackends.isDefaultConfigured());
+      assertEquals("jackson", JsonBackends.getDefault().name());
+    } finally {
+      System.clearProperty(JsonBackends.PROPERTY_NAME);
+      JsonBackends.setDefault((JsonBackend) null);
+    }
+  }
+
+  @DisplayName("注册自定义后端")
+  @Test
+  void register() {
+    List<JsonBackend> original = JsonBackends.list();
+    JsonBackend custom = new Fastjson2JsonBackend() {
+      @Override
+      public String name() {
+        return "custom";
+      }
+
+      @Override
+      public int order() {
+        return 0;
+      }
+
+      @Override
+      public <T> T parseObject(String json, Type type) {
+        return super.parseObject(json, type);
+      }
+    };
+    try {
+      JsonBackends.register(custom);
+      assertSame(custom, JsonBackends.getDefault());
+      assertSame(custom, JsonBackends.get("custom"));
+      // 默认实现：toJsonBytes、parseObject(byte[])、parseArray
+      JsonBackend minimal = new JsonBackend() {
+        @Override
+        public String name() {
+          return "minimal";
+        }
+
+        @Override
+        public int order() {
+          return 1000;
+        }
+
+        @Override
+        public boolean isAvailable() {
+          return true;
+        }
+
+        @Override
+        public String toJson(Object object, boolean pretty) {
+          return custom.toJson(object, pretty);
+        }
+
+        @Override
+        public <T> T parseObject(String json, Type type) {
+          return custom.parseObject(json, type);
+        }
+      };
+      JsonBackends.register(minimal);
+      assertArrayEquals("[1]".getBytes(StandardCharsets.UTF_8), minimal.toJsonBytes(java.util.Collections.singletonList(1)));
+      assertEquals(Integer.valueOf(1), minimal.parseObject("[1]".getBytes(StandardCharsets.UTF_8), 1, 1, Integer.class));
+      assertEquals("a", minimal.parseArray("[{\"name\":\"a\"}]", TestBean.class).get(0).getName());
+
+      assertThrows(IllegalArgumentException.class, () -> JsonBackends.register(new Fastjson2JsonBackend() {
+        @Override
+        public boolean isAvailable() {
+          return false;
+        }
+      }));
+    } finally {
+      assertTrue(JsonBackends.unregister("custom"));
+      assertTrue(JsonBackends.unregister("minimal"));
+      assertFalse(JsonBackends.unregister("minimal"));
+    }
+    assertEquals(original, JsonBackends.list());
+  }
+}
@@ -10,7 +10,11 @@ import org.junit.jupiter.api.Test;
 import top.csaf.json.JsonUtil;
 import top.csaf.regex.RegExUtil;
 
+import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Constructor;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +64,60 @@ class JsonUtilTest {
     assertThrows(JSONException.class, () -> JsonUtil.parseObject("{invalid json}", TestObject.class));
   }
 
+  @DisplayName("对象与 UTF-8 字节互转")
+  @Test
+  void bytes() {
+    TestObject testObj = new TestObject();
+    testObj.setName("张三");
+    testObj.setAge(18);
+
+    // 与字符串序列化结果一致
+    byte[] bytes = JsonUtil.toJsonBytes(testObj);
+    assertEquals(JsonUtil.toJson(testObj), new String(bytes, StandardCharsets.UTF_8));
+    assertArrayEquals(JsonUtil.toJson(testObj, JSONWriter.Feature.PrettyFormat).getBytes(StandardCharsets.UTF_8), JsonUtil.toJsonBytes(testObj, JSONWriter.Feature.PrettyFormat));
+    assertTrue(new String(JsonUtil.toJsonBytes(new TestObject(), (JSONWriter.Feature[]) null), StandardCharsets.UTF_8).contains("null"));
+
+    // 写入输出流
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    assertEquals(bytes.length, JsonUtil.writeTo(testObj, out));
+    assertArrayEquals(bytes, out.toByteArray());
+    out.reset();
+    assertEquals(2, JsonUtil.writeTo(new TestObject(), out, JSONWriter.Feature.NotWriteDefaultValue));
+    out.reset();
+    assertTrue(JsonUtil.writeTo(new TestObject(), out, (JSONWriter.Feature[]) null) > 2);
+
+    // 写入 ByteBuffer
+    ByteBuffer target = ByteBuffer.allocate(64);
+    target.put((byte) ' ');
+    assertEquals(bytes.length, JsonUtil.writeTo(testObj, target));
+    assertEquals(bytes.length + 1, target.position());
+    assertThrows(BufferOverflowException.class, () -> JsonUtil.writeTo(testObj, ByteBuffer.allocate(4)));
+
+    // 字节区间解析
+    byte[] padded = new byte[bytes.length + 4];
+    System.arraycopy(bytes, 0, padded, 2, bytes.length);
+    assertEquals(testObj, JsonUtil.parseObject(padded, 2, bytes.length, TestObject.class));
+    assertEquals(testObj, JsonUtil.parseObject(bytes, TestObject.class));
+    assertEquals("", JsonUtil.parseObject("{}".getBytes(StandardCharsets.UTF_8), TestObject.class, JSONReader.Feature.InitStringFieldAsEmpty).getName());
+    assertThrows(IndexOutOfBoundsException.class, () -> JsonUtil.parseObject(bytes, -1, 1, TestObject.class));
+    assertThrows(IndexOutOfBoundsException.class, () -> JsonUtil.parseObject(bytes, 0, -1, TestObject.class));
+    assertThrows(IndexOutOfBoundsException.class, () -> JsonUtil.parseObject(bytes, 1, bytes.length, TestObject.class));
+
+    // ByteBuffer 解析，不改变 position
+    ByteBuffer heap = ByteBuffer.wrap(padded, 2, bytes.length).slice();
+    assertEquals(testObj, JsonUtil.parseObject(heap, TestObject.class));
+    assertEquals(0, heap.position());
+    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+    direct.put(bytes).flip();
+    assertEquals(testObj, JsonUtil.parseObject(direct, TestObject.class));
+    assertEquals(0, direct.position());
+
+    assertThrows(NullPointerException.class, () -> JsonUtil.toJsonBytes(null));
+    assertThrows(NullPointerException.class, () -> JsonUtil.writeTo(null, out));
+    assertThrows(NullPointerException.class, () -> JsonUtil.parseObject((byte[]) null, 0, 0, TestObject.class));
+    assertThrows(NullPointerException.class, () -> JsonUtil.parseObject((ByteBuffer) null, TestObject.class));
+  }
+
   @DisplayName("字符串转集合")
   @Test
   void parseArray() {
@@ -183,7 +241,7 @@ class JsonUtilTest {
     assertTrue(JsonUtil.parseArray("[]", TestObject.class, (JSONReader.Feature[]) null).isEmpty());
     assertThrows(NullPointerException.class, () -> JsonUtil.toJson(null));
     assertThrows(NullPointerException.class, () -> JsonUtil.toJsonNoFeature(null));
-    assertThrows(NullPointerException.class, () -> JsonUtil.parseObject(null, TestObject.class));
+    assertThrows(NullPointerException.class, () -> JsonUtil.parseObject((String) null, TestObject.class));
     assertThrows(NullPointerException.class, () -> JsonUtil.parseObject("{}", null));
     assertThrows(NullPointerException.class, () -> JsonUtil.parseArray(null, TestObject.class));
     assertThrows(NullPointerException.class, () -> JsonUtil.parseArray("[]", null));